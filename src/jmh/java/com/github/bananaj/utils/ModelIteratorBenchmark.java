@@ -0,0 +1,95 @@
+package com.github.bananaj.utils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.bananaj.connection.InMemoryTransport;
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.list.member.Member;
+
+/**
+ * Compares paging members with reflective construction and array probing
+ * against an entity factory and a known collection key. Pages are served by
+ * an {@link InMemoryTransport}, so only the library's own overhead is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelIteratorBenchmark {
+
+	private static final String MEMBERS = "https://us1.api.mailchimp.com/3.0/lists/abc0be64d2/members";
+
+	private static final String MEMBER = "{\"id\":\"\",\"email_address\":\"\",\"unique_email_id\":\"1234567890\","
+			+ "\"web_id\":123455501,\"email_type\":\"html\",\"status\":\"subscribed\","
+			+ "\"merge_fields\":{\"FNAME\":\"Sue\",\"LNAME\":\"Smith\",\"PHONE\":\"\"},"
+			+ "\"interests\":{\"1ecfb1d267\":false,\"7be4b38789\":true},\"stats\":{\"avg_open_rate\":0,\"avg_click_rate\":0},"
+			+ "\"ip_signup\":\"\",\"timestamp_signup\":\"2019-01-09T16:19:25+00:00\",\"ip_opt\":\"64.215.182.118\","
+			+ "\"timestamp_opt\":\"2019-01-09T16:19:25+00:00\",\"member_rating\":2,\"last_changed\":\"2019-06-14T17:54:25+00:00\","
+			+ "\"language\":\"\",\"vip\":false,\"email_client\":\"Gmail\",\"location\":{\"latitude\":33.3163,\"longitude\":-111.831,"
+			+ "\"gmtoff\":0,\"dstoff\":0,\"country_code\":\"US\",\"timezone\":\"480\"},\"source\":\"List Import\",\"tags_count\":1,"
+			+ "\"tags\":[{\"id\":67669,\"name\":\"TEST\"}],\"list_id\":\"abc0be64d2\"}";
+
+	@Param({ "100", "1000" })
+	int pageSize;
+
+	private MailChimpConnection connection;
+
+	@Setup
+	public void setUp() {
+		JSONArray members = new JSONArray();
+		for (int i = 0; i < pageSize; i++) {
+			members.put(new JSONObject(MEMBER)
+					.put("id", String.format("%032x", i))
+					.put("email_address", "member" + i + "@example.com"));
+		}
+		// every request answers with the same full page; 10 pages in total
+		String page = new JSONObject()
+				.put("list_id", "abc0be64d2")
+				.put("members", members)
+				.put("total_items", pageSize * 10)
+				.toString();
+		connection = new MailChimpConnection.Builder()
+				.usingApiKey("key-us1")
+				.transport(new InMemoryTransport().route("GET", "/3.0/lists/*/members", 200, page))
+				.build();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		connection.close();
+	}
+
+	@Benchmark
+	public void reflective(Blackhole bh) {
+		for (Member member : new ModelIterator<Member>(Member.class, MEMBERS, connection, pageSize)) {
+			bh.consume(member);
+		}
+	}
+
+	@Benchmark
+	public void factory(Blackhole bh) {
+		for (Member member : new ModelIterator<Member>(Member::new, "members", MEMBERS, connection, pageSize)) {
+			bh.consume(member);
+		}
+	}
+}
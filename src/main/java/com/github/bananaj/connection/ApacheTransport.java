@@ -0,0 +1,441 @@
+package com.github.bananaj.connection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+
+/**
+ * {@link Transport} on Apache HttpClient 4.x. Blocking requests use a pooled,
+ * keep-alive HTTP client; asynchronous requests use a pooled non-blocking
+ * client that is started on first use. All TLS connections share the JVM
+ * default SSL context so TLS sessions are resumed rather than renegotiated
+ * when the pool opens a new connection to the same host.
+ */
+public class ApacheTransport implements Transport {
+
+	private final CloseableHttpClient httpclient;
+	private final Supplier<CloseableHttpAsyncClient> asyncClientFactory;
+	private volatile CloseableHttpAsyncClient asyncclient;
+	private volatile boolean closed;
+
+	/**
+	 * Create a transport with the default pool settings.
+	 */
+	public ApacheTransport() {
+		this(new Builder());
+	}
+
+	/**
+	 * @param httpclient         The HTTP client used for every blocking request.
+	 *                           The transport takes ownership of the client and
+	 *                           closes it in {@link #close()}. Automatic content
+	 *                           decompression must be disabled.
+	 * @param asyncClientFactory Creates the non-blocking HTTP client on first use
+	 *                           of {@link #executeAsync(TransportRequest)}. The
+	 *                           transport closes it in {@link #close()}.
+	 */
+	public ApacheTransport(CloseableHttpClient httpclient, Supplier<CloseableHttpAsyncClient> asyncClientFactory) {
+		this.httpclient = httpclient;
+		this.asyncClientFactory = asyncClientFactory;
+	}
+
+	private ApacheTransport(Builder b) {
+		this(b.createHttpClient(), b.asyncHttpClientFactory());
+	}
+
+	/**
+	 * Create a pooled, keep-alive HTTP client.
+	 *
+	 * @param maxConnectionsPerRoute Maximum pooled connections to a single host
+	 * @param maxConnectionsTotal    Maximum pooled connections across all hosts
+	 * @param keepAliveMillis        Keep-alive used when the server does not
+	 *                               specify one
+	 * @param idleTimeoutMillis      Idle connections older than this are evicted
+	 *                               by a background thread
+	 * @return a new HTTP client
+	 */
+	protected static CloseableHttpClient createPooledClient(int maxConnectionsPerRoute, int maxConnectionsTotal,
+			long keepAliveMillis, long idleTimeoutMillis) {
+		Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", PlainConnectionSocketFactory.getSocketFactory())
+				.register("https", new SSLConnectionSocketFactory(SSLContexts.createSystemDefault(),
+						SSLConnectionSocketFactory.getDefaultHostnameVerifier()))
+				.build();
+
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+		connectionManager.setMaxTotal(Math.max(maxConnectionsTotal, maxConnectionsPerRoute));
+
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setKeepAliveStrategy(new DefaultKeepAliveStrategy(keepAliveMillis))
+				.evictExpiredConnections()
+				.evictIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS)
+				// responses are decoded by the Connection so compressed bytes can be counted
+				.disableContentCompression()
+				.build();
+	}
+
+	/**
+	 * Create a pooled non-blocking HTTP client.
+	 *
+	 * @param maxConnectionsPerRoute Maximum pooled connections to a single host
+	 * @param maxConnectionsTotal    Maximum pooled connections across all hosts
+	 * @param keepAliveMillis        Keep-alive used when the server does not
+	 *                               specify one
+	 * @param ioThreads              Number of I/O dispatch threads, or 0 for one
+	 *                               per available processor
+	 * @return a new, not yet started, non-blocking HTTP client
+	 */
+	protected static CloseableHttpAsyncClient createPooledAsyncClient(int maxConnectionsPerRoute, int maxConnectionsTotal,
+			long keepAliveMillis, int ioThreads) {
+		IOReactorConfig.Builder reactorConfig = IOReactorConfig.custom();
+		if (ioThreads > 0) {
+			reactorConfig.setIoThreadCount(ioThreads);
+		}
+		Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+				.register("http", NoopIOSessionStrategy.INSTANCE)
+				.register("https", new SSLIOSessionStrategy(SSLContexts.createSystemDefault(),
+						SSLIOSessionStrategy.getDefaultHostnameVerifier()))
+				.build();
+
+		PoolingNHttpClientConnectionManager connectionManager;
+		try {
+			connectionManager = new PoolingNHttpClientConnectionManager(
+					new DefaultConnectingIOReactor(reactorConfig.build()), sessionStrategyRegistry);
+		} catch (IOReactorException e) {
+			throw new IllegalStateException("Unable to create I/O reactor", e);
+		}
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+		connectionManager.setMaxTotal(Math.max(maxConnectionsTotal, maxConnectionsPerRoute));
+
+		return HttpAsyncClients.custom()
+				.setConnectionManager(connectionManager)
+				.setKeepAliveStrategy(new DefaultKeepAliveStrategy(keepAliveMillis))
+				.build();
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		final CloseableHttpResponse response = httpclient.execute(toHttpRequest(request, false));
+		try {
+			HttpEntity entity = response.getEntity();
+			InputStream content = entity != null ? entity.getContent() : new ByteArrayInputStream(new byte[0]);
+			// closing the body returns the connection to the pool
+			return new TransportResponse(response.getStatusLine().getStatusCode(),
+					response.getStatusLine().getReasonPhrase(), headers(response), new FilterInputStream(content) {
+						@Override
+						public void close() throws IOException {
+							try {
+								super.close();
+							} finally {
+								response.close();
+							}
+						}
+					});
+		} catch (IOException | RuntimeException e) {
+			response.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		final CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+		final Future<HttpResponse> pending;
+		try {
+			pending = getAsyncClient().execute(toHttpRequest(request, true), new FutureCallback<HttpResponse>() {
+				@Override
+				public void completed(HttpResponse response) {
+					try {
+						// the non-blocking client has already buffered the body
+						HttpEntity entity = response.getEntity();
+						result.complete(new TransportResponse(response.getStatusLine().getStatusCode(),
+								response.getStatusLine().getReasonPhrase(), headers(response),
+								entity != null ? entity.getContent() : null));
+					} catch (IOException | RuntimeException e) {
+						result.completeExceptionally(e);
+					}
+				}
+
+				@Override
+				public void failed(Exception ex) {
+					result.completeExceptionally(ex);
+				}
+
+				@Override
+				public void cancelled() {
+					result.cancel(false);
+				}
+			});
+		} catch (IOException | RuntimeException e) {
+			result.completeExceptionally(e);
+			return result;
+		}
+		// propagate cancellation by the caller to the in-flight request
+		result.whenComplete((r, t) -> {
+			if (result.isCancelled()) {
+				pending.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Release the pooled connections and stop the idle connection evictor.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			closed = true;
+		}
+		try {
+			httpclient.close();
+		} finally {
+			if (asyncclient != null) {
+				asyncclient.close();
+			}
+		}
+	}
+
+	private CloseableHttpAsyncClient getAsyncClient() {
+		CloseableHttpAsyncClient client = asyncclient;
+		if (client == null) {
+			synchronized (this) {
+				if (closed) {
+					throw new IllegalStateException("Transport has been closed");
+				}
+				client = asyncclient;
+				if (client == null) {
+					client = asyncClientFactory.get();
+					client.start();
+					asyncclient = client;
+				}
+			}
+		}
+		return client;
+	}
+
+	/**
+	 * @param async true if the request is sent by the non-blocking client. Its
+	 *              I/O dispatcher must not wait on a body writer, so a body
+	 *              produced by a writer is written to memory first.
+	 */
+	private static HttpUriRequest toHttpRequest(TransportRequest request, boolean async) throws IOException {
+		RequestBuilder builder = RequestBuilder.create(request.getMethod()).setUri(request.getUri());
+		for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			builder.addHeader(header.getKey(), header.getValue());
+		}
+		RequestBody body = request.getBody();
+		if (body != null) {
+			if (async && body.isRepeatable() && !(body instanceof RequestBody.ByteArrayRequestBody)) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream(body.getContentLength() > 0 ? (int) body.getContentLength() : 8192);
+				body.writeTo(out);
+				body = RequestBody.of(out.toByteArray(), body.getContentType());
+			}
+			builder.setEntity(new RequestBodyEntity(body));
+		}
+		return builder.build();
+	}
+
+	private static Map<String, List<String>> headers(HttpResponse response) {
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		for (Header header : response.getAllHeaders()) {
+			headers.computeIfAbsent(header.getName(), k -> new ArrayList<>(1)).add(header.getValue());
+		}
+		return headers;
+	}
+
+	/**
+	 * Adapts a {@link RequestBody} to an HttpClient entity. The blocking client
+	 * streams the body with {@link #writeTo(OutputStream)}; the non-blocking
+	 * client reads it through {@link #getContent()}, which only ever sees bodies
+	 * held in memory or read from a stream.
+	 */
+	private static class RequestBodyEntity extends AbstractHttpEntity {
+		private final RequestBody body;
+
+		RequestBodyEntity(RequestBody body) {
+			this.body = body;
+			setContentType(body.getContentType());
+			setChunked(body.getContentLength() < 0);
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return body.isRepeatable();
+		}
+
+		@Override
+		public long getContentLength() {
+			return body.getContentLength();
+		}
+
+		@Override
+		public InputStream getContent() throws IOException {
+			// the async engine pulls the body from here rather than calling writeTo
+			return body.openStream();
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			body.writeTo(out);
+		}
+
+		@Override
+		public boolean isStreaming() {
+			return !body.isRepeatable();
+		}
+	}
+
+	/**
+	 * Honor the server supplied Keep-Alive timeout, falling back to a fixed
+	 * keep-alive so pooled connections are not held open indefinitely.
+	 */
+	private static class DefaultKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+		private final long keepAliveMillis;
+
+		DefaultKeepAliveStrategy(long keepAliveMillis) {
+			this.keepAliveMillis = keepAliveMillis;
+		}
+
+		@Override
+		public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+			HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+			while (it.hasNext()) {
+				HeaderElement he = it.nextElement();
+				if ("timeout".equalsIgnoreCase(he.getName()) && he.getValue() != null) {
+					try {
+						return Long.parseLong(he.getValue()) * 1000;
+					} catch (NumberFormatException ignored) { }
+				}
+			}
+			return keepAliveMillis;
+		}
+	}
+
+	public static class Builder {
+		private int maxConnectionsPerRoute = Connection.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+		private int maxConnectionsTotal = Connection.DEFAULT_MAX_CONNECTIONS_TOTAL;
+		private long keepAliveMillis = Connection.DEFAULT_KEEP_ALIVE_MILLIS;
+		private long idleTimeoutMillis = Connection.DEFAULT_IDLE_TIMEOUT_MILLIS;
+		private int ioThreads = 0;
+
+		/**
+		 * @param maxConnectionsPerRoute Maximum number of pooled connections to the
+		 *                               Mailchimp API host. Defaults to 10.
+		 */
+		public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			if (maxConnectionsPerRoute < 1) {
+				throw new IllegalArgumentException("maxConnectionsPerRoute must be at least 1");
+			}
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+			return this;
+		}
+
+		/**
+		 * @param maxConnectionsTotal Maximum number of pooled connections across all
+		 *                            hosts. Defaults to 20.
+		 */
+		public Builder maxConnectionsTotal(int maxConnectionsTotal) {
+			if (maxConnectionsTotal < 1) {
+				throw new IllegalArgumentException("maxConnectionsTotal must be at least 1");
+			}
+			this.maxConnectionsTotal = maxConnectionsTotal;
+			return this;
+		}
+
+		/**
+		 * @param duration How long an idle connection is kept alive when the server
+		 *                 does not specify a Keep-Alive timeout. Defaults to 30
+		 *                 seconds.
+		 * @param unit     Time unit of duration
+		 */
+		public Builder keepAlive(long duration, TimeUnit unit) {
+			this.keepAliveMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param duration Pooled connections idle for longer than this are closed by
+		 *                 a background thread. Defaults to 60 seconds.
+		 * @param unit     Time unit of duration
+		 */
+		public Builder evictIdleConnections(long duration, TimeUnit unit) {
+			this.idleTimeoutMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param ioThreads Number of I/O dispatch threads used for asynchronous
+		 *                  requests. Defaults to one per available processor.
+		 */
+		public Builder ioThreads(int ioThreads) {
+			if (ioThreads < 1) {
+				throw new IllegalArgumentException("ioThreads must be at least 1");
+			}
+			this.ioThreads = ioThreads;
+			return this;
+		}
+
+		public ApacheTransport build() {
+			return new ApacheTransport(this);
+		}
+
+		private CloseableHttpClient createHttpClient() {
+			return createPooledClient(maxConnectionsPerRoute, maxConnectionsTotal, keepAliveMillis, idleTimeoutMillis);
+		}
+
+		private Supplier<CloseableHttpAsyncClient> asyncHttpClientFactory() {
+			final int maxPerRoute = maxConnectionsPerRoute;
+			final int maxTotal = maxConnectionsTotal;
+			final long keepAlive = keepAliveMillis;
+			final int threads = ioThreads;
+			return () -> createPooledAsyncClient(maxPerRoute, maxTotal, keepAlive, threads);
+		}
+	}
+}
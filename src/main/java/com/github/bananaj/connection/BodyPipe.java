@@ -0,0 +1,83 @@
+package com.github.bananaj.connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Turns a {@link RequestBody} that writes itself into a stream that can be
+ * read, for HTTP engines that pull request bodies. The body is written on a
+ * background thread through a bounded pipe, so only the pipe buffer is held
+ * in memory however large the body is.
+ */
+final class BodyPipe {
+
+	private static final int PIPE_SIZE = 64 * 1024;
+
+	private static final ExecutorService writers = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "bananaj-body-writer");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private BodyPipe() {
+	}
+
+	static InputStream open(RequestBody body) throws IOException {
+		final FailingPipedInputStream in = new FailingPipedInputStream();
+		final PipedOutputStream out = new PipedOutputStream(in);
+		writers.execute(() -> {
+			try {
+				body.writeTo(out);
+				out.close();
+			} catch (IOException | RuntimeException e) {
+				// record the failure before the reader can see the end of the pipe
+				in.failure = e;
+				try {
+					out.close();
+				} catch (IOException ignored) { }
+			}
+		});
+		return in;
+	}
+
+	/**
+	 * Reports a failure of the writer to the reader instead of a silently
+	 * truncated body.
+	 */
+	private static class FailingPipedInputStream extends PipedInputStream {
+		volatile Exception failure;
+
+		FailingPipedInputStream() {
+			super(PIPE_SIZE);
+		}
+
+		@Override
+		public synchronized int read() throws IOException {
+			int b = super.read();
+			if (b == -1) {
+				checkFailure();
+			}
+			return b;
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n == -1) {
+				checkFailure();
+			}
+			return n;
+		}
+
+		private void checkFailure() throws IOException {
+			if (failure != null) {
+				throw new IOException("Unable to write request body", failure);
+			}
+		}
+	}
+}
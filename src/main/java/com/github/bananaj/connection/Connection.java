@@ -1,268 +1,872 @@
 package com.github.bananaj.connection;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-
-import org.apache.http.HttpEntity;
-import org.apache.http.client.entity.EntityBuilder;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpDelete;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPatch;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpPut;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.log4j.Logger;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 import com.github.bananaj.exceptions.TransportException;
+import com.github.bananaj.model.Projection;
 
 /**
  * Created by Alexander on 10.08.2016.
+ *
+ * HTTP transport for the Mailchimp API. Requests are sent through a pluggable
+ * {@link Transport}; by default an {@link ApacheTransport} owning a pooled,
+ * keep-alive HTTP client that is shared by every request made through the
+ * Connection, so TCP and TLS handshakes are only paid when the pool needs a
+ * new connection. Call {@link #close()} to release the transport once the
+ * Connection is no longer needed.
+ *
+ * Each blocking <code>do_*</code> method has a <code>do_*Async</code>
+ * counterpart backed by the transport's non-blocking client, so many requests
+ * can be in flight on a handful of I/O threads.
+ *
+ * Response bodies are decoded in bulk with reusable buffers. Use
+ * {@link #do_GetJSON(URL, String)} or
+ * {@link #do_Get(URL, String, ResponseBodyHandler)} to parse a response
+ * directly from the HTTP stream without building an intermediate String.
+ *
+ * Responses may be gzip or deflate encoded; they are decompressed as they are
+ * read. Compressed and decompressed byte counts for every endpoint are
+ * available from {@link #getMetrics()}.
+ *
+ * Every request first takes a permit from the Connection's
+ * {@link RequestGovernor}, which caps the number of requests in flight and
+ * queues the rest. A <code>429 Too Many Requests</code> response pauses the
+ * queue for the period given by the server's <code>Retry-After</code> header.
+ *
+ * Requests that fail with an I/O error or a transient status such as 503 are
+ * sent again according to the Connection's {@link RetryPolicy}. Retries are
+ * counted per endpoint in {@link #getMetrics()}.
  */
-public class Connection {
+public class Connection implements Closeable {
 
 	final static Logger logger = Logger.getLogger(Connection.class);
-	
-    public String do_Get(URL url, String authorization) throws TransportException, URISyntaxException {
-    	log("GET", url, null);
-        CloseableHttpClient httpclient;
-
-        HttpGet httpget = new HttpGet(url.toURI());
-        httpget.addHeader("Authorization", authorization);
-        httpclient = HttpClients.createDefault();
-        try (CloseableHttpResponse response = httpclient.execute(httpget)) {
-
-            int responseCode = response.getStatusLine().getStatusCode();
-            logger.debug(response.getStatusLine().getReasonPhrase().toString());
-            if (responseCode < 200 || responseCode > 299) {
-                throw buildTransportError("GET", url.toExternalForm(), response);
-            }
-
-            return createResponseFromEntity(response.getEntity());
-        } catch (TransportException e) {
-        	logger.error("GET " + url.toString() + " : " + e.getMessage(), e);
-        	throw e;
-        } catch (Exception e) {
-        	logger.error("GET " + url.toString() + " : " + e.getMessage(), e);
-            throw new TransportException("GET " + url.toExternalForm() + " failed", e);
-        }
-    }
-
-    public String do_Post(URL url, String post_string, String authorization) throws TransportException, URISyntaxException {
-    	log("POST", url, post_string);
-        CloseableHttpClient httpclient;
-
-        HttpPost httppost = new HttpPost(url.toURI());
-        httppost.addHeader("Content-Type", "application/json; charset=UTF-8");
-        httppost.addHeader("Authorization", authorization);
-        httppost.setEntity(EntityBuilder.create().setBinary(post_string.getBytes(StandardCharsets.UTF_8)).build());
-
-        httpclient = HttpClients.createDefault();
-        try (CloseableHttpResponse response = httpclient.execute(httppost)) {
-
-            int responseCode = response.getStatusLine().getStatusCode();
-            logger.debug(response.getStatusLine().getReasonPhrase());
-            if (responseCode < 200 || responseCode > 299) {
-                throw buildTransportError("POST", url.toExternalForm(), response);
-            }
-
-
-            return createResponseFromEntity(response.getEntity());
-        } catch (TransportException e) {
-        	logger.error("POST " + url.toString() + " : " + e.getMessage(), e);
-        	throw e;
-        } catch (Exception e) {
-        	logger.error("POST " + url.toString() + " : " + e.getMessage(), e);
-            throw new TransportException("POST " + post_string.length() + " bytes to " + url.toExternalForm() + " failed", e);
-        }
-    }
-
-    public String do_Patch(URL url, String patch_string, String authorization) throws TransportException, URISyntaxException {
-    	log("PATCH", url, patch_string);
-        CloseableHttpClient httpclient;
-
-        HttpPatch httppatch = new HttpPatch(url.toURI());
-        httppatch.addHeader("Content-Type", "application/json; charset=UTF-8");
-        httppatch.addHeader("Authorization", authorization);
-        httppatch.setEntity(EntityBuilder.create().setBinary(patch_string.getBytes(StandardCharsets.UTF_8)).build());
-
-        httpclient = HttpClients.createDefault();
-        try (CloseableHttpResponse response = httpclient.execute(httppatch)) {
-
-            int responseCode = response.getStatusLine().getStatusCode();
-            logger.debug(response.getStatusLine().getReasonPhrase());
-            if (responseCode < 200 || responseCode > 299) {
-                throw buildTransportError("PATCH", url.toExternalForm(), response);
-            }
-
-            return createResponseFromEntity(response.getEntity());
-        } catch (TransportException e) {
-        	logger.error("PATCH " + url.toString() + " : " + e.getMessage(), e);
-        	throw e;
-        } catch (Exception e) {
-        	logger.error("PATCH " + url.toString() + " : " + e.getMessage(), e);
-            throw new TransportException("PATCH " + patch_string.length() + " bytes to " + url.toExternalForm() + " failed", e);
-        }
-    }
-
-
-    public String do_Put(URL url, String put_string, String authorization) throws TransportException, URISyntaxException {
-    	log("PUT", url, put_string);
-        CloseableHttpClient httpclient;
-
-        HttpPut httpput = new HttpPut(url.toURI());
-        httpput.addHeader("Content-Type", "application/json; charset=UTF-8");
-        httpput.addHeader("Authorization", authorization);
-        httpput.setEntity(EntityBuilder.create().setBinary(put_string.getBytes(StandardCharsets.UTF_8)).build());
-
-        httpclient = HttpClients.createDefault();
-        try (CloseableHttpResponse response = httpclient.execute(httpput)) {
-
-
-            int responseCode = response.getStatusLine().getStatusCode();
-            logger.debug(response.getStatusLine().getReasonPhrase());
-            if (responseCode < 200 || responseCode > 299) {
-                throw buildTransportError("PUT", url.toExternalForm(), response);
-            }
-
-            return createResponseFromEntity(response.getEntity());
-        } catch (TransportException e) {
-        	logger.error("PUT " + url.toString() + " : " + e.getMessage(), e);
-        	throw e;
-        } catch (Exception e) {
-        	logger.error("PUT " + url.toString() + " : " + e.getMessage(), e);
-            throw new TransportException("PUT " + put_string.length() + " bytes to " + url.toExternalForm() + " failed", e);
-        }
-    }
-
-    public String do_Post(URL url, String authorization) throws TransportException, URISyntaxException {
-    	log("POST", url, null);
-        CloseableHttpClient httpclient = null;
-
-        HttpPost httppost = new HttpPost(url.toURI());
-        httppost.addHeader("Content-Type", "application/json; charset=UTF-8");
-        httppost.addHeader("Authorization", authorization);
-        httpclient = HttpClients.createDefault();
-
-        try (CloseableHttpResponse response = httpclient.execute(httppost)) {
-
-            int responseCode = response.getStatusLine().getStatusCode();
-            logger.debug(response.getStatusLine().getReasonPhrase());
-            if (responseCode < 200 || responseCode > 299) {
-                throw buildTransportError("POST", url.toExternalForm(), response);
-            }
-
-            return createResponseFromEntity(response.getEntity());
-        } catch (TransportException e) {
-        	logger.error("POST " + url.toString() + " : " + e.getMessage(), e);
-        	throw e;
-        } catch (Exception e) {
-        	logger.error("POST " + url.toString() + " : " + e.getMessage(), e);
-            throw new TransportException("POST " + url.toExternalForm() + " failed", e);
-        }
-    }
-
-    public String do_Delete(URL url, String authorization) throws TransportException, URISyntaxException {
-    	log("DELETE", url, null);
-        CloseableHttpClient httpclient;
-
-        HttpDelete httpdelete = new HttpDelete(url.toURI());
-        httpdelete.addHeader("Content-Type", "application/json; charset=UTF-8");
-        httpdelete.addHeader("Authorization", authorization);
-
-        httpclient = HttpClients.createDefault();
-        try (CloseableHttpResponse response = httpclient.execute(httpdelete)) {
-
-            int responseCode = response.getStatusLine().getStatusCode();
-            logger.debug(response.getStatusLine().getReasonPhrase());
-            if (responseCode < 200 || responseCode > 299) {
-                throw buildTransportError("DELETE", url.toExternalForm(), response);
-            }
-
-            return createResponseFromEntity(response.getEntity());
-        } catch (TransportException e) {
-        	logger.error("DELETE " + url.toString() + " : " + e.getMessage(), e);
-        	throw e;
-        } catch (Exception e) {
-        	logger.error("DELETE " + url.toString() + " : " + e.getMessage(), e);
-            throw new TransportException("DELETE " + url.toExternalForm() + " failed", e);
-        }
-    }
-
-
-    private String createResponseFromEntity(HttpEntity entity) throws IOException {
-        InputStream entityStream;
-        if (entity != null) {
-            long length = entity.getContentLength();
-            entityStream = entity.getContent();
-            StringBuilder strbuilder = new StringBuilder(length > 16 && length < Integer.MAX_VALUE ? (int) length : 200);
-            try (Reader reader = new BufferedReader(new InputStreamReader
-                    (entityStream, Charset.forName(StandardCharsets.UTF_8.name())))) {
-                int c;
-                while ((c = reader.read()) != -1) {
-                    strbuilder.append((char) c);
-                }
-            }
-            logger.trace(strbuilder.toString());
-            return strbuilder.toString();
-        }
-        return null;
-    }
-
-    private TransportException buildTransportError(String verb, String url, CloseableHttpResponse response) {
-        int responseCode = response.getStatusLine().getStatusCode();
-        JSONObject errObj;
-        try {
-            errObj = new JSONObject(createResponseFromEntity(response.getEntity()));
-            String errType = getErrorObjString(errObj, "type");
-            String errTitle = getErrorObjString(errObj, "title");
-            String errDetail = getErrorObjString(errObj, "detail");
-            String errInstance = getErrorObjString(errObj, "instance");
-            String errors = "";
-            if (errObj.has("errors")) {
-            	JSONArray errArray = errObj.getJSONArray("errors");
-            	for(int i=0; i< errArray.length(); i++) {
-            		JSONObject errorDetail = errArray.getJSONObject(i);
-            		String field =  getErrorObjString(errorDetail, "field");
-            		String message =  getErrorObjString(errorDetail, "message");
-            		if (field != null && message != null) {
-            			errors +=  System.lineSeparator() + "field: " + field + " message: " + message;
-            		}
-            	}
-            }
-            return new TransportException("Status: " + Integer.toString(responseCode) + " " + verb + ": " + url + " Reason: " + response.getStatusLine().getReasonPhrase()
-                    + " - " + errTitle + " Details: " + errDetail + " Instance: " + errInstance + " Type: " + errType + errors);
-        } catch (IOException | JSONException e) {
-        	logger.error(e.getMessage(), e);
-        }
-        return new TransportException("Status: " + Integer.toString(responseCode) + " " + verb + ": " + url + " Reason: " + response.getStatusLine().getReasonPhrase());
-    }
-
-
-    private String getErrorObjString(JSONObject errObj, String key) {
-        if (errObj.has(key)) {
-            return errObj.getString(key);
-        }
-        return "";
-    }
-    
-    private void log(String verb, URL url, String payload) {
-    	if (payload != null && logger.isTraceEnabled()) {
-    		logger.trace(verb + " " + url.toString() + " : " + System.lineSeparator() + payload);
-    	} else if (logger.isDebugEnabled()) {
-    		logger.debug(verb + " " + url.toString());
-    	}
-    }
+
+	/**
+	 * Default maximum number of pooled connections per route. Mailchimp allows
+	 * roughly 10 simultaneous connections per API key.
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+	/** Default maximum number of pooled connections across all routes */
+	public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 20;
+	/** Default keep-alive applied when the server does not send a Keep-Alive timeout */
+	public static final long DEFAULT_KEEP_ALIVE_MILLIS = 30_000;
+	/** Default time a pooled connection may sit idle before it is evicted */
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+	/** Default maximum number of requests in flight. Mailchimp allows roughly 10 per API key. */
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 10;
+	/** Pause applied after a 429 response that carries no Retry-After header */
+	public static final long DEFAULT_RETRY_AFTER_MILLIS = 1_000;
+
+	private static final int DECODE_BUFFER_SIZE = 16 * 1024;
+	private static final ThreadLocal<char[]> decodeBuffer = ThreadLocal.withInitial(() -> new char[DECODE_BUFFER_SIZE]);
+
+	private final Transport transport;
+	private final Executor callbackExecutor;
+	private final RequestGovernor governor;
+	private final RetryPolicy retryPolicy;
+	private final boolean compression;
+	private volatile boolean clientErrorStackTraces = true;
+	private volatile boolean excludeLinks = true;
+	private final TransportMetrics metrics = new TransportMetrics();
+
+	/**
+	 * Create a Connection on an {@link ApacheTransport} with a default
+	 * connection pool.
+	 */
+	public Connection() {
+		this(new ApacheTransport(), ForkJoinPool.commonPool(), new RequestGovernor(DEFAULT_MAX_CONCURRENT_REQUESTS),
+				RetryPolicy.DEFAULT, true);
+	}
+
+	/**
+	 * @param transport        Sends the requests. The Connection takes ownership
+	 *                         of the transport and closes it in {@link #close()}.
+	 * @param callbackExecutor Executor used to complete the futures returned by
+	 *                         the asynchronous methods, keeping caller
+	 *                         continuations off the I/O threads.
+	 * @param governor         Limits the number of requests in flight
+	 * @param retryPolicy      Decides which failed requests are sent again
+	 * @param compression      Ask the server for gzip or deflate encoded
+	 *                         responses
+	 */
+	protected Connection(Transport transport, Executor callbackExecutor, RequestGovernor governor,
+			RetryPolicy retryPolicy, boolean compression) {
+		this.transport = transport;
+		this.callbackExecutor = callbackExecutor;
+		this.governor = governor;
+		this.retryPolicy = retryPolicy;
+		this.compression = compression;
+	}
+
+	/**
+	 * @return The transport sending this Connection's requests
+	 */
+	public Transport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * @return Per endpoint response counters for requests made through this
+	 *         Connection
+	 */
+	public TransportMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return The governor limiting concurrent requests, exposing queue depth
+	 *         and wait time
+	 */
+	public RequestGovernor getGovernor() {
+		return governor;
+	}
+
+	/**
+	 * @return The policy deciding which failed requests are retried
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	public boolean isClientErrorStackTraces() {
+		return clientErrorStackTraces;
+	}
+
+	/**
+	 * Bulk jobs often treat 4xx responses such as &quot;Member Exists&quot; or
+	 * 404 as expected outcomes and handle them by
+	 * {@link TransportException#getStatusCode()}. Turning stack traces off
+	 * makes those exceptions cheap: no stack trace is captured, the message is
+	 * not built and they are logged at debug level rather than as errors.
+	 * @param clientErrorStackTraces false to throw 4xx errors without a stack
+	 *                               trace. Default is true.
+	 */
+	public void setClientErrorStackTraces(boolean clientErrorStackTraces) {
+		this.clientErrorStackTraces = clientErrorStackTraces;
+	}
+
+	public boolean isExcludeLinks() {
+		return excludeLinks;
+	}
+
+	/**
+	 * Every API resource carries a <code>_links</code> array describing the
+	 * related endpoints, which makes up a large part of a typical response and
+	 * is not used by the model classes. While excluding links, GET requests to
+	 * the API that do not select their own fields are sent with
+	 * <code>exclude_fields=_links</code>.
+	 * @param excludeLinks false to receive <code>_links</code>. Default is
+	 *                     true.
+	 * @see Projection
+	 */
+	public void setExcludeLinks(boolean excludeLinks) {
+		this.excludeLinks = excludeLinks;
+	}
+
+	/**
+	 * The URL of a page of a collection. While excluding links, the
+	 * <code>_links</code> of each entity on the page are left out along with
+	 * those of the page itself.
+	 * @param url           A GET URL to the API
+	 * @param collectionKey The key of the entity array, for example
+	 *                      <code>members</code>
+	 * @return The URL
+	 * @throws MalformedURLException
+	 */
+	public URL collectionURL(String url, String collectionKey) throws MalformedURLException {
+		return new URL(excludeLinks ? Projection.excludeLinks().applyTo(url, collectionKey) : url);
+	}
+
+	public String do_Get(URL url, String authorization) throws TransportException, URISyntaxException {
+		log("GET", url, null);
+		return execute(newRequest("GET", url, authorization, null), url, null, Connection::readString);
+	}
+
+	/**
+	 * GET a JSON object, parsing it directly from the response stream.
+	 * @param url
+	 * @param authorization
+	 * @return The parsed response body
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 * @throws JSONException The response body is not a JSON object
+	 */
+	public JSONObject do_GetJSON(URL url, String authorization) throws TransportException, URISyntaxException, JSONException {
+		log("GET", url, null);
+		return execute(newRequest("GET", url, authorization, null), url, null, Connection::readJSONObject);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #do_GetJSON(URL, String)}. The JSON object
+	 * is parsed directly from the response stream on the callback executor.
+	 * @return A future completed with the parsed response body, or completed
+	 *         exceptionally with a {@link TransportException}, or a
+	 *         {@link JSONException} if the body is not a JSON object.
+	 */
+	public CompletableFuture<JSONObject> do_GetJSONAsync(URL url, String authorization) throws URISyntaxException {
+		log("GET", url, null);
+		return executeAsync(newRequest("GET", url, authorization, null), url, null, (verb, u, response) -> {
+			try (InputStream content = openContent(verb, u, response)) {
+				return readJSONObject(content);
+			}
+		});
+	}
+
+	/**
+	 * GET and hand the response body stream to a handler.
+	 * @param url
+	 * @param authorization The Authorization header value, or null to send none
+	 * @param handler Consumes the response body
+	 * @return The value produced by the handler
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public <T> T do_Get(URL url, String authorization, ResponseBodyHandler<T> handler) throws TransportException, URISyntaxException {
+		log("GET", url, null);
+		return execute(newRequest("GET", url, authorization, null), url, null, handler);
+	}
+
+	public String do_Post(URL url, String post_string, String authorization) throws TransportException, URISyntaxException {
+		log("POST", url, post_string);
+		return execute(newRequest("POST", url, authorization, RequestBody.ofJSON(post_string)), url, post_string, Connection::readString);
+	}
+
+	public String do_Patch(URL url, String patch_string, String authorization) throws TransportException, URISyntaxException {
+		log("PATCH", url, patch_string);
+		return execute(newRequest("PATCH", url, authorization, RequestBody.ofJSON(patch_string)), url, patch_string, Connection::readString);
+	}
+
+	public String do_Put(URL url, String put_string, String authorization) throws TransportException, URISyntaxException {
+		log("PUT", url, put_string);
+		return execute(newRequest("PUT", url, authorization, RequestBody.ofJSON(put_string)), url, put_string, Connection::readString);
+	}
+
+	/**
+	 * POST a body that is streamed to the server rather than built in memory.
+	 * @param url
+	 * @param body The request body
+	 * @param authorization
+	 * @return The response body
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public String do_Post(URL url, RequestBody body, String authorization) throws TransportException, URISyntaxException {
+		log("POST", url, null);
+		return execute(newRequest("POST", url, authorization, body), url, null, Connection::readString);
+	}
+
+	/**
+	 * PATCH a body that is streamed to the server rather than built in memory.
+	 * @param url
+	 * @param body The request body
+	 * @param authorization
+	 * @return The response body
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public String do_Patch(URL url, RequestBody body, String authorization) throws TransportException, URISyntaxException {
+		log("PATCH", url, null);
+		return execute(newRequest("PATCH", url, authorization, body), url, null, Connection::readString);
+	}
+
+	/**
+	 * PUT a body that is streamed to the server rather than built in memory.
+	 * @param url
+	 * @param body The request body
+	 * @param authorization
+	 * @return The response body
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public String do_Put(URL url, RequestBody body, String authorization) throws TransportException, URISyntaxException {
+		log("PUT", url, null);
+		return execute(newRequest("PUT", url, authorization, body), url, null, Connection::readString);
+	}
+
+	public String do_Post(URL url, String authorization) throws TransportException, URISyntaxException {
+		log("POST", url, null);
+		return execute(newRequest("POST", url, authorization, null), url, null, Connection::readString);
+	}
+
+	public String do_Delete(URL url, String authorization) throws TransportException, URISyntaxException {
+		log("DELETE", url, null);
+		return execute(newRequest("DELETE", url, authorization, null), url, null, Connection::readString);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #do_Get(URL, String)}.
+	 * @return A future completed with the response body, or completed
+	 *         exceptionally with a {@link TransportException}.
+	 */
+	public CompletableFuture<String> do_GetAsync(URL url, String authorization) throws URISyntaxException {
+		log("GET", url, null);
+		return executeAsync(newRequest("GET", url, authorization, null), url, null);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #do_Post(URL, String, String)}.
+	 * @return A future completed with the response body, or completed
+	 *         exceptionally with a {@link TransportException}.
+	 */
+	public CompletableFuture<String> do_PostAsync(URL url, String post_string, String authorization) throws URISyntaxException {
+		log("POST", url, post_string);
+		return executeAsync(newRequest("POST", url, authorization, RequestBody.ofJSON(post_string)), url, post_string);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #do_Patch(URL, String, String)}.
+	 * @return A future completed with the response body, or completed
+	 *         exceptionally with a {@link TransportException}.
+	 */
+	public CompletableFuture<String> do_PatchAsync(URL url, String patch_string, String authorization) throws URISyntaxException {
+		log("PATCH", url, patch_string);
+		return executeAsync(newRequest("PATCH", url, authorization, RequestBody.ofJSON(patch_string)), url, patch_string);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #do_Put(URL, String, String)}.
+	 * @return A future completed with the response body, or completed
+	 *         exceptionally with a {@link TransportException}.
+	 */
+	public CompletableFuture<String> do_PutAsync(URL url, String put_string, String authorization) throws URISyntaxException {
+		log("PUT", url, put_string);
+		return executeAsync(newRequest("PUT", url, authorization, RequestBody.ofJSON(put_string)), url, put_string);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #do_Post(URL, RequestBody, String)}.
+	 * @return A future completed with the response body, or completed
+	 *         exceptionally with a {@link TransportException}.
+	 */
+	public CompletableFuture<String> do_PostAsync(URL url, RequestBody body, String authorization) throws URISyntaxException {
+		log("POST", url, null);
+		return executeAsync(newRequest("POST", url, authorization, body), url, null);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #do_Post(URL, String)}.
+	 * @return A future completed with the response body, or completed
+	 *         exceptionally with a {@link TransportException}.
+	 */
+	public CompletableFuture<String> do_PostAsync(URL url, String authorization) throws URISyntaxException {
+		log("POST", url, null);
+		return executeAsync(newRequest("POST", url, authorization, null), url, null);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #do_Delete(URL, String)}.
+	 * @return A future completed with the response body, or completed
+	 *         exceptionally with a {@link TransportException}.
+	 */
+	public CompletableFuture<String> do_DeleteAsync(URL url, String authorization) throws URISyntaxException {
+		log("DELETE", url, null);
+		return executeAsync(newRequest("DELETE", url, authorization, null), url, null);
+	}
+
+	/**
+	 * Close the transport, releasing its pooled connections.
+	 */
+	@Override
+	public void close() throws IOException {
+		transport.close();
+	}
+
+	private TransportRequest newRequest(String verb, URL url, String authorization, RequestBody body) throws URISyntaxException {
+		URI uri = url.toURI();
+		if (excludeLinks && "GET".equals(verb) && uri.getRawPath() != null && uri.getRawPath().startsWith("/3.0/")
+				&& !Projection.isProjected(uri.getRawQuery())) {
+			String query = uri.getRawQuery();
+			uri = new URI(uri.toString() + (query == null ? "?" : query.isEmpty() ? "" : "&") + "exclude_fields=" + Projection.LINKS);
+		}
+		Map<String, String> headers = new LinkedHashMap<>();
+		if (authorization != null) {
+			headers.put("Authorization", authorization);
+		}
+		if (body == null && !"GET".equals(verb)) {
+			headers.put("Content-Type", "application/json; charset=UTF-8");
+		}
+		if (compression) {
+			headers.put("Accept-Encoding", "gzip, deflate");
+		}
+		return new TransportRequest(verb, uri, headers, body);
+	}
+
+	private <T> T execute(TransportRequest request, URL url, String payload, ResponseBodyHandler<T> handler) throws TransportException {
+		final String verb = request.getMethod();
+		final long started = System.nanoTime();
+		long backoff = 0;
+		for (int attempt = 1; ; attempt++) {
+			try {
+				if (backoff > 0) {
+					Thread.sleep(backoff);
+				}
+				governor.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new TransportException(verb + " " + url.toExternalForm() + " interrupted while waiting to be sent", e);
+			}
+			try (TransportResponse response = transport.execute(request)) {
+
+				int responseCode = response.getStatusCode();
+				logger.debug(response.getReasonPhrase());
+				if (responseCode < 200 || responseCode > 299) {
+					throttle(response);
+					backoff = retryDelay(request, url, responseCode, attempt, started);
+					if (backoff >= 0) {
+						continue;
+					}
+					throw buildTransportError(verb, url, response);
+				}
+
+				try (InputStream content = openContent(verb, url, response)) {
+					return handler.handle(content);
+				}
+			} catch (TransportException e) {
+				logFailure(verb, url, e);
+				throw e;
+			} catch (JSONException e) {
+				IOException cause = readFailure(e);
+				if (cause != null) {
+					// the body broke off while it was being parsed
+					backoff = retryDelay(request, url, -1, attempt, started);
+					if (backoff >= 0) {
+						logger.warn(verb + " " + url.toString() + " : " + cause.getMessage() + ", retrying");
+						continue;
+					}
+					logger.error(verb + " " + url.toString() + " : " + cause.getMessage(), cause);
+					throw failure(verb, url, payload, cause);
+				}
+				logger.error(verb + " " + url.toString() + " : " + e.getMessage(), e);
+				throw e;
+			} catch (Exception e) {
+				if (e instanceof IOException) {
+					backoff = retryDelay(request, url, -1, attempt, started);
+					if (backoff >= 0) {
+						logger.warn(verb + " " + url.toString() + " : " + e.getMessage() + ", retrying");
+						continue;
+					}
+				}
+				logger.error(verb + " " + url.toString() + " : " + e.getMessage(), e);
+				throw failure(verb, url, payload, e);
+			} finally {
+				governor.release();
+			}
+		}
+	}
+
+	/**
+	 * Reads a successful response on the callback executor.
+	 */
+	@FunctionalInterface
+	private interface ResponseReader<T> {
+		T read(String verb, URL url, TransportResponse response) throws IOException;
+	}
+
+	private CompletableFuture<String> executeAsync(TransportRequest request, URL url, String payload) {
+		return executeAsync(request, url, payload, this::createResponseFromEntity);
+	}
+
+	private <T> CompletableFuture<T> executeAsync(TransportRequest request, URL url, String payload, ResponseReader<T> reader) {
+		final CompletableFuture<T> result = new CompletableFuture<>();
+		submitAsync(request, url, payload, reader, result, 1, System.nanoTime());
+		return result;
+	}
+
+	private <T> void submitAsync(TransportRequest request, URL url, String payload, ResponseReader<T> reader,
+			CompletableFuture<T> result, int attempt, long started) {
+		final CompletableFuture<Void> permit = governor.acquireAsync();
+		// a caller cancelling while still queued gives up its place in the queue
+		result.whenComplete((r, t) -> {
+			if (result.isCancelled()) {
+				permit.cancel(false);
+			}
+		});
+		permit.thenRun(() -> {
+			if (result.isDone()) {
+				governor.release();
+			} else {
+				sendAsync(request, url, payload, reader, result, attempt, started);
+			}
+		});
+	}
+
+	private <T> void sendAsync(TransportRequest request, URL url, String payload, ResponseReader<T> reader,
+			CompletableFuture<T> result, int attempt, long started) {
+		final String verb = request.getMethod();
+		final CompletableFuture<TransportResponse> pending;
+		try {
+			pending = transport.executeAsync(request);
+		} catch (RuntimeException e) {
+			governor.release();
+			fail(result, new TransportException(verb + " " + url.toExternalForm() + " failed", e));
+			return;
+		}
+		// propagate cancellation by the caller to the in-flight request
+		result.whenComplete((r, t) -> {
+			if (result.isCancelled()) {
+				pending.cancel(true);
+			}
+		});
+		pending.whenComplete((response, failure) -> {
+			governor.release();
+			if (failure != null) {
+				Throwable ex = unwrap(failure);
+				if (pending.isCancelled()) {
+					callbackExecutor.execute(() -> result.cancel(false));
+				} else if (ex instanceof IOException && retryAsync(request, url, payload, reader, result, -1, attempt, started)) {
+					logger.warn(verb + " " + url.toString() + " : " + ex.getMessage() + ", retrying");
+				} else {
+					logger.error(verb + " " + url.toString() + " : " + ex.getMessage(), ex);
+					fail(result, failure(verb, url, payload, ex));
+				}
+				return;
+			}
+			int responseCode = response.getStatusCode();
+			logger.debug(response.getReasonPhrase());
+			if (responseCode >= 200 && responseCode <= 299) {
+				callbackExecutor.execute(() -> readAsync(request, url, payload, reader, result, attempt, started, response));
+				return;
+			}
+			try (TransportResponse r = response) {
+				throttle(r);
+				if (!retryAsync(request, url, payload, reader, result, responseCode, attempt, started)) {
+					TransportException e = buildTransportError(verb, url, r);
+					logFailure(verb, url, e);
+					fail(result, e);
+				}
+			} catch (Exception e) {
+				logger.error(verb + " " + url.toString() + " : " + e.getMessage(), e);
+				fail(result, failure(verb, url, payload, e));
+			}
+		});
+	}
+
+	private <T> void readAsync(TransportRequest request, URL url, String payload, ResponseReader<T> reader,
+			CompletableFuture<T> result, int attempt, long started, TransportResponse response) {
+		final String verb = request.getMethod();
+		try (TransportResponse r = response) {
+			result.complete(reader.read(verb, url, r));
+		} catch (Exception e) {
+			IOException cause = readFailure(e);
+			if (cause != null && retryAsync(request, url, payload, reader, result, -1, attempt, started)) {
+				logger.warn(verb + " " + url.toString() + " : " + cause.getMessage() + ", retrying");
+			} else if (cause == null && e instanceof JSONException) {
+				logger.error(verb + " " + url.toString() + " : " + e.getMessage(), e);
+				result.completeExceptionally(e);
+			} else {
+				logger.error(verb + " " + url.toString() + " : " + e.getMessage(), e);
+				result.completeExceptionally(failure(verb, url, payload, cause != null ? cause : e));
+			}
+		}
+	}
+
+	/**
+	 * JSONTokener reports a failed read of the body it parses as a
+	 * JSONException caused by the IOException.
+	 * @return The I/O failure behind the exception, or null if there was none
+	 */
+	private static IOException readFailure(Exception e) {
+		if (e instanceof IOException) {
+			return (IOException) e;
+		}
+		return e instanceof JSONException && e.getCause() instanceof IOException ? (IOException) e.getCause() : null;
+	}
+
+	private <T> boolean retryAsync(TransportRequest request, URL url, String payload, ResponseReader<T> reader,
+			CompletableFuture<T> result, int statusCode, int attempt, long started) {
+		long backoff = retryDelay(request, url, statusCode, attempt, started);
+		if (backoff < 0 || result.isDone()) {
+			return false;
+		}
+		RequestGovernor.scheduler.schedule(
+				() -> submitAsync(request, url, payload, reader, result, attempt + 1, started),
+				backoff, TimeUnit.MILLISECONDS);
+		return true;
+	}
+
+	private <T> void fail(CompletableFuture<T> result, TransportException e) {
+		callbackExecutor.execute(() -> result.completeExceptionally(e));
+	}
+
+	private static Throwable unwrap(Throwable t) {
+		while (t instanceof CompletionException && t.getCause() != null) {
+			t = t.getCause();
+		}
+		return t;
+	}
+
+	/**
+	 * Consult the retry policy after a failed attempt, counting the retry
+	 * against the endpoint. A request whose body can only be sent once is never
+	 * retried.
+	 * @param statusCode The response status, or -1 for an I/O error
+	 * @return The delay before the next attempt, or -1 to give up
+	 */
+	private long retryDelay(TransportRequest request, URL url, int statusCode, int attempt, long started) {
+		if (request.getBody() != null && !request.getBody().isRepeatable()) {
+			return -1;
+		}
+		final String verb = request.getMethod();
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+		long delay = retryPolicy.nextDelayMillis(verb, statusCode, attempt, elapsed);
+		if (delay >= 0) {
+			EndpointMetrics stats = metrics.forEndpoint(verb, url);
+			stats.retries.increment();
+			stats.retryDelayMillis.add(delay);
+			logger.debug(verb + " " + url.toString() + " : attempt " + attempt + " failed"
+					+ (statusCode != -1 ? " with status " + statusCode : "") + ", retrying in " + delay + "ms");
+		}
+		return delay;
+	}
+
+	/**
+	 * Pause the governor's queue when the server reports too many requests.
+	 */
+	private void throttle(TransportResponse response) {
+		if (response.getStatusCode() == 429) {
+			long delay = retryAfterMillis(response);
+			logger.warn("Too many requests, pausing for " + delay + "ms");
+			governor.pause(delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * @return The Retry-After interval in milliseconds, given either as seconds
+	 *         or as an HTTP date
+	 */
+	static long retryAfterMillis(TransportResponse response) {
+		String value = response.getHeader("Retry-After");
+		if (value != null) {
+			value = value.trim();
+			try {
+				return Math.max(0, Long.parseLong(value) * 1000);
+			} catch (NumberFormatException e) {
+				Date date = DateUtils.parseDate(value);
+				if (date != null) {
+					return Math.max(0, date.getTime() - System.currentTimeMillis());
+				}
+			}
+		}
+		return DEFAULT_RETRY_AFTER_MILLIS;
+	}
+
+	private String createResponseFromEntity(String verb, URL url, TransportResponse response) throws IOException {
+		// the content length is only a useful size hint for identity encoded bodies
+		long length = response.getHeader("Content-Encoding") != null ? -1 : response.getContentLength();
+		try (InputStream content = openContent(verb, url, response)) {
+			return readString(content, length);
+		}
+	}
+
+	/**
+	 * Open the response body, decompressing it according to its
+	 * Content-Encoding and counting network and decoded bytes against the
+	 * endpoint.
+	 */
+	private InputStream openContent(String verb, URL url, TransportResponse response) throws IOException {
+		EndpointMetrics stats = metrics.forEndpoint(verb, url);
+		stats.responses.increment();
+		InputStream wire = new CountingInputStream(response.getBody(), stats.wireBytes);
+		String encoding = response.getHeader("Content-Encoding");
+		String coding = encoding != null ? encoding.trim().toLowerCase(Locale.ROOT) : "";
+		InputStream decoded;
+		try {
+			switch (coding) {
+			case "":
+			case "identity":
+				decoded = wire;
+				break;
+			case "gzip":
+			case "x-gzip":
+				stats.compressedResponses.increment();
+				decoded = new GZIPInputStream(wire, 8192);
+				break;
+			case "deflate":
+				stats.compressedResponses.increment();
+				decoded = new DeflateInputStream(wire);
+				break;
+			default:
+				throw new IOException("Unsupported Content-Encoding: " + coding);
+			}
+		} catch (IOException e) {
+			wire.close();
+			throw e;
+		}
+		return new CountingInputStream(decoded, stats.bodyBytes);
+	}
+
+	private static String readString(InputStream content) throws IOException {
+		return readString(content, -1);
+	}
+
+	/**
+	 * Decode a UTF-8 stream in bulk using a reusable per-thread buffer.
+	 */
+	private static String readString(InputStream content, long length) throws IOException {
+		StringBuilder strbuilder = new StringBuilder(length > 16 && length < Integer.MAX_VALUE ? (int) length : 256);
+		char[] buffer = decodeBuffer.get();
+		Reader reader = new InputStreamReader(content, StandardCharsets.UTF_8);
+		int n;
+		while ((n = reader.read(buffer, 0, buffer.length)) != -1) {
+			strbuilder.append(buffer, 0, n);
+		}
+		String body = strbuilder.toString();
+		if (logger.isTraceEnabled()) {
+			logger.trace(body);
+		}
+		return body;
+	}
+
+	private static JSONObject readJSONObject(InputStream content) throws IOException {
+		if (logger.isTraceEnabled()) {
+			// the body is only materialized when it is going to be logged
+			return new JSONObject(readString(content));
+		}
+		Reader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8), DECODE_BUFFER_SIZE);
+		return new JSONObject(new JSONTokener(reader));
+	}
+
+	/**
+	 * Build the exception for an error response from the fields of the
+	 * Mailchimp error document. The message is only formatted if it is asked
+	 * for, and the stack trace of client errors is not captured when
+	 * {@link #setClientErrorStackTraces(boolean)} is off.
+	 */
+	private TransportException buildTransportError(String verb, URL requestUrl, TransportResponse response) {
+		int responseCode = response.getStatusCode();
+		TransportException.Builder error = new TransportException.Builder()
+				.request(verb, requestUrl.toExternalForm())
+				.status(responseCode, response.getReasonPhrase())
+				.retryable(retryPolicy.getRetryableStatus().contains(responseCode))
+				.retryAfter(response.getHeader("Retry-After") != null ? retryAfterMillis(response) : -1)
+				.writableStackTrace(clientErrorStackTraces || responseCode < 400 || responseCode > 499);
+		try {
+			JSONObject errObj = new JSONObject(createResponseFromEntity(verb, requestUrl, response));
+			error.problem(getErrorObjString(errObj, "type"), getErrorObjString(errObj, "title"),
+					getErrorObjString(errObj, "detail"), getErrorObjString(errObj, "instance"));
+			JSONArray errArray = errObj.optJSONArray("errors");
+			if (errArray != null) {
+				for(int i=0; i< errArray.length(); i++) {
+					JSONObject errorDetail = errArray.getJSONObject(i);
+					if (errorDetail.has("field") && errorDetail.has("message")) {
+						error.fieldError(errorDetail.getString("field"), errorDetail.getString("message"));
+					}
+				}
+			}
+		} catch (IOException | JSONException e) {
+			logger.error(e.getMessage(), e);
+		}
+		return error.build();
+	}
+
+	/**
+	 * Wrap a failure to get a response, which is worth retrying later when it
+	 * was an I/O error.
+	 */
+	private static TransportException failure(String verb, URL url, String payload, Throwable cause) {
+		return new TransportException.Builder()
+				.message(verb + " " + (payload != null ? payload.length() + " bytes to " : "") + url.toExternalForm() + " failed")
+				.request(verb, url.toExternalForm())
+				.cause(cause)
+				.retryable(cause instanceof IOException)
+				.build();
+	}
+
+	private void logFailure(String verb, URL url, TransportException e) {
+		if (!clientErrorStackTraces && e.isClientError()) {
+			// an expected outcome for the caller, don't pay for formatting it
+			if (logger.isDebugEnabled()) {
+				logger.debug(verb + " " + url.toString() + " : " + e.getMessage());
+			}
+		} else {
+			logger.error(verb + " " + url.toString() + " : " + e.getMessage(), e);
+		}
+	}
+
+	private String getErrorObjString(JSONObject errObj, String key) {
+		if (errObj.has(key)) {
+			return errObj.getString(key);
+		}
+		return "";
+	}
+
+	private void log(String verb, URL url, String payload) {
+		if (payload != null && logger.isTraceEnabled()) {
+			logger.trace(verb + " " + url.toString() + " : " + System.lineSeparator() + payload);
+		} else if (logger.isDebugEnabled()) {
+			logger.debug(verb + " " + url.toString());
+		}
+	}
+
+	/**
+	 * Counts the bytes read through a stream.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+		private final LongAdder counter;
+
+		CountingInputStream(InputStream in, LongAdder counter) {
+			super(in);
+			this.counter = counter;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b != -1) {
+				counter.increment();
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = in.read(b, off, len);
+			if (n > 0) {
+				counter.add(n);
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(n);
+			counter.add(skipped);
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
 }
-	
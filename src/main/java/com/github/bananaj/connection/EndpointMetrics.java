@@ -0,0 +1,120 @@
+package com.github.bananaj.connection;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transfer counters for a single API endpoint. Counters are updated
+ * concurrently by every request made to the endpoint and may be read at any
+ * time.
+ */
+public class EndpointMetrics {
+
+	private final String endpoint;
+	final LongAdder responses = new LongAdder();
+	final LongAdder compressedResponses = new LongAdder();
+	final LongAdder wireBytes = new LongAdder();
+	final LongAdder bodyBytes = new LongAdder();
+	final LongAdder retries = new LongAdder();
+	final LongAdder retryDelayMillis = new LongAdder();
+	final LongAdder pages = new LongAdder();
+	final LongAdder pageItems = new LongAdder();
+	volatile int lastPageSize;
+
+	EndpointMetrics(String endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * @return The endpoint key, the HTTP verb followed by the request path with
+	 *         resource ids replaced by <code>{id}</code>
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * @return Number of responses received from this endpoint
+	 */
+	public long getResponseCount() {
+		return responses.sum();
+	}
+
+	/**
+	 * @return Number of responses that were sent gzip or deflate encoded
+	 */
+	public long getCompressedResponseCount() {
+		return compressedResponses.sum();
+	}
+
+	/**
+	 * @return Response body bytes read from the network, before decompression
+	 */
+	public long getWireBytes() {
+		return wireBytes.sum();
+	}
+
+	/**
+	 * @return Response body bytes after decompression
+	 */
+	public long getBodyBytes() {
+		return bodyBytes.sum();
+	}
+
+	/**
+	 * @return Ratio of decompressed to network bytes, 1.0 when nothing has been
+	 *         read or responses were not compressed
+	 */
+	public double getCompressionRatio() {
+		long wire = getWireBytes();
+		return wire > 0 ? (double) getBodyBytes() / wire : 1.0;
+	}
+
+	/**
+	 * @return Number of times a request to this endpoint was sent again after a
+	 *         failed attempt
+	 */
+	public long getRetryCount() {
+		return retries.sum();
+	}
+
+	/**
+	 * @return Total time spent in backoff before retrying requests to this
+	 *         endpoint, in milliseconds
+	 */
+	public long getRetryDelayMillis() {
+		return retryDelayMillis.sum();
+	}
+
+	/**
+	 * @return Number of pages requested from this endpoint by paging iterators
+	 */
+	public long getPageCount() {
+		return pages.sum();
+	}
+
+	/**
+	 * @return Average number of entities requested per page, 0 when no page
+	 *         has been requested
+	 */
+	public double getAveragePageSize() {
+		long count = getPageCount();
+		return count > 0 ? (double) pageItems.sum() / count : 0;
+	}
+
+	/**
+	 * @return Number of entities requested with the latest page, 0 when no page
+	 *         has been requested. With adaptive page sizing this is the size
+	 *         most recently chosen for the endpoint.
+	 */
+	public int getLastPageSize() {
+		return lastPageSize;
+	}
+
+	@Override
+	public String toString() {
+		return endpoint + ": responses=" + getResponseCount() + " compressed=" + getCompressedResponseCount()
+				+ " wireBytes=" + getWireBytes() + " bodyBytes=" + getBodyBytes() + " retries=" + getRetryCount()
+				+ " retryDelayMillis=" + getRetryDelayMillis()
+				+ (getPageCount() > 0 ? " pages=" + getPageCount() + " lastPageSize=" + getLastPageSize() : "");
+	}
+}
@@ -0,0 +1,22 @@
+package com.github.bananaj.connection;
+
+/**
+ * Creates the transport for {@link MailChimpConnection.Builder#http2()}.
+ * HTTP/2 is sent through the JDK HTTP client, which was added in Java 11.
+ * This is the Java 8 version, which has none; the Java 11 layer of the
+ * multi-release jar replaces it with one that builds a
+ * <code>JdkHttpTransport</code>.
+ */
+final class Http2Transports {
+
+	private Http2Transports() {
+	}
+
+	/**
+	 * @return A transport that negotiates HTTP/2, or null if the running JVM
+	 *         has no HTTP/2 client
+	 */
+	static Transport create() {
+		return null;
+	}
+}
@@ -0,0 +1,166 @@
+package com.github.bananaj.connection;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process {@link Transport} answering requests from a route table instead
+ * of the network. Useful for tests and for measuring the library's own
+ * parsing and paging overhead without network latency.
+ *
+ * <pre>
+ * InMemoryTransport transport = new InMemoryTransport()
+ *     .route("GET", "/3.0/lists/*", request -&gt; InMemoryTransport.json(200, listJson));
+ * MailChimpConnection con = new MailChimpConnection.Builder()
+ *     .usingApiKey("key-us1")
+ *     .transport(transport)
+ *     .build();
+ * </pre>
+ *
+ * A path pattern matches a request path segment by segment; <code>*</code>
+ * matches any single segment and a trailing <code>**</code> matches any
+ * remainder. Routes are tried in the order they were added. Requests matching
+ * no route receive a 404 problem document like the one the API returns.
+ */
+public class InMemoryTransport implements Transport {
+
+	private final List<Route> routes = new CopyOnWriteArrayList<>();
+	private final LongAdder requestCount = new LongAdder();
+
+	/**
+	 * Produces the response for a routed request.
+	 */
+	@FunctionalInterface
+	public interface Handler {
+		TransportResponse handle(TransportRequest request) throws IOException;
+	}
+
+	/**
+	 * Add a route.
+	 * @param method HTTP method, or <code>*</code> for any
+	 * @param pathPattern Request path pattern
+	 * @param handler Produces the response
+	 * @return this transport
+	 */
+	public InMemoryTransport route(String method, String pathPattern, Handler handler) {
+		routes.add(new Route(method, pathPattern, handler));
+		return this;
+	}
+
+	/**
+	 * Add a route answering with a fixed JSON document.
+	 * @param method HTTP method, or <code>*</code> for any
+	 * @param pathPattern Request path pattern
+	 * @param statusCode Response status
+	 * @param json Response body
+	 * @return this transport
+	 */
+	public InMemoryTransport route(String method, String pathPattern, int statusCode, String json) {
+		final byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		return route(method, pathPattern, request -> json(statusCode, body));
+	}
+
+	/**
+	 * @return Number of requests handled
+	 */
+	public long getRequestCount() {
+		return requestCount.sum();
+	}
+
+	/**
+	 * Build a JSON response.
+	 * @param statusCode Response status
+	 * @param json Response body
+	 * @return The response
+	 */
+	public static TransportResponse json(int statusCode, String json) {
+		return json(statusCode, json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static TransportResponse json(int statusCode, byte[] body) {
+		return new TransportResponse(statusCode, "", Collections.singletonMap("Content-Type",
+				Collections.singletonList("application/json; charset=utf-8")), new ByteArrayInputStream(body));
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		requestCount.increment();
+		String path = request.getUri().getRawPath();
+		for (Route route : routes) {
+			if (route.matches(request.getMethod(), path)) {
+				return route.handler.handle(request);
+			}
+		}
+		return json(404, "{\"type\":\"https://mailchimp.com/developer/marketing/docs/errors/\",\"title\":\"Resource Not Found\","
+				+ "\"status\":404,\"detail\":\"No route for " + request.getMethod() + " " + path + "\",\"instance\":\"\"}");
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+		try {
+			result.complete(execute(request));
+		} catch (IOException | RuntimeException e) {
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	@Override
+	public void close() {
+	}
+
+	private static class Route {
+		private final String method;
+		private final String[] pattern;
+		private final Handler handler;
+
+		Route(String method, String pathPattern, Handler handler) {
+			this.method = method;
+			this.pattern = split(pathPattern);
+			this.handler = handler;
+		}
+
+		boolean matches(String requestMethod, String path) {
+			if (!"*".equals(method) && !method.equalsIgnoreCase(requestMethod)) {
+				return false;
+			}
+			String[] segments = split(path);
+			for (int i = 0; i < pattern.length; i++) {
+				if ("**".equals(pattern[i]) && i == pattern.length - 1) {
+					return true;
+				}
+				if (i >= segments.length || !("*".equals(pattern[i]) || pattern[i].equals(segments[i]))) {
+					return false;
+				}
+			}
+			return segments.length == pattern.length;
+		}
+
+		private static String[] split(String path) {
+			List<String> segments = new ArrayList<>();
+			for (String s : path.split("/")) {
+				if (!s.isEmpty()) {
+					segments.add(s);
+				}
+			}
+			return segments.toArray(new String[0]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("InMemoryTransport:");
+		for (Route route : routes) {
+			sb.append(' ').append(route.method).append(' ').append(String.join("/", route.pattern)).append(';');
+		}
+		return sb.toString();
+	}
+}
@@ -9,16 +9,23 @@ import java.security.InvalidParameterException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import com.github.bananaj.exceptions.TransportException;
+import com.github.bananaj.model.Projection;
 import com.github.bananaj.model.automation.Automation;
 import com.github.bananaj.model.automation.AutomationRecipient;
 import com.github.bananaj.model.automation.AutomationSettings;
 import com.github.bananaj.model.automation.emails.AutomationEmail;
+import com.github.bananaj.model.batch.BatchOperations;
 import com.github.bananaj.model.campaign.Campaign;
 import com.github.bananaj.model.campaign.CampaignFeedback;
 import com.github.bananaj.model.campaign.CampaignFolder;
@@ -36,14 +43,22 @@ import com.github.bananaj.model.report.DomainPerformance;
 import com.github.bananaj.model.report.EcommerceProductActivity;
 import com.github.bananaj.model.report.EcommerceSortField;
 import com.github.bananaj.model.report.OpenReport;
+import com.github.bananaj.model.report.OpenReportMember;
 import com.github.bananaj.model.report.Report;
 import com.github.bananaj.model.template.Template;
 import com.github.bananaj.model.template.TemplateFolder;
+import com.github.bananaj.utils.AdaptivePageSize;
 import com.github.bananaj.utils.DateConverter;
 import com.github.bananaj.utils.ModelIterator;
 
 /**
  * Class for the com.github.bananaj.connection to mailchimp servers. Used to get lists from mailchimp account.
+ * 
+ * A MailChimpConnection owns a pool of HTTP connections that is shared by all
+ * objects created through it. Use {@link MailChimpConnection.Builder} to tune
+ * the pool or to supply a different {@link Transport}, and call
+ * {@link #close()} when the connection is no longer needed.
+ * 
  * @author alexanderweiss
  *
  */
@@ -61,8 +76,13 @@ public class MailChimpConnection extends Connection {
 	private final String filemanagerfolderendpoint;
 	private final String filesendpoint;
 	private final String reportsendpoint;
+	private final String batchesendpoint;
+	private final BatchOperations batchOperations;
 	private Account account;
 	private FileManager fileManager;
+	private final int prefetchPages;
+	private final boolean orderedPages;
+	private final AdaptivePageSize adaptivePageSize;
 
 	/**
 	 * Create a api key based mailchimp connection.
@@ -74,6 +94,16 @@ public class MailChimpConnection extends Connection {
 	}
 
 	public MailChimpConnection(final String server, final String tokenType, final String token){
+		this(server, tokenType, token, new Builder());
+	}
+
+	private MailChimpConnection(final String server, final String tokenType, final String token, final Builder b){
+		super(b.createTransport(), b.callbackExecutor, new RequestGovernor(b.maxConcurrentRequests), b.retryPolicy, b.compression);
+		setClientErrorStackTraces(b.clientErrorStackTraces);
+		setExcludeLinks(b.excludeLinks);
+		this.prefetchPages = b.prefetchPages;
+		this.orderedPages = b.orderedPages;
+		this.adaptivePageSize = b.adaptivePageSize;
 		this.server = server;
 		this.authorization = tokenType + " " + token;
 		this.apiendpoint = "https://"+server+".api.mailchimp.com/3.0/";
@@ -86,6 +116,8 @@ public class MailChimpConnection extends Connection {
 		this.filemanagerfolderendpoint = "https://"+server+".api.mailchimp.com/3.0/file-manager/folders";
 		this.filesendpoint = "https://"+server+".api.mailchimp.com/3.0/file-manager/files";
 		this.reportsendpoint = "https://"+server+".api.mailchimp.com/3.0/reports";
+		this.batchesendpoint = "https://"+server+".api.mailchimp.com/3.0/batches";
+		this.batchOperations = new BatchOperations(this);
 	}
 
 	/**
@@ -98,7 +130,17 @@ public class MailChimpConnection extends Connection {
 	 * @return List/audience iterator
 	 */
 	public Iterable<MailChimpList> getLists() {
-		return new ModelIterator<MailChimpList>(MailChimpList.class, listendpoint, this, 500);
+		return new ModelIterator<MailChimpList>(MailChimpList::new, "lists", listendpoint, this, 500);
+	}
+
+	/**
+	 * Stream of the Lists/Audiences in your account. A parallel stream fetches
+	 * the pages concurrently.
+	 * @return List/audience stream
+	 * @see #getLists()
+	 */
+	public Stream<MailChimpList> lists() {
+		return new ModelIterator<MailChimpList>(MailChimpList::new, "lists", listendpoint, this, 500).stream();
 	}
 
 	/**
@@ -111,7 +153,7 @@ public class MailChimpConnection extends Connection {
 	public List<MailChimpList> getLists(int count, int offset) throws Exception{
 		List<MailChimpList> mailChimpLists = new ArrayList<MailChimpList>();
 		// parse response
-		JSONObject jsonLists = new JSONObject(do_Get(new URL(listendpoint + "?offset=" + offset + "&count=" + count),getApikey()));
+		JSONObject jsonLists = do_GetJSON(collectionURL(listendpoint + "?offset=" + offset + "&count=" + count, "lists"),getApikey());
 		JSONArray listsArray = jsonLists.getJSONArray("lists");
 		for( int i = 0; i< listsArray.length();i++)
 		{
@@ -131,10 +173,36 @@ public class MailChimpConnection extends Connection {
 	 * @throws JSONException 
 	 */
 	public MailChimpList getList(String listID) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		JSONObject jsonList = new JSONObject(do_Get(new URL(listendpoint +"/"+listID),getApikey()));
+		return getList(listID, null);
+	}
+
+	/**
+	 * Get a specific mailchimp List/Audience, returning only some of its fields
+	 * @param listID
+	 * @param projection The fields to return, or null for every field
+	 * @return a Mailchimp list object
+	 * @throws URISyntaxException 
+	 * @throws TransportException 
+	 * @throws MalformedURLException 
+	 * @throws JSONException 
+	 */
+	public MailChimpList getList(String listID, Projection<MailChimpList> projection) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
+		String url = listendpoint +"/"+listID;
+		JSONObject jsonList = do_GetJSON(new URL(projection != null ? projection.applyTo(url, null) : url),getApikey());
 		return new MailChimpList(this, jsonList);
 	}
 
+	/**
+	 * Asynchronous variant of {@link #getList(String)}.
+	 * @return A future completed with the Mailchimp list object
+	 * @throws URISyntaxException 
+	 * @throws MalformedURLException 
+	 */
+	public CompletableFuture<MailChimpList> getListAsync(String listID) throws MalformedURLException, URISyntaxException {
+		return do_GetAsync(new URL(listendpoint +"/"+listID),getApikey())
+				.thenApply(json -> new MailChimpList(this, new JSONObject(json)));
+	}
+
 	/**
 	 * Create a new List/Audience in your mailchimp account
 	 * @param audience
@@ -161,7 +229,7 @@ public class MailChimpConnection extends Connection {
 	 */
 	public boolean ping() {
 		try {
-			JSONObject jsonObj = new JSONObject(do_Get(new URL(apiendpoint + "ping"), getApikey()));
+			JSONObject jsonObj = do_GetJSON(new URL(apiendpoint + "ping"), getApikey());
 			if (jsonObj.has("health_status") && "Everything's Chimpy!".equals(jsonObj.getString("health_status"))) {
 				return true;
 			}
@@ -186,7 +254,7 @@ public class MailChimpConnection extends Connection {
      */
     public List<CampaignFolder> getCampaignFolders(int count, int offset) throws Exception{
     	List<CampaignFolder> campaignFolders = new ArrayList<>();
-    	JSONObject campaignFoldersResponse = new JSONObject(do_Get(new URL(campaignfolderendpoint + "?offset=" + offset + "&count=" + count), getApikey()));
+    	JSONObject campaignFoldersResponse = do_GetJSON(collectionURL(campaignfolderendpoint + "?offset=" + offset + "&count=" + count, "folders"), getApikey());
 
     	JSONArray campaignFoldersJSON = campaignFoldersResponse.getJSONArray("folders");
 
@@ -204,7 +272,7 @@ public class MailChimpConnection extends Connection {
      */
     public CampaignFolder getCampaignFolder(String folder_id) throws Exception {
 
-    	JSONObject jsonCampaignFolder = new JSONObject(do_Get(new URL(campaignfolderendpoint +"/"+folder_id), getApikey()));
+    	JSONObject jsonCampaignFolder = do_GetJSON(new URL(campaignfolderendpoint +"/"+folder_id), getApikey());
     	return new CampaignFolder(this, jsonCampaignFolder);
     }
 
@@ -237,7 +305,33 @@ public class MailChimpConnection extends Connection {
      * @return Campaign iterator
      */
     public Iterable<Campaign> getCampaigns() {
-		return new ModelIterator<Campaign>(Campaign.class, campaignendpoint, this, 500);
+		return new ModelIterator<Campaign>(Campaign::new, "campaigns", campaignendpoint, this, 500);
+    }
+
+    /**
+     * Get campaigns iterator from mailchimp account, returning only some
+     * fields of each campaign.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+     * @param projection The fields to return, for example
+     *                   <code>Projection.fields(Campaign.class, "id", "status")</code>
+     * @return Campaign iterator
+     */
+    public ModelIterator<Campaign> getCampaigns(Projection<Campaign> projection) {
+		return new ModelIterator<Campaign>(Campaign::new, "campaigns", campaignendpoint, this, 500, projection);
+    }
+
+    /**
+     * Stream of the campaigns in your account. A parallel stream fetches the
+     * pages concurrently.
+     * @return Campaign stream
+     * @see #getCampaigns()
+     */
+    public Stream<Campaign> campaigns() {
+		return new ModelIterator<Campaign>(Campaign::new, "campaigns", campaignendpoint, this, 500).stream();
     }
 
     /**
@@ -252,7 +346,7 @@ public class MailChimpConnection extends Connection {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
     	// parse response
-    	JSONObject jsonCampaigns = new JSONObject(do_Get(new URL(campaignendpoint+ "?offset=" + offset + "&count=" + count),getApikey()));
+    	JSONObject jsonCampaigns = do_GetJSON(collectionURL(campaignendpoint+ "?offset=" + offset + "&count=" + count, "campaigns"),getApikey());
     	JSONArray campaignsArray = jsonCampaigns.getJSONArray("campaigns");
     	List<Campaign> campaigns = new ArrayList<Campaign>(campaignsArray.length());
     	for( int i = 0; i< campaignsArray.length();i++)
@@ -271,10 +365,38 @@ public class MailChimpConnection extends Connection {
 	 * @throws Exception
 	 */
 	public Campaign getCampaign(String campaignID) throws Exception {
-		JSONObject campaign = new JSONObject(do_Get(new URL(campaignendpoint +"/"+campaignID),getApikey()));
+		return getCampaign(campaignID, null);
+	}
+
+	/**
+	 * Get a campaign from mailchimp account, returning only some of its fields
+	 * @param campaignID
+	 * @param projection The fields to return, or null for every field
+	 * @return a campaign object
+	 * @throws Exception
+	 */
+	public Campaign getCampaign(String campaignID, Projection<Campaign> projection) throws Exception {
+		String url = campaignendpoint +"/"+campaignID;
+		JSONObject campaign = do_GetJSON(new URL(projection != null ? projection.applyTo(url, null) : url),getApikey());
 		return new Campaign(this, campaign);
 	}
 
+	/**
+	 * Asynchronous variant of {@link #getCampaign(String)}.
+	 * @param campaignID
+	 * @return A future completed with the campaign object
+	 * @throws URISyntaxException 
+	 * @throws MalformedURLException 
+	 */
+	public CompletableFuture<Campaign> getCampaignAsync(String campaignID) throws MalformedURLException, URISyntaxException {
+		return do_GetAsync(new URL(campaignendpoint +"/"+campaignID),getApikey())
+				.thenApply(json -> {
+					Campaign campaign = new Campaign();
+					campaign.parse(this, new JSONObject(json));
+					return campaign;
+				});
+	}
+
 	/**
 	 * Create a new campaign in your mailchimp account
 	 * @param type
@@ -333,7 +455,7 @@ public class MailChimpConnection extends Connection {
 	 */
 	public List<CampaignFeedback> getCampaignFeedback(String campaignID) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
 		List<CampaignFeedback> feedback = new ArrayList<CampaignFeedback>();
-		JSONObject campaignFeedback = new JSONObject(do_Get(new URL(getCampaignendpoint()+"/"+campaignID+"/feedback"),getApikey()));
+		JSONObject campaignFeedback = do_GetJSON(collectionURL(getCampaignendpoint()+"/"+campaignID+"/feedback", "feedback"),getApikey());
 		
 		JSONArray feedbackArray = campaignFeedback.getJSONArray("feedback");
 		for( int i = 0; i< feedbackArray.length();i++)
@@ -356,7 +478,7 @@ public class MailChimpConnection extends Connection {
 	 * @throws JSONException 
 	 */
 	public CampaignFeedback getCampaignFeedback(String campaignID, String feedbackId) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		JSONObject jsonObj = new JSONObject(do_Get(new URL(getCampaignendpoint()+"/"+campaignID+"/feedback/"+feedbackId),getApikey()));
+		JSONObject jsonObj = do_GetJSON(new URL(getCampaignendpoint()+"/"+campaignID+"/feedback/"+feedbackId),getApikey());
 		CampaignFeedback feedback = new CampaignFeedback(this, jsonObj);
 		return feedback;
 	}
@@ -406,10 +528,23 @@ public class MailChimpConnection extends Connection {
 	 */
 	public Report getCampaignReport(String campaignId) throws JSONException, TransportException, URISyntaxException, MalformedURLException {
 		URL url = new URL(getReportsendpoint() + "/" + campaignId);
-		JSONObject jsonReport = new JSONObject(do_Get(url, getApikey()));
+		JSONObject jsonReport = do_GetJSON(url, getApikey());
     	return new Report(jsonReport);
 	}
 	
+	/**
+	 * Asynchronous variant of {@link #getCampaignReport(String)}.
+	 * 
+	 * @param campaignId
+	 * @return A future completed with the report for the specified campaign.
+	 * @throws URISyntaxException
+	 * @throws MalformedURLException
+	 */
+	public CompletableFuture<Report> getCampaignReportAsync(String campaignId) throws URISyntaxException, MalformedURLException {
+		URL url = new URL(getReportsendpoint() + "/" + campaignId);
+		return do_GetAsync(url, getApikey()).thenApply(json -> new Report(new JSONObject(json)));
+	}
+	
 	/**
 	 * Mailchimp's campaign and Automation reports analyze clicks, opens, subscribers' social activity, e-commerce data, and more.
 	 * @param count Number of reports to return. Maximum value is 1000.
@@ -425,11 +560,11 @@ public class MailChimpConnection extends Connection {
 	 * @throws UnsupportedEncodingException 
 	 */
 	public List<Report> getCampaignReports(int count, int offset, CampaignType campaignType, ZonedDateTime beforeSendTime, ZonedDateTime sinceSendTime) throws JSONException, TransportException, URISyntaxException, MalformedURLException, UnsupportedEncodingException {
-		URL url = new URL(getReportsendpoint() + "?offset=" + offset + "&count=" + count +
+		URL url = collectionURL(getReportsendpoint() + "?offset=" + offset + "&count=" + count +
 				(campaignType!=null ? "&type" + campaignType.toString() : "") +
 				(beforeSendTime!=null ? "&before_send_time=" + URLEncoder.encode(DateConverter.toISO8601UTC(beforeSendTime), "UTF-8") : "") +
-				(sinceSendTime!=null ? "&since_send_time=" + URLEncoder.encode(DateConverter.toISO8601UTC(sinceSendTime), "UTF-8") : "") );
-		JSONObject jsonReports = new JSONObject(do_Get(url, getApikey()));
+				(sinceSendTime!=null ? "&since_send_time=" + URLEncoder.encode(DateConverter.toISO8601UTC(sinceSendTime), "UTF-8") : ""), "reports");
+		JSONObject jsonReports = do_GetJSON(url, getApikey());
 		//int total_items = jsonReports.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
     	JSONArray reportsArray = jsonReports.getJSONArray("reports");
     	List<Report> reports = new ArrayList<Report>(reportsArray.length());
@@ -441,6 +576,46 @@ public class MailChimpConnection extends Connection {
     	}
     	return reports;
 	}
+
+	/**
+	 * Iterate over the campaign and Automation reports, fetching the pages as
+	 * they are needed.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignType Optional, restrict the response by campaign type
+	 * @param beforeSendTime Optional, restrict the response to campaigns sent before the set time.
+	 * @param sinceSendTime Optional, restrict the response to campaigns sent after the set time.
+	 * @return Campaign report iterator
+	 */
+	public ModelIterator<Report> getCampaignReports(CampaignType campaignType, ZonedDateTime beforeSendTime, ZonedDateTime sinceSendTime) {
+		return getCampaignReports(campaignType, beforeSendTime, sinceSendTime, null);
+	}
+
+	/**
+	 * Iterate over the campaign and Automation reports, returning only some
+	 * fields of each report.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignType Optional, restrict the response by campaign type
+	 * @param beforeSendTime Optional, restrict the response to campaigns sent before the set time.
+	 * @param sinceSendTime Optional, restrict the response to campaigns sent after the set time.
+	 * @param projection The fields to return, or null for all fields
+	 * @return Campaign report iterator
+	 */
+	public ModelIterator<Report> getCampaignReports(CampaignType campaignType, ZonedDateTime beforeSendTime, ZonedDateTime sinceSendTime,
+			Projection<Report> projection) {
+		String filter = (campaignType!=null ? "&type=" + campaignType.toString() : "") +
+				(beforeSendTime!=null ? "&before_send_time=" + encodeTime(beforeSendTime) : "") +
+				(sinceSendTime!=null ? "&since_send_time=" + encodeTime(sinceSendTime) : "");
+		String query = getReportsendpoint() + (filter.isEmpty() ? "" : "?" + filter.substring(1));
+		return new ModelIterator<Report>(Report::new, "reports", query, this, 1000, projection);
+	}
 	
 	/**
 	 * Get a detailed report about any emails in a specific campaign that were opened by recipients.
@@ -456,12 +631,49 @@ public class MailChimpConnection extends Connection {
 	 * @throws UnsupportedEncodingException
 	 */
 	public OpenReport getCampaignOpenReports(int count, int offset, String campaignId, ZonedDateTime since) throws JSONException, TransportException, URISyntaxException, MalformedURLException, UnsupportedEncodingException {
-		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/open-details?offset=" + offset + "&count=" + count +
-				(since!=null ? "&since=" + URLEncoder.encode(DateConverter.toISO8601UTC(since), "UTF-8") : "") );
-		JSONObject jsonReports = new JSONObject(do_Get(url, getApikey()));
+		URL url = collectionURL(getReportsendpoint() + "/" + campaignId + "/open-details?offset=" + offset + "&count=" + count +
+				(since!=null ? "&since=" + URLEncoder.encode(DateConverter.toISO8601UTC(since), "UTF-8") : ""), "members");
+		JSONObject jsonReports = do_GetJSON(url, getApikey());
 		OpenReport report = new OpenReport(jsonReports);
 		return report;
 	}
+
+	/**
+	 * Iterate over the recipients who opened a campaign, fetching the pages as
+	 * they are needed. Use {@link ModelIterator#stream()} or
+	 * {@link ModelIterator#parallelStream()} to process a large campaign with
+	 * the pages fetched concurrently.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param since Optional, restrict results to campaign open events that occur after a specific time.
+	 * @return Iterator of list members who opened the campaign
+	 */
+	public ModelIterator<OpenReportMember> getCampaignOpenReports(String campaignId, ZonedDateTime since) {
+		return getCampaignOpenReports(campaignId, since, null);
+	}
+
+	/**
+	 * Iterate over the recipients who opened a campaign, returning only some
+	 * fields of each recipient.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param since Optional, restrict results to campaign open events that occur after a specific time.
+	 * @param projection The fields to return, or null for all fields
+	 * @return Iterator of list members who opened the campaign
+	 */
+	public ModelIterator<OpenReportMember> getCampaignOpenReports(String campaignId, ZonedDateTime since, Projection<OpenReportMember> projection) {
+		String query = getReportsendpoint() + "/" + campaignId + "/open-details" +
+				(since!=null ? "?since=" + encodeTime(since) : "");
+		return new ModelIterator<OpenReportMember>(OpenReportMember::new, "members", query, this, 1000, projection);
+	}
 	
 	/**
 	 * 
@@ -475,8 +687,8 @@ public class MailChimpConnection extends Connection {
 	 * @throws JSONException 
 	 */
 	public List<AbuseReport>  getCampaignAbuseReports(int count, int offset, String campaignId) throws MalformedURLException, JSONException, TransportException, URISyntaxException {
-		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/abuse-reports?offset=" + offset + "&count=" + count);
-		JSONObject jsonReports = new JSONObject(do_Get(url, getApikey()));
+		URL url = collectionURL(getReportsendpoint() + "/" + campaignId + "/abuse-reports?offset=" + offset + "&count=" + count, "abuse_reports");
+		JSONObject jsonReports = do_GetJSON(url, getApikey());
 		//int total_items = jsonReports.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
     	JSONArray reportsArray = jsonReports.getJSONArray("abuse_reports");
     	List<AbuseReport> reports = new ArrayList<AbuseReport>(reportsArray.length());
@@ -488,6 +700,36 @@ public class MailChimpConnection extends Connection {
     	}
     	return reports;
 	}
+
+	/**
+	 * Iterate over the abuse complaints for a campaign.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @return Abuse report iterator
+	 */
+	public ModelIterator<AbuseReport> getCampaignAbuseReports(String campaignId) {
+		return getCampaignAbuseReports(campaignId, null);
+	}
+
+	/**
+	 * Iterate over the abuse complaints for a campaign, returning only some
+	 * fields of each complaint.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param projection The fields to return, or null for every field
+	 * @return Abuse report iterator
+	 */
+	public ModelIterator<AbuseReport> getCampaignAbuseReports(String campaignId, Projection<AbuseReport> projection) {
+		return new ModelIterator<AbuseReport>(AbuseReport::new, "abuse_reports", getReportsendpoint() + "/" + campaignId + "/abuse-reports", this, 1000, projection);
+	}
 	
 	/**
 	 * Get information about a specific abuse report for a campaign.
@@ -501,7 +743,7 @@ public class MailChimpConnection extends Connection {
 	 */
 	public AbuseReport  getCampaignAbuseReport(String campaignId, int reportId) throws MalformedURLException, JSONException, TransportException, URISyntaxException {
 		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/abuse-reports/" + reportId);
-		JSONObject jsonReport = new JSONObject(do_Get(url, getApikey()));
+		JSONObject jsonReport = do_GetJSON(url, getApikey());
 		AbuseReport report = new AbuseReport(jsonReport);
 		return report;
 	}
@@ -519,8 +761,8 @@ public class MailChimpConnection extends Connection {
 	 * @throws UnsupportedEncodingException
 	 */
 	public List<AdviceReport> getCampaignAdviceReports(int count, int offset, String campaignId) throws JSONException, TransportException, URISyntaxException, MalformedURLException, UnsupportedEncodingException {
-		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/advice?offset=" + offset + "&count=" + count);
-		JSONObject jsonReports = new JSONObject(do_Get(url, getApikey()));
+		URL url = collectionURL(getReportsendpoint() + "/" + campaignId + "/advice?offset=" + offset + "&count=" + count, "advice");
+		JSONObject jsonReports = do_GetJSON(url, getApikey());
 		//int total_items = jsonReports.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
     	JSONArray reportsArray = jsonReports.getJSONArray("advice");
     	List<AdviceReport> reports = new ArrayList<AdviceReport>(reportsArray.length());
@@ -532,6 +774,36 @@ public class MailChimpConnection extends Connection {
     	}
     	return reports;
 	}
+
+	/**
+	 * Iterate over the recent feedback based on a campaign's statistics.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @return Advice report iterator
+	 */
+	public ModelIterator<AdviceReport> getCampaignAdviceReports(String campaignId) {
+		return getCampaignAdviceReports(campaignId, null);
+	}
+
+	/**
+	 * Iterate over the recent feedback based on a campaign's statistics, returning only some
+	 * fields of each piece of advice.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param projection The fields to return, or null for every field
+	 * @return Advice report iterator
+	 */
+	public ModelIterator<AdviceReport> getCampaignAdviceReports(String campaignId, Projection<AdviceReport> projection) {
+		return new ModelIterator<AdviceReport>(AdviceReport::new, "advice", getReportsendpoint() + "/" + campaignId + "/advice", this, 1000, projection);
+	}
 	
 	/**
 	 * Get detailed information about links clicked in campaigns.
@@ -545,8 +817,8 @@ public class MailChimpConnection extends Connection {
 	 * @throws URISyntaxException
 	 */
 	public List<ClickReport> getClickReports(int count, int offset, String campaignId) throws MalformedURLException, JSONException, TransportException, URISyntaxException {
-		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/click-details?offset=" + offset + "&count=" + count);
-		JSONObject jsonReports = new JSONObject(do_Get(url, getApikey()));
+		URL url = collectionURL(getReportsendpoint() + "/" + campaignId + "/click-details?offset=" + offset + "&count=" + count, "urls_clicked");
+		JSONObject jsonReports = do_GetJSON(url, getApikey());
 		//int total_items = jsonReports.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
     	JSONArray reportsArray = jsonReports.getJSONArray("urls_clicked");
     	List<ClickReport> reports = new ArrayList<ClickReport>(reportsArray.length());
@@ -558,6 +830,36 @@ public class MailChimpConnection extends Connection {
     	}
     	return reports;
 	}
+
+	/**
+	 * Iterate over the links clicked in a campaign.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @return Click report iterator
+	 */
+	public ModelIterator<ClickReport> getClickReports(String campaignId) {
+		return getClickReports(campaignId, null);
+	}
+
+	/**
+	 * Iterate over the links clicked in a campaign, returning only some
+	 * fields of each link.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param projection The fields to return, or null for every field
+	 * @return Click report iterator
+	 */
+	public ModelIterator<ClickReport> getClickReports(String campaignId, Projection<ClickReport> projection) {
+		return new ModelIterator<ClickReport>(ClickReport::new, "urls_clicked", getReportsendpoint() + "/" + campaignId + "/click-details", this, 1000, projection);
+	}
 	
 	/**
 	 * Get detailed information about links clicked in campaigns for a specific link.
@@ -571,7 +873,7 @@ public class MailChimpConnection extends Connection {
 	 */
 	public ClickReport getClickReport(String campaignId, String linkId) throws MalformedURLException, JSONException, TransportException, URISyntaxException {
 		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/click-details/" + linkId);
-		JSONObject jsonReport = new JSONObject(do_Get(url, getApikey()));
+		JSONObject jsonReport = do_GetJSON(url, getApikey());
 		ClickReport report = new ClickReport(jsonReport);
 		return report;
 	}
@@ -589,8 +891,8 @@ public class MailChimpConnection extends Connection {
 	 * @throws URISyntaxException
 	 */
 	public List<ClickReportMember> getClickReportMembers(int count, int offset, String campaignId, String linkId) throws MalformedURLException, JSONException, TransportException, URISyntaxException {
-		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/click-details/" + linkId + "/members?offset=" + offset + "&count=" + count);
-		JSONObject jsonReports = new JSONObject(do_Get(url, getApikey()));
+		URL url = collectionURL(getReportsendpoint() + "/" + campaignId + "/click-details/" + linkId + "/members?offset=" + offset + "&count=" + count, "members");
+		JSONObject jsonReports = do_GetJSON(url, getApikey());
 		//int total_items = jsonReports.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
     	JSONArray reportsArray = jsonReports.getJSONArray("members");
     	List<ClickReportMember> reports = new ArrayList<ClickReportMember>(reportsArray.length());
@@ -602,6 +904,39 @@ public class MailChimpConnection extends Connection {
     	}
     	return reports;
 	}
+
+	/**
+	 * Iterate over the subscribers who clicked a link.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param linkId The id for the link.
+	 * @return Iterator of subscribers who clicked the link
+	 */
+	public ModelIterator<ClickReportMember> getClickReportMembers(String campaignId, String linkId) {
+		return getClickReportMembers(campaignId, linkId, null);
+	}
+
+	/**
+	 * Iterate over the subscribers who clicked a link, returning only some
+	 * fields of each subscriber.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param linkId The id for the link.
+	 * @param projection The fields to return, or null for every field
+	 * @return Iterator of subscribers who clicked the link
+	 */
+	public ModelIterator<ClickReportMember> getClickReportMembers(String campaignId, String linkId, Projection<ClickReportMember> projection) {
+		return new ModelIterator<ClickReportMember>(ClickReportMember::new, "members",
+				getReportsendpoint() + "/" + campaignId + "/click-details/" + linkId + "/members", this, 1000, projection);
+	}
 	
 	/**
 	 * Get information about a specific subscriber who clicked a link.
@@ -616,7 +951,7 @@ public class MailChimpConnection extends Connection {
 	 */
 	public ClickReportMember getClickReportMember(String campaignId, String linkId, String subscriberHash) throws MalformedURLException, JSONException, TransportException, URISyntaxException {
 		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/click-details/" + linkId + "/members/" + subscriberHash);
-		JSONObject jsonReport = new JSONObject(do_Get(url, getApikey()));
+		JSONObject jsonReport = do_GetJSON(url, getApikey());
 		ClickReportMember report = new ClickReportMember(jsonReport);
 		return report;
 	}
@@ -632,7 +967,7 @@ public class MailChimpConnection extends Connection {
 	 */
 	public DomainPerformance getDomainPerformance(String campaignId) throws MalformedURLException, JSONException, TransportException, URISyntaxException {
 		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/domain-performance");
-		JSONObject jsonReport = new JSONObject(do_Get(url, getApikey()));
+		JSONObject jsonReport = do_GetJSON(url, getApikey());
 		DomainPerformance report = new DomainPerformance(jsonReport);
 		return report;
 	}
@@ -650,9 +985,9 @@ public class MailChimpConnection extends Connection {
 	 * @throws URISyntaxException
 	 */
 	public List<EcommerceProductActivity> getEcommerceProductActivity(int count, int offset, String campaignId, EcommerceSortField sortField) throws MalformedURLException, JSONException, TransportException, URISyntaxException {
-		URL url = new URL(getReportsendpoint() + "/" + campaignId + "/ecommerce-product-activity?offset=" + offset + "&count=" + count + 
-				"&sort_field=" + (sortField != null ? sortField.toString() : EcommerceSortField.TITLE.toString()));
-		JSONObject jsonReports = new JSONObject(do_Get(url, getApikey()));
+		URL url = collectionURL(getReportsendpoint() + "/" + campaignId + "/ecommerce-product-activity?offset=" + offset + "&count=" + count + 
+				"&sort_field=" + (sortField != null ? sortField.toString() : EcommerceSortField.TITLE.toString()), "products");
+		JSONObject jsonReports = do_GetJSON(url, getApikey());
 		//int total_items = jsonReports.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
     	JSONArray reportsArray = jsonReports.getJSONArray("products");
     	List<EcommerceProductActivity> reports = new ArrayList<EcommerceProductActivity>(reportsArray.length());
@@ -664,6 +999,52 @@ public class MailChimpConnection extends Connection {
     	}
     	return reports;
 	}
+
+	/**
+	 * Iterate over the ecommerce product activity of a campaign.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param sortField Optional, sort products by this field.
+	 * @return Product activity iterator
+	 */
+	public ModelIterator<EcommerceProductActivity> getEcommerceProductActivity(String campaignId, EcommerceSortField sortField) {
+		return getEcommerceProductActivity(campaignId, sortField, null);
+	}
+
+	/**
+	 * Iterate over the ecommerce product activity of a campaign, returning only some
+	 * fields of each product.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param campaignId The unique id for the campaign.
+	 * @param sortField Optional, sort products by this field.
+	 * @param projection The fields to return, or null for every field
+	 * @return Product activity iterator
+	 */
+	public ModelIterator<EcommerceProductActivity> getEcommerceProductActivity(String campaignId, EcommerceSortField sortField,
+			Projection<EcommerceProductActivity> projection) {
+		return new ModelIterator<EcommerceProductActivity>(EcommerceProductActivity::new, "products",
+				getReportsendpoint() + "/" + campaignId + "/ecommerce-product-activity?sort_field=" +
+				(sortField != null ? sortField.toString() : EcommerceSortField.TITLE.toString()), this, 1000, projection);
+	}
+
+	/**
+	 * URL encode a time for a query parameter.
+	 */
+	private static String encodeTime(ZonedDateTime time) {
+		try {
+			return URLEncoder.encode(DateConverter.toISO8601UTC(time), "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);	// UTF-8 is always supported
+		}
+	}
 	
 	// TODO: Report - Email Activity - Get list member activity for a specific campaign.
 	// TODO: Report - Email Activity - Get list member activity for a specific campaign and subscriber.
@@ -691,7 +1072,7 @@ public class MailChimpConnection extends Connection {
      */
 	public List<TemplateFolder> getTemplateFolders(int count, int offset) throws Exception{
         List<TemplateFolder> templateFolders = new ArrayList<>();
-        JSONObject templateFoldersResponse = new JSONObject(do_Get(new URL(templatefolderendpoint + "?offset=" + offset + "&count=" + count), getApikey()));
+        JSONObject templateFoldersResponse = do_GetJSON(collectionURL(templatefolderendpoint + "?offset=" + offset + "&count=" + count, "folders"), getApikey());
 		//int total_items = templateFoldersResponse.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
         JSONArray templateFoldersJSON = templateFoldersResponse.getJSONArray("folders");
 
@@ -708,7 +1089,7 @@ public class MailChimpConnection extends Connection {
      */
     public TemplateFolder getTemplateFolder(String folder_id) throws Exception{
 
-        JSONObject jsonTemplateFolder = new JSONObject(do_Get(new URL(templatefolderendpoint +"/"+folder_id), getApikey()));
+        JSONObject jsonTemplateFolder = do_GetJSON(new URL(templatefolderendpoint +"/"+folder_id), getApikey());
         return new TemplateFolder(this, jsonTemplateFolder);
     }
 
@@ -751,7 +1132,7 @@ public class MailChimpConnection extends Connection {
 	public List<Template> getTemplates(int count, int offset) throws Exception{
 		List<Template> templates = new ArrayList<Template>();
 
-		JSONObject jsonTemplates = new JSONObject(do_Get(new URL(templateendpoint + "?offset=" + offset + "&count=" + count),getApikey()));
+		JSONObject jsonTemplates = do_GetJSON(collectionURL(templateendpoint + "?offset=" + offset + "&count=" + count, "templates"),getApikey());
 		JSONArray templatesArray = jsonTemplates.getJSONArray("templates");
 		for( int i = 0; i< templatesArray.length();i++)
 		{
@@ -768,7 +1149,7 @@ public class MailChimpConnection extends Connection {
 	 * @throws Exception
 	 */
 	public Template getTemplate(String id) throws Exception{
-		JSONObject jsonTemplate = new JSONObject(do_Get(new URL(templateendpoint +"/" +id),getApikey()));
+		JSONObject jsonTemplate = do_GetJSON(new URL(templateendpoint +"/" +id),getApikey());
 		return new Template(this, jsonTemplate);
 	}
 
@@ -809,7 +1190,7 @@ public class MailChimpConnection extends Connection {
 	 */
 	public Template createTemplate(Template template) throws Exception {
 		JSONObject jsonObj = template.getJsonRepresentation();
-		String results = do_Post(new URL(templateendpoint +"/"), jsonObj.toString(),getApikey());
+		String results = do_Post(new URL(templateendpoint +"/"), RequestBody.ofJSON(jsonObj), getApikey());
 		template.parse(this, new JSONObject(results));
 		return template;
 	}
@@ -843,7 +1224,7 @@ public class MailChimpConnection extends Connection {
 	public List<Automation> getAutomations(int count, int offset) throws Exception {
 		List<Automation> automations = new ArrayList<Automation>();
 
-		JSONObject jsonAutomations = new JSONObject(do_Get(new URL(automationendpoint + "?offset=" + offset + "&count=" + count),getApikey()));
+		JSONObject jsonAutomations = do_GetJSON(collectionURL(automationendpoint + "?offset=" + offset + "&count=" + count, "automations"),getApikey());
 		//int total_items = jsonAutomations.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
 		JSONArray automationsArray = jsonAutomations.getJSONArray("automations");
 		for( int i = 0; i< automationsArray.length();i++)
@@ -862,7 +1243,7 @@ public class MailChimpConnection extends Connection {
 	 * @throws Exception
 	 */
 	public Automation getAutomation(String workflowId) throws Exception {
-		JSONObject jsonAutomation = new JSONObject(do_Get(new URL(automationendpoint +"/"+workflowId), getApikey()));
+		JSONObject jsonAutomation = do_GetJSON(new URL(automationendpoint +"/"+workflowId), getApikey());
 		return new Automation(this, jsonAutomation);
 	}
 
@@ -930,7 +1311,7 @@ public class MailChimpConnection extends Connection {
 	 */
 	public List<AutomationEmail> getAutomationEmails(String workflowId, int count, int offset) throws Exception {
 		List<AutomationEmail> emails = new ArrayList<AutomationEmail>();
-		JSONObject jsonObj = new JSONObject(do_Get(new URL(automationendpoint + "/" + workflowId + "/emails" + "?offset=" + offset + "&count=" + count), getApikey()));
+		JSONObject jsonObj = do_GetJSON(collectionURL(automationendpoint + "/" + workflowId + "/emails" + "?offset=" + offset + "&count=" + count, "emails"), getApikey());
 		//int total_items = jsonAutomations.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
 		JSONArray emailsArray = jsonObj.getJSONArray("emails");
 		for( int i = 0; i< emailsArray.length();i++)
@@ -949,7 +1330,7 @@ public class MailChimpConnection extends Connection {
 	 * @throws Exception
 	 */
 	public AutomationEmail getAutomationEmail(String workflowId, String workflowEmailId) throws Exception {
-		JSONObject jsonObj = new JSONObject(do_Get(new URL(automationendpoint + "/" + workflowId + "/emails/" + workflowEmailId), getApikey()));
+		JSONObject jsonObj = do_GetJSON(new URL(automationendpoint + "/" + workflowId + "/emails/" + workflowEmailId), getApikey());
 		return new AutomationEmail(this, jsonObj);
 	}
 	
@@ -1004,6 +1385,29 @@ public class MailChimpConnection extends Connection {
 		return this.authorization;
 	}
 
+	/**
+	 * @return Number of pages iterators fetch ahead of the caller
+	 */
+	public int getPrefetchPages() {
+		return prefetchPages;
+	}
+
+	/**
+	 * @return false if iterators return prefetched pages as they arrive rather
+	 *         than in offset order
+	 */
+	public boolean isOrderedPages() {
+		return orderedPages;
+	}
+
+	/**
+	 * @return How iterators choose their page size, or null if they use the
+	 *         size they were created with
+	 */
+	public AdaptivePageSize getAdaptivePageSize() {
+		return adaptivePageSize;
+	}
+
 	public String getAuthorization() {
 		return this.authorization;
 	}
@@ -1067,6 +1471,17 @@ public class MailChimpConnection extends Connection {
 		return reportsendpoint;
 	}
 
+	public String getBatchesendpoint() {
+		return batchesendpoint;
+	}
+
+	/**
+	 * @return Submits and tracks batch operation requests
+	 */
+	public BatchOperations getBatchOperations() {
+		return batchOperations;
+	}
+
 	/**
 	 * @return the account
 	 * @throws Exception 
@@ -1083,7 +1498,7 @@ public class MailChimpConnection extends Connection {
 		if (account == null) {
 			synchronized(this) {
 				if (account == null) {
-					JSONObject jsonAPIROOT = new JSONObject(do_Get(new URL(apiendpoint),getApikey()));
+					JSONObject jsonAPIROOT = do_GetJSON(new URL(apiendpoint),getApikey());
 					this.account = new Account(this, jsonAPIROOT);
 				}
 			}
@@ -1100,6 +1515,22 @@ public class MailChimpConnection extends Connection {
 		private String token;
 		private TokenType tokenType;
 		private String dc;
+		private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+		private int maxConnectionsTotal = DEFAULT_MAX_CONNECTIONS_TOTAL;
+		private long keepAliveMillis = DEFAULT_KEEP_ALIVE_MILLIS;
+		private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+		private int ioThreads = 0;
+		private boolean compression = true;
+		private boolean clientErrorStackTraces = true;
+		private boolean excludeLinks = true;
+		private int prefetchPages = 0;
+		private boolean orderedPages = true;
+		private AdaptivePageSize adaptivePageSize;
+		private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+		private RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+		private Transport transport;
+		private boolean http2;
+		private Executor callbackExecutor = ForkJoinPool.commonPool();
 
 		public Builder usingApiKey(String apiKey) {
 			this.apiKey = apiKey;
@@ -1118,6 +1549,200 @@ public class MailChimpConnection extends Connection {
 			return this;
 		}
 
+		/**
+		 * @param maxConnectionsPerRoute Maximum number of pooled connections to the
+		 *                               Mailchimp API host. Defaults to 10.
+		 */
+		public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			if (maxConnectionsPerRoute < 1) {
+				throw new IllegalArgumentException("maxConnectionsPerRoute must be at least 1");
+			}
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+			return this;
+		}
+
+		/**
+		 * @param maxConnectionsTotal Maximum number of pooled connections across all
+		 *                            hosts. Defaults to 20.
+		 */
+		public Builder maxConnectionsTotal(int maxConnectionsTotal) {
+			if (maxConnectionsTotal < 1) {
+				throw new IllegalArgumentException("maxConnectionsTotal must be at least 1");
+			}
+			this.maxConnectionsTotal = maxConnectionsTotal;
+			return this;
+		}
+
+		/**
+		 * @param duration How long an idle connection is kept alive when the server
+		 *                 does not specify a Keep-Alive timeout. Defaults to 30
+		 *                 seconds.
+		 * @param unit     Time unit of duration
+		 */
+		public Builder keepAlive(long duration, TimeUnit unit) {
+			this.keepAliveMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param duration Pooled connections idle for longer than this are closed by
+		 *                 a background thread. Defaults to 60 seconds.
+		 * @param unit     Time unit of duration
+		 */
+		public Builder evictIdleConnections(long duration, TimeUnit unit) {
+			this.idleTimeoutMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param ioThreads Number of I/O dispatch threads used by the asynchronous
+		 *                  API. Defaults to one per available processor.
+		 */
+		public Builder ioThreads(int ioThreads) {
+			if (ioThreads < 1) {
+				throw new IllegalArgumentException("ioThreads must be at least 1");
+			}
+			this.ioThreads = ioThreads;
+			return this;
+		}
+
+		/**
+		 * @param callbackExecutor Executor used to complete the futures returned by
+		 *                         the asynchronous API. Defaults to
+		 *                         {@link ForkJoinPool#commonPool()}.
+		 */
+		public Builder callbackExecutor(Executor callbackExecutor) {
+			this.callbackExecutor = callbackExecutor;
+			return this;
+		}
+
+		/**
+		 * @param compression Ask the API for gzip or deflate encoded responses.
+		 *                    Defaults to true.
+		 */
+		public Builder compression(boolean compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * @param clientErrorStackTraces false to throw 4xx errors without a stack
+		 *                               trace or eagerly built message. Defaults
+		 *                               to true.
+		 * @see Connection#setClientErrorStackTraces(boolean)
+		 */
+		public Builder clientErrorStackTraces(boolean clientErrorStackTraces) {
+			this.clientErrorStackTraces = clientErrorStackTraces;
+			return this;
+		}
+
+		/**
+		 * @param excludeLinks false to receive the <code>_links</code> of every
+		 *                     resource. Defaults to true.
+		 * @see Connection#setExcludeLinks(boolean)
+		 */
+		public Builder excludeLinks(boolean excludeLinks) {
+			this.excludeLinks = excludeLinks;
+			return this;
+		}
+
+		/**
+		 * @param prefetchPages Number of pages the iterators returned by this
+		 *                      connection, such as
+		 *                      {@link MailChimpList#getMembers()}, request in the
+		 *                      background while the caller works through the
+		 *                      current page. Once the first page has reported
+		 *                      <code>total_items</code> the following pages are
+		 *                      fetched concurrently, so this is also the paging
+		 *                      parallelism. Defaults to 0, fetching each page
+		 *                      only when it is needed.
+		 */
+		public Builder prefetchPages(int prefetchPages) {
+			if (prefetchPages < 0) {
+				throw new IllegalArgumentException("prefetchPages must not be negative");
+			}
+			this.prefetchPages = prefetchPages;
+			return this;
+		}
+
+		/**
+		 * @param orderedPages false to let iterators return prefetched pages in
+		 *                     the order they arrive, for the best throughput
+		 *                     when the caller does not depend on the order.
+		 *                     Defaults to true.
+		 * @see #prefetchPages(int)
+		 */
+		public Builder orderedPages(boolean orderedPages) {
+			this.orderedPages = orderedPages;
+			return this;
+		}
+
+		/**
+		 * @param adaptivePageSize Let iterators adjust the number of entities
+		 *                         requested per page toward a target response
+		 *                         time and size, for example
+		 *                         {@link AdaptivePageSize#DEFAULT}. Each
+		 *                         iterator starts from the size last chosen for
+		 *                         its endpoint, see
+		 *                         {@link EndpointMetrics#getLastPageSize()}.
+		 *                         Defaults to null, using the page size each
+		 *                         iterator was created with.
+		 */
+		public Builder adaptivePageSize(AdaptivePageSize adaptivePageSize) {
+			this.adaptivePageSize = adaptivePageSize;
+			return this;
+		}
+
+		/**
+		 * @param maxConcurrentRequests Maximum number of requests in flight for the
+		 *                              account; further requests are queued.
+		 *                              Defaults to 10.
+		 */
+		public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+			if (maxConcurrentRequests < 1) {
+				throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+			}
+			this.maxConcurrentRequests = maxConcurrentRequests;
+			return this;
+		}
+
+		/**
+		 * @param retryPolicy Decides which failed requests are sent again.
+		 *                    Defaults to {@link RetryPolicy#DEFAULT}; use
+		 *                    {@link RetryPolicy#NONE} to disable retries.
+		 */
+		public Builder retryPolicy(RetryPolicy retryPolicy) {
+			this.retryPolicy = retryPolicy;
+			return this;
+		}
+
+		/**
+		 * @param transport The HTTP engine to send requests through, for example a
+		 *                  <code>JdkHttpTransport</code> on Java 11 or an
+		 *                  {@link InMemoryTransport}. Defaults to an
+		 *                  {@link ApacheTransport} configured from this builder's
+		 *                  pool settings, which are ignored when a transport is
+		 *                  given.
+		 */
+		public Builder transport(Transport transport) {
+			this.transport = transport;
+			return this;
+		}
+
+		/**
+		 * Send requests over HTTP/2 where possible. Concurrent requests are then
+		 * multiplexed over a few connections to the API host instead of each
+		 * taking a pooled connection; raise {@link #maxConcurrentRequests(int)} to
+		 * make use of that. HTTP/2 uses the <code>JdkHttpTransport</code> and
+		 * needs Java 11 or later. On Java 8, or when the server does not offer HTTP/2,
+		 * requests are sent over HTTP/1.1. Ignored when a transport is set with
+		 * {@link #transport(Transport)}.
+		 */
+		public Builder http2() {
+			this.http2 = true;
+			return this;
+		}
+
 		public MailChimpConnection build() {
 			if (this.tokenType == null) {
 				throw new NullPointerException("No token specified");
@@ -1125,15 +1750,37 @@ public class MailChimpConnection extends Connection {
 
 			switch (tokenType) {
 				case APIKEY:
-					return new MailChimpConnection(apiKey.split("-")[1], "apikey", apiKey);
+					return new MailChimpConnection(apiKey.split("-")[1], "apikey", apiKey, this);
 				case BEARER:
 					if (this.dc == null) {
 						throw new NullPointerException("No datacenter specified");
 					}
-					return new MailChimpConnection(this.dc, "Bearer", this.token);
+					return new MailChimpConnection(this.dc, "Bearer", this.token, this);
 				default:
 					throw new IllegalArgumentException();
 			}
 		}
+
+		private Transport createTransport() {
+			if (transport != null) {
+				return transport;
+			}
+			if (http2) {
+				Transport jdk = Http2Transports.create();
+				if (jdk != null) {
+					return jdk;
+				}
+				logger.info("HTTP/2 requires Java 11 or later, using HTTP/1.1");
+			}
+			ApacheTransport.Builder apache = new ApacheTransport.Builder()
+					.maxConnectionsPerRoute(maxConnectionsPerRoute)
+					.maxConnectionsTotal(maxConnectionsTotal)
+					.keepAlive(keepAliveMillis, TimeUnit.MILLISECONDS)
+					.evictIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+			if (ioThreads > 0) {
+				apache.ioThreads(ioThreads);
+			}
+			return apache.build();
+		}
 	}
 }
@@ -0,0 +1,232 @@
+package com.github.bananaj.connection;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONObject;
+
+/**
+ * The body of a request sent through a {@link Transport}. Bodies are written
+ * straight to the request stream, so a body of unknown length is sent chunked
+ * without first being copied into memory. A repeatable body may be written
+ * more than once, for example when a request is retried.
+ */
+public interface RequestBody {
+
+	/** Content-Type of JSON request bodies */
+	String JSON = "application/json; charset=UTF-8";
+
+	/**
+	 * Writes a request body to a stream.
+	 */
+	@FunctionalInterface
+	interface BodyWriter {
+		/**
+		 * @param out The request stream. It must not be closed.
+		 * @throws IOException
+		 */
+		void writeTo(OutputStream out) throws IOException;
+	}
+
+	/**
+	 * @return The Content-Type of the body
+	 */
+	String getContentType();
+
+	/**
+	 * @return The length of the body in bytes, or -1 if it is not known in
+	 *         advance
+	 */
+	long getContentLength();
+
+	/**
+	 * Write the body to the request stream.
+	 * @param out The request stream. It is not closed by this method.
+	 * @throws IOException
+	 */
+	void writeTo(OutputStream out) throws IOException;
+
+	/**
+	 * @return true if the body can be written more than once
+	 */
+	default boolean isRepeatable() {
+		return true;
+	}
+
+	/**
+	 * Open the body for reading, for HTTP engines that pull the body rather than
+	 * have it written to them. The default implementation writes the body
+	 * through a pipe on a background thread.
+	 * @return A stream of the body content
+	 * @throws IOException
+	 */
+	default InputStream openStream() throws IOException {
+		return BodyPipe.open(this);
+	}
+
+	/**
+	 * @param json A JSON document
+	 * @return A UTF-8 encoded <code>application/json</code> body
+	 */
+	static RequestBody ofJSON(String json) {
+		return of(json.getBytes(StandardCharsets.UTF_8), JSON);
+	}
+
+	/**
+	 * @param json A JSON document
+	 * @return An <code>application/json</code> body serialized straight to the
+	 *         request stream
+	 */
+	static RequestBody ofJSON(JSONObject json) {
+		return ofJSON(out -> {
+			Writer writer = new OutputStreamWriter(new FilterOutputStream(out) {
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					out.write(b, off, len);
+				}
+
+				@Override
+				public void close() throws IOException {
+					flush(); // leave the request stream open
+				}
+			}, StandardCharsets.UTF_8);
+			json.write(writer);
+			writer.close();
+		});
+	}
+
+	/**
+	 * @param writer Writes a UTF-8 encoded JSON document. It is called again
+	 *               each time the body is sent.
+	 * @return An <code>application/json</code> body of unknown length
+	 */
+	static RequestBody ofJSON(BodyWriter writer) {
+		return of(writer, -1, JSON);
+	}
+
+	/**
+	 * @param writer        Writes the body. It is called again each time the
+	 *                      body is sent.
+	 * @param contentLength The number of bytes the writer produces, or -1 if not
+	 *                      known
+	 * @param contentType   The Content-Type of the body
+	 * @return A repeatable body
+	 */
+	static RequestBody of(BodyWriter writer, long contentLength, String contentType) {
+		return new RequestBody() {
+			@Override
+			public String getContentType() {
+				return contentType;
+			}
+
+			@Override
+			public long getContentLength() {
+				return contentLength;
+			}
+
+			@Override
+			public void writeTo(OutputStream out) throws IOException {
+				writer.writeTo(out);
+			}
+		};
+	}
+
+	/**
+	 * @param content       The body content. The stream is read once and closed
+	 *                      after the body has been sent, so requests using this
+	 *                      body are not retried.
+	 * @param contentLength The number of bytes in the stream, or -1 if not known
+	 * @param contentType   The Content-Type of the body
+	 * @return A single use body
+	 */
+	static RequestBody of(InputStream content, long contentLength, String contentType) {
+		return new RequestBody() {
+			@Override
+			public String getContentType() {
+				return contentType;
+			}
+
+			@Override
+			public long getContentLength() {
+				return contentLength;
+			}
+
+			@Override
+			public void writeTo(OutputStream out) throws IOException {
+				try (InputStream in = content) {
+					byte[] buffer = new byte[8192];
+					int n;
+					while ((n = in.read(buffer)) != -1) {
+						out.write(buffer, 0, n);
+					}
+				}
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return false;
+			}
+
+			@Override
+			public InputStream openStream() {
+				return content;
+			}
+		};
+	}
+
+	/**
+	 * @param content The body content
+	 * @param contentType The Content-Type of the body
+	 * @return A body holding the given bytes
+	 */
+	static RequestBody of(byte[] content, String contentType) {
+		return new ByteArrayRequestBody(content, contentType);
+	}
+
+	/**
+	 * A body held in memory.
+	 */
+	final class ByteArrayRequestBody implements RequestBody {
+		private final byte[] content;
+		private final String contentType;
+
+		ByteArrayRequestBody(byte[] content, String contentType) {
+			this.content = content;
+			this.contentType = contentType;
+		}
+
+		@Override
+		public String getContentType() {
+			return contentType;
+		}
+
+		@Override
+		public long getContentLength() {
+			return content.length;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			out.write(content);
+		}
+
+		@Override
+		public InputStream openStream() {
+			return new ByteArrayInputStream(content);
+		}
+
+		/**
+		 * @return The body content. The array is not copied and must not be
+		 *         modified.
+		 */
+		public byte[] getContent() {
+			return content;
+		}
+	}
+}
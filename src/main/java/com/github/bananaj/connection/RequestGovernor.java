@@ -0,0 +1,249 @@
+package com.github.bananaj.connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of requests an account has in flight. Requests beyond the
+ * limit wait in a first-in first-out queue, so permits are handed out fairly
+ * to both blocking and asynchronous callers. When Mailchimp answers with
+ * <code>429 Too Many Requests</code> the whole queue is paused for the
+ * interval given by the <code>Retry-After</code> header.
+ */
+public class RequestGovernor {
+
+	/** Shared timer for queue pauses and retry backoff */
+	static final ScheduledExecutorService scheduler = createScheduler();
+
+	private final int maxInFlight;
+	private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+	private int inFlight;
+	private long pausedUntil;
+
+	private final LongAdder granted = new LongAdder();
+	private final LongAdder queued = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final LongAdder throttled = new LongAdder();
+
+	/**
+	 * @param maxInFlight Maximum number of concurrent requests
+	 */
+	public RequestGovernor(int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight must be at least 1");
+		}
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Wait for a permit to send a request. Every successful call must be
+	 * followed by a call to {@link #release()}.
+	 * @throws InterruptedException The thread was interrupted while queued
+	 */
+	public void acquire() throws InterruptedException {
+		CompletableFuture<Void> permit = acquireAsync();
+		try {
+			permit.get();
+		} catch (InterruptedException e) {
+			if (!permit.cancel(false)) {
+				// the permit was granted while we were being interrupted
+				release();
+			}
+			throw e;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Request a permit without blocking. The returned future completes once the
+	 * permit is granted; the holder must then call {@link #release()}.
+	 * Cancelling the future before it completes withdraws the request from the
+	 * queue.
+	 * @return A future completed when the permit is granted
+	 */
+	public CompletableFuture<Void> acquireAsync() {
+		synchronized (this) {
+			if (queue.isEmpty() && inFlight < maxInFlight && !isPaused(System.nanoTime())) {
+				inFlight++;
+				granted.increment();
+				return CompletableFuture.completedFuture(null);
+			}
+			Waiter waiter = new Waiter();
+			queue.add(waiter);
+			queued.increment();
+			return waiter.permit;
+		}
+	}
+
+	/**
+	 * Return a permit obtained from {@link #acquire()} or
+	 * {@link #acquireAsync()}.
+	 */
+	public void release() {
+		synchronized (this) {
+			inFlight--;
+		}
+		dispatch();
+	}
+
+	/**
+	 * Stop handing out permits for a period. Requests already in flight are not
+	 * affected; queued and new requests wait until the pause has elapsed.
+	 * @param duration Length of the pause
+	 * @param unit Time unit of duration
+	 */
+	public void pause(long duration, TimeUnit unit) {
+		long delayNanos = unit.toNanos(duration);
+		synchronized (this) {
+			long until = System.nanoTime() + delayNanos;
+			if (isPaused(System.nanoTime()) && until - pausedUntil <= 0) {
+				return;
+			}
+			pausedUntil = until;
+		}
+		throttled.increment();
+		scheduler.schedule(this::dispatch, delayNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return true while a <code>Retry-After</code> pause is in effect
+	 */
+	public synchronized boolean isPaused() {
+		return isPaused(System.nanoTime());
+	}
+
+	/**
+	 * @return Maximum number of concurrent requests
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * @return Number of requests currently holding a permit
+	 */
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * @return Number of requests waiting for a permit
+	 */
+	public synchronized int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * @return Number of permits granted
+	 */
+	public long getGrantedCount() {
+		return granted.sum();
+	}
+
+	/**
+	 * @return Number of requests that had to wait in the queue
+	 */
+	public long getQueuedCount() {
+		return queued.sum();
+	}
+
+	/**
+	 * @return Number of times the queue was paused after a 429 response
+	 */
+	public long getThrottledCount() {
+		return throttled.sum();
+	}
+
+	/**
+	 * @return Total time requests have spent waiting for a permit, in milliseconds
+	 */
+	public long getTotalWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+	}
+
+	/**
+	 * @return Mean time a granted request waited for its permit, in milliseconds
+	 */
+	public double getAverageWaitMillis() {
+		long n = granted.sum();
+		return n > 0 ? waitNanos.sum() / 1_000_000.0 / n : 0;
+	}
+
+	/**
+	 * @return Longest time a request has waited for a permit, in milliseconds
+	 */
+	public long getMaxWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+	}
+
+	@Override
+	public String toString() {
+		return "RequestGovernor: inFlight=" + getInFlight() + "/" + maxInFlight + " queued=" + getQueueDepth()
+				+ " paused=" + isPaused() + " avgWaitMillis=" + getAverageWaitMillis() + " maxWaitMillis="
+				+ getMaxWaitMillis() + " throttled=" + getThrottledCount();
+	}
+
+	private boolean isPaused(long now) {
+		return now - pausedUntil < 0;
+	}
+
+	/**
+	 * Hand free permits to queued requests. Futures are completed outside the
+	 * lock since completion runs the waiting request's continuation.
+	 */
+	private void dispatch() {
+		List<Waiter> ready = null;
+		synchronized (this) {
+			long now = System.nanoTime();
+			while (inFlight < maxInFlight && !queue.isEmpty() && !isPaused(now)) {
+				Waiter waiter = queue.poll();
+				if (waiter.permit.isDone()) {
+					continue; // withdrawn
+				}
+				inFlight++;
+				if (ready == null) {
+					ready = new ArrayList<>();
+				}
+				ready.add(waiter);
+			}
+		}
+		if (ready != null) {
+			long now = System.nanoTime();
+			for (Waiter waiter : ready) {
+				if (waiter.permit.complete(null)) {
+					long waited = now - waiter.enqueued;
+					granted.increment();
+					waitNanos.add(waited);
+					maxWaitNanos.accumulateAndGet(waited, Math::max);
+				} else {
+					release();
+				}
+			}
+		}
+	}
+
+	private static ScheduledExecutorService createScheduler() {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+			Thread t = new Thread(r, "bananaj-governor");
+			t.setDaemon(true);
+			return t;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+
+	private static class Waiter {
+		final CompletableFuture<Void> permit = new CompletableFuture<>();
+		final long enqueued = System.nanoTime();
+	}
+}
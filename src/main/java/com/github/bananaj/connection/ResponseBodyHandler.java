@@ -0,0 +1,24 @@
+package com.github.bananaj.connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes a successful (2xx) response body directly from the HTTP stream so
+ * that large responses never have to be copied into a String.
+ *
+ * @param <T> Type produced from the response body
+ * @see Connection#do_Get(java.net.URL, String, ResponseBodyHandler)
+ */
+@FunctionalInterface
+public interface ResponseBodyHandler<T> {
+
+	/**
+	 * @param content The response body. The stream is closed by the caller once
+	 *                the handler returns.
+	 * @return The value decoded from the response body
+	 * @throws IOException
+	 */
+	T handle(InputStream content) throws IOException;
+
+}
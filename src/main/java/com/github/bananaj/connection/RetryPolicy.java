@@ -0,0 +1,183 @@
+package com.github.bananaj.connection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a failed request is sent again and how long to wait first.
+ * A request is retried when it fails with an I/O error or with one of the
+ * retryable status codes, until the maximum number of attempts or the deadline
+ * is reached. The delay before each retry grows exponentially and is drawn at
+ * random between zero and that bound (full jitter) so that clients that failed
+ * together do not retry together.
+ *
+ * GET, PUT, DELETE and other idempotent requests are retried. POST and PATCH
+ * requests are only retried when {@link Builder#retryNonIdempotent(boolean)}
+ * is set, since the server may have acted on a request whose response was
+ * lost.
+ */
+public class RetryPolicy {
+
+	/** Never retry */
+	public static final RetryPolicy NONE = new Builder().maxAttempts(1).build();
+
+	/** Three attempts, 200ms initial backoff capped at 5s, 30s deadline, idempotent requests only */
+	public static final RetryPolicy DEFAULT = new Builder().build();
+
+	private final int maxAttempts;
+	private final long initialBackoffMillis;
+	private final long maxBackoffMillis;
+	private final long deadlineMillis;
+	private final Set<Integer> retryableStatus;
+	private final boolean retryNonIdempotent;
+
+	private RetryPolicy(Builder b) {
+		this.maxAttempts = b.maxAttempts;
+		this.initialBackoffMillis = b.initialBackoffMillis;
+		this.maxBackoffMillis = b.maxBackoffMillis;
+		this.deadlineMillis = b.deadlineMillis;
+		this.retryableStatus = Collections.unmodifiableSet(new HashSet<>(b.retryableStatus));
+		this.retryNonIdempotent = b.retryNonIdempotent;
+	}
+
+	/**
+	 * Decide whether to retry a failed attempt.
+	 * @param verb HTTP verb of the request
+	 * @param statusCode The response status, or -1 if the attempt failed with an I/O error
+	 * @param attempt The number of the attempt that failed, starting at 1
+	 * @param elapsedMillis Time since the first attempt was started
+	 * @return The delay in milliseconds before the next attempt, or -1 if the
+	 *         request should not be retried
+	 */
+	public long nextDelayMillis(String verb, int statusCode, int attempt, long elapsedMillis) {
+		if (attempt >= maxAttempts || !isRetryable(verb)) {
+			return -1;
+		}
+		if (statusCode != -1 && !retryableStatus.contains(statusCode)) {
+			return -1;
+		}
+		long bound = initialBackoffMillis << Math.min(attempt - 1, 30);
+		if (bound <= 0 || bound > maxBackoffMillis) {
+			bound = maxBackoffMillis;
+		}
+		long delay = bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+		if (elapsedMillis + delay > deadlineMillis) {
+			return -1;
+		}
+		return delay;
+	}
+
+	/**
+	 * @param verb HTTP verb
+	 * @return true if requests using this verb may be retried under this policy
+	 */
+	public boolean isRetryable(String verb) {
+		return retryNonIdempotent || !("POST".equals(verb) || "PATCH".equals(verb));
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public long getInitialBackoffMillis() {
+		return initialBackoffMillis;
+	}
+
+	public long getMaxBackoffMillis() {
+		return maxBackoffMillis;
+	}
+
+	public long getDeadlineMillis() {
+		return deadlineMillis;
+	}
+
+	public Set<Integer> getRetryableStatus() {
+		return retryableStatus;
+	}
+
+	public boolean isRetryNonIdempotent() {
+		return retryNonIdempotent;
+	}
+
+	@Override
+	public String toString() {
+		return "RetryPolicy: maxAttempts=" + maxAttempts + " backoff=" + initialBackoffMillis + ".." + maxBackoffMillis
+				+ "ms deadline=" + deadlineMillis + "ms status=" + retryableStatus + " retryNonIdempotent="
+				+ retryNonIdempotent;
+	}
+
+	public static class Builder {
+		private int maxAttempts = 3;
+		private long initialBackoffMillis = 200;
+		private long maxBackoffMillis = 5_000;
+		private long deadlineMillis = 30_000;
+		private Set<Integer> retryableStatus = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+		private boolean retryNonIdempotent = false;
+
+		/**
+		 * @param maxAttempts Total number of attempts, including the first.
+		 *                    Defaults to 3.
+		 */
+		public Builder maxAttempts(int maxAttempts) {
+			if (maxAttempts < 1) {
+				throw new IllegalArgumentException("maxAttempts must be at least 1");
+			}
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * @param initial Upper bound of the delay before the first retry, doubled
+		 *                for each further retry. Defaults to 200ms.
+		 * @param max     Upper bound of any delay. Defaults to 5 seconds.
+		 * @param unit    Time unit of initial and max
+		 */
+		public Builder backoff(long initial, long max, TimeUnit unit) {
+			if (initial < 0 || max < initial) {
+				throw new IllegalArgumentException("backoff must satisfy 0 <= initial <= max");
+			}
+			this.initialBackoffMillis = unit.toMillis(initial);
+			this.maxBackoffMillis = unit.toMillis(max);
+			return this;
+		}
+
+		/**
+		 * @param duration No retry is started once this much time has passed
+		 *                 since the first attempt. Defaults to 30 seconds.
+		 * @param unit     Time unit of duration
+		 */
+		public Builder deadline(long duration, TimeUnit unit) {
+			this.deadlineMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param statusCodes Response status codes that are retried. Defaults to
+		 *                    429, 502, 503 and 504.
+		 */
+		public Builder retryOn(int... statusCodes) {
+			this.retryableStatus = new HashSet<>();
+			for (int status : statusCodes) {
+				this.retryableStatus.add(status);
+			}
+			return this;
+		}
+
+		/**
+		 * @param retryNonIdempotent Also retry POST and PATCH requests. Defaults
+		 *                           to false.
+		 */
+		public Builder retryNonIdempotent(boolean retryNonIdempotent) {
+			this.retryNonIdempotent = retryNonIdempotent;
+			return this;
+		}
+
+		public RetryPolicy build() {
+			return new RetryPolicy(this);
+		}
+	}
+}
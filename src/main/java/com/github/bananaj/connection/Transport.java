@@ -0,0 +1,45 @@
+package com.github.bananaj.connection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The HTTP engine underneath a {@link Connection}. A Transport sends a single
+ * request and hands back the raw response: status, headers and the body
+ * exactly as received, still content encoded. Authentication, compression,
+ * concurrency limits, retries and error handling are left to the Connection.
+ *
+ * Implementations are provided for Apache HttpClient
+ * ({@link ApacheTransport}), the JDK HTTP client
+ * (<code>JdkHttpTransport</code>, Java 11 or later) and an in-process route
+ * table ({@link InMemoryTransport}).
+ */
+public interface Transport extends Closeable {
+
+	/**
+	 * Send a request and wait for the response headers. The caller must close
+	 * the response.
+	 * @param request The request to send
+	 * @return The response
+	 * @throws IOException The request could not be sent or no response was
+	 *         received
+	 */
+	TransportResponse execute(TransportRequest request) throws IOException;
+
+	/**
+	 * Send a request without blocking. The response body of the completed
+	 * response must be readable without blocking on the network. Cancelling the
+	 * returned future should abort the request.
+	 * @param request The request to send
+	 * @return A future completed with the response, or completed exceptionally
+	 *         with an {@link IOException} if no response was received
+	 */
+	CompletableFuture<TransportResponse> executeAsync(TransportRequest request);
+
+	/**
+	 * Release connections and threads held by the transport.
+	 */
+	@Override
+	void close() throws IOException;
+}
@@ -0,0 +1,119 @@
+package com.github.bananaj.connection;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Per endpoint transfer counters collected by a {@link Connection}. Endpoints
+ * are keyed by HTTP verb and request path, with list, campaign, member and
+ * other resource ids collapsed to <code>{id}</code> so that, for example, every
+ * member lookup is counted against <code>GET /3.0/lists/{id}/members/{id}</code>.
+ */
+public class TransportMetrics {
+
+	/** Numeric ids, hex ids such as list and campaign ids, subscriber hashes and email addresses */
+	private static final Pattern ID_SEGMENT = Pattern.compile("\\d+|[0-9a-f]{10,}|.*(@|%40).*");
+
+	private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+	/**
+	 * @param endpoint An endpoint key as produced by {@link #endpointKey(String, URL)}
+	 * @return The counters for the endpoint or null if no request has been made to it
+	 */
+	public EndpointMetrics getEndpoint(String endpoint) {
+		return endpoints.get(endpoint);
+	}
+
+	/**
+	 * @return A live, unmodifiable view of the counters keyed by endpoint
+	 */
+	public Map<String, EndpointMetrics> getEndpoints() {
+		return Collections.unmodifiableMap(endpoints);
+	}
+
+	/**
+	 * @return Response body bytes read from the network across all endpoints
+	 */
+	public long getWireBytes() {
+		long total = 0;
+		for (EndpointMetrics m : endpoints.values()) {
+			total += m.getWireBytes();
+		}
+		return total;
+	}
+
+	/**
+	 * @return Decompressed response body bytes across all endpoints
+	 */
+	public long getBodyBytes() {
+		long total = 0;
+		for (EndpointMetrics m : endpoints.values()) {
+			total += m.getBodyBytes();
+		}
+		return total;
+	}
+
+	/**
+	 * Count a page requested by a paging iterator.
+	 * @param url      The page URL
+	 * @param pageSize The number of entities requested
+	 */
+	public void recordPage(URL url, int pageSize) {
+		EndpointMetrics stats = forEndpoint("GET", url);
+		stats.pages.increment();
+		stats.pageItems.add(pageSize);
+		stats.lastPageSize = pageSize;
+	}
+
+	/**
+	 * Discard all collected counters.
+	 */
+	public void reset() {
+		endpoints.clear();
+	}
+
+	EndpointMetrics forEndpoint(String verb, URL url) {
+		return endpoints.computeIfAbsent(endpointKey(verb, url), EndpointMetrics::new);
+	}
+
+	/**
+	 * Build the endpoint key for a request.
+	 * @param verb HTTP verb
+	 * @param url Request URL
+	 * @return The verb and the URL path with resource ids replaced by <code>{id}</code>
+	 */
+	public static String endpointKey(String verb, URL url) {
+		String path = url.getPath();
+		StringBuilder key = new StringBuilder(verb.length() + path.length() + 1).append(verb).append(' ');
+		int start = path.startsWith("/") ? 1 : 0;
+		if (start == 1) {
+			key.append('/');
+		}
+		while (start < path.length()) {
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = path.length();
+			}
+			String segment = path.substring(start, end);
+			key.append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+			if (end < path.length()) {
+				key.append('/');
+			}
+			start = end + 1;
+		}
+		return key.toString();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (EndpointMetrics m : endpoints.values()) {
+			sb.append(m).append(System.lineSeparator());
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,68 @@
+package com.github.bananaj.connection;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An HTTP request handed to a {@link Transport}.
+ */
+public class TransportRequest {
+
+	private final String method;
+	private final URI uri;
+	private final Map<String, String> headers;
+	private final RequestBody body;
+
+	/**
+	 * @param method  HTTP method
+	 * @param uri     Request URI
+	 * @param headers Request headers. The Content-Type of a request with a body
+	 *                is taken from the body.
+	 * @param body    Request body or null
+	 */
+	public TransportRequest(String method, URI uri, Map<String, String> headers, RequestBody body) {
+		this.method = method;
+		this.uri = uri;
+		this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+		this.body = body;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public URI getUri() {
+		return uri;
+	}
+
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @param name Header name, compared case-insensitively
+	 * @return The header value or null
+	 */
+	public String getHeader(String name) {
+		for (Map.Entry<String, String> e : headers.entrySet()) {
+			if (e.getKey().equalsIgnoreCase(name)) {
+				return e.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return The request body or null
+	 */
+	public RequestBody getBody() {
+		return body;
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + uri;
+	}
+}
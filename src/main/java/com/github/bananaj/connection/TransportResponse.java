@@ -0,0 +1,93 @@
+package com.github.bananaj.connection;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An HTTP response returned by a {@link Transport}. The body is the raw
+ * response content, still gzip or deflate encoded if the server compressed it.
+ * Closing the response releases the underlying connection.
+ */
+public class TransportResponse implements Closeable {
+
+	private final int statusCode;
+	private final String reasonPhrase;
+	private final Map<String, List<String>> headers;
+	private final InputStream body;
+
+	/**
+	 * @param statusCode   HTTP status code
+	 * @param reasonPhrase Status reason phrase, may be empty
+	 * @param headers      Response headers
+	 * @param body         Response body stream or null if there is no body
+	 */
+	public TransportResponse(int statusCode, String reasonPhrase, Map<String, List<String>> headers, InputStream body) {
+		this.statusCode = statusCode;
+		this.reasonPhrase = reasonPhrase != null ? reasonPhrase : "";
+		TreeMap<String, List<String>> h = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		h.putAll(headers);
+		this.headers = Collections.unmodifiableMap(h);
+		this.body = body != null ? body : new ByteArrayInputStream(new byte[0]);
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public String getReasonPhrase() {
+		return reasonPhrase;
+	}
+
+	/**
+	 * @return Response headers keyed case-insensitively by name
+	 */
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @param name Header name, compared case-insensitively
+	 * @return The first value of the header or null
+	 */
+	public String getHeader(String name) {
+		List<String> values = headers.get(name);
+		return values != null && !values.isEmpty() ? values.get(0) : null;
+	}
+
+	/**
+	 * @return The Content-Length header value or -1 if absent
+	 */
+	public long getContentLength() {
+		String value = getHeader("Content-Length");
+		if (value != null) {
+			try {
+				return Long.parseLong(value.trim());
+			} catch (NumberFormatException ignored) { }
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The raw response body. Reading it to the end or closing the
+	 *         response releases the connection.
+	 */
+	public InputStream getBody() {
+		return body;
+	}
+
+	@Override
+	public void close() throws IOException {
+		body.close();
+	}
+
+	@Override
+	public String toString() {
+		return statusCode + " " + reasonPhrase;
+	}
+}
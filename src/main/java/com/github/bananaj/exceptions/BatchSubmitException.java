@@ -0,0 +1,49 @@
+package com.github.bananaj.exceptions;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.github.bananaj.model.batch.BatchStatus;
+
+/**
+ * A batch split into several batch requests was only partly submitted: the
+ * first requests were accepted and a later one failed. The accepted requests
+ * are processed by Mailchimp regardless, so their statuses are kept here for
+ * the caller to await. The cause is the failure of the rejected request.
+ */
+public class BatchSubmitException extends TransportException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient List<BatchStatus> submitted;
+	private final int submittedOperations;
+
+	/**
+	 * @param cause               The failure of the first request that was not
+	 *                            accepted
+	 * @param submitted           The status of each batch request accepted
+	 * @param submittedOperations The number of operations in the accepted
+	 *                            requests
+	 */
+	public BatchSubmitException(Throwable cause, List<BatchStatus> submitted, int submittedOperations) {
+		super("Only the first " + submittedOperations + " operations of the batch were submitted", cause);
+		this.submitted = Collections.unmodifiableList(submitted);
+		this.submittedOperations = submittedOperations;
+	}
+
+	/**
+	 * @return The status of each batch request accepted before the failure
+	 */
+	public List<BatchStatus> getSubmitted() {
+		return submitted;
+	}
+
+	/**
+	 * @return The number of operations submitted. Operations are submitted in
+	 *         the order they were added to the batch, so these are the first
+	 *         operations of the batch and the rest were not submitted.
+	 */
+	public int getSubmittedOperations() {
+		return submittedOperations;
+	}
+}
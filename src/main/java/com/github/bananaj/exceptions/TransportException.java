@@ -3,25 +3,47 @@
  */
 package com.github.bananaj.exceptions;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
+ * Failure of a request to the Mailchimp API. When the API answered with an
+ * error status the status code and the fields of the Mailchimp error document
+ * are available through the getters, so callers need not parse the message.
+ * 
  * @author USCRIGA
- * TODO: Maybe add some additional fields like type, title, detail etc. to make them accessible to the user
  *
  */
 public class TransportException extends Exception {
 
+	private static final long serialVersionUID = 1L;
+
+	private final int statusCode;
+	private final String method;
+	private final String url;
+	private final String reasonPhrase;
+	private final String type;
+	private final String title;
+	private final String detail;
+	private final String instance;
+	private final List<FieldError> fieldErrors;
+	private final boolean retryable;
+	private final long retryAfterMillis;
+	private transient String message;
+
 	/**
 	 * 
 	 */
 	public TransportException() {
-		super("Mailchimp transport failure");
+		this("Mailchimp transport failure");
 	}
 
 	/**
 	 * @param message the detail message 
 	 */
 	public TransportException(String message) {
-		super(message);
+		this(message, null);
 	}
 
 
@@ -29,7 +51,7 @@ public class TransportException extends Exception {
 	 * @param cause the cause. (A null value is permitted, and indicates that the cause is nonexistent or unknown.)
 	 */
 	public TransportException(Throwable cause) {
-		super("Mailchimp transport failure", cause);
+		this("Mailchimp transport failure", cause);
 	}
 
 	/**
@@ -37,7 +59,7 @@ public class TransportException extends Exception {
 	 * @param cause cause the cause. (A null value is permitted, and indicates that the cause is nonexistent or unknown.)
 	 */
 	public TransportException(String message, Throwable cause) {
-		super(message, cause);
+		this(message, cause, true, true);
 	}
 
 	/**
@@ -48,6 +70,280 @@ public class TransportException extends Exception {
 	 */
 	public TransportException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
 		super(message, cause, enableSuppression, writableStackTrace);
+		this.statusCode = -1;
+		this.method = null;
+		this.url = null;
+		this.reasonPhrase = null;
+		this.type = null;
+		this.title = null;
+		this.detail = null;
+		this.instance = null;
+		this.fieldErrors = Collections.emptyList();
+		this.retryable = false;
+		this.retryAfterMillis = -1;
+		this.message = message;
+	}
+
+	private TransportException(Builder b) {
+		super(b.message, b.cause, true, b.writableStackTrace);
+		this.statusCode = b.statusCode;
+		this.method = b.method;
+		this.url = b.url;
+		this.reasonPhrase = b.reasonPhrase;
+		this.type = b.type;
+		this.title = b.title;
+		this.detail = b.detail;
+		this.instance = b.instance;
+		this.fieldErrors = b.fieldErrors != null ? Collections.unmodifiableList(b.fieldErrors) : Collections.<FieldError>emptyList();
+		this.retryable = b.retryable;
+		this.retryAfterMillis = b.retryAfterMillis;
+		this.message = b.message;
+	}
+
+	/**
+	 * The message is only built the first time it is asked for, so expected
+	 * errors that are handled by status code cost no string building.
+	 */
+	@Override
+	public String getMessage() {
+		if (message == null && statusCode != -1) {
+			StringBuilder sb = new StringBuilder(128)
+					.append("Status: ").append(statusCode).append(' ').append(method).append(": ").append(url)
+					.append(" Reason: ").append(reasonPhrase);
+			if (type != null || title != null || detail != null || instance != null) {
+				sb.append(" - ").append(orEmpty(title)).append(" Details: ").append(orEmpty(detail))
+					.append(" Instance: ").append(orEmpty(instance)).append(" Type: ").append(orEmpty(type));
+			}
+			for (FieldError e : fieldErrors) {
+				sb.append(System.lineSeparator()).append("field: ").append(e.getField()).append(" message: ").append(e.getMessage());
+			}
+			message = sb.toString();
+		}
+		return message;
+	}
+
+	private static String orEmpty(String s) {
+		return s != null ? s : "";
+	}
+
+	/**
+	 * @return The HTTP status of the response, or -1 if the request failed
+	 *         without a response
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return true if the API rejected the request with a 4xx status
+	 */
+	public boolean isClientError() {
+		return statusCode >= 400 && statusCode < 500;
+	}
+
+	/**
+	 * @return The HTTP method of the failed request, or null if not known
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return The URL of the failed request, or null if not known
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * @return The HTTP reason phrase of the response
+	 */
+	public String getReasonPhrase() {
+		return reasonPhrase;
+	}
+
+	/**
+	 * @return An absolute URI that identifies the problem type, or null if the
+	 *         response carried no error document
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * @return A short, human-readable summary of the problem type, such as
+	 *         &quot;Member Exists&quot;
+	 */
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return A human-readable explanation specific to this occurrence of the
+	 *         problem
+	 */
+	public String getDetail() {
+		return detail;
+	}
+
+	/**
+	 * @return A string that identifies this specific occurrence of the problem
+	 */
+	public String getInstance() {
+		return instance;
+	}
+
+	/**
+	 * @return Per-field validation errors reported by the API. Never null.
+	 */
+	public List<FieldError> getFieldErrors() {
+		return fieldErrors;
+	}
+
+	/**
+	 * @return true if the failure is transient and the request may succeed
+	 *         when sent again
+	 */
+	public boolean isRetryable() {
+		return retryable;
+	}
+
+	/**
+	 * @return The interval the server asked clients to wait before sending
+	 *         again, in milliseconds, or -1 if the server did not say
+	 */
+	public long getRetryAfterMillis() {
+		return retryAfterMillis;
+	}
+
+	/**
+	 * A validation error on a single request field.
+	 */
+	public static class FieldError {
+		private final String field;
+		private final String message;
+
+		public FieldError(String field, String message) {
+			this.field = field;
+			this.message = message;
+		}
+
+		/**
+		 * @return The name of the field with the error
+		 */
+		public String getField() {
+			return field;
+		}
+
+		/**
+		 * @return The description of the error
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String toString() {
+			return field + ": " + message;
+		}
+	}
+
+	public static class Builder {
+		private String message;
+		private Throwable cause;
+		private int statusCode = -1;
+		private String method;
+		private String url;
+		private String reasonPhrase;
+		private String type;
+		private String title;
+		private String detail;
+		private String instance;
+		private List<FieldError> fieldErrors;
+		private boolean retryable;
+		private long retryAfterMillis = -1;
+		private boolean writableStackTrace = true;
+
+		/**
+		 * @param message The detail message. When not given the message is built
+		 *                from the response fields.
+		 */
+		public Builder message(String message) {
+			this.message = message;
+			return this;
+		}
+
+		public Builder cause(Throwable cause) {
+			this.cause = cause;
+			return this;
+		}
+
+		/**
+		 * @param method The HTTP method of the request
+		 * @param url The URL of the request
+		 */
+		public Builder request(String method, String url) {
+			this.method = method;
+			this.url = url;
+			return this;
+		}
+
+		/**
+		 * @param statusCode The HTTP status of the response
+		 * @param reasonPhrase The HTTP reason phrase of the response
+		 */
+		public Builder status(int statusCode, String reasonPhrase) {
+			this.statusCode = statusCode;
+			this.reasonPhrase = reasonPhrase;
+			return this;
+		}
+
+		/**
+		 * Fields of the Mailchimp error document.
+		 */
+		public Builder problem(String type, String title, String detail, String instance) {
+			this.type = type;
+			this.title = title;
+			this.detail = detail;
+			this.instance = instance;
+			return this;
+		}
+
+		public Builder fieldError(String field, String message) {
+			if (fieldErrors == null) {
+				fieldErrors = new ArrayList<>(2);
+			}
+			fieldErrors.add(new FieldError(field, message));
+			return this;
+		}
+
+		public Builder retryable(boolean retryable) {
+			this.retryable = retryable;
+			return this;
+		}
+
+		/**
+		 * @param retryAfterMillis Retry-After interval given by the server, in
+		 *                         milliseconds
+		 */
+		public Builder retryAfter(long retryAfterMillis) {
+			this.retryAfterMillis = retryAfterMillis;
+			return this;
+		}
+
+		/**
+		 * @param writableStackTrace false to skip capturing the stack trace, for
+		 *                           errors that are an expected outcome and are
+		 *                           handled by status code
+		 */
+		public Builder writableStackTrace(boolean writableStackTrace) {
+			this.writableStackTrace = writableStackTrace;
+			return this;
+		}
+
+		public TransportException build() {
+			return new TransportException(this);
+		}
 	}
 
 }
@@ -0,0 +1,127 @@
+package com.github.bananaj.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Limits the fields the API returns for a model, through the
+ * <code>fields</code> and <code>exclude_fields</code> query parameters.
+ * Fields are named as in the API, with nested fields joined by a dot, for
+ * example <code>merge_fields.FNAME</code>. Applied to a collection each field
+ * is qualified with the collection key, so
+ * <code>Projection.fields(Member.class, "id", "email_address")</code> asks a
+ * member page for <code>members.id,members.email_address</code>.
+ * <p>
+ * A model parses only the fields present in the response, so a field the
+ * projection left out stays unset: <code>null</code>, an empty collection, or
+ * the default value of a primitive.
+ * <p>
+ * A {@link com.github.bananaj.connection.MailChimpConnection} excludes
+ * <code>_links</code> from every response that has no projection of its own,
+ * see {@link com.github.bananaj.connection.MailChimpConnection.Builder#excludeLinks(boolean)}.
+ *
+ * @param <T> The model the fields belong to
+ */
+public final class Projection<T extends JSONParser> {
+
+	/** The hypermedia links included with every API resource */
+	public static final String LINKS = "_links";
+
+	private static final Projection<JSONParser> EXCLUDE_LINKS = new Projection<>(false, Collections.singletonList(LINKS));
+
+	private final boolean include;
+	private final List<String> fields;
+
+	private Projection(boolean include, List<String> fields) {
+		this.include = include;
+		this.fields = fields;
+	}
+
+	/**
+	 * @param model  The model class
+	 * @param fields The only fields to return
+	 * @return The projection
+	 */
+	public static <T extends JSONParser> Projection<T> fields(Class<T> model, String... fields) {
+		return new Projection<>(true, Collections.unmodifiableList(new ArrayList<>(Arrays.asList(fields))));
+	}
+
+	/**
+	 * @param model  The model class
+	 * @param fields The fields to leave out
+	 * @return The projection
+	 */
+	public static <T extends JSONParser> Projection<T> exclude(Class<T> model, String... fields) {
+		return new Projection<>(false, Collections.unmodifiableList(new ArrayList<>(Arrays.asList(fields))));
+	}
+
+	/**
+	 * @return A projection that leaves out only <code>_links</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends JSONParser> Projection<T> excludeLinks() {
+		return (Projection<T>) EXCLUDE_LINKS;
+	}
+
+	/**
+	 * @return true for a list of fields to return, false for a list of fields
+	 *         to leave out
+	 */
+	public boolean isInclude() {
+		return include;
+	}
+
+	public List<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @param collectionKey The key of the entity array for a collection, for
+	 *                      example <code>members</code>, or null for a single
+	 *                      entity
+	 * @return The query parameter selecting the fields
+	 */
+	public String toQuery(String collectionKey) {
+		List<String> names = new ArrayList<>(fields.size() + 1);
+		if (collectionKey != null && include) {
+			names.add("total_items");	// needed to page through the collection
+		}
+		for (String field : fields) {
+			if (collectionKey != null && !include && field.equals(LINKS)) {
+				names.add(LINKS);
+			}
+			names.add(collectionKey != null ? collectionKey + "." + field : field);
+		}
+		return (include ? "fields=" : "exclude_fields=") + String.join(",", names);
+	}
+
+	/**
+	 * @param url           A GET URL
+	 * @param collectionKey The key of the entity array for a collection, or
+	 *                      null for a single entity
+	 * @return The URL with the projection added, or unchanged if it already
+	 *         selects fields
+	 */
+	public String applyTo(String url, String collectionKey) {
+		int q = url.indexOf('?');
+		if (q >= 0 && isProjected(url.substring(q + 1))) {
+			return url;
+		}
+		return url + (q >= 0 ? "&" : "?") + toQuery(collectionKey);
+	}
+
+	/**
+	 * @param query A URL query string
+	 * @return true if the query already selects fields
+	 */
+	public static boolean isProjected(String query) {
+		return query != null && (query.startsWith("fields=") || query.contains("&fields=") || query.contains("exclude_fields="));
+	}
+
+	@Override
+	public String toString() {
+		return "Projection: " + toQuery(null);
+	}
+}
@@ -112,7 +112,7 @@ public class Automation {
 	 */
 	public List<AutomationEmail> getEmails(int count, int offset) throws Exception {
 		List<AutomationEmail> emails = new ArrayList<AutomationEmail>();
-		JSONObject jsonObj = new JSONObject(connection.do_Get(new URL(connection.getAutomationendpoint() + "/" + getId() + "/emails" + "?offset=" + offset + "&count=" + count), connection.getApikey()));
+		JSONObject jsonObj = connection.do_GetJSON(connection.collectionURL(connection.getAutomationendpoint() + "/" + getId() + "/emails" + "?offset=" + offset + "&count=" + count, "emails"), connection.getApikey());
 		//int total_items = jsonAutomations.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
 		JSONArray emailsArray = jsonObj.getJSONArray("emails");
 		for( int i = 0; i< emailsArray.length();i++)
@@ -130,7 +130,7 @@ public class Automation {
 	 * @throws Exception
 	 */
 	public AutomationEmail getEmail(String workflowEmailId) throws Exception {
-		JSONObject jsonObj = new JSONObject(connection.do_Get(new URL(connection.getAutomationendpoint() + "/" + getId() + "/emails/" + workflowEmailId), connection.getApikey()));
+		JSONObject jsonObj = connection.do_GetJSON(new URL(connection.getAutomationendpoint() + "/" + getId() + "/emails/" + workflowEmailId), connection.getApikey());
 		return new AutomationEmail(connection, jsonObj);
 	}
 
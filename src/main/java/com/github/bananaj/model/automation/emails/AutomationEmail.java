@@ -77,12 +77,12 @@ public class AutomationEmail {
 	}
 	
 	public AutomationSubscriberQueue getSubscriberQueue(int count, int offset) throws Exception {
-		JSONObject jsonObj = new JSONObject(connection.do_Get(new URL(connection.getAutomationendpoint() + "/" + workflowId + "/emails/" + getId() + "/queue" + "?offset=" + offset + "&count=" + count), connection.getApikey()));
+		JSONObject jsonObj = connection.do_GetJSON(new URL(connection.getAutomationendpoint() + "/" + workflowId + "/emails/" + getId() + "/queue" + "?offset=" + offset + "&count=" + count), connection.getApikey());
 		return new AutomationSubscriberQueue(connection, jsonObj);
 	}
 	
 	public AutomationSubscriber getSubscriber(String subscriberHash) throws Exception {
-		JSONObject jsonObj = new JSONObject(connection.do_Get(new URL(connection.getAutomationendpoint() + "/" + workflowId + "/emails/" + getId() + "/queue/" + subscriberHash), connection.getApikey()));
+		JSONObject jsonObj = connection.do_GetJSON(new URL(connection.getAutomationendpoint() + "/" + workflowId + "/emails/" + getId() + "/queue/" + subscriberHash), connection.getApikey());
 		return new AutomationSubscriber(jsonObj);
 	}
 	
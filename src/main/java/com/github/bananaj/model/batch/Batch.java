@@ -0,0 +1,74 @@
+package com.github.bananaj.model.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.json.JSONObject;
+
+/**
+ * Collects operations to be run together through
+ * {@link BatchOperations#submit(Batch)}. Besides the operations added directly,
+ * model methods taking a batch, such as
+ * {@link com.github.bananaj.model.list.member.Member#addOrUpdate(Batch)},
+ * {@link com.github.bananaj.model.list.member.Member#applyTags(java.util.Map, Batch)}
+ * and {@link com.github.bananaj.model.list.segment.Segment#addMembers(Batch, String...)},
+ * add their call to the batch instead of making it:
+ *
+ * <pre>
+ * Batch batch = new Batch();
+ * for (Member member : members) {
+ *     member.addOrUpdate(batch);
+ * }
+ * List&lt;BatchStatus&gt; submitted = connection.getBatchOperations().submit(batch);
+ * </pre>
+ *
+ * A batch is not thread safe.
+ */
+public class Batch {
+
+	private final List<BatchOperation> operations = new ArrayList<>();
+
+	/**
+	 * @param operation
+	 * @return This batch
+	 */
+	public Batch add(BatchOperation operation) {
+		operations.add(operation);
+		return this;
+	}
+
+	/**
+	 * @param method The HTTP method, for example <code>PUT</code>
+	 * @param path   The path of the endpoint relative to the API root
+	 * @param body   The request body, or null for none
+	 * @return This batch
+	 */
+	public Batch add(String method, String path, JSONObject body) {
+		return add(new BatchOperation(method, path, body));
+	}
+
+	/**
+	 * @return The operations in the order they were added
+	 */
+	public List<BatchOperation> getOperations() {
+		return Collections.unmodifiableList(operations);
+	}
+
+	public int size() {
+		return operations.size();
+	}
+
+	public boolean isEmpty() {
+		return operations.isEmpty();
+	}
+
+	public void clear() {
+		operations.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "Batch: " + operations.size() + " operations";
+	}
+}
@@ -0,0 +1,93 @@
+package com.github.bananaj.model.batch;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.json.JSONObject;
+
+/**
+ * A single API call run as part of a {@link Batch}.
+ */
+public class BatchOperation {
+
+	private final String method;
+	private final String path;
+	private final Map<String, String> params;
+	private final String body;
+	private final String operationId;
+
+	/**
+	 * @param method The HTTP method, for example <code>PUT</code>
+	 * @param path   The path of the endpoint relative to the API root, for
+	 *               example <code>/lists/{list_id}/members/{subscriber_hash}</code>
+	 * @param body   The request body, or null for none
+	 */
+	public BatchOperation(String method, String path, JSONObject body) {
+		this(method, path, null, body, null);
+	}
+
+	/**
+	 * @param method      The HTTP method, for example <code>PUT</code>
+	 * @param path        The path of the endpoint relative to the API root
+	 * @param params      Query string parameters, or null for none
+	 * @param body        The request body, or null for none
+	 * @param operationId A string returned with the result of the operation to
+	 *                    tell the results apart, or null for none
+	 */
+	public BatchOperation(String method, String path, Map<String, String> params, JSONObject body, String operationId) {
+		this.method = method;
+		this.path = path;
+		this.params = params != null ? Collections.unmodifiableMap(new LinkedHashMap<>(params)) : Collections.emptyMap();
+		this.body = body != null ? body.toString() : null;
+		this.operationId = operationId;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public Map<String, String> getParams() {
+		return params;
+	}
+
+	/**
+	 * @return The request body as a JSON string, or null for none
+	 */
+	public String getBody() {
+		return body;
+	}
+
+	public String getOperationId() {
+		return operationId;
+	}
+
+	/**
+	 * Helper method to convert JSON for mailchimp PATCH/POST operations
+	 * @return The operation as it is sent in a batch
+	 */
+	public JSONObject getJsonRepresentation() {
+		JSONObject json = new JSONObject();
+		json.put("method", method);
+		json.put("path", path);
+		if (!params.isEmpty()) {
+			json.put("params", params);
+		}
+		if (body != null) {
+			json.put("body", body);	// the API expects the body as a string
+		}
+		if (operationId != null) {
+			json.put("operation_id", operationId);
+		}
+		return json;
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + path + (operationId != null ? " (" + operationId + ")" : "");
+	}
+}
@@ -0,0 +1,291 @@
+package com.github.bananaj.model.batch;
+
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.RequestBody;
+import com.github.bananaj.exceptions.BatchSubmitException;
+import com.github.bananaj.exceptions.TransportException;
+import com.github.bananaj.utils.ModelIterator;
+
+/**
+ * Runs many API calls as batch operation requests through the
+ * <code>/batches</code> endpoint. A batch is processed in the background by
+ * Mailchimp, so it is submitted, polled until it has finished and its results
+ * are then downloaded from {@link BatchStatus#getResponseBodyUrl()}:
+ *
+ * <pre>
+ * BatchOperations batches = connection.getBatchOperations();
+ * List&lt;BatchStatus&gt; submitted = batches.submit(batch);
+ * for (BatchStatus status : batches.awaitAll(submitted, 1, TimeUnit.HOURS,
+ *         s -&gt; log.info(s.getFinishedOperations() + "/" + s.getTotalOperations()))) {
+ *     log.info(status.getErroredOperations() + " errors, results at " + status.getResponseBodyUrl());
+ * }
+ * </pre>
+ *
+ * A batch with more operations or bytes than a single request should carry is
+ * submitted as several batch requests.
+ */
+public class BatchOperations {
+
+	/** Default maximum number of operations submitted in one batch request */
+	public static final int DEFAULT_MAX_OPERATIONS = 5000;
+	/** Default maximum size in bytes of one batch request */
+	public static final long DEFAULT_MAX_BYTES = 8 * 1024 * 1024;
+
+	private static final byte[] OPEN = "{\"operations\":[".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] CLOSE = "]}".getBytes(StandardCharsets.UTF_8);
+
+	private final MailChimpConnection connection;
+	private volatile int maxOperations = DEFAULT_MAX_OPERATIONS;
+	private volatile long maxBytes = DEFAULT_MAX_BYTES;
+	private volatile long minPollMillis = 1000;
+	private volatile long maxPollMillis = 30000;
+
+	public BatchOperations(MailChimpConnection connection) {
+		this.connection = connection;
+	}
+
+	/**
+	 * Limit the size of each batch request.
+	 * @param maxOperations The most operations to submit in one request
+	 * @param maxBytes      The most bytes to submit in one request
+	 */
+	public void setMaxBatchSize(int maxOperations, long maxBytes) {
+		if (maxOperations < 1 || maxBytes < 1) {
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+		this.maxOperations = maxOperations;
+		this.maxBytes = maxBytes;
+	}
+
+	public int getMaxOperations() {
+		return maxOperations;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Bound the interval between polls while waiting for a batch. Defaults to
+	 * 1 to 30 seconds.
+	 * @param min  The shortest interval
+	 * @param max  The longest interval
+	 * @param unit The unit of the intervals
+	 */
+	public void setPollInterval(long min, long max, TimeUnit unit) {
+		if (min < 0 || max < min) {
+			throw new IllegalArgumentException("Invalid poll interval " + min + "-" + max);
+		}
+		this.minPollMillis = unit.toMillis(min);
+		this.maxPollMillis = unit.toMillis(max);
+	}
+
+	/**
+	 * Submit the operations of a batch. Operations are submitted in the order
+	 * they were added, split into as many batch requests as the size limits
+	 * require.
+	 * @param batch
+	 * @return The status of each batch request submitted
+	 * @throws MalformedURLException
+	 * @throws BatchSubmitException If a batch request failed after earlier
+	 *                              ones were accepted. The exception holds the
+	 *                              statuses of the accepted requests.
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public List<BatchStatus> submit(Batch batch) throws MalformedURLException, TransportException, URISyntaxException {
+		List<BatchStatus> submitted = new ArrayList<>();
+		List<byte[]> chunk = new ArrayList<>();
+		long chunkBytes = OPEN.length + CLOSE.length;
+		int submittedOperations = 0;
+		for (BatchOperation operation : batch.getOperations()) {
+			byte[] json = operation.getJsonRepresentation().toString().getBytes(StandardCharsets.UTF_8);
+			if (!chunk.isEmpty() && (chunk.size() >= maxOperations || chunkBytes + 1 + json.length > maxBytes)) {
+				submitted.add(submit(chunk, chunkBytes, submitted, submittedOperations));
+				submittedOperations += chunk.size();
+				chunk = new ArrayList<>();
+				chunkBytes = OPEN.length + CLOSE.length;
+			}
+			chunk.add(json);
+			chunkBytes += json.length + (chunk.size() > 1 ? 1 : 0);
+		}
+		if (!chunk.isEmpty()) {
+			submitted.add(submit(chunk, chunkBytes, submitted, submittedOperations));
+		}
+		return submitted;
+	}
+
+	private BatchStatus submit(List<byte[]> operations, long contentLength, List<BatchStatus> submitted, int submittedOperations)
+			throws MalformedURLException, TransportException, URISyntaxException {
+		try {
+			return submit(operations, contentLength);
+		} catch (TransportException | JSONException e) {
+			if (submitted.isEmpty()) {
+				throw e;
+			}
+			throw new BatchSubmitException(e, submitted, submittedOperations);
+		}
+	}
+
+	private BatchStatus submit(List<byte[]> operations, long contentLength) throws MalformedURLException, TransportException, URISyntaxException {
+		RequestBody body = RequestBody.of((OutputStream out) -> {
+			out.write(OPEN);
+			for (int i = 0; i < operations.size(); i++) {
+				if (i > 0) {
+					out.write(',');
+				}
+				out.write(operations.get(i));
+			}
+			out.write(CLOSE);
+		}, contentLength, RequestBody.JSON);
+		String results = connection.do_Post(new URL(connection.getBatchesendpoint()), body, connection.getApikey());
+		return new BatchStatus(new JSONObject(results));
+	}
+
+	/**
+	 * Get the status of a batch request.
+	 * @param batchId
+	 * @return The batch status
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public BatchStatus getStatus(String batchId) throws MalformedURLException, TransportException, URISyntaxException {
+		JSONObject json = connection.do_GetJSON(new URL(connection.getBatchesendpoint() + "/" + batchId), connection.getApikey());
+		return new BatchStatus(json);
+	}
+
+	/**
+	 * Get the batch requests submitted in the last seven days.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @return Batch status iterator
+	 */
+	public ModelIterator<BatchStatus> getBatches() {
+		return new ModelIterator<BatchStatus>(BatchStatus::new, "batches", connection.getBatchesendpoint(), connection);
+	}
+
+	/**
+	 * Stop a batch request from running. Operations that already ran are not
+	 * undone, and the results of a finished batch are no longer available.
+	 * @param batchId
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public void delete(String batchId) throws MalformedURLException, TransportException, URISyntaxException {
+		connection.do_Delete(new URL(connection.getBatchesendpoint() + "/" + batchId), connection.getApikey());
+	}
+
+	/**
+	 * Wait for a batch request to finish. The batch is polled at intervals
+	 * chosen from the rate its operations are completing at: about halfway to
+	 * the expected finish while it is making progress, backing off while it
+	 * is not.
+	 * @param batch    The status returned when the batch was submitted
+	 * @param timeout  The longest time to wait
+	 * @param unit     The unit of the timeout
+	 * @param listener Receives the status each time it is polled, or null
+	 * @return The status of the finished batch
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 * @throws InterruptedException
+	 * @throws TimeoutException If the batch did not finish in time
+	 */
+	public BatchStatus await(BatchStatus batch, long timeout, TimeUnit unit, BatchProgressListener listener)
+			throws MalformedURLException, TransportException, URISyntaxException, InterruptedException, TimeoutException {
+		return await(batch, System.nanoTime() + unit.toNanos(timeout), listener);
+	}
+
+	/**
+	 * Wait for several batch requests to finish, such as those returned by
+	 * {@link #submit(Batch)}.
+	 * @param batches  The statuses returned when the batches were submitted
+	 * @param timeout  The longest time to wait for all of the batches
+	 * @param unit     The unit of the timeout
+	 * @param listener Receives the status of a batch each time it is polled, or
+	 *                 null
+	 * @return The status of each finished batch
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 * @throws InterruptedException
+	 * @throws TimeoutException If a batch did not finish in time
+	 * @see #await(BatchStatus, long, TimeUnit, BatchProgressListener)
+	 */
+	public List<BatchStatus> awaitAll(List<BatchStatus> batches, long timeout, TimeUnit unit, BatchProgressListener listener)
+			throws MalformedURLException, TransportException, URISyntaxException, InterruptedException, TimeoutException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		List<BatchStatus> finished = new ArrayList<>(batches.size());
+		for (BatchStatus batch : batches) {
+			finished.add(await(batch, deadline, listener));
+		}
+		return finished;
+	}
+
+	private BatchStatus await(BatchStatus batch, long deadline, BatchProgressListener listener)
+			throws MalformedURLException, TransportException, URISyntaxException, InterruptedException, TimeoutException {
+		BatchStatus status = batch;
+		long interval = minPollMillis;
+		long polled = System.nanoTime();
+		while (!status.isFinished()) {
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				throw new TimeoutException("Timed out waiting for " + status);
+			}
+			Thread.sleep(Math.min(interval, remaining));
+			BatchStatus current = getStatus(batch.getId());
+			long now = System.nanoTime();
+			interval = nextPollInterval(interval, status, current, TimeUnit.NANOSECONDS.toMillis(now - polled));
+			polled = now;
+			status = current;
+			if (listener != null) {
+				listener.progress(status);
+			}
+		}
+		return status;
+	}
+
+	/**
+	 * @param interval The interval before the last poll
+	 * @param previous The status before the last poll
+	 * @param current  The status returned by the last poll
+	 * @param elapsed  Milliseconds between the two statuses
+	 * @return Milliseconds to wait before the next poll
+	 */
+	long nextPollInterval(long interval, BatchStatus previous, BatchStatus current, long elapsed) {
+		long next;
+		int done = current.getFinishedOperations() - previous.getFinishedOperations();
+		if (current.getStatus() == BatchStatusType.FINALIZING || (done > 0 && current.getPendingOperations() == 0)) {
+			next = minPollMillis;	// only the results are left to write
+		} else if (done > 0) {
+			// poll about halfway to the time the remaining operations should take
+			next = (long) (current.getPendingOperations() * (double) Math.max(elapsed, 1) / done / 2);
+		} else {
+			next = interval * 2;
+		}
+		return Math.min(Math.max(next, minPollMillis), maxPollMillis);
+	}
+
+	@Override
+	public String toString() {
+		return "BatchOperations: " + connection.getBatchesendpoint();
+	}
+}
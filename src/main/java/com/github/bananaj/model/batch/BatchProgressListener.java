@@ -0,0 +1,15 @@
+package com.github.bananaj.model.batch;
+
+/**
+ * Receives the status of a batch each time it is polled while waiting for it
+ * to finish. See
+ * {@link BatchOperations#await(BatchStatus, long, java.util.concurrent.TimeUnit, BatchProgressListener)}.
+ */
+@FunctionalInterface
+public interface BatchProgressListener {
+
+	/**
+	 * @param status The latest status of the batch
+	 */
+	void progress(BatchStatus status);
+}
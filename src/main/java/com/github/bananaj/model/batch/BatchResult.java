@@ -0,0 +1,109 @@
+package com.github.bananaj.model.batch;
+
+import java.util.function.Supplier;
+
+import org.json.JSONObject;
+
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
+import com.github.bananaj.model.list.member.Member;
+
+/**
+ * The outcome of one operation of a finished batch, read from the batch's
+ * result archive by a {@link BatchResultReader}.
+ */
+public class BatchResult {
+
+	private final String operationId;
+	private final int statusCode;
+	private final String response;
+	private final MailChimpConnection connection;
+
+	public BatchResult(MailChimpConnection connection, JSONObject result) {
+		this.connection = connection;
+		operationId = result.optString("operation_id", null);
+		statusCode = result.getInt("status_code");
+		response = result.optString("response", "");
+	}
+
+	/**
+	 * @return The operation_id given to the operation when it was submitted, or
+	 *         null if it was given none
+	 */
+	public String getOperationId() {
+		return operationId;
+	}
+
+	/**
+	 * @return The HTTP status code the operation returned
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return true if the operation returned a 2xx status
+	 */
+	public boolean isSuccess() {
+		return statusCode >= 200 && statusCode <= 299;
+	}
+
+	/**
+	 * @return The response body the operation returned, as a JSON string
+	 */
+	public String getResponse() {
+		return response;
+	}
+
+	/**
+	 * @return The parsed response body, empty if the operation returned none
+	 */
+	public JSONObject getResponseJSON() {
+		return response.isEmpty() ? new JSONObject() : new JSONObject(response);
+	}
+
+	/**
+	 * @param factory Creates an empty entity, for example
+	 *                <code>Member::new</code>
+	 * @return The entity returned by a successful operation, or null if the
+	 *         operation failed
+	 */
+	public <T extends JSONParser> T parse(Supplier<T> factory) {
+		if (!isSuccess()) {
+			return null;
+		}
+		T entity = factory.get();
+		entity.parse(connection, getResponseJSON());
+		return entity;
+	}
+
+	/**
+	 * @return The member returned by a successful member operation, or null if
+	 *         the operation failed
+	 */
+	public Member getMember() {
+		return parse(Member::new);
+	}
+
+	/**
+	 * @return The title of the error a failed operation returned, for example
+	 *         <code>Member Exists</code>, or null if it succeeded
+	 */
+	public String getErrorTitle() {
+		return isSuccess() ? null : getResponseJSON().optString("title", null);
+	}
+
+	/**
+	 * @return The detail of the error a failed operation returned, or null if
+	 *         it succeeded
+	 */
+	public String getErrorDetail() {
+		return isSuccess() ? null : getResponseJSON().optString("detail", null);
+	}
+
+	@Override
+	public String toString() {
+		return "BatchResult: " + (operationId != null ? operationId + " " : "") + statusCode
+				+ (isSuccess() ? "" : " " + getErrorTitle());
+	}
+}
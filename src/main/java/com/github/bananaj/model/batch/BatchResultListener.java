@@ -0,0 +1,14 @@
+package com.github.bananaj.model.batch;
+
+/**
+ * Receives the outcome of each operation as a batch result archive is read.
+ * See {@link BatchResultReader}.
+ */
+@FunctionalInterface
+public interface BatchResultListener {
+
+	/**
+	 * @param result The outcome of one operation
+	 */
+	void result(BatchResult result);
+}
@@ -0,0 +1,196 @@
+package com.github.bananaj.model.batch;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.exceptions.TransportException;
+
+/**
+ * Reads the results of a finished batch. Mailchimp returns them as a gzipped
+ * tar archive of JSON files, each holding an array of operation results. The
+ * archive is decoded as it is downloaded and each result is handed to a
+ * listener as soon as it has been parsed, so only one operation is held in
+ * memory however large the batch is:
+ *
+ * <pre>
+ * BatchResultReader reader = new BatchResultReader(connection);
+ * reader.read(status, result -&gt; {
+ *     if (!result.isSuccess()) {
+ *         log.warn(result.getOperationId() + ": " + result.getErrorDetail());
+ *     }
+ * });
+ * </pre>
+ *
+ * An archive saved with {@link #download(BatchStatus, Path)} can be read again
+ * later with {@link #read(Path, BatchResultListener)}.
+ */
+public class BatchResultReader {
+
+	private final MailChimpConnection connection;
+
+	/**
+	 * @param connection Used to download archives and given to the models
+	 *                   parsed from results. May be null to only read saved
+	 *                   archives.
+	 */
+	public BatchResultReader(MailChimpConnection connection) {
+		this.connection = connection;
+	}
+
+	/**
+	 * Download and read the results of a finished batch. Should the download
+	 * fail part way and be retried, the results already delivered are not
+	 * delivered again.
+	 * @param batch    The status of a finished batch
+	 * @param listener Receives each operation result
+	 * @return The number of results read
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public int read(BatchStatus batch, BatchResultListener listener) throws MalformedURLException, TransportException, URISyntaxException {
+		final int[] delivered = { 0 };
+		connection.do_Get(responseBodyUrl(batch), null, content -> {
+			final int skip = delivered[0];
+			final int[] seen = { 0 };
+			read(content, result -> {
+				if (seen[0]++ >= skip) {
+					delivered[0]++;
+					listener.result(result);
+				}
+			});
+			return null;
+		});
+		return delivered[0];
+	}
+
+	/**
+	 * Save the result archive of a finished batch to a file, to be read with
+	 * {@link #read(Path, BatchResultListener)}. The file is replaced only once
+	 * the download is complete.
+	 * @param batch The status of a finished batch
+	 * @param file
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public void download(BatchStatus batch, Path file) throws MalformedURLException, TransportException, URISyntaxException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		connection.do_Get(responseBodyUrl(batch), null, content -> {
+			Files.copy(content, tmp, StandardCopyOption.REPLACE_EXISTING);
+			return Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		});
+	}
+
+	/**
+	 * Read a saved result archive.
+	 * @param archive  A gzipped tar archive of batch results
+	 * @param listener Receives each operation result
+	 * @return The number of results read
+	 * @throws IOException
+	 */
+	public int read(Path archive, BatchResultListener listener) throws IOException {
+		try (InputStream in = Files.newInputStream(archive)) {
+			return read(in, listener);
+		}
+	}
+
+	/**
+	 * Read a result archive from a stream. Archives that are not gzipped, for
+	 * example because the download was already decompressed, are read as
+	 * plain tar.
+	 * @param archive  A gzipped tar archive of batch results. The stream is not
+	 *                 closed.
+	 * @param listener Receives each operation result
+	 * @return The number of results read
+	 * @throws IOException
+	 */
+	public int read(InputStream archive, BatchResultListener listener) throws IOException {
+		InputStream in = new BufferedInputStream(archive, 64 * 1024);
+		in.mark(2);
+		boolean gzip = in.read() == 0x1f && in.read() == 0x8b;
+		in.reset();
+		if (gzip) {
+			in = new GZIPInputStream(in, 64 * 1024);
+		}
+		TarInputStream tar = new TarInputStream(in);
+		int count = 0;
+		String name;
+		while ((name = tar.nextEntry()) != null) {
+			if (name.endsWith(".json")) {
+				count += readEntry(name, tar, listener);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Parse the array of results in one file of the archive, one result at a
+	 * time.
+	 */
+	private int readEntry(String name, InputStream entry, BatchResultListener listener) throws IOException {
+		try {
+			JSONTokener tokener = new JSONTokener(new InputStreamReader(entry, StandardCharsets.UTF_8));
+			char c = tokener.nextClean();
+			if (c == 0) {
+				return 0;
+			}
+			if (c != '[') {
+				throw tokener.syntaxError("A batch result file must begin with '['");
+			}
+			if (tokener.nextClean() == ']') {
+				return 0;
+			}
+			tokener.back();
+			int count = 0;
+			while (true) {
+				Object value = tokener.nextValue();
+				if (!(value instanceof JSONObject)) {
+					throw tokener.syntaxError("Expected a batch result object");
+				}
+				listener.result(new BatchResult(connection, (JSONObject) value));
+				count++;
+				c = tokener.nextClean();
+				if (c == ']') {
+					return count;
+				}
+				if (c != ',') {
+					throw tokener.syntaxError("Expected ',' or ']'");
+				}
+			}
+		} catch (JSONException e) {
+			if (e.getCause() instanceof IOException) {
+				// a read that failed part way through the file, not a bad file
+				throw (IOException) e.getCause();
+			}
+			throw new JSONException("Invalid batch result file " + name + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * The archive is fetched from a pre-signed storage URL. It is requested
+	 * as given and without the API authorization, which the storage service
+	 * would reject.
+	 */
+	private static URL responseBodyUrl(BatchStatus batch) throws MalformedURLException {
+		if (batch.getResponseBodyUrl() == null) {
+			throw new IllegalStateException("Batch " + batch.getId() + " has no results yet: " + batch.getStatus());
+		}
+		return new URL(batch.getResponseBodyUrl());
+	}
+}
@@ -0,0 +1,131 @@
+package com.github.bananaj.model.batch;
+
+import java.time.ZonedDateTime;
+
+import org.json.JSONObject;
+
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
+import com.github.bananaj.utils.DateConverter;
+
+/**
+ * The progress of a batch operation request.
+ */
+public class BatchStatus implements JSONParser {
+
+	private String id;
+	private BatchStatusType status;
+	private int totalOperations;
+	private int finishedOperations;
+	private int erroredOperations;
+	private ZonedDateTime submittedAt;
+	private ZonedDateTime completedAt;
+	private String responseBodyUrl;
+
+	public BatchStatus() {
+
+	}
+
+	public BatchStatus(JSONObject batch) {
+		parse(null, batch);
+	}
+
+	/**
+	 * Parse a JSON representation of a batch status into this.
+	 * @param connection Not used
+	 * @param batch
+	 */
+	public void parse(MailChimpConnection connection, JSONObject batch) {
+		id = batch.getString("id");
+		status = BatchStatusType.lookup(batch.getString("status"));
+		totalOperations = batch.optInt("total_operations", 0);
+		finishedOperations = batch.optInt("finished_operations", 0);
+		erroredOperations = batch.optInt("errored_operations", 0);
+		submittedAt = DateConverter.fromISO8601(batch.optString("submitted_at", null));
+		completedAt = DateConverter.fromISO8601(batch.optString("completed_at", null));
+		String url = batch.optString("response_body_url", "");
+		responseBodyUrl = url.isEmpty() ? null : url;
+	}
+
+	/**
+	 * @return A string that uniquely identifies this batch request.
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return The status of the batch call.
+	 */
+	public BatchStatusType getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return true once all operations have run and the results can be
+	 *         downloaded
+	 */
+	public boolean isFinished() {
+		return status == BatchStatusType.FINISHED;
+	}
+
+	/**
+	 * @return The total number of operations to complete as part of this batch
+	 *         request. For GET requests requiring pagination, each page counts
+	 *         as a separate operation.
+	 */
+	public int getTotalOperations() {
+		return totalOperations;
+	}
+
+	/**
+	 * @return The number of completed operations. This includes operations that
+	 *         returned an error.
+	 */
+	public int getFinishedOperations() {
+		return finishedOperations;
+	}
+
+	/**
+	 * @return The number of completed operations that returned an error.
+	 */
+	public int getErroredOperations() {
+		return erroredOperations;
+	}
+
+	/**
+	 * @return The number of operations still to run
+	 */
+	public int getPendingOperations() {
+		return Math.max(totalOperations - finishedOperations, 0);
+	}
+
+	/**
+	 * @return The time and date when the server received the batch request.
+	 */
+	public ZonedDateTime getSubmittedAt() {
+		return submittedAt;
+	}
+
+	/**
+	 * @return The time and date when all operations in the batch request
+	 *         completed, or null if they have not.
+	 */
+	public ZonedDateTime getCompletedAt() {
+		return completedAt;
+	}
+
+	/**
+	 * @return The URL of the gzipped archive of the results of all the
+	 *         operations, or null until the batch has finished.
+	 */
+	public String getResponseBodyUrl() {
+		return responseBodyUrl;
+	}
+
+	@Override
+	public String toString() {
+		return "Batch " + id + ": " + status + " " + finishedOperations + "/" + totalOperations
+				+ (erroredOperations > 0 ? " (" + erroredOperations + " errored)" : "");
+	}
+}
@@ -0,0 +1,35 @@
+package com.github.bananaj.model.batch;
+
+/**
+ * The stages a batch operation request goes through.
+ */
+public enum BatchStatusType {
+
+	PENDING("pending"),
+	PREPROCESSING("preprocessing"),
+	STARTED("started"),
+	FINALIZING("finalizing"),
+	FINISHED("finished");
+
+	private String stringRepresentation;
+
+	BatchStatusType(String stringRepresentation) {
+		setStringRepresentation(stringRepresentation);
+	}
+
+	@Override
+	public String toString() {
+		return stringRepresentation;
+	}
+
+	/**
+	 * @param stringRepresentation Set the stringRepresentation for the enum constant.
+	 */
+	private void setStringRepresentation(String stringRepresentation) {
+		this.stringRepresentation = stringRepresentation;
+	}
+
+	public static BatchStatusType lookup(String value) {
+		return valueOf(value.toUpperCase());
+	}
+}
@@ -0,0 +1,217 @@
+package com.github.bananaj.model.batch;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the files of a tar archive one after the other from a stream. After
+ * {@link #nextEntry()} the stream reads the content of that entry only.
+ * Directories, links and other special entries are skipped. Long names in GNU
+ * and pax form are supported.
+ */
+final class TarInputStream extends FilterInputStream {
+
+	private static final int BLOCK = 512;
+
+	private final byte[] header = new byte[BLOCK];
+	private long remaining;	// unread bytes of the current entry
+	private long padding;	// bytes filling the current entry's last block
+
+	TarInputStream(InputStream in) {
+		super(in);
+	}
+
+	/**
+	 * Skip the rest of the current entry and move to the next file.
+	 * @return The name of the file, or null at the end of the archive
+	 * @throws IOException
+	 */
+	String nextEntry() throws IOException {
+		skipFully(remaining + padding);
+		remaining = padding = 0;
+		String longName = null;
+		while (readBlock()) {
+			long size = size();
+			long pad = (BLOCK - size % BLOCK) % BLOCK;
+			byte type = header[156];
+			if (type == 'L') {
+				longName = trim(readFully(size));
+				skipFully(pad);
+			} else if (type == 'x') {
+				String path = paxPath(readFully(size));
+				longName = path != null ? path : longName;
+				skipFully(pad);
+			} else if (type == '0' || type == 0 || type == '7') {
+				remaining = size;
+				padding = pad;
+				return longName != null ? longName : name();
+			} else {
+				longName = null;
+				skipFully(size + pad);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (remaining <= 0) {
+			return -1;
+		}
+		int b = in.read();
+		if (b == -1) {
+			throw new EOFException("Truncated tar entry");
+		}
+		remaining--;
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (remaining <= 0) {
+			return -1;
+		}
+		int n = in.read(b, off, (int) Math.min(len, remaining));
+		if (n == -1) {
+			throw new EOFException("Truncated tar entry");
+		}
+		remaining -= n;
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = in.skip(Math.min(n, remaining));
+		remaining -= skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (int) Math.min(in.available(), remaining);
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	/**
+	 * @return false at the end of the archive, marked by an empty block or the
+	 *         end of the stream
+	 */
+	private boolean readBlock() throws IOException {
+		int n = 0;
+		while (n < BLOCK) {
+			int r = in.read(header, n, BLOCK - n);
+			if (r == -1) {
+				if (n == 0) {
+					return false;
+				}
+				throw new EOFException("Truncated tar header");
+			}
+			n += r;
+		}
+		for (byte b : header) {
+			if (b != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private long size() throws IOException {
+		if ((header[124] & 0x80) != 0) {
+			// base-256 encoding of sizes too large for octal
+			long size = 0;
+			for (int i = 125; i < 136; i++) {
+				size = (size << 8) | (header[i] & 0xff);
+			}
+			return size;
+		}
+		long size = 0;
+		for (int i = 124; i < 136; i++) {
+			byte b = header[i];
+			if (b >= '0' && b <= '7') {
+				size = size * 8 + (b - '0');
+			} else if (b != ' ' && b != 0) {
+				throw new IOException("Invalid tar header");
+			}
+		}
+		return size;
+	}
+
+	private String name() {
+		String name = field(0, 100);
+		if ("ustar".equals(field(257, 6).trim())) {
+			String prefix = field(345, 155);
+			if (!prefix.isEmpty()) {
+				return prefix + "/" + name;
+			}
+		}
+		return name;
+	}
+
+	private String field(int offset, int length) {
+		int end = offset;
+		while (end < offset + length && header[end] != 0) {
+			end++;
+		}
+		return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+	}
+
+	private byte[] readFully(long size) throws IOException {
+		if (size > Integer.MAX_VALUE - BLOCK) {
+			throw new IOException("Tar extended header too large");
+		}
+		byte[] content = new byte[(int) size];
+		int n = 0;
+		while (n < content.length) {
+			int r = in.read(content, n, content.length - n);
+			if (r == -1) {
+				throw new EOFException("Truncated tar header");
+			}
+			n += r;
+		}
+		return content;
+	}
+
+	private void skipFully(long n) throws IOException {
+		while (n > 0) {
+			long skipped = in.skip(n);
+			if (skipped <= 0) {
+				if (in.read() == -1) {
+					throw new EOFException("Truncated tar entry");
+				}
+				skipped = 1;
+			}
+			n -= skipped;
+		}
+	}
+
+	private static String trim(byte[] name) {
+		int end = name.length;
+		while (end > 0 && name[end - 1] == 0) {
+			end--;
+		}
+		return new String(name, 0, end, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return The path record of pax extended header, or null if it has none.
+	 *         Records have the form <code>"length key=value\n"</code>.
+	 */
+	private static String paxPath(byte[] records) {
+		String text = new String(records, StandardCharsets.UTF_8);
+		for (String record : text.split("\n")) {
+			int space = record.indexOf(' ');
+			if (space > 0 && record.startsWith("path=", space + 1)) {
+				return record.substring(space + 6);
+			}
+		}
+		return null;
+	}
+}
@@ -67,24 +67,24 @@ public class Campaign implements JSONParser {
 	}
 
 	public void parse(MailChimpConnection connection, JSONObject jsonObj) {
-		id = jsonObj.getString("id");
+		id = jsonObj.optString("id", null);
 		this.connection = connection;
-		this.webId = jsonObj.getInt("web_id");
+		this.webId = jsonObj.optInt("web_id");
 		if (jsonObj.has("parent_campaign_id")) {
 			this.parentCampaignId = jsonObj.getString("parent_campaign_id");
 		}
-		this.type = CampaignType.valueOf(jsonObj.getString("type").toUpperCase());
-		this.createTime = DateConverter.fromISO8601(jsonObj.getString("create_time"));
-		this.archiveUrl = jsonObj.getString("archive_url");
-		this.longArchiveUrl = jsonObj.getString("long_archive_url");
-		this.status = CampaignStatus.lookup(jsonObj.getString("status"));
-		this.emailsSent = jsonObj.getInt("emails_sent");
+		this.type = jsonObj.has("type") ? CampaignType.valueOf(jsonObj.getString("type").toUpperCase()) : null;
+		this.createTime = DateConverter.fromISO8601(jsonObj.optString("create_time", null));
+		this.archiveUrl = jsonObj.optString("archive_url", null);
+		this.longArchiveUrl = jsonObj.optString("long_archive_url", null);
+		this.status = jsonObj.has("status") ? CampaignStatus.lookup(jsonObj.getString("status")) : null;
+		this.emailsSent = jsonObj.optInt("emails_sent");
 		if (jsonObj.has("send_time")) {
 			this.sendTime = DateConverter.fromISO8601(jsonObj.getString("send_time"));
 		}
-		this.contentType = CampaignContentType.lookup(jsonObj.getString("content_type"));
-		this.needsBlockRefresh = jsonObj.getBoolean("needs_block_refresh");
-		this.resendable = jsonObj.getBoolean("resendable");
+		this.contentType = jsonObj.has("content_type") ? CampaignContentType.lookup(jsonObj.getString("content_type")) : null;
+		this.needsBlockRefresh = jsonObj.optBoolean("needs_block_refresh");
+		this.resendable = jsonObj.optBoolean("resendable");
 		
 		if (jsonObj.has("recipients")) {
 			this.recipients = new CampaignRecipients(jsonObj.getJSONObject("recipients"));
@@ -92,8 +92,8 @@ public class Campaign implements JSONParser {
 //				this.mailChimpList = connection.getList(recipients.getString("list_id"));
 //			}
 		}
-		this.settings = new CampaignSettings(jsonObj.getJSONObject("settings"));
-		this.tracking = new Tracking(jsonObj.getJSONObject("tracking"));
+		this.settings = jsonObj.has("settings") ? new CampaignSettings(jsonObj.getJSONObject("settings")) : null;
+		this.tracking = jsonObj.has("tracking") ? new Tracking(jsonObj.getJSONObject("tracking")) : null;
 		if (jsonObj.has("report_summary")) {
 			this.reportSummary = new ReportSummary(jsonObj.getJSONObject("report_summary"));
 		}
@@ -230,7 +230,7 @@ public class Campaign implements JSONParser {
 	 * @throws Exception
 	 */
 	public Report getReport() throws Exception {
-		final JSONObject report = new JSONObject(connection.do_Get(new URL(connection.getReportsendpoint()+"/"+getId()), connection.getApikey()));
+		final JSONObject report = connection.do_GetJSON(new URL(connection.getReportsendpoint()+"/"+getId()), connection.getApikey());
 		return new Report(report);
 	}
 
@@ -267,7 +267,7 @@ public class Campaign implements JSONParser {
 	 * @throws JSONException 
 	 */
 	private void getCampaignContent() throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		JSONObject content = new JSONObject(getConnection().do_Get(new URL(connection.getCampaignendpoint()+"/"+this.getId()+"/content"),connection.getApikey()));
+		JSONObject content = getConnection().do_GetJSON(new URL(connection.getCampaignendpoint()+"/"+this.getId()+"/content"),connection.getApikey());
 		this.content = new CampaignContent(this, content);
 	}
 
@@ -280,7 +280,7 @@ public class Campaign implements JSONParser {
 	 */
 	public List<CampaignFeedback> getFeedback() throws JSONException, MalformedURLException, TransportException, URISyntaxException {
 		List<CampaignFeedback> feedback = new ArrayList<CampaignFeedback>();
-		JSONObject campaignFeedback = new JSONObject(getConnection().do_Get(new URL(connection.getCampaignendpoint()+"/"+this.getId()+"/feedback"),connection.getApikey()));
+		JSONObject campaignFeedback = getConnection().do_GetJSON(connection.collectionURL(connection.getCampaignendpoint()+"/"+this.getId()+"/feedback", "feedback"),connection.getApikey());
 		
 		JSONArray feedbackArray = campaignFeedback.getJSONArray("feedback");
 		for( int i = 0; i< feedbackArray.length();i++)
@@ -302,7 +302,7 @@ public class Campaign implements JSONParser {
 	 * @throws JSONException 
 	 */
 	public CampaignFeedback getFeedback(String feedbackId) throws JSONException, MalformedURLException, TransportException, URISyntaxException  {
-		JSONObject jsonObj = new JSONObject(getConnection().do_Get(new URL(connection.getCampaignendpoint()+"/"+getId()+"/feedback/"+feedbackId),connection.getApikey()));
+		JSONObject jsonObj = getConnection().do_GetJSON(new URL(connection.getCampaignendpoint()+"/"+getId()+"/feedback/"+feedbackId),connection.getApikey());
 		CampaignFeedback feedback = new CampaignFeedback(connection, jsonObj);
 		return feedback;
 	}
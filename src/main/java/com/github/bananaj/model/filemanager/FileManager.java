@@ -3,6 +3,7 @@ package com.github.bananaj.model.filemanager;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +12,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.RequestBody;
 import com.github.bananaj.utils.FileInspector;
 
 /**
@@ -47,8 +49,8 @@ public class FileManager {
 	public List<FileManagerFolder> getFileManagerFolders(int count, int offset) throws Exception {
 		List<FileManagerFolder> fileManagerFolders = new ArrayList<FileManagerFolder>();
 
-		JSONObject jsonFileManagerFolders = new JSONObject(getConnection().do_Get(new URL(getConnection().getFilemanagerfolderendpoint() 
-				+ "?offset=" + offset + "&count=" + count), connection.getApikey()));
+		JSONObject jsonFileManagerFolders = getConnection().do_GetJSON(getConnection().collectionURL(getConnection().getFilemanagerfolderendpoint() 
+				+ "?offset=" + offset + "&count=" + count, "folders"), connection.getApikey());
 		JSONArray folderArray = jsonFileManagerFolders.getJSONArray("folders");
 		//int total_items = jsonFileManagerFolders.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
 		for( int i = 0; i< folderArray.length();i++)
@@ -65,7 +67,7 @@ public class FileManager {
 	 * @throws Exception
 	 */
 	public FileManagerFolder getFileManagerFolder(int id) throws Exception {
-		JSONObject jsonFileManagerFolder = new JSONObject(getConnection().do_Get(new URL(getConnection().getFilemanagerfolderendpoint()+"/"+id),connection.getApikey()));
+		JSONObject jsonFileManagerFolder = getConnection().do_GetJSON(new URL(getConnection().getFilemanagerfolderendpoint()+"/"+id),connection.getApikey());
 		return new FileManagerFolder(getConnection(), jsonFileManagerFolder);
 	}
 
@@ -101,8 +103,8 @@ public class FileManager {
 		List<FileManagerFile> files = new ArrayList<FileManagerFile>();
 
 		// parse response
-		JSONObject jsonFileManagerFiles = new JSONObject(getConnection().do_Get(new URL(getConnection().getFilesendpoint() 
-				+ "?offset=" + offset + "&count=" + count),getConnection().getApikey()));
+		JSONObject jsonFileManagerFiles = getConnection().do_GetJSON(getConnection().collectionURL(getConnection().getFilesendpoint() 
+				+ "?offset=" + offset + "&count=" + count, "files"),getConnection().getApikey());
 		JSONArray filesArray = jsonFileManagerFiles.getJSONArray("files");
 		//double total_file_size = jsonFileManagerFiles.getDouble("total_file_size"); 	// The total size of all File Manager files in bytes.
 		//int total_items = jsonFileManagerFiles.getInt("total_items"); 	// The total number of items matching the query regardless of pagination
@@ -121,7 +123,7 @@ public class FileManager {
 	 */
 	public FileManagerFile getFileManagerFile(int id) throws Exception {
 		// parse response
-		JSONObject jsonFileManagerFile = new JSONObject(getConnection().do_Get(new URL(getConnection().getFilesendpoint()+"/"+id), getConnection().getApikey()));
+		JSONObject jsonFileManagerFile = getConnection().do_GetJSON(new URL(getConnection().getFilesendpoint()+"/"+id), getConnection().getApikey());
 		return new FileManagerFile(getConnection(), jsonFileManagerFile);
 	}
 
@@ -137,11 +139,8 @@ public class FileManager {
 	public FileManagerFile upload(int folder_id, String filename, File file) throws JSONException, MalformedURLException, Exception {
 		String fExt = FileInspector.getInstance().getExtension(file);
 		String fName = filename.endsWith(fExt) ? filename : filename+fExt;
-		JSONObject upload_data  = new JSONObject();
-		upload_data.put("folder_id", folder_id);
-		upload_data.put("name", fName);
-		upload_data.put("file_data",FileInspector.getInstance().encodeFileToBase64Binary(file));
-		JSONObject jsonFileManagerFile = new JSONObject(getConnection().do_Post(new URL(connection.getFilesendpoint()), upload_data.toString(),connection.getApikey()));
+		RequestBody upload_data = uploadBody("{\"folder_id\":" + folder_id + ",", fName, file);
+		JSONObject jsonFileManagerFile = new JSONObject(getConnection().do_Post(new URL(connection.getFilesendpoint()), upload_data, connection.getApikey()));
 		return new FileManagerFile(getConnection(), jsonFileManagerFile);
 	}
 
@@ -156,13 +155,23 @@ public class FileManager {
 	public FileManagerFile upload(String filename, File file) throws JSONException, MalformedURLException, Exception {
 		String fExt = FileInspector.getInstance().getExtension(file);
 		String fName = filename.endsWith(fExt) ? filename : filename+fExt;
-		JSONObject upload_data  = new JSONObject();
-		upload_data.put("name", fName);
-		upload_data.put("file_data",FileInspector.getInstance().encodeFileToBase64Binary(file));
-		JSONObject jsonFileManagerFile = new JSONObject(getConnection().do_Post(new URL(connection.getFilesendpoint()), upload_data.toString(),connection.getApikey()));
+		RequestBody upload_data = uploadBody("{", fName, file);
+		JSONObject jsonFileManagerFile = new JSONObject(getConnection().do_Post(new URL(connection.getFilesendpoint()), upload_data, connection.getApikey()));
 		return new FileManagerFile(getConnection(), jsonFileManagerFile);
 	}
 
+	/**
+	 * Build the upload request, streaming the base 64 file content into the
+	 * JSON document so the file is never held in memory.
+	 */
+	private static RequestBody uploadBody(String prefix, String fName, File file) {
+		return RequestBody.ofJSON(out -> {
+			out.write((prefix + "\"name\":" + JSONObject.quote(fName) + ",\"file_data\":\"").getBytes(StandardCharsets.UTF_8));
+			FileInspector.getInstance().writeFileAsBase64(file, out);
+			out.write("\"}".getBytes(StandardCharsets.UTF_8));
+		});
+	}
+
 	/**
 	 * Delete a file with specified fileID
 	 * @param fileID
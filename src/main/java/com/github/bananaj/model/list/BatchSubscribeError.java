@@ -0,0 +1,47 @@
+package com.github.bananaj.model.list;
+
+import org.json.JSONObject;
+
+/**
+ * A member that could not be subscribed or updated by
+ * {@link MailChimpList#batchSubscribe(java.util.stream.Stream, boolean)}.
+ */
+public class BatchSubscribeError {
+	private String emailAddress;
+	private String error;
+	private String errorCode;
+
+	public BatchSubscribeError(JSONObject error) {
+		emailAddress = error.optString("email_address", null);
+		this.error = error.optString("error", null);
+		errorCode = error.optString("error_code", null);
+	}
+
+	/**
+	 * @return The email address that could not be added or updated.
+	 */
+	public String getEmailAddress() {
+		return emailAddress;
+	}
+
+	/**
+	 * @return The error message indicating why the email address could not be
+	 *         added or updated.
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * @return A unique code identifying the error, for example
+	 *         <code>ERROR_CONTACT_EXISTS</code>.
+	 */
+	public String getErrorCode() {
+		return errorCode;
+	}
+
+	@Override
+	public String toString() {
+		return emailAddress + ": " + error + (errorCode != null ? " (" + errorCode + ")" : "");
+	}
+}
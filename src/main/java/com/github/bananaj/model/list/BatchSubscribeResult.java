@@ -0,0 +1,113 @@
+package com.github.bananaj.model.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.list.member.Member;
+
+/**
+ * The combined outcome of the requests made by
+ * {@link MailChimpList#batchSubscribe(java.util.stream.Stream, boolean)}.
+ * Counts and errors are always kept. The members added and updated are only
+ * kept when asked for with
+ * {@link MailChimpList#batchSubscribe(java.util.stream.Stream, boolean, int, boolean)},
+ * as they take memory in proportion to the number of members subscribed.
+ */
+public class BatchSubscribeResult {
+	private final boolean keepMembers;
+	private final List<Member> newMembers = new ArrayList<>();
+	private final List<Member> updatedMembers = new ArrayList<>();
+	private final List<BatchSubscribeError> errors = new ArrayList<>();
+	private int totalCreated;
+	private int totalUpdated;
+	private int totalErrors;
+
+	BatchSubscribeResult(boolean keepMembers) {
+		this.keepMembers = keepMembers;
+	}
+
+	/**
+	 * Add the response to one batch subscribe request. Responses may arrive
+	 * concurrently.
+	 * @param connection
+	 * @param response
+	 */
+	synchronized void add(MailChimpConnection connection, JSONObject response) {
+		JSONArray created = response.optJSONArray("new_members");
+		for (int i = 0; keepMembers && created != null && i < created.length(); i++) {
+			newMembers.add(new Member(connection, created.getJSONObject(i)));
+		}
+		JSONArray updated = response.optJSONArray("updated_members");
+		for (int i = 0; keepMembers && updated != null && i < updated.length(); i++) {
+			updatedMembers.add(new Member(connection, updated.getJSONObject(i)));
+		}
+		JSONArray failed = response.optJSONArray("errors");
+		for (int i = 0; failed != null && i < failed.length(); i++) {
+			errors.add(new BatchSubscribeError(failed.getJSONObject(i)));
+		}
+		totalCreated += response.optInt("total_created", created != null ? created.length() : 0);
+		totalUpdated += response.optInt("total_updated", updated != null ? updated.length() : 0);
+		totalErrors += response.optInt("error_count", failed != null ? failed.length() : 0);
+	}
+
+	/**
+	 * @return true if the members added and updated were kept
+	 */
+	public boolean isKeepMembers() {
+		return keepMembers;
+	}
+
+	/**
+	 * @return The members that were added to the list, or an empty list unless
+	 *         members were kept
+	 */
+	public synchronized List<Member> getNewMembers() {
+		return Collections.unmodifiableList(newMembers);
+	}
+
+	/**
+	 * @return The existing members that were updated, or an empty list unless
+	 *         members were kept
+	 */
+	public synchronized List<Member> getUpdatedMembers() {
+		return Collections.unmodifiableList(updatedMembers);
+	}
+
+	/**
+	 * @return The members that could not be added or updated
+	 */
+	public synchronized List<BatchSubscribeError> getErrors() {
+		return Collections.unmodifiableList(errors);
+	}
+
+	/**
+	 * @return The total number of members added
+	 */
+	public synchronized int getTotalCreated() {
+		return totalCreated;
+	}
+
+	/**
+	 * @return The total number of members updated
+	 */
+	public synchronized int getTotalUpdated() {
+		return totalUpdated;
+	}
+
+	/**
+	 * @return The total number of members that could not be added or updated
+	 */
+	public synchronized int getTotalErrors() {
+		return totalErrors;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Batch subscribe: " + totalCreated + " created, " + totalUpdated + " updated, " + totalErrors + " errors";
+	}
+}
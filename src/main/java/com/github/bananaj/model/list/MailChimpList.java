@@ -4,6 +4,7 @@
  */
 package com.github.bananaj.model.list;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -15,21 +16,30 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.RequestBody;
 import com.github.bananaj.exceptions.EmailException;
 import com.github.bananaj.exceptions.TransportException;
 import com.github.bananaj.model.JSONParser;
+import com.github.bananaj.model.Projection;
 import com.github.bananaj.model.SortDirection;
+import com.github.bananaj.model.batch.Batch;
 import com.github.bananaj.model.list.interests.Interest;
 import com.github.bananaj.model.list.interests.InterestCategory;
 import com.github.bananaj.model.list.member.Member;
 import com.github.bananaj.model.list.member.MemberNote;
 import com.github.bananaj.model.list.member.MemberStatus;
+import com.github.bananaj.model.list.member.MemberSyncListener;
 import com.github.bananaj.model.list.member.MemberTag;
 import com.github.bananaj.model.list.mergefield.MergeField;
 import com.github.bananaj.model.list.segment.Segment;
@@ -38,7 +48,11 @@ import com.github.bananaj.model.list.segment.SegmentType;
 import com.github.bananaj.model.report.AbuseReport;
 import com.github.bananaj.utils.DateConverter;
 import com.github.bananaj.utils.EmailValidator;
+import com.github.bananaj.utils.FileWatermarkStore;
 import com.github.bananaj.utils.ModelIterator;
+import com.github.bananaj.utils.ModelPublisher;
+import com.github.bananaj.utils.PageCursor;
+import com.github.bananaj.utils.WatermarkStore;
 
 
 /**
@@ -49,6 +63,15 @@ import com.github.bananaj.utils.ModelIterator;
  */
 public class MailChimpList implements JSONParser {
 
+	/** Number of members sent in each request by {@link #batchSubscribe(Stream, boolean)} */
+	public static final int BATCH_SUBSCRIBE_SIZE = 500;
+	/** Default number of concurrent requests made by {@link #batchSubscribe(Stream, boolean)} */
+	public static final int DEFAULT_BATCH_SUBSCRIBE_CONCURRENCY = 4;
+	/** Keys of a checkpoint saved part way through {@link #syncMembers(WatermarkStore, MemberSyncListener)} */
+	private static final String SYNC_CURSOR = "cursor";
+	private static final String SYNC_SINCE = "since";
+
+
 	private String id;				// A string that uniquely identifies this list.
 	private int webId;				// The ID used in the Mailchimp web application. View this list in your Mailchimp account at https://{dc}.admin.mailchimp.com/lists/members/?id={web_id}
 	private String name;			// The name of the list
@@ -97,27 +120,27 @@ public class MailChimpList implements JSONParser {
 	}
 	
 	public void parse(MailChimpConnection connection, JSONObject jsonList) {
-		id = jsonList.getString("id");
-		webId = jsonList.getInt("web_id");
-		name = jsonList.getString("name");
-		contact = new ListContact(jsonList.getJSONObject("contact"));
-		permissionReminder = jsonList.getString("permission_reminder");
-		useArchiveBar = jsonList.getBoolean("use_archive_bar");
-		campaignDefaults = new ListCampaignDefaults(jsonList.getJSONObject("campaign_defaults"));
-		notifyOnSubscribe = jsonList.getString("notify_on_subscribe");
-		notifyOnUnsubscribe = jsonList.getString("notify_on_unsubscribe");
-		dateCreated = DateConverter.fromISO8601(jsonList.getString("date_created"));
-		listRating = jsonList.getInt("list_rating");
-		emailTypeOption = jsonList.getBoolean("email_type_option");
-		subscribeUrlShort = jsonList.getString("subscribe_url_short");
-		subscribeUrlLong = jsonList.getString("subscribe_url_long");
-		beamerAddress = jsonList.getString("beamer_address");
-		visibility = ListVisibility.lookup(jsonList.getString("visibility"));
-		doubleOptin = jsonList.getBoolean("double_optin");
-		hasWelcome = jsonList.getBoolean("has_welcome");
-		marketingPermissions = jsonList.getBoolean("marketing_permissions");
+		id = jsonList.optString("id", null);
+		webId = jsonList.optInt("web_id");
+		name = jsonList.optString("name", null);
+		contact = jsonList.has("contact") ? new ListContact(jsonList.getJSONObject("contact")) : null;
+		permissionReminder = jsonList.optString("permission_reminder", null);
+		useArchiveBar = jsonList.optBoolean("use_archive_bar");
+		campaignDefaults = jsonList.has("campaign_defaults") ? new ListCampaignDefaults(jsonList.getJSONObject("campaign_defaults")) : null;
+		notifyOnSubscribe = jsonList.optString("notify_on_subscribe", null);
+		notifyOnUnsubscribe = jsonList.optString("notify_on_unsubscribe", null);
+		dateCreated = DateConverter.fromISO8601(jsonList.optString("date_created", null));
+		listRating = jsonList.optInt("list_rating");
+		emailTypeOption = jsonList.optBoolean("email_type_option");
+		subscribeUrlShort = jsonList.optString("subscribe_url_short", null);
+		subscribeUrlLong = jsonList.optString("subscribe_url_long", null);
+		beamerAddress = jsonList.optString("beamer_address", null);
+		visibility = jsonList.has("visibility") ? ListVisibility.lookup(jsonList.getString("visibility")) : null;
+		doubleOptin = jsonList.optBoolean("double_optin");
+		hasWelcome = jsonList.optBoolean("has_welcome");
+		marketingPermissions = jsonList.optBoolean("marketing_permissions");
 		// TODO: modules = jsonList.getJSONArray("modules");
-		stats = new ListStats(jsonList.getJSONObject("stats"));
+		stats = jsonList.has("stats") ? new ListStats(jsonList.getJSONObject("stats")) : null;
 		this.connection = connection;
 	}
 
@@ -135,7 +158,7 @@ public class MailChimpList implements JSONParser {
 		if (count < 1 || count > 1000) {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
-		final JSONObject list = new JSONObject(connection.do_Get(new URL(connection.getListendpoint()+"/"+getId()+"/abuse-reports?count="+count+"&offset="+offset), connection.getApikey()));
+		final JSONObject list = connection.do_GetJSON(connection.collectionURL(connection.getListendpoint()+"/"+getId()+"/abuse-reports?count="+count+"&offset="+offset, "abuse_reports"), connection.getApikey());
 		final JSONArray rptArray = list.getJSONArray("abuse_reports");
 		ArrayList<AbuseReport> reports = new ArrayList<AbuseReport>(rptArray.length());
 		for (int i = 0 ; i < rptArray.length();i++)
@@ -159,7 +182,17 @@ public class MailChimpList implements JSONParser {
 	 */
 	public Iterable<AbuseReport> getAbuseReports() {
 		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/abuse-reports";
-		return new ModelIterator<AbuseReport>(AbuseReport.class, baseURL, getConnection());
+		return new ModelIterator<AbuseReport>(AbuseReport::new, "abuse_reports", baseURL, getConnection());
+	}
+
+	/**
+	 * Stream of abuse reports. A parallel stream fetches the pages concurrently.
+	 * @return AbuseReport stream
+	 * @see #getAbuseReports()
+	 */
+	public Stream<AbuseReport> abuseReports() {
+		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/abuse-reports";
+		return new ModelIterator<AbuseReport>(AbuseReport::new, "abuse_reports", baseURL, getConnection()).stream();
 	}
 
 	/**
@@ -174,13 +207,13 @@ public class MailChimpList implements JSONParser {
 	 * @throws JSONException
 	 */
 	public AbuseReport getAbuseReports(int reportId) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		final JSONObject report = new JSONObject(connection.do_Get(new URL(connection.getListendpoint()+"/"+getId()+"/abuse-reports/"+reportId), connection.getApikey()));
+		final JSONObject report = connection.do_GetJSON(new URL(connection.getListendpoint()+"/"+getId()+"/abuse-reports/"+reportId), connection.getApikey());
     	return new AbuseReport(report);
 	}
 	
 	// TODO: Add support for Activity -- Get recent daily, aggregated activity stats for your list. For example, view unsubscribes, signups, total emails sent, opens, clicks, and more, for up to 180 days.
 //	public List<ListActivity> getActivity() {
-//		final JSONObject list = new JSONObject(connection.do_Get(new URL(connection.getListendpoint()+"/"+getId()+"/activity"), connection.getApikey()));
+//		final JSONObject list = connection.do_GetJSON(new URL(connection.getListendpoint()+"/"+getId()+"/activity"), connection.getApikey());
 //		final JSONArray rptArray = list.getJSONArray("activity");
 //		ArrayList<ListActivity> reports = new ArrayList<ListActivity>(rptArray.length());
 //		for (int i = 0 ; i < rptArray.length();i++)
@@ -194,7 +227,7 @@ public class MailChimpList implements JSONParser {
 
 	// TODO: Add support for Clients -- Get information about the most popular email clients for subscribers in a specific Mailchimp list.
 //	public List<Clients> getActivity() {
-//		final JSONObject list = new JSONObject(connection.do_Get(new URL(connection.getListendpoint()+"/"+getId()+"/clients"), connection.getApikey()));
+//		final JSONObject list = connection.do_GetJSON(new URL(connection.getListendpoint()+"/"+getId()+"/clients"), connection.getApikey());
 //		final JSONArray rptArray = list.getJSONArray("clients");
 //		ArrayList<Clients> reports = new ArrayList<Clients>(rptArray.length());
 //		for (int i = 0 ; i < rptArray.length();i++)
@@ -208,7 +241,7 @@ public class MailChimpList implements JSONParser {
 
 	// TODO: Add support for Locations -- Get the locations (countries) that the list's subscribers have been tagged to based on geocoding their IP address.
 //	public List<Locations> getActivity() {
-//		final JSONObject list = new JSONObject(connection.do_Get(new URL(connection.getListendpoint()+"/"+getId()+"/locations"), connection.getApikey()));
+//		final JSONObject list = connection.do_GetJSON(new URL(connection.getListendpoint()+"/"+getId()+"/locations"), connection.getApikey());
 //		final JSONArray rptArray = list.getJSONArray("locations");
 //		ArrayList<Locations> reports = new ArrayList<Locations>(rptArray.length());
 //		for (int i = 0 ; i < rptArray.length();i++)
@@ -239,11 +272,28 @@ public class MailChimpList implements JSONParser {
 	 * @throws Exception 
 	 */
 	public List<Member> getMembers(int count, int offset) throws Exception {
+		return getMembers(count, offset, null);
+	}
+
+	/**
+	 * Get information about members in this list with pagination, returning
+	 * only some fields of each member. The fields not returned are left unset.
+	 * @param count Number of members to return. Maximum value is 1000.
+	 * @param offset Zero based offset
+	 * @param projection The fields to return, for example
+	 *                   <code>Projection.fields(Member.class, "id", "email_address")</code>,
+	 *                   or null for all fields
+	 * @return List of members
+	 * @throws Exception 
+	 */
+	public List<Member> getMembers(int count, int offset, Projection<Member> projection) throws Exception {
 		if (count < 1 || count > 1000) {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
 		ArrayList<Member> members = new ArrayList<Member>();
-		final JSONObject list = new JSONObject(getConnection().do_Get(new URL(getConnection().getListendpoint()+"/"+getId()+"/members?count="+count+"&offset="+offset),connection.getApikey()));
+		String query = getConnection().getListendpoint()+"/"+getId()+"/members?count="+count+"&offset="+offset;
+		final URL url = projection != null ? new URL(projection.applyTo(query, "members")) : getConnection().collectionURL(query, "members");
+		final JSONObject list = getConnection().do_GetJSON(url,getConnection().getApikey());
 
 		final JSONArray membersArray = list.getJSONArray("members");
 
@@ -267,7 +317,180 @@ public class MailChimpList implements JSONParser {
 	 */
 	public Iterable<Member> getMembers() {
 		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/members";
-		return new ModelIterator<Member>(Member.class, baseURL, getConnection());
+		return new ModelIterator<Member>(Member::new, "members", baseURL, getConnection());
+	}
+
+	/**
+	 * Get members iterator, returning only some fields of each member. The
+	 * fields not returned are left unset.
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException to reduce the need for boilerplate code inside
+	 * of lambdas.
+	 * 
+	 * @param projection The fields to return, for example
+	 *                   <code>Projection.fields(Member.class, "id", "email_address")</code>
+	 * @return Member iterator
+	 */
+	public ModelIterator<Member> getMembers(Projection<Member> projection) {
+		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/members";
+		return new ModelIterator<Member>(Member::new, "members", baseURL, getConnection(), 1000, projection);
+	}
+
+	/**
+	 * Stream of list members. A parallel stream fetches and parses the pages
+	 * concurrently:
+	 * <pre>
+	 * List&lt;Member&gt; vips = list.members().parallel()
+	 *     .filter(Member::isVip)
+	 *     .collect(Collectors.toList());
+	 * </pre>
+	 * 
+	 * Checked exceptions, including TransportException and JSONException, are
+	 * warped in a RuntimeException.
+	 * 
+	 * @return Member stream
+	 */
+	public Stream<Member> members() {
+		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/members";
+		return new ModelIterator<Member>(Member::new, "members", baseURL, getConnection()).stream();
+	}
+
+	/**
+	 * Publisher of list members for non-blocking pipelines. Pages are fetched
+	 * asynchronously as the subscriber's demand requires them. On Java 11 or
+	 * later wrap it in a <code>FlowPublisher</code> to get a
+	 * <code>java.util.concurrent.Flow.Publisher</code>.
+	 * 
+	 * @param pageSize Number of members requested per page, 1-1000
+	 * @param maxPages Maximum number of pages buffered or in flight for each
+	 *                 subscriber
+	 * @return Member publisher
+	 */
+	public ModelPublisher<Member> membersPublisher(int pageSize, int maxPages) {
+		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/members";
+		return new ModelPublisher<Member>(Member::new, "members", baseURL, getConnection(), pageSize, maxPages);
+	}
+
+	/**
+	 * Get a resumable members iterator. Save
+	 * {@link ModelIterator#getCursor()} periodically during a long walk and
+	 * pass the saved cursor here to continue where the walk stopped.
+	 * 
+	 * @param cursor A saved position, or null to start from the first member
+	 * @return Member iterator
+	 */
+	public ModelIterator<Member> getMembers(PageCursor cursor) {
+		if (cursor == null) {
+			final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/members";
+			return new ModelIterator<Member>(Member::new, "members", baseURL, getConnection());
+		}
+		return new ModelIterator<Member>(Member::new, cursor, getConnection());
+	}
+
+	/**
+	 * Get an iterator over the members in order of when they last changed.
+	 * Pages are requested from the newest <code>last_changed</code> seen so
+	 * far rather than by offset, so the walk stays fast on large lists and is
+	 * not disturbed by members changing while it runs. Members that change
+	 * after they were returned appear again later in the walk. Save
+	 * {@link ModelIterator#getCursor()} and pass it to
+	 * {@link #getMembers(PageCursor)} to continue an interrupted walk.
+	 * 
+	 * @param since Return members changed at or after this time, or null for
+	 *              all members
+	 * @return Member iterator
+	 */
+	public ModelIterator<Member> getMembersByLastChanged(ZonedDateTime since) {
+		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/members";
+		return ModelIterator.keyset(Member::new, "members", baseURL, "last_changed",
+				since != null ? DateConverter.toISO8601UTC(since) : null, getConnection(), 1000);
+	}
+
+	/**
+	 * Deliver the members changed since the last sync of this list, using a
+	 * {@link FileWatermarkStore} in the user's home directory.
+	 * 
+	 * @param listener Receives the changed members
+	 * @return The number of members delivered
+	 * @throws IOException The watermark could not be read or saved
+	 * @see #syncMembers(WatermarkStore, MemberSyncListener)
+	 */
+	public int syncMembers(MemberSyncListener listener) throws IOException {
+		return syncMembers(new FileWatermarkStore(), listener);
+	}
+
+	/**
+	 * Deliver the members changed since the last sync of this list. The
+	 * position of the newest member delivered, its <code>last_changed</code>
+	 * time and the members sharing that time, is saved as the list's watermark.
+	 * The next sync fetches only members changed after it, so the cost of a
+	 * sync follows the number of changes rather than the size of the list. The
+	 * first sync delivers every member. Unsubscribed and cleaned members go to
+	 * their own callbacks. Other members are added if they joined after the
+	 * sync's starting watermark, or on the first sync. All remaining members
+	 * are updated.
+	 * <p>
+	 * The watermark is saved every 1000 members and when the sync completes. A
+	 * sync interrupted by an exception, including one thrown by the listener,
+	 * is continued by the next one, which may deliver some members again. The
+	 * checkpoints saved during a sync also hold the watermark the sync started
+	 * from, so a continued sync sorts members into added and updated as the
+	 * interrupted one would have.
+	 * 
+	 * @param store    Holds the watermark under the key
+	 *                 <code>lists/{list_id}/members</code>
+	 * @param listener Receives the changed members
+	 * @return The number of members delivered
+	 * @throws IOException The watermark could not be read or saved
+	 */
+	public int syncMembers(WatermarkStore store, MemberSyncListener listener) throws IOException {
+		final String key = "lists/" + getId() + "/members";
+		final String mark = store.load(key);
+		final PageCursor cursor;
+		final ZonedDateTime since;
+		if (mark == null) {
+			cursor = null;
+			since = null;
+		} else if (mark.startsWith("{") && new JSONObject(mark).has(SYNC_CURSOR)) {
+			// a checkpoint of an interrupted sync
+			JSONObject checkpoint = new JSONObject(mark);
+			cursor = PageCursor.decode(checkpoint.getString(SYNC_CURSOR));
+			since = DateConverter.fromISO8601(checkpoint.optString(SYNC_SINCE, null));
+		} else {
+			cursor = PageCursor.decode(mark);
+			since = DateConverter.fromISO8601(cursor.getLastKey());
+		}
+		int count = 0;
+		try (ModelIterator<Member> members = cursor != null ? getMembers(cursor) : getMembersByLastChanged(null)) {
+			for (Member member : members) {
+				if (member.getStatus() == MemberStatus.UNSUBSCRIBED) {
+					listener.unsubscribed(member);
+				} else if (member.getStatus() == MemberStatus.CLEANED) {
+					listener.cleaned(member);
+				} else if (since == null || isJoinedSince(member, since)) {
+					listener.added(member);
+				} else {
+					listener.updated(member);
+				}
+				if (++count % 1000 == 0) {
+					JSONObject checkpoint = new JSONObject().put(SYNC_CURSOR, members.getCursor().encode());
+					if (since != null) {
+						checkpoint.put(SYNC_SINCE, DateConverter.toISO8601UTC(since));
+					}
+					store.save(key, checkpoint.toString());
+				}
+			}
+			if (count % 1000 != 0) {
+				store.save(key, members.getCursor().encode());
+			}
+		}
+		return count;
+	}
+
+	private static boolean isJoinedSince(Member member, ZonedDateTime since) {
+		ZonedDateTime joined = member.getTimestampOpt() != null ? member.getTimestampOpt() : member.getTimestampSignup();
+		return joined != null && !joined.isBefore(since);
 	}
 
 	/**
@@ -281,9 +504,38 @@ public class MailChimpList implements JSONParser {
 	 * @throws JSONException 
 	 */
 	public Member getMember(String subscriber) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		final JSONObject member = new JSONObject(getConnection().do_Get(new URL(getConnection().getListendpoint()+"/"+
-				getId()+"/members/"+Member.subscriberHash(subscriber)),connection.getApikey()));
-		return new Member(connection, member);
+		return getMember(subscriber, null);
+	}
+
+	/**
+	 * Get information about a specific list member, returning only some of
+	 * the member's fields.
+	 * 
+	 * @param subscriber The member's email address or subscriber hash
+	 * @param projection The fields to return, or null for every field
+	 * @throws URISyntaxException 
+	 * @throws TransportException 
+	 * @throws MalformedURLException 
+	 * @throws JSONException 
+	 */
+	public Member getMember(String subscriber, Projection<Member> projection) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
+		String url = getConnection().getListendpoint()+"/"+getId()+"/members/"+Member.subscriberHash(subscriber);
+		final JSONObject member = getConnection().do_GetJSON(new URL(projection != null ? projection.applyTo(url, null) : url),getConnection().getApikey());
+		return new Member(getConnection(), member);
+	}
+	
+	/**
+	 * Asynchronous variant of {@link #getMember(String)}.
+	 * 
+	 * @param subscriber The member's email address or subscriber hash
+	 * @return A future completed with the member
+	 * @throws URISyntaxException 
+	 * @throws MalformedURLException 
+	 */
+	public CompletableFuture<Member> getMemberAsync(String subscriber) throws MalformedURLException, URISyntaxException {
+		return getConnection().do_GetAsync(new URL(getConnection().getListendpoint()+"/"+
+				getId()+"/members/"+Member.subscriberHash(subscriber)),connection.getApikey())
+				.thenApply(json -> new Member(connection, new JSONObject(json)));
 	}
 	
 	/**
@@ -408,6 +660,200 @@ public class MailChimpList implements JSONParser {
 		return member;
 	}
 
+	/**
+	 * Add the PUT of {@link #addOrUpdateMember(Member)} to a batch rather than
+	 * sending it. The member is not freshened from mailchimp.
+	 * 
+	 * @param member
+	 * @param batch
+	 */
+	public void addOrUpdateMember(Member member, Batch batch) {
+		JSONObject json = member.getJsonRepresentation();
+
+		if (member.getStatusIfNew() == null) {
+			json.put("status_if_new", MemberStatus.SUBSCRIBED.toString());
+		}
+		batch.add("PUT", "/lists/" + getId() + "/members/" + member.getId(), json);
+	}
+
+	/**
+	 * Subscribe or update many members in a few requests through the batch
+	 * sub/unsub endpoint. The members are sent in requests of
+	 * {@value #BATCH_SUBSCRIBE_SIZE}, with up to
+	 * {@value #DEFAULT_BATCH_SUBSCRIBE_CONCURRENCY} requests in flight.
+	 * @param members        The members to subscribe. A member without a status
+	 *                       is added with its status_if_new, or subscribed.
+	 * @param updateExisting true to update members already on the list, false
+	 *                       to report them as errors
+	 * @return The number of members added and updated and those that failed
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 * @see #batchSubscribe(Stream, boolean, int, boolean)
+	 */
+	public BatchSubscribeResult batchSubscribe(Stream<Member> members, boolean updateExisting) throws MalformedURLException, TransportException, URISyntaxException {
+		return batchSubscribe(members, updateExisting, DEFAULT_BATCH_SUBSCRIBE_CONCURRENCY, false);
+	}
+
+	/**
+	 * Subscribe or update many members in a few requests through the batch
+	 * sub/unsub endpoint. The stream is read one request at a time as requests
+	 * complete, so it may be larger than memory. Should a request fail no
+	 * further requests are sent, and the exception is thrown once those in
+	 * flight have completed; members sent by earlier requests stay subscribed.
+	 * @param members        The members to subscribe. A member without a status
+	 *                       is added with its status_if_new, or subscribed.
+	 * @param updateExisting true to update members already on the list, false
+	 *                       to report them as errors
+	 * @param maxConcurrency The most requests to have in flight at once
+	 * @return The number of members added and updated and those that failed
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 * @see #batchSubscribe(Stream, boolean, int, boolean)
+	 */
+	public BatchSubscribeResult batchSubscribe(Stream<Member> members, boolean updateExisting, int maxConcurrency) throws MalformedURLException, TransportException, URISyntaxException {
+		return batchSubscribe(members, updateExisting, maxConcurrency, false);
+	}
+
+	/**
+	 * Subscribe or update many members through the batch sub/unsub endpoint,
+	 * as {@link #batchSubscribe(Stream, boolean, int)} does.
+	 * @param members        The members to subscribe. A member without a status
+	 *                       is added with its status_if_new, or subscribed.
+	 * @param updateExisting true to update members already on the list, false
+	 *                       to report them as errors
+	 * @param maxConcurrency The most requests to have in flight at once
+	 * @param keepMembers    true to keep the members added and updated in the
+	 *                       result. They are held in memory until the last
+	 *                       request completes, so leave this false for a
+	 *                       stream larger than memory.
+	 * @return The members added and updated and those that failed
+	 * @throws MalformedURLException
+	 * @throws TransportException
+	 * @throws URISyntaxException
+	 */
+	public BatchSubscribeResult batchSubscribe(Stream<Member> members, boolean updateExisting, int maxConcurrency, boolean keepMembers) throws MalformedURLException, TransportException, URISyntaxException {
+		if (maxConcurrency < 1) {
+			throw new InvalidParameterException("Concurrency must be at least 1");
+		}
+		final URL url = new URL(getConnection().getListendpoint() + "/" + getId());
+		final BatchSubscribeResult result = new BatchSubscribeResult(keepMembers);
+		final Semaphore permits = new Semaphore(maxConcurrency);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final List<CompletableFuture<Void>> requests = new ArrayList<>();
+		try {
+			Iterator<Member> iterator = members.iterator();
+			while (iterator.hasNext() && failure.get() == null) {
+				JSONArray chunk = new JSONArray();
+				while (chunk.length() < BATCH_SUBSCRIBE_SIZE && iterator.hasNext()) {
+					chunk.put(batchSubscribeJson(iterator.next()));
+				}
+				permits.acquire();
+				if (failure.get() != null) {
+					permits.release();
+					break;
+				}
+				JSONObject body = new JSONObject().put("members", chunk).put("update_existing", updateExisting);
+				CompletableFuture<String> request;
+				try {
+					request = getConnection().do_PostAsync(url, RequestBody.ofJSON(body.toString()), getConnection().getApikey());
+				} catch (URISyntaxException | RuntimeException e) {
+					permits.release();
+					throw e;
+				}
+				requests.add(request.handle((response, t) -> {
+					try {
+						if (t != null) {
+							failure.compareAndSet(null, t);
+						} else {
+							result.add(getConnection(), new JSONObject(response));
+						}
+					} catch (RuntimeException e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						permits.release();
+					}
+					return null;
+				}));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TransportException("Batch subscribe to list " + getId() + " interrupted", e);
+		} finally {
+			CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).join();
+		}
+
+		Throwable t = failure.get();
+		while (t instanceof CompletionException && t.getCause() != null) {
+			t = t.getCause();
+		}
+		if (t instanceof TransportException) {
+			throw (TransportException) t;
+		} else if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t != null) {
+			throw new TransportException("Batch subscribe to list " + getId() + " failed", t);
+		}
+		return result;
+	}
+
+	private static JSONObject batchSubscribeJson(Member member) {
+		JSONObject json = member.getJsonRepresentation();
+		if (!json.has("status")) {
+			MemberStatus status = member.getStatusIfNew() != null ? member.getStatusIfNew() : MemberStatus.SUBSCRIBED;
+			json.put("status", status.toString());
+		}
+		json.remove("status_if_new");
+		return json;
+	}
+
+	/**
+	 * Asynchronous variant of {@link #updateMember(Member)}. The member object is
+	 * freshened from MailChimp when the future completes.
+	 * 
+	 * @param member
+	 * @return A future completed with the member.
+	 * @throws URISyntaxException
+	 * @throws MalformedURLException
+	 */
+	public CompletableFuture<Member> updateMemberAsync(Member member) throws MalformedURLException, URISyntaxException {
+		JSONObject json = member.getJsonRepresentation();
+
+		return getConnection().do_PatchAsync(
+				new URL(connection.getListendpoint() + "/" + getId() + "/members/" + member.getId()), json.toString(),
+				connection.getApikey())
+				.thenApply(results -> {
+					member.parse(connection, new JSONObject(results)); // update member object with current data
+					return member;
+				});
+	}
+
+	/**
+	 * Asynchronous variant of {@link #addOrUpdateMember(Member)}. The member
+	 * object is freshened from MailChimp when the future completes.
+	 * 
+	 * @param member
+	 * @return A future completed with the member.
+	 * @throws URISyntaxException
+	 * @throws MalformedURLException
+	 */
+	public CompletableFuture<Member> addOrUpdateMemberAsync(Member member) throws MalformedURLException, URISyntaxException {
+		JSONObject json = member.getJsonRepresentation();
+
+		if (member.getStatusIfNew() == null) {
+			json.put("status_if_new", MemberStatus.SUBSCRIBED.toString());
+		}
+
+		return getConnection().do_PutAsync(
+				new URL(connection.getListendpoint() + "/" + getId() + "/members/" + member.getId()), json.toString(),
+				connection.getApikey())
+				.thenApply(results -> {
+					member.parse(getConnection(), new JSONObject(results)); // update member object with current data
+					return member;
+				});
+	}
+
 	/**
 	 * Delete a member from list.
 	 * 
@@ -452,10 +898,10 @@ public class MailChimpList implements JSONParser {
 		if (count < 1 || count > 1000) {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
-		final JSONObject tagsObj = new JSONObject(getConnection().do_Get(new URL(getConnection().getListendpoint() + "/"
+		final JSONObject tagsObj = getConnection().do_GetJSON(getConnection().collectionURL(getConnection().getListendpoint() + "/"
 				+ getId() + "/members/" + Member.subscriberHash(subscriber) + 
-				"/tags" + "?offset=" + offset + "&count=" + count),
-				getConnection().getApikey()));
+				"/tags" + "?offset=" + offset + "&count=" + count, "tags"),
+				getConnection().getApikey());
 		// int total_items = tagsObj.getInt("total_items");	// The total number of items matching the query regardless of pagination
 		// matching the query regardless of pagination
 		final JSONArray tagsArray = tagsObj.getJSONArray("tags");
@@ -478,7 +924,7 @@ public class MailChimpList implements JSONParser {
 	public Iterable<MemberTag> getMemberTags(String subscriber) {
 		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/members/" + 
 				Member.subscriberHash(subscriber) + "/tags";
-		return new ModelIterator<MemberTag>(MemberTag.class, baseURL, getConnection());
+		return new ModelIterator<MemberTag>(MemberTag::new, "tags", baseURL, getConnection());
 	}
 
 	//
@@ -498,9 +944,9 @@ public class MailChimpList implements JSONParser {
 		if (count < 1 || count > 1000) {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
-		final JSONObject noteObj = new JSONObject(getConnection().do_Get(new URL(getConnection().getListendpoint()+"/"+
+		final JSONObject noteObj = getConnection().do_GetJSON(getConnection().collectionURL(getConnection().getListendpoint()+"/"+
 				getId()+"/members/"+Member.subscriberHash(subscriber)+
-				"/notes?count="+count+"&offset="+offset), getConnection().getApikey()));
+				"/notes?count="+count+"&offset="+offset, "notes"), getConnection().getApikey());
 		//String email_id = noteObj.getString("email_id");
 		//String list_id = noteObj.getString("list_id");
 		//int total_items = noteObj.getInt("total_items");	// The total number of items matching the query regardless of pagination
@@ -528,7 +974,7 @@ public class MailChimpList implements JSONParser {
 	public Iterable<MemberNote> getMemberNotes(String subscriber) {
 		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/members/"+
 				Member.subscriberHash(subscriber)+"/notes";
-		return new ModelIterator<MemberNote>(MemberNote.class, baseURL, getConnection());
+		return new ModelIterator<MemberNote>(MemberNote::new, "notes", baseURL, getConnection());
 	}
 
 	/**
@@ -543,10 +989,10 @@ public class MailChimpList implements JSONParser {
 	 */
 	public MemberNote getMemberNote(String subscriber, int noteId)
 			throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		final JSONObject noteObj = new JSONObject(getConnection().do_Get(new URL(
+		final JSONObject noteObj = getConnection().do_GetJSON(new URL(
 				getConnection().getListendpoint() + "/" + getId() + "/members/" + Member.subscriberHash(subscriber) + 
 				"/notes/" + noteId),
-				getConnection().getApikey()));
+				getConnection().getApikey());
 		return new MemberNote(noteObj);
 
 	}
@@ -608,8 +1054,8 @@ public class MailChimpList implements JSONParser {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
 		ArrayList<InterestCategory> categories = new ArrayList<InterestCategory>();
-		JSONObject list = new JSONObject(getConnection().do_Get(new URL(connection.getListendpoint() + "/" + getId()
-				+ "/interest-categories?count=" + count + "&offset=" + offset), connection.getApikey()));
+		JSONObject list = getConnection().do_GetJSON(connection.collectionURL(connection.getListendpoint() + "/" + getId()
+				+ "/interest-categories?count=" + count + "&offset=" + offset, "categories"), connection.getApikey());
 		JSONArray categoryArray = list.getJSONArray("categories");
 
 		for (int i = 0; i < categoryArray.length(); i++) {
@@ -633,7 +1079,7 @@ public class MailChimpList implements JSONParser {
 	 */
 	public Iterable<InterestCategory> getInterestCategories() {
 		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/interest-categories";
-		return new ModelIterator<InterestCategory>(InterestCategory.class, baseURL, getConnection());
+		return new ModelIterator<InterestCategory>(InterestCategory::new, "categories", baseURL, getConnection());
 	}
 
 	/**
@@ -648,9 +1094,9 @@ public class MailChimpList implements JSONParser {
 	 */
 	public InterestCategory getInterestCategory(String interestCategoryId)
 			throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		JSONObject jsonCategory = new JSONObject(connection.do_Get(
+		JSONObject jsonCategory = connection.do_GetJSON(
 				new URL(connection.getListendpoint() + "/" + getId() + "/interest-categories/" + interestCategoryId),
-				connection.getApikey()));
+				connection.getApikey());
 		return new InterestCategory(connection, jsonCategory);
 	}
 
@@ -707,11 +1153,11 @@ public class MailChimpList implements JSONParser {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
 		ArrayList<Interest> interests = new ArrayList<Interest>();
-		JSONObject list = new JSONObject(
-				connection.do_Get(
-						new URL(connection.getListendpoint() + "/" + getId() + "/interest-categories/"
-								+ interestCategoryId + "/interests?count=" + count + "&offset=" + offset),
-						connection.getApikey()));
+		JSONObject list = 
+				connection.do_GetJSON(
+						connection.collectionURL(connection.getListendpoint() + "/" + getId() + "/interest-categories/"
+								+ interestCategoryId + "/interests?count=" + count + "&offset=" + offset, "interests"),
+						connection.getApikey());
 		JSONArray interestArray = list.getJSONArray("interests");
 
 		for (int i = 0; i < interestArray.length(); i++) {
@@ -737,7 +1183,7 @@ public class MailChimpList implements JSONParser {
 	public Iterable<Interest> getInterests(String interestCategoryId) {
 		final String baseURL = getConnection().getListendpoint() + "/" + getId() + "/interest-categories/"
 				+ interestCategoryId + "/interests";
-		return new ModelIterator<Interest>(Interest.class, baseURL, getConnection());
+		return new ModelIterator<Interest>(Interest::new, "interests", baseURL, getConnection());
 	}
 
 	/**
@@ -754,8 +1200,8 @@ public class MailChimpList implements JSONParser {
 	 */
 	public Interest getInterest(String interestCategoryId, String interestId)
 			throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		JSONObject jsonInterests = new JSONObject(connection.do_Get(new URL(connection.getListendpoint() + "/" + getId()
-				+ "/interest-categories/" + interestCategoryId + "/interests/" + interestId), connection.getApikey()));
+		JSONObject jsonInterests = connection.do_GetJSON(new URL(connection.getListendpoint() + "/" + getId()
+				+ "/interest-categories/" + interestCategoryId + "/interests/" + interestId), connection.getApikey());
 		return new Interest(connection, jsonInterests);
 	}
 
@@ -781,9 +1227,9 @@ public class MailChimpList implements JSONParser {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
 		ArrayList<Segment> segments = new ArrayList<Segment>();
-		JSONObject jsonSegments = new JSONObject(connection.do_Get(new URL(
-				connection.getListendpoint() + "/" + getId() + "/segments?offset=" + offset + "&count=" + count),
-				connection.getApikey()));
+		JSONObject jsonSegments = connection.do_GetJSON(connection.collectionURL(
+				connection.getListendpoint() + "/" + getId() + "/segments?offset=" + offset + "&count=" + count, "segments"),
+				connection.getApikey());
 
 		final JSONArray segmentsArray = jsonSegments.getJSONArray("segments");
 
@@ -808,7 +1254,18 @@ public class MailChimpList implements JSONParser {
 	 */
 	public Iterable<Segment> getSegments() {
 		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/segments";
-		return new ModelIterator<Segment>(Segment.class, baseURL, getConnection());
+		return new ModelIterator<Segment>(Segment::new, "segments", baseURL, getConnection());
+	}
+
+	/**
+	 * Stream of segments for this list. A parallel stream fetches the pages
+	 * concurrently.
+	 * @return Segment stream
+	 * @see #getSegments()
+	 */
+	public Stream<Segment> segments() {
+		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/segments";
+		return new ModelIterator<Segment>(Segment::new, "segments", baseURL, getConnection()).stream();
 	}
 
 	/**
@@ -827,9 +1284,9 @@ public class MailChimpList implements JSONParser {
 	public List<Segment> getSegments(SegmentType type, int count, int offset)
 			throws JSONException, MalformedURLException, TransportException, URISyntaxException {
 		ArrayList<Segment> segments = new ArrayList<Segment>();
-		JSONObject jsonSegments = new JSONObject(
-				connection.do_Get(new URL(connection.getListendpoint() + "/" + getId() + "/segments?offset=" + offset
-						+ "&count=" + count + "&type" + type.toString()), connection.getApikey()));
+		JSONObject jsonSegments = 
+				connection.do_GetJSON(connection.collectionURL(connection.getListendpoint() + "/" + getId() + "/segments?offset=" + offset
+						+ "&count=" + count + "&type" + type.toString(), "segments"), connection.getApikey());
 
 		final JSONArray segmentsArray = jsonSegments.getJSONArray("segments");
 
@@ -946,9 +1403,9 @@ public class MailChimpList implements JSONParser {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
 		ArrayList<MergeField> mergeFields = new ArrayList<MergeField>();
-		URL url = new URL(connection.getListendpoint()+"/"+getId()+"/merge-fields?offset=" + offset + "&count=" + count); // Note: Mailchimp currently supports a maximim of 80 merge fields
+		URL url = connection.collectionURL(connection.getListendpoint()+"/"+getId()+"/merge-fields?offset=" + offset + "&count=" + count, "merge_fields"); // Note: Mailchimp currently supports a maximim of 80 merge fields
 
-		JSONObject merge_fields = new JSONObject(connection.do_Get(url, connection.getApikey()));
+		JSONObject merge_fields = connection.do_GetJSON(url, connection.getApikey());
 		final JSONArray mergeFieldsArray = merge_fields.getJSONArray("merge_fields");
 
 		for (int i = 0 ; i < mergeFieldsArray.length(); i++) {
@@ -970,7 +1427,18 @@ public class MailChimpList implements JSONParser {
 	 */
 	public Iterable<MergeField> getMergeFields() {
 		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/merge-fields";
-		return new ModelIterator<MergeField>(MergeField.class, baseURL, getConnection());
+		return new ModelIterator<MergeField>(MergeField::new, "merge_fields", baseURL, getConnection());
+	}
+
+	/**
+	 * Stream of merge fields for this list. A parallel stream fetches the pages
+	 * concurrently.
+	 * @return MergeField stream
+	 * @see #getMergeFields()
+	 */
+	public Stream<MergeField> mergeFields() {
+		final String baseURL = getConnection().getListendpoint()+"/"+getId()+"/merge-fields";
+		return new ModelIterator<MergeField>(MergeField::new, "merge_fields", baseURL, getConnection()).stream();
 	}
 
 	/**
@@ -984,7 +1452,7 @@ public class MailChimpList implements JSONParser {
 	 */
 	public MergeField getMergeField(String mergeFieldID) throws JSONException, TransportException, URISyntaxException, MalformedURLException {
 		URL url = new URL(connection.getListendpoint()+"/"+getId()+"/merge-fields/"+mergeFieldID);
-		JSONObject mergeFieldJSON = new JSONObject(connection.do_Get(url,connection.getApikey()));
+		JSONObject mergeFieldJSON = connection.do_GetJSON(url,connection.getApikey());
 		return new MergeField(connection, mergeFieldJSON);
 	}
 
@@ -181,11 +181,11 @@ public class InterestCategory implements JSONParser {
 			throw new InvalidParameterException("Page size must be 1-1000");
 		}
 		ArrayList<Interest> interests = new ArrayList<Interest>();
-		JSONObject list = new JSONObject(
-				connection.do_Get(
-						new URL(connection.getListendpoint() + "/" + getListId() + "/interest-categories/"
-								+ getId() + "/interests?count=" + count + "&offset=" + offset),
-						connection.getApikey()));
+		JSONObject list = 
+				connection.do_GetJSON(
+						connection.collectionURL(connection.getListendpoint() + "/" + getListId() + "/interest-categories/"
+								+ getId() + "/interests?count=" + count + "&offset=" + offset, "interests"),
+						connection.getApikey());
 		JSONArray interestArray = list.getJSONArray("interests");
 
 		for (int i = 0; i < interestArray.length(); i++) {
@@ -210,7 +210,7 @@ public class InterestCategory implements JSONParser {
 	public Iterable<Interest> getInterests() {
 		final String baseURL = connection.getListendpoint() + "/" + getListId() + "/interest-categories/"
 				+ getId() + "/interests";
-		return new ModelIterator<Interest>(Interest.class, baseURL, connection);
+		return new ModelIterator<Interest>(Interest::new, "interests", baseURL, connection);
 	}
 
 	/**
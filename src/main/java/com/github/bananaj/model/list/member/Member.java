@@ -23,6 +23,7 @@ import org.json.JSONObject;
 import com.github.bananaj.connection.MailChimpConnection;
 import com.github.bananaj.exceptions.TransportException;
 import com.github.bananaj.model.JSONParser;
+import com.github.bananaj.model.batch.Batch;
 import com.github.bananaj.model.list.MailChimpList;
 import com.github.bananaj.utils.DateConverter;
 import com.github.bananaj.utils.EmailValidator;
@@ -104,11 +105,11 @@ public class Member implements JSONParser {
 	 * @param member
 	 */
 	public void parse(MailChimpConnection connection, JSONObject member) {
-        id = member.getString("id");
-		emailAddress = member.getString("email_address");
-		uniqueEmailId = member.getString("unique_email_id");
-		emailType =  EmailType.lookup(member.getString("email_type"));
-		status = MemberStatus.lookup(member.getString("status"));
+        id = member.optString("id", null);
+		emailAddress = member.optString("email_address", null);
+		uniqueEmailId = member.optString("unique_email_id", null);
+		emailType = member.has("email_type") ? EmailType.lookup(member.getString("email_type")) : null;
+		status = member.has("status") ? MemberStatus.lookup(member.getString("status")) : null;
 		unsubscribeReason = member.has("unsubscribe_reason") ? member.getString("unsubscribe_reason") : null;
 		
 		mergeFields = new HashMap<>();
@@ -127,28 +128,28 @@ public class Member implements JSONParser {
 			}
 		}
 		
-		stats = new MemberStats(member.getJSONObject("stats"));
-		ipSignup = member.getString("ip_signup");
-		timestampSignup = DateConverter.fromISO8601(member.getString("timestamp_signup"));
-		rating = member.getInt("member_rating");
-		ipOpt = member.getString("ip_opt");
-		timestampOpt = DateConverter.fromISO8601(member.getString("timestamp_opt"));
-		lastChanged = DateConverter.fromISO8601(member.getString("last_changed"));
-		language = member.getString("language");
-		vip = member.getBoolean("vip");
+		stats = member.has("stats") ? new MemberStats(member.getJSONObject("stats")) : null;
+		ipSignup = member.optString("ip_signup", null);
+		timestampSignup = DateConverter.fromISO8601(member.optString("timestamp_signup", null));
+		rating = member.optInt("member_rating");
+		ipOpt = member.optString("ip_opt", null);
+		timestampOpt = DateConverter.fromISO8601(member.optString("timestamp_opt", null));
+		lastChanged = DateConverter.fromISO8601(member.optString("last_changed", null));
+		language = member.optString("language", null);
+		vip = member.optBoolean("vip");
 		emailClient = member.has("email_client") ? member.getString("email_client") : null;
 		//location
 		//marketing_permissions
 		lastNote = member.has("last_note") ? new LastNote(member.getJSONObject("last_note")) : null;
 
-		tagsCount = member.getInt("tags_count");
+		tagsCount = member.optInt("tags_count");
 		tags = new ArrayList<MemberTag>(tagsCount);
-		final JSONArray tagsArray = member.getJSONArray("tags");
-		for(int i = 0; i < tagsArray.length(); i++) {
+		final JSONArray tagsArray = member.optJSONArray("tags");
+		for(int i = 0; tagsArray != null && i < tagsArray.length(); i++) {
 			tags.add(new MemberTag(tagsArray.getJSONObject(i)));
 		}
 
-		listId = member.getString("list_id");
+		listId = member.optString("list_id", null);
 		this.connection = connection;
 	}
 
@@ -193,16 +194,28 @@ public class Member implements JSONParser {
 	 */
 	public void addOrUpdate() throws MalformedURLException, TransportException, URISyntaxException {
 		Objects.requireNonNull(connection, "MailChimpConnection");
+		String results = getConnection().do_Put(
+				new URL(connection.getListendpoint() + "/" + getListId() + "/members/" + getId()), addOrUpdateJson().toString(),
+				connection.getApikey());
+		parse(getConnection(), new JSONObject(results)); // update member object with current data
+	}
+
+	/**
+	 * Add the PUT of {@link #addOrUpdate()} to a batch rather than sending it.
+	 * The member is not freshened from mailchimp.
+	 * @param batch
+	 */
+	public void addOrUpdate(Batch batch) {
+		batch.add("PUT", "/lists/" + getListId() + "/members/" + getId(), addOrUpdateJson());
+	}
+
+	private JSONObject addOrUpdateJson() {
 		JSONObject json = getJsonRepresentation();
 
 		if (!json.has("status_if_new")) {
 			json.put("status_if_new", MemberStatus.SUBSCRIBED.toString());
 		}
-
-		String results = getConnection().do_Put(
-				new URL(connection.getListendpoint() + "/" + getListId() + "/members/" + getId()), json.toString(),
-				connection.getApikey());
-		parse(getConnection(), new JSONObject(results)); // update member object with current data
+		return json;
 	}
 	
 	/**
@@ -229,6 +242,24 @@ public class Member implements JSONParser {
 	 */
 	public void applyTags(Map<String, TagStatus> tagsMap) throws MalformedURLException, TransportException, URISyntaxException {
 		Objects.requireNonNull(connection, "MailChimpConnection");
+		JSONObject tagObj = tagsJson(tagsMap);
+		getConnection().do_Post(new URL(getConnection().getListendpoint()+"/"+getListId()+"/members/"+getId()+"/tags"), tagObj.toString(), getConnection().getApikey());
+	}
+
+	/**
+	 * Add the POST of {@link #applyTags(Map)} to a batch rather than sending it.
+	 * The tags of this member object are updated straight away.
+	 * @param tagsMap
+	 * @param batch
+	 */
+	public void applyTags(Map<String, TagStatus> tagsMap, Batch batch) {
+		batch.add("POST", "/lists/" + getListId() + "/members/" + getId() + "/tags", tagsJson(tagsMap));
+	}
+
+	/**
+	 * @return The tags request body, after updating the tags of this member
+	 */
+	private JSONObject tagsJson(Map<String, TagStatus> tagsMap) {
 		JSONObject tagObj = new JSONObject();
 		JSONArray tagsArray = new JSONArray();
 		for(Entry<String, TagStatus> e : tagsMap.entrySet()) {
@@ -247,7 +278,7 @@ public class Member implements JSONParser {
 			}
 		}
 		tagObj.put("tags",tagsArray);
-		getConnection().do_Post(new URL(getConnection().getListendpoint()+"/"+getListId()+"/members/"+getId()+"/tags"), tagObj.toString(), getConnection().getApikey());
+		return tagObj;
 	}
 	
 	/**
@@ -276,7 +307,7 @@ public class Member implements JSONParser {
 	 */
 	public List<MemberActivity> getActivities() throws JSONException, MalformedURLException, TransportException, URISyntaxException {
 		Objects.requireNonNull(connection, "MailChimpConnection");
-		final JSONObject activity = new JSONObject(getConnection().do_Get(new URL(getConnection().getListendpoint()+"/"+getListId()+"/members/"+getId()+"/activity"), getConnection().getApikey()));
+		final JSONObject activity = getConnection().do_GetJSON(new URL(getConnection().getListendpoint()+"/"+getListId()+"/members/"+getId()+"/activity"), getConnection().getApikey());
 		//String email_id = activity.getString("email_id");
 		//String list_id = activity.getString("list_id");
 		int total_items = activity.getInt("total_items");	// The total number of items matching the query regardless of pagination
@@ -310,7 +341,7 @@ public class Member implements JSONParser {
 	 */
 	public List<MemberNote> getNotes(int count, int offset) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
 		Objects.requireNonNull(connection, "MailChimpConnection");
-		final JSONObject noteObj = new JSONObject(getConnection().do_Get(new URL(getConnection().getListendpoint()+"/"+getListId()+"/members/"+getId()+"/notes?count="+count+"&offset="+offset), getConnection().getApikey()));
+		final JSONObject noteObj = getConnection().do_GetJSON(getConnection().collectionURL(getConnection().getListendpoint()+"/"+getListId()+"/members/"+getId()+"/notes?count="+count+"&offset="+offset, "notes"), getConnection().getApikey());
 		//String email_id = noteObj.getString("email_id");
 		//String list_id = noteObj.getString("list_id");
 		//int total_items = noteObj.getInt("total_items");	// The total number of items matching the query regardless of pagination
@@ -335,7 +366,7 @@ public class Member implements JSONParser {
 	 */
 	public MemberNote getNote(int noteId) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
 		Objects.requireNonNull(connection, "MailChimpConnection");
-		final JSONObject noteObj = new JSONObject(getConnection().do_Get(new URL(getConnection().getListendpoint()+"/"+getListId()+"/members/"+getId()+"/notes/"+noteId), getConnection().getApikey()));
+		final JSONObject noteObj = getConnection().do_GetJSON(new URL(getConnection().getListendpoint()+"/"+getListId()+"/members/"+getId()+"/notes/"+noteId), getConnection().getApikey());
 		return new MemberNote(noteObj);
 	}
 	
@@ -699,9 +730,9 @@ public class Member implements JSONParser {
 	 * @throws JSONException 
 	 */
 	public List<MemberTag> getTags(int count, int offset) throws JSONException, MalformedURLException, TransportException, URISyntaxException {
-		final JSONObject tagsObj = new JSONObject(getConnection().do_Get(new URL(getConnection().getListendpoint() + "/"
-				+ getListId() + "/members/" + getId() + "/tags" + "?offset=" + offset + "&count=" + count),
-				getConnection().getApikey()));
+		final JSONObject tagsObj = getConnection().do_GetJSON(getConnection().collectionURL(getConnection().getListendpoint() + "/"
+				+ getListId() + "/members/" + getId() + "/tags" + "?offset=" + offset + "&count=" + count, "tags"),
+				getConnection().getApikey());
 		// int total_items = tagsObj.getInt("total_items");	// The total number of items matching the query regardless of pagination
 		// matching the query regardless of pagination
 		final JSONArray tagsArray = tagsObj.getJSONArray("tags");
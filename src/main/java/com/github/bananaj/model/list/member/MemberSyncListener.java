@@ -0,0 +1,40 @@
+package com.github.bananaj.model.list.member;
+
+/**
+ * Receives the members changed since the last sync of a list. See
+ * {@link com.github.bananaj.model.list.MailChimpList#syncMembers(com.github.bananaj.utils.WatermarkStore, MemberSyncListener)}.
+ * Members are delivered in order of when they last changed. A sync that is
+ * interrupted may deliver some members again when it is repeated, so handlers
+ * should be idempotent.
+ */
+public interface MemberSyncListener {
+
+	/**
+	 * A member who joined or opted in since the last sync. On the first sync of
+	 * a list every member that is not unsubscribed or cleaned is added.
+	 * @param member
+	 */
+	default void added(Member member) {
+	}
+
+	/**
+	 * A member whose details or status changed since the last sync.
+	 * @param member
+	 */
+	default void updated(Member member) {
+	}
+
+	/**
+	 * A member who is now unsubscribed.
+	 * @param member
+	 */
+	default void unsubscribed(Member member) {
+	}
+
+	/**
+	 * A member who is now cleaned, for example after repeated bounces.
+	 * @param member
+	 */
+	default void cleaned(Member member) {
+	}
+}
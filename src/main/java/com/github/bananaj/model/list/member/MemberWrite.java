@@ -0,0 +1,155 @@
+package com.github.bananaj.model.list.member;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The changes to one list member held by a {@link MemberWriteBuffer} until
+ * they are sent. Later changes to a field replace earlier ones, so however
+ * many times a member is changed between flushes it is written once.
+ */
+public class MemberWrite {
+
+	private final String listId;
+	private final String emailAddress;
+	private final String subscriberHash;
+	private final Map<String, Object> fields = new LinkedHashMap<>();
+	private final Map<String, Object> mergeFields = new LinkedHashMap<>();
+	private final Map<String, Boolean> interests = new LinkedHashMap<>();
+	private final Map<String, TagStatus> tags = new LinkedHashMap<>();
+	private int changes;
+
+	MemberWrite(String listId, String emailAddress) {
+		this.listId = listId;
+		this.emailAddress = emailAddress;
+		this.subscriberHash = Member.subscriberHash(emailAddress);
+	}
+
+	void putField(String key, Object value) {
+		fields.put(key, value != null ? value : JSONObject.NULL);
+		changes++;
+	}
+
+	void putMergeField(String key, Object value) {
+		mergeFields.put(key, value != null ? value : JSONObject.NULL);
+		changes++;
+	}
+
+	void putInterest(String id, boolean active) {
+		interests.put(id, active);
+		changes++;
+	}
+
+	void putTag(String name, TagStatus status) {
+		tags.put(name, status);
+		changes++;
+	}
+
+	/**
+	 * Merge the fields {@link Member#update()} would send.
+	 */
+	void merge(Member member) {
+		JSONObject json = member.getJsonRepresentation();
+		for (String key : json.keySet()) {
+			if (key.equals("merge_fields")) {
+				JSONObject merge = json.getJSONObject(key);
+				for (String field : merge.keySet()) {
+					mergeFields.put(field, merge.get(field));
+				}
+			} else if (key.equals("interests")) {
+				JSONObject interest = json.getJSONObject(key);
+				for (String id : interest.keySet()) {
+					interests.put(id, interest.getBoolean(id));
+				}
+			} else if (!key.equals("email_address") && !key.equals("status_if_new") && !key.equals("tags")) {
+				fields.put(key, json.get(key));
+			}
+		}
+		changes++;
+	}
+
+	/**
+	 * Take the changes of an earlier write that were not changed since.
+	 */
+	void mergeEarlier(MemberWrite earlier) {
+		earlier.fields.forEach(fields::putIfAbsent);
+		earlier.mergeFields.forEach(mergeFields::putIfAbsent);
+		earlier.interests.forEach(interests::putIfAbsent);
+		earlier.tags.forEach(tags::putIfAbsent);
+		changes += earlier.changes;
+	}
+
+	public String getListId() {
+		return listId;
+	}
+
+	public String getEmailAddress() {
+		return emailAddress;
+	}
+
+	public String getSubscriberHash() {
+		return subscriberHash;
+	}
+
+	/**
+	 * @return The number of changes merged into this write
+	 */
+	public int getChanges() {
+		return changes;
+	}
+
+	/**
+	 * @return The tags to add (active) or remove (inactive)
+	 */
+	public Map<String, TagStatus> getTags() {
+		return Collections.unmodifiableMap(tags);
+	}
+
+	/**
+	 * @return true if member fields are to be changed, false if only tags are
+	 */
+	public boolean hasFieldChanges() {
+		return !fields.isEmpty() || !mergeFields.isEmpty() || !interests.isEmpty();
+	}
+
+	/**
+	 * Helper method to convert JSON for mailchimp PATCH/POST operations
+	 * @return The PATCH body holding the changed member fields
+	 */
+	public JSONObject getJsonRepresentation() {
+		JSONObject json = new JSONObject();
+		for (Map.Entry<String, Object> e : fields.entrySet()) {
+			json.put(e.getKey(), e.getValue());
+		}
+		if (!mergeFields.isEmpty()) {
+			json.put("merge_fields", new JSONObject(mergeFields));
+		}
+		if (!interests.isEmpty()) {
+			json.put("interests", new JSONObject(interests));
+		}
+		return json;
+	}
+
+	/**
+	 * @return The body of the member tags POST
+	 */
+	public JSONObject getTagsJsonRepresentation() {
+		JSONArray tagsArray = new JSONArray();
+		for (Map.Entry<String, TagStatus> e : tags.entrySet()) {
+			tagsArray.put(new JSONObject()
+					.put("name", e.getKey())
+					.put("status", e.getValue().toString()));
+		}
+		return new JSONObject().put("tags", tagsArray);
+	}
+
+	@Override
+	public String toString() {
+		return "MemberWrite: " + listId + "/" + emailAddress + " " + getJsonRepresentation()
+				+ (tags.isEmpty() ? "" : " tags " + tags);
+	}
+}
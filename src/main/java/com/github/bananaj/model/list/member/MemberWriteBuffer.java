@@ -0,0 +1,440 @@
+package com.github.bananaj.model.list.member;
+
+import java.io.Closeable;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.exceptions.BatchSubmitException;
+import com.github.bananaj.model.batch.Batch;
+import com.github.bananaj.model.batch.BatchOperation;
+import com.github.bananaj.model.batch.BatchStatus;
+
+/**
+ * Holds changes to list members and writes them behind the caller. Changes to
+ * the same member are merged, so a member changed many times between flushes
+ * costs one PATCH for its fields and one POST for its tags:
+ *
+ * <pre>
+ * try (MemberWriteBuffer buffer = new MemberWriteBuffer.Builder()
+ *         .connection(connection)
+ *         .listener((write, cause) -&gt; log.error("Lost " + write, cause))
+ *         .build()) {
+ *     buffer.changeStatus(listId, email, MemberStatus.UNSUBSCRIBED);
+ *     buffer.applyTag(listId, email, "churned", TagStatus.ACTIVE);
+ *     buffer.putMergeField(listId, email, "FNAME", "Sue");
+ * }
+ * </pre>
+ *
+ * The buffer is flushed when it holds {@link Builder#maxMembers(int)}
+ * members, every {@link Builder#flushInterval(long, TimeUnit)} and when it is
+ * closed. Writes are sent either directly, with a few requests in flight, or
+ * as batch operations. Changes are only held in memory: those not yet
+ * flushed are lost if the process dies, and those that fail are handed to the
+ * {@link MemberWriteListener}.
+ * <p>
+ * The buffer is thread safe. Flushes run one at a time, so the changes to a
+ * member are written in the order they were made.
+ */
+public class MemberWriteBuffer implements Closeable {
+
+	private static final Logger logger = Logger.getLogger(MemberWriteBuffer.class);
+
+	private final MailChimpConnection connection;
+	private final int maxMembers;
+	private final int maxConcurrency;
+	private final boolean batchOperations;
+	private final MemberWriteListener listener;
+	private final ScheduledExecutorService timer;
+	private final Object flushLock = new Object();
+	private Map<String, MemberWrite> pending = new LinkedHashMap<>();
+	private boolean closing;	// new changes are rejected, retries are still held
+	private boolean closed;
+
+	/**
+	 * {@link MemberWriteBuffer.Builder} model for local construction
+	 * @see MemberWriteBuffer.Builder
+	 * @param b
+	 */
+	public MemberWriteBuffer(Builder b) {
+		this.connection = Objects.requireNonNull(b.connection, "MailChimpConnection");
+		this.maxMembers = b.maxMembers;
+		this.maxConcurrency = b.maxConcurrency;
+		this.batchOperations = b.batchOperations;
+		this.listener = b.listener != null ? b.listener : (write, cause) -> logger.error("Unable to write " + write, cause);
+		if (b.flushIntervalMillis > 0) {
+			timer = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "bananaj-member-write-buffer");
+				t.setDaemon(true);
+				return t;
+			});
+			timer.scheduleWithFixedDelay(this::flushQuietly, b.flushIntervalMillis, b.flushIntervalMillis, TimeUnit.MILLISECONDS);
+		} else {
+			timer = null;
+		}
+	}
+
+	/**
+	 * Change the status of a member.
+	 * @param listId
+	 * @param emailAddress
+	 * @param status
+	 */
+	public void changeStatus(String listId, String emailAddress, MemberStatus status) {
+		write(listId, emailAddress, w -> w.putField("status", status.toString()));
+	}
+
+	/**
+	 * Add or remove a tag. Of several changes to the same tag only the last is
+	 * written.
+	 * @param listId
+	 * @param emailAddress
+	 * @param tagName
+	 * @param status Active to add the tag, inactive to remove it
+	 */
+	public void applyTag(String listId, String emailAddress, String tagName, TagStatus status) {
+		write(listId, emailAddress, w -> w.putTag(tagName, status));
+	}
+
+	/**
+	 * Set a merge field.
+	 * @param listId
+	 * @param emailAddress
+	 * @param key    The merge tag, for example <code>FNAME</code>
+	 * @param value
+	 */
+	public void putMergeField(String listId, String emailAddress, String key, Object value) {
+		write(listId, emailAddress, w -> w.putMergeField(key, value));
+	}
+
+	/**
+	 * Set an interest.
+	 * @param listId
+	 * @param emailAddress
+	 * @param id     The interest id
+	 * @param active
+	 */
+	public void putInterest(String listId, String emailAddress, String id, boolean active) {
+		write(listId, emailAddress, w -> w.putInterest(id, active));
+	}
+
+	/**
+	 * Write the fields {@link Member#update()} would send, merged with the
+	 * changes already held for the member.
+	 * @param member
+	 */
+	public void update(Member member) {
+		write(member.getListId(), member.getEmailAddress(), w -> w.merge(member));
+	}
+
+	/**
+	 * Hold a write that failed again, under any changes made to the member
+	 * since it was taken from the buffer. It is sent by the next flush; a
+	 * retry never starts one, so it may be called from the listener.
+	 * <p>
+	 * Retries are still held while {@link #close()} flushes, and sent before
+	 * it returns. A write retried once the buffer is closed is not held and
+	 * is logged as lost.
+	 * @param write A write given to {@link MemberWriteListener#failed(MemberWrite, Throwable)}
+	 */
+	public void retry(MemberWrite write) {
+		synchronized (this) {
+			if (closed) {
+				logger.error("MemberWriteBuffer is closed, unable to retry " + write);
+				return;
+			}
+		}
+		write(write.getListId(), write.getEmailAddress(), w -> w.mergeEarlier(write), false);
+	}
+
+	private interface Change {
+		void apply(MemberWrite write);
+	}
+
+	private void write(String listId, String emailAddress, Change change) {
+		write(listId, emailAddress, change, true);
+	}
+
+	private void write(String listId, String emailAddress, Change change, boolean mayFlush) {
+		Objects.requireNonNull(listId, "listId");
+		Objects.requireNonNull(emailAddress, "emailAddress");
+		boolean full;
+		synchronized (this) {
+			if (closed || (closing && mayFlush)) {
+				throw new IllegalStateException("MemberWriteBuffer is closed");
+			}
+			MemberWrite write = pending.computeIfAbsent(listId + "/" + Member.subscriberHash(emailAddress),
+					k -> new MemberWrite(listId, emailAddress));
+			change.apply(write);
+			full = mayFlush && pending.size() >= maxMembers;
+		}
+		if (full) {
+			flush();
+		}
+	}
+
+	/**
+	 * @return The number of members with changes not yet flushed
+	 */
+	public synchronized int getPendingMembers() {
+		return pending.size();
+	}
+
+	/**
+	 * Send the changes held so far and wait for them to be written, or, when
+	 * writing through batch operations, submitted. Failures are reported to
+	 * the listener rather than thrown.
+	 */
+	public void flush() {
+		synchronized (flushLock) {
+			List<MemberWrite> writes;
+			synchronized (this) {
+				if (pending.isEmpty()) {
+					return;
+				}
+				writes = new ArrayList<>(pending.values());
+				pending = new LinkedHashMap<>();
+			}
+			if (batchOperations) {
+				submitBatch(writes);
+			} else {
+				sendDirect(writes);
+			}
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch (RuntimeException e) {
+			logger.error("Unable to flush member writes", e);
+		}
+	}
+
+	private void submitBatch(List<MemberWrite> writes) {
+		Batch batch = new Batch();
+		for (MemberWrite write : writes) {
+			String path = "/lists/" + write.getListId() + "/members/" + write.getSubscriberHash();
+			String operationId = write.getListId() + "/" + write.getSubscriberHash();
+			if (write.hasFieldChanges()) {
+				batch.add(new BatchOperation("PATCH", path, null, write.getJsonRepresentation(), operationId));
+			}
+			if (!write.getTags().isEmpty()) {
+				batch.add(new BatchOperation("POST", path + "/tags", null, write.getTagsJsonRepresentation(), operationId + "/tags"));
+			}
+		}
+		try {
+			submitted(connection.getBatchOperations().submit(batch));
+		} catch (BatchSubmitException e) {
+			// the writes whose operations all went out in the accepted batches are written
+			submitted(e.getSubmitted());
+			int operations = 0;
+			for (MemberWrite write : writes) {
+				operations += (write.hasFieldChanges() ? 1 : 0) + (write.getTags().isEmpty() ? 0 : 1);
+				if (operations > e.getSubmittedOperations()) {
+					failed(write, e.getCause());
+				}
+			}
+		} catch (Exception e) {
+			for (MemberWrite write : writes) {
+				failed(write, e);
+			}
+		}
+	}
+
+	private void submitted(List<BatchStatus> batches) {
+		try {
+			listener.submitted(batches);
+		} catch (RuntimeException e) {
+			logger.error("Member write listener failed", e);
+		}
+	}
+
+	private void failed(MemberWrite write, Throwable cause) {
+		try {
+			listener.failed(write, cause);
+		} catch (RuntimeException e) {
+			logger.error("Member write listener failed", e);
+		}
+	}
+
+	private void sendDirect(List<MemberWrite> writes) {
+		final Semaphore permits = new Semaphore(maxConcurrency);
+		final List<CompletableFuture<Void>> requests = new ArrayList<>(writes.size());
+		try {
+			for (MemberWrite write : writes) {
+				permits.acquire();
+				CompletableFuture<String> request;
+				try {
+					request = send(write);
+				} catch (Exception e) {
+					request = new CompletableFuture<>();
+					request.completeExceptionally(e);
+				}
+				requests.add(request.handle((r, t) -> {
+					try {
+						if (t != null) {
+							failed(write, t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+						}
+					} finally {
+						permits.release();
+					}
+					return null;
+				}));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for (MemberWrite write : writes.subList(requests.size(), writes.size())) {
+				failed(write, e);
+			}
+		} finally {
+			CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).join();
+		}
+	}
+
+	/**
+	 * PATCH the changed fields, then POST the tag changes.
+	 */
+	private CompletableFuture<String> send(MemberWrite write) throws Exception {
+		final String member = connection.getListendpoint() + "/" + write.getListId() + "/members/" + write.getSubscriberHash();
+		CompletableFuture<String> request = write.hasFieldChanges()
+				? connection.do_PatchAsync(new URL(member), write.getJsonRepresentation().toString(), connection.getApikey())
+				: CompletableFuture.completedFuture(null);
+		if (write.getTags().isEmpty()) {
+			return request;
+		}
+		final URL tags = new URL(member + "/tags");
+		return request.thenCompose(r -> {
+			try {
+				return connection.do_PostAsync(tags, write.getTagsJsonRepresentation().toString(), connection.getApikey());
+			} catch (URISyntaxException e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+
+	/**
+	 * Stop the flush timer and flush the changes still held. Changes made
+	 * after closing starts are rejected. Writes the listener retries during
+	 * the final flush are sent by one more flush; any retried again are
+	 * logged as lost.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closing) {
+				return;
+			}
+			closing = true;
+		}
+		if (timer != null) {
+			timer.shutdown();
+		}
+		flush();
+		flush();
+		List<MemberWrite> lost;
+		synchronized (this) {
+			closed = true;
+			lost = new ArrayList<>(pending.values());
+			pending = new LinkedHashMap<>();
+		}
+		for (MemberWrite write : lost) {
+			logger.error("MemberWriteBuffer is closed, unable to retry " + write);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MemberWriteBuffer: " + getPendingMembers() + " members pending";
+	}
+
+	/**
+	 * Builder for {@link MemberWriteBuffer}
+	 *
+	 */
+	public static class Builder {
+		private MailChimpConnection connection;
+		private int maxMembers = 500;
+		private long flushIntervalMillis = 10000;
+		private int maxConcurrency = 4;
+		private boolean batchOperations;
+		private MemberWriteListener listener;
+
+		public Builder connection(MailChimpConnection connection) {
+			this.connection = connection;
+			return this;
+		}
+
+		/**
+		 * @param maxMembers Flush once changes are held for this many members.
+		 *                   Defaults to 500.
+		 */
+		public Builder maxMembers(int maxMembers) {
+			if (maxMembers < 1) {
+				throw new IllegalArgumentException("maxMembers must be at least 1");
+			}
+			this.maxMembers = maxMembers;
+			return this;
+		}
+
+		/**
+		 * @param interval Flush at this interval, or 0 to flush only when full
+		 *                 or closed. Defaults to 10 seconds.
+		 * @param unit
+		 */
+		public Builder flushInterval(long interval, TimeUnit unit) {
+			this.flushIntervalMillis = unit.toMillis(interval);
+			return this;
+		}
+
+		/**
+		 * @param maxConcurrency The most requests in flight while writing
+		 *                       directly. Defaults to 4.
+		 */
+		public Builder maxConcurrency(int maxConcurrency) {
+			if (maxConcurrency < 1) {
+				throw new IllegalArgumentException("maxConcurrency must be at least 1");
+			}
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * @param batchOperations true to flush as one batch operation request
+		 *                        rather than a request per member. Batch
+		 *                        results are not waited for, see
+		 *                        {@link MemberWriteListener#submitted(java.util.List)}.
+		 *                        Defaults to false.
+		 */
+		public Builder batchOperations(boolean batchOperations) {
+			this.batchOperations = batchOperations;
+			return this;
+		}
+
+		/**
+		 * @param listener Told of writes that failed. By default they are
+		 *                 logged.
+		 */
+		public Builder listener(MemberWriteListener listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		public MemberWriteBuffer build() {
+			return new MemberWriteBuffer(this);
+		}
+	}
+}
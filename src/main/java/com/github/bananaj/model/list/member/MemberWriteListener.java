@@ -0,0 +1,32 @@
+package com.github.bananaj.model.list.member;
+
+import java.util.List;
+
+import com.github.bananaj.model.batch.BatchStatus;
+
+/**
+ * Told the outcome of the writes sent by a {@link MemberWriteBuffer}.
+ * Callbacks are made on the thread flushing the buffer, or on the thread
+ * completing its requests, and should be quick.
+ */
+public interface MemberWriteListener {
+
+	/**
+	 * A write could not be sent or was rejected. The write may be given to the
+	 * buffer again with {@link MemberWriteBuffer#retry(MemberWrite)}.
+	 * @param write The changes that were not written
+	 * @param cause The failure, usually a
+	 *              {@link com.github.bananaj.exceptions.TransportException}
+	 */
+	void failed(MemberWrite write, Throwable cause);
+
+	/**
+	 * Writes flushed as batch operations were submitted. Their outcome is
+	 * found in the batch results, where each operation_id is the list id and
+	 * subscriber hash of the member, followed by <code>/tags</code> for tag
+	 * changes.
+	 * @param batches The batches submitted by one flush
+	 */
+	default void submitted(List<BatchStatus> batches) {
+	}
+}
@@ -10,9 +10,11 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.RequestBody;
 import com.github.bananaj.exceptions.SegmentException;
 import com.github.bananaj.exceptions.TransportException;
 import com.github.bananaj.model.JSONParser;
+import com.github.bananaj.model.batch.Batch;
 import com.github.bananaj.model.list.member.Member;
 import com.github.bananaj.utils.DateConverter;
 
@@ -107,9 +109,9 @@ public class Segment implements JSONParser {
         ArrayList<Member> members = new ArrayList<Member>();
         final JSONObject list;
         if(count != 0){
-            list = new JSONObject(connection.do_Get(new URL(connection.getListendpoint()+"/"+this.getListId()+"/segments/"+this.getId()+"/members?count="+count+"&offset="+offset),connection.getApikey()));
+            list = connection.do_GetJSON(connection.collectionURL(connection.getListendpoint()+"/"+this.getListId()+"/segments/"+this.getId()+"/members?count="+count+"&offset="+offset, "members"),connection.getApikey());
         } else {
-            list = new JSONObject(connection.do_Get(new URL(connection.getListendpoint()+"/"+this.getListId()+"/segments/"+this.getId()+"/members?count="+this.getMemberCount()+"&offset="+offset),connection.getApikey()));
+            list = connection.do_GetJSON(connection.collectionURL(connection.getListendpoint()+"/"+this.getListId()+"/segments/"+this.getId()+"/members?count="+this.getMemberCount()+"&offset="+offset, "members"),connection.getApikey());
         }
 
         final JSONArray membersArray = list.getJSONArray("members");
@@ -259,7 +261,7 @@ public class Segment implements JSONParser {
 		if (membersToRemove != null) {
 			json.put("members_to_remove", membersToRemove);
 		}
-		connection.do_Post(new URL(connection.getListendpoint()+"/"+getListId()+"/segments/"+getId()), json.toString(), connection.getApikey());
+		connection.do_Post(new URL(connection.getListendpoint()+"/"+getListId()+"/segments/"+getId()), RequestBody.ofJSON(json), connection.getApikey());
 		// TODO: return response object members_added / members_removed
 	}
 
@@ -278,6 +280,18 @@ public class Segment implements JSONParser {
 		updateMembers(membersToAdd, null);
 		// TODO: return response object members_added / members_removed
 	}
+
+	/**
+	 * Add the POST of {@link #addMembers(String...)} to a batch rather than
+	 * sending it.
+	 * 
+	 * @param batch
+	 * @param membersToAdd Members to add to the static segment. An array of
+	 *                     emails to be used for a static segment.
+	 */
+	public void addMembers(Batch batch, String... membersToAdd) {
+		batch.add("POST", "/lists/" + getListId() + "/segments/" + getId(), new JSONObject().put("members_to_add", membersToAdd));
+	}
 	
 	/**
 	 * Batch remove list members to static segment
@@ -306,7 +320,7 @@ public class Segment implements JSONParser {
 		JSONObject json = new JSONObject();
 		json.put("name", getName());
 		json.put("static_segment", emails);
-		String results = connection.do_Patch(new URL(connection.getListendpoint()+"/"+getListId()+"/segments/"+getId()), json.toString(), connection.getApikey());
+		String results = connection.do_Patch(new URL(connection.getListendpoint()+"/"+getListId()+"/segments/"+getId()), RequestBody.ofJSON(json), connection.getApikey());
 		parse(connection, new JSONObject(results));  // update this object with current data
 	}
 	
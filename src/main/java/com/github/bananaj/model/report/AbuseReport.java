@@ -39,12 +39,12 @@ public class AbuseReport implements JSONParser {
 	 * @param abuse
 	 */
 	public void parse(MailChimpConnection connection, JSONObject abuse) {
-		id = abuse.getInt("id");
-		campaignId = abuse.getString("campaign_id");
-		listId = abuse.getString("list_id");
+		id = abuse.optInt("id");
+		campaignId = abuse.optString("campaign_id", null);
+		listId = abuse.optString("list_id", null);
 		listIsActive = abuse.has("list_is_active") ? abuse.getBoolean("list_is_active") : null;
-		emailId = abuse.getString("email_id");
-		emailAddress = abuse.getString("email_address");
+		emailId = abuse.optString("email_id", null);
+		emailAddress = abuse.optString("email_address", null);
 		mergeFields = new HashMap<String, Object>();
 		if (abuse.has("merge_fields")) {
 			final JSONObject mergeFieldsObj = abuse.getJSONObject("merge_fields");
@@ -52,8 +52,8 @@ public class AbuseReport implements JSONParser {
 				mergeFields.put(key, mergeFieldsObj.get(key));
 			}
 		}
-		vip = abuse.getBoolean("vip");
-		date = DateConverter.fromISO8601(abuse.getString("date"));
+		vip = abuse.optBoolean("vip");
+		date = DateConverter.fromISO8601(abuse.optString("date", null));
 	}
 	
 	/**
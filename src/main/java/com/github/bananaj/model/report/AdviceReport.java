@@ -2,17 +2,33 @@ package com.github.bananaj.model.report;
 
 import org.json.JSONObject;
 
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
+
 /**
  * Get recent feedback based on a campaign's statistics.
  *
  */
-public class AdviceReport {
+public class AdviceReport implements JSONParser {
 	private String type;
 	private String message;
 
+	public AdviceReport() {
+		
+	}
+
 	public AdviceReport(JSONObject abuse) {
-		type = abuse.getString("type");
-		message = abuse.getString("message");
+		parse(null, abuse);
+	}
+
+	/**
+	 * Parse a JSON representation of Advice Report into this.
+	 * @param connection Not used
+	 * @param abuse
+	 */
+	public void parse(MailChimpConnection connection, JSONObject abuse) {
+		type = abuse.optString("type", null);
+		message = abuse.optString("message", null);
 	}
 
 	/**
@@ -4,9 +4,11 @@ import java.time.ZonedDateTime;
 
 import org.json.JSONObject;
 
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
 import com.github.bananaj.utils.DateConverter;
 
-public class ClickReport {
+public class ClickReport implements JSONParser {
 	private String id;
 	private String url;
 	private Integer totalClicks;
@@ -17,14 +19,27 @@ public class ClickReport {
 	private ClickABSplit abSplit_a;
 	private ClickABSplit abSplit_b;
 
+	public ClickReport() {
+		
+	}
+
 	public ClickReport(JSONObject jsonObj) {
-		id = jsonObj.getString("id");
-		url = jsonObj.getString("url");
-		totalClicks = jsonObj.getInt("total_clicks");
-		clickPercentage = jsonObj.getDouble("click_percentage");
-		uniqueClicks = jsonObj.getInt("unique_clicks");
-		uniqueClickPercentage = jsonObj.getDouble("unique_click_percentage");
-		lastClick = DateConverter.fromISO8601(jsonObj.getString("last_click"));
+		parse(null, jsonObj);
+	}
+
+	/**
+	 * Parse a JSON representation of Click Report into this.
+	 * @param connection Not used
+	 * @param jsonObj
+	 */
+	public void parse(MailChimpConnection connection, JSONObject jsonObj) {
+		id = jsonObj.optString("id", null);
+		url = jsonObj.optString("url", null);
+		totalClicks = jsonObj.has("total_clicks") ? jsonObj.getInt("total_clicks") : null;
+		clickPercentage = jsonObj.has("click_percentage") ? jsonObj.getDouble("click_percentage") : null;
+		uniqueClicks = jsonObj.has("unique_clicks") ? jsonObj.getInt("unique_clicks") : null;
+		uniqueClickPercentage = jsonObj.has("unique_click_percentage") ? jsonObj.getDouble("unique_click_percentage") : null;
+		lastClick = DateConverter.fromISO8601(jsonObj.optString("last_click", null));
 
 		if(jsonObj.has("ab_split")) {
 			JSONObject split = jsonObj.getJSONObject("ab_split");
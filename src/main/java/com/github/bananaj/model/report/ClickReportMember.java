@@ -5,7 +5,10 @@ import java.util.Map;
 
 import org.json.JSONObject;
 
-public class ClickReportMember {
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
+
+public class ClickReportMember implements JSONParser {
 	private String campaignId;
 	private String listId;
 	private boolean listIsActive;
@@ -17,13 +20,26 @@ public class ClickReportMember {
 	private int clicks;
 	private String urlId;
 
+	public ClickReportMember() {
+		
+	}
+
 	public ClickReportMember(JSONObject jsonObj) {
-		campaignId = jsonObj.getString("campaign_id");
-		listId = jsonObj.getString("list_id");
-		listIsActive = jsonObj.getBoolean("list_is_active");
-		contactStatus = jsonObj.getString("contact_status");
-		emailId = jsonObj.getString("email_id");
-		emailAddress = jsonObj.getString("email_address");
+		parse(null, jsonObj);
+	}
+
+	/**
+	 * Parse a JSON representation of Click Report Member into this.
+	 * @param connection Not used
+	 * @param jsonObj
+	 */
+	public void parse(MailChimpConnection connection, JSONObject jsonObj) {
+		campaignId = jsonObj.optString("campaign_id", null);
+		listId = jsonObj.optString("list_id", null);
+		listIsActive = jsonObj.optBoolean("list_is_active");
+		contactStatus = jsonObj.optString("contact_status", null);
+		emailId = jsonObj.optString("email_id", null);
+		emailAddress = jsonObj.optString("email_address", null);
 		
 		mergeFields = new HashMap<String, Object>();
 		if (jsonObj.has("merge_fields")) {
@@ -33,9 +49,9 @@ public class ClickReportMember {
 			}
 		}
 		
-		vip = jsonObj.getBoolean("vip");
-		clicks = jsonObj.getInt("clicks");
-		urlId = jsonObj.getString("url_id");
+		vip = jsonObj.optBoolean("vip");
+		clicks = jsonObj.optInt("clicks");
+		urlId = jsonObj.optString("url_id", null);
 	}
 
 	/**
@@ -2,7 +2,10 @@ package com.github.bananaj.model.report;
 
 import org.json.JSONObject;
 
-public class EcommerceProductActivity {
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
+
+public class EcommerceProductActivity implements JSONParser {
 	private String title;
 	private String sku;
 	private String imageUrl;
@@ -12,15 +15,28 @@ public class EcommerceProductActivity {
 	private Integer recommendationTotal;
 	private Integer recommendationPurchased;
 
+	public EcommerceProductActivity() {
+		
+	}
+
 	public EcommerceProductActivity(JSONObject jsonObj) {
-		title = jsonObj.getString("title");
-		sku = jsonObj.getString("sku");
-		imageUrl = jsonObj.getString("image_url");
-		totalRevenue = jsonObj.getDouble("total_revenue");
-		totalPurchased = jsonObj.getDouble("total_purchased");
-		currencyCode = jsonObj.getString("currency_code");
-		recommendationTotal = jsonObj.getInt("recommendation_total");
-		recommendationPurchased = jsonObj.getInt("recommendation_purchased");
+		parse(null, jsonObj);
+	}
+
+	/**
+	 * Parse a JSON representation of Ecommerce Product Activity into this.
+	 * @param connection Not used
+	 * @param jsonObj
+	 */
+	public void parse(MailChimpConnection connection, JSONObject jsonObj) {
+		title = jsonObj.optString("title", null);
+		sku = jsonObj.optString("sku", null);
+		imageUrl = jsonObj.optString("image_url", null);
+		totalRevenue = jsonObj.has("total_revenue") ? jsonObj.getDouble("total_revenue") : null;
+		totalPurchased = jsonObj.has("total_purchased") ? jsonObj.getDouble("total_purchased") : null;
+		currencyCode = jsonObj.optString("currency_code", null);
+		recommendationTotal = jsonObj.has("recommendation_total") ? jsonObj.getInt("recommendation_total") : null;
+		recommendationPurchased = jsonObj.has("recommendation_purchased") ? jsonObj.getInt("recommendation_purchased") : null;
 	}
 
 	/**
@@ -9,6 +9,8 @@ import java.util.Map;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
 import com.github.bananaj.utils.DateConverter;
 
 /**
@@ -17,7 +19,7 @@ import com.github.bananaj.utils.DateConverter;
  * timestamps for each open event.
  *
  */
-public class OpenReportMember {
+public class OpenReportMember implements JSONParser {
 	
 	private String campaignId;
 	private String listId;
@@ -30,13 +32,26 @@ public class OpenReportMember {
 	private int opensCount;
 	private List<ZonedDateTime> opens;
 
+	public OpenReportMember() {
+		
+	}
+
 	public OpenReportMember(JSONObject jsonObj) {
-		campaignId = jsonObj.getString("campaign_id");
-		listId = jsonObj.getString("list_id");
-		listIsActive = jsonObj.getBoolean("list_is_active");
-		contactStatus = jsonObj.getString("contact_status");
-		emailId = jsonObj.getString("email_id");
-		emailAddress = jsonObj.getString("email_address");
+		parse(null, jsonObj);
+	}
+
+	/**
+	 * Parse a JSON representation of Open Report Member into this.
+	 * @param connection Not used
+	 * @param jsonObj
+	 */
+	public void parse(MailChimpConnection connection, JSONObject jsonObj) {
+		campaignId = jsonObj.optString("campaign_id", null);
+		listId = jsonObj.optString("list_id", null);
+		listIsActive = jsonObj.optBoolean("list_is_active");
+		contactStatus = jsonObj.optString("contact_status", null);
+		emailId = jsonObj.optString("email_id", null);
+		emailAddress = jsonObj.optString("email_address", null);
 		
 		mergeFields = new HashMap<String, Object>();
 		if (jsonObj.has("merge_fields")) {
@@ -46,14 +61,16 @@ public class OpenReportMember {
 			}
 		}
 		
-		vip = jsonObj.getBoolean("vip");
-		opensCount = jsonObj.getInt("opens_count");
-
-		final JSONArray openArray = jsonObj.getJSONArray("opens");
-		opens = new ArrayList<ZonedDateTime>(openArray.length());
-		for(int i=0; i<openArray.length(); i++) {
-			JSONObject ts = openArray.getJSONObject(i);
-			opens.add(DateConverter.fromISO8601(ts.getString("timestamp")));
+		vip = jsonObj.optBoolean("vip");
+		opensCount = jsonObj.optInt("opens_count");
+
+		if (jsonObj.has("opens")) {
+			final JSONArray openArray = jsonObj.getJSONArray("opens");
+			opens = new ArrayList<ZonedDateTime>(openArray.length());
+			for(int i=0; i<openArray.length(); i++) {
+				JSONObject ts = openArray.getJSONObject(i);
+				opens.add(DateConverter.fromISO8601(ts.getString("timestamp")));
+			}
 		}
 	}
 
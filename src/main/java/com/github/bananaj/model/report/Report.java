@@ -11,6 +11,8 @@ import java.util.List;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
 import com.github.bananaj.model.campaign.Bounce;
 import com.github.bananaj.model.campaign.CampaignType;
 import com.github.bananaj.utils.DateConverter;
@@ -21,7 +23,7 @@ import com.github.bananaj.utils.DateConverter;
  * @author alexanderweiss
  *
  */
-public class Report {
+public class Report implements JSONParser {
 
 	private String id;
 	private String campaignTitle;
@@ -50,24 +52,37 @@ public class Report {
 	private Ecommerce ecommerce;
 	private DeliveryStatus deliveryStatus;
 
+	public Report() {
+		
+	}
+
 	public Report(JSONObject jsonObj) {
-		id = jsonObj.getString("id");
-		campaignTitle = jsonObj.getString("campaign_title");
-		type = CampaignType.valueOf(jsonObj.getString("type").toUpperCase());
-		listId = jsonObj.getString("list_id");
-		listIsActive = jsonObj.getBoolean("list_is_active");
-		listName = jsonObj.getString("list_name");
-		subjectLine = jsonObj.getString("subject_line");
-		previewText = jsonObj.getString("preview_text");
-		emailsSent = jsonObj.getInt("emails_sent");
-		abuseReport = jsonObj.getInt("abuse_reports");
-		unsubscribed = jsonObj.getInt("unsubscribed");
-		sendtime = DateConverter.fromISO8601(jsonObj.getString("send_time"));
+		parse(null, jsonObj);
+	}
+
+	/**
+	 * Parse a JSON representation of Campaign Report into this.
+	 * @param connection Not used
+	 * @param jsonObj
+	 */
+	public void parse(MailChimpConnection connection, JSONObject jsonObj) {
+		id = jsonObj.optString("id", null);
+		campaignTitle = jsonObj.optString("campaign_title", null);
+		type = jsonObj.has("type") ? CampaignType.valueOf(jsonObj.getString("type").toUpperCase()) : null;
+		listId = jsonObj.optString("list_id", null);
+		listIsActive = jsonObj.optBoolean("list_is_active");
+		listName = jsonObj.optString("list_name", null);
+		subjectLine = jsonObj.optString("subject_line", null);
+		previewText = jsonObj.optString("preview_text", null);
+		emailsSent = jsonObj.optInt("emails_sent");
+		abuseReport = jsonObj.optInt("abuse_reports");
+		unsubscribed = jsonObj.optInt("unsubscribed");
+		sendtime = DateConverter.fromISO8601(jsonObj.optString("send_time", null));
 		rssLastSend = jsonObj.has("rss_last_send") ? DateConverter.fromISO8601(jsonObj.getString("rss_last_send")) : null;
-		bounces = new Bounce(jsonObj.getJSONObject("bounces"));
-		forwards = new Forward(jsonObj.getJSONObject("forwards"));
-		clicks = new Click(jsonObj.getJSONObject("clicks"));
-		opens = new Open(jsonObj.getJSONObject("opens"));
+		bounces = jsonObj.has("bounces") ? new Bounce(jsonObj.getJSONObject("bounces")) : null;
+		forwards = jsonObj.has("forwards") ? new Forward(jsonObj.getJSONObject("forwards")) : null;
+		clicks = jsonObj.has("clicks") ? new Click(jsonObj.getJSONObject("clicks")) : null;
+		opens = jsonObj.has("opens") ? new Open(jsonObj.getJSONObject("opens")) : null;
 		facebookLikes = jsonObj.has("facebook_likes") ? new FacebookLikes(jsonObj.getJSONObject("facebook_likes")) : null;
 		industryStats = jsonObj.has("industry_stats") ? new IndustryStats(jsonObj.getJSONObject("industry_stats")) : null;
 		listStats = jsonObj.has("list_stats") ? new ReportListStats(jsonObj.getJSONObject("list_stats")) : null;
@@ -293,10 +308,10 @@ public class Report {
 		sb.append("    Total unsubscribed: " + getUnsubscribed() + System.lineSeparator());
 		sb.append("    Send Time: " + (getSendTime()!=null ? DateConverter.toLocalString(getSendTime()) : "") + System.lineSeparator());
 		sb.append((getRssLastSend() != null ? DateConverter.toLocalString(getRssLastSend()) + System.lineSeparator() : ""));
-		sb.append(getForwards().toString() + System.lineSeparator());
-		sb.append(getOpens().toString() + System.lineSeparator());
-		sb.append(getBounces().toString() + System.lineSeparator());
-		sb.append(getClicks().toString() + System.lineSeparator());
+		sb.append((getForwards() != null ? getForwards().toString() + System.lineSeparator() : ""));
+		sb.append((getOpens() != null ? getOpens().toString() + System.lineSeparator() : ""));
+		sb.append((getBounces() != null ? getBounces().toString() + System.lineSeparator() : ""));
+		sb.append((getClicks() != null ? getClicks().toString() + System.lineSeparator() : ""));
 		sb.append((getFacebookLikes() != null ? getFacebookLikes().toString() + System.lineSeparator() : ""));
 		sb.append((getIndustryStats() != null ? getIndustryStats().toString() + System.lineSeparator() : ""));
 		sb.append((getListStats() != null ? getListStats().toString() + System.lineSeparator() : ""));
@@ -10,6 +10,7 @@ import java.time.ZonedDateTime;
 import org.json.JSONObject;
 
 import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.RequestBody;
 import com.github.bananaj.utils.DateConverter;
 
 /**
@@ -68,7 +69,7 @@ public class Template {
 	 */
 	public void update() throws Exception {
 		JSONObject jsonObj = getJsonRepresentation();
-		String results = getConnection().do_Patch(new URL(getConnection().getTemplateendpoint()+"/"+getId()), jsonObj.toString(), getConnection().getApikey() );
+		String results = getConnection().do_Patch(new URL(getConnection().getTemplateendpoint()+"/"+getId()), RequestBody.ofJSON(jsonObj), getConnection().getApikey() );
 		parse(connection, new JSONObject(results));
 	}
 
@@ -0,0 +1,68 @@
+package com.github.bananaj.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the number of entities requested per page from the time and size
+ * of the pages already fetched. After each page the size is moved toward the
+ * count that would have met both the target response time and the target
+ * response size, by at most a factor of two per page so a single slow
+ * response does not collapse the page size. Sizes stay within 1-1000.
+ * <p>
+ * Enable it for every iterator of a connection with
+ * {@link com.github.bananaj.connection.MailChimpConnection.Builder#adaptivePageSize(AdaptivePageSize)}.
+ */
+public final class AdaptivePageSize {
+
+	/** Pages of about two seconds and 4 MB */
+	public static final AdaptivePageSize DEFAULT = new AdaptivePageSize(2, TimeUnit.SECONDS, 4 * 1024 * 1024);
+
+	public static final int MIN_PAGE_SIZE = 1;
+	public static final int MAX_PAGE_SIZE = 1000;
+
+	private final long targetMillis;
+	private final long targetBytes;
+
+	/**
+	 * @param targetTime  Desired response time of a page
+	 * @param unit        Time unit of targetTime
+	 * @param targetBytes Desired size of a page response body in bytes
+	 */
+	public AdaptivePageSize(long targetTime, TimeUnit unit, long targetBytes) {
+		if (targetTime <= 0 || targetBytes <= 0) {
+			throw new IllegalArgumentException("targets must be positive");
+		}
+		this.targetMillis = unit.toMillis(targetTime);
+		this.targetBytes = targetBytes;
+	}
+
+	public long getTargetMillis() {
+		return targetMillis;
+	}
+
+	public long getTargetBytes() {
+		return targetBytes;
+	}
+
+	/**
+	 * @param current The page size used for the page just fetched
+	 * @param items   Number of entities the page held
+	 * @param millis  Response time of the page
+	 * @param bytes   Size of the page response body
+	 * @return The page size to request next
+	 */
+	public int next(int current, int items, long millis, long bytes) {
+		if (items <= 0) {
+			return current;
+		}
+		double fit = Math.min((double) targetMillis / Math.max(millis, 1), (double) targetBytes / Math.max(bytes, 1));
+		long size = Math.round(items * fit);
+		size = Math.max(current / 2, Math.min(size, (long) current * 2));
+		return (int) Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE, size));
+	}
+
+	@Override
+	public String toString() {
+		return "AdaptivePageSize: " + targetMillis + "ms " + targetBytes + " bytes";
+	}
+}
@@ -1,10 +1,13 @@
 package com.github.bananaj.utils;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Base64OutputStream;
 /**
  * Class for util method for files.
  * Created by alexanderweiss on 30.12.16.
@@ -47,4 +50,17 @@ public class FileInspector {
         return new String(encodedBytes);
     }
 
+    /**
+     * Write a file to a stream as base 64 without holding the file in memory
+     * @param file
+     * @param out The stream to write to. It is left open.
+     * @throws IOException
+     */
+    public void writeFileAsBase64(File file, OutputStream out) throws IOException {
+        Base64OutputStream encoder = new Base64OutputStream(out, true, 0, null);
+        Files.copy(file.toPath(), encoder);
+        encoder.eof();
+        encoder.flush();
+    }
+
 }
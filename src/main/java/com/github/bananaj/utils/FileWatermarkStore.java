@@ -0,0 +1,75 @@
+package com.github.bananaj.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Keeps watermarks in a properties file. The file is replaced atomically on
+ * each save, so a crash while saving leaves the previous marks intact.
+ */
+public class FileWatermarkStore implements WatermarkStore {
+
+	private final Path file;
+
+	/**
+	 * Store watermarks in <code>~/.bananaj/watermarks.properties</code>
+	 */
+	public FileWatermarkStore() {
+		this(Paths.get(System.getProperty("user.home"), ".bananaj", "watermarks.properties"));
+	}
+
+	/**
+	 * @param file The properties file. It is created on the first save.
+	 */
+	public FileWatermarkStore(Path file) {
+		this.file = file;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	@Override
+	public synchronized String load(String key) throws IOException {
+		return read().getProperty(key);
+	}
+
+	@Override
+	public synchronized void save(String key, String watermark) throws IOException {
+		Properties marks = read();
+		marks.setProperty(key, watermark);
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp)) {
+			marks.store(out, "bananaj sync watermarks");
+		}
+		try {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private Properties read() throws IOException {
+		Properties marks = new Properties();
+		if (Files.exists(file)) {
+			try (InputStream in = Files.newInputStream(file)) {
+				marks.load(in);
+			}
+		}
+		return marks;
+	}
+
+	@Override
+	public String toString() {
+		return "FileWatermarkStore: " + file;
+	}
+}
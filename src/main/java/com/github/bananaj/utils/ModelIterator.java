@@ -1,80 +1,372 @@
 package com.github.bananaj.utils;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.github.bananaj.connection.EndpointMetrics;
 import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.TransportMetrics;
 import com.github.bananaj.exceptions.TransportException;
 import com.github.bananaj.model.JSONParser;
+import com.github.bananaj.model.Projection;
 
-public class ModelIterator<T extends JSONParser> implements Iterable<T> {
+/**
+ * Iterates over the entities of a paged collection, fetching pages as they
+ * are needed. With prefetching enabled the following pages are requested in
+ * the background while the caller works through the current one, so the
+ * caller's processing overlaps the network round trips. Since the first page
+ * reports the size of the collection, the offsets of the following pages are
+ * known up front and up to <code>prefetchPages</code> of them are fetched
+ * concurrently. Entities are returned in offset order unless unordered
+ * paging is requested, in which case each page is returned as soon as it
+ * arrives. Close the iterator when abandoning an iteration early to cancel
+ * pages still being fetched.
+ * <p>
+ * {@link #stream()} and {@link #parallelStream()} continue from the
+ * iterator's current position. A parallel stream splits the remaining offset
+ * range into page aligned halves, so fetching and parsing pages are spread
+ * across the fork-join pool:
+ * <pre>
+ * List&lt;Member&gt; vips = list.members().parallel()
+ *     .filter(Member::isVip)
+ *     .collect(Collectors.toList());
+ * </pre>
+ * <p>
+ * {@link #getCursor()} returns the position of an ordered iteration as a
+ * {@link PageCursor}, which can be saved and passed to
+ * {@link #ModelIterator(Supplier, PageCursor, MailChimpConnection)} to resume
+ * the iteration in a new iterator, for example after a crash.
+ * <p>
+ * {@link #keyset(Supplier, String, String, String, String, MailChimpConnection, int)}
+ * creates an iterator that pages by key instead of by offset. The collection
+ * is sorted ascending by a key field, such as a member's
+ * <code>last_changed</code>, and each page is requested with the key of the
+ * newest entity seen so far. The cost of a page stays constant however deep
+ * the walk goes, and entities added or changed during the walk neither shift
+ * nor skip the remaining ones.
+ * <p>
+ * When the connection is built with an {@link AdaptivePageSize} the page size
+ * given to the constructor is only a starting point, and each page is
+ * requested with a size chosen from the response times and sizes of the pages
+ * before it. The sizes chosen are counted in the connection's
+ * {@link com.github.bananaj.connection.TransportMetrics}.
+ */
+public class ModelIterator<T extends JSONParser> implements Iterable<T>, AutoCloseable {
 	
 	MailChimpConnection connection;
 	Queue<T> q = new LinkedList<>();
 	private String query;
 	private int offset = 0;
-	private int pagesize = 1000;
-	private Class<T> typeClasse;
+	private volatile int pagesize = 1000;
+	private volatile AdaptivePageSize adaptive;
+	private final Supplier<T> factory;
+	private final String collectionKey;
 	private Integer totalItems;
 	private int currentIndex = 0;
+	private final int prefetchPages;
+	private final boolean ordered;
+	private final Deque<CompletableFuture<Page<T>>> prefetched = new ArrayDeque<>();
+	private volatile boolean closed;
+	private final Keyset keyset;
 	
 	public ModelIterator(Class<T> typeClasse, String query, MailChimpConnection connection) {
-		this.typeClasse = typeClasse;
-		this.connection = connection;
-		this.query = query;
-		readPagedEntities();
+		this(typeClasse, query, connection, 1000);
 	}
 
 	public ModelIterator(Class<T> typeClasse, String query, MailChimpConnection connection, int pagesize) {
-		this.typeClasse = typeClasse;
+		this(typeClasse, query, connection, pagesize, connection.getPrefetchPages(), connection.isOrderedPages());
+	}
+
+	/**
+	 * @param typeClasse    The entity class
+	 * @param query         The collection URL
+	 * @param connection
+	 * @param pagesize      Number of entities requested per page, 1-1000
+	 * @param prefetchPages Maximum number of pages requested ahead of the
+	 *                      caller, or 0 to fetch each page when it is needed
+	 */
+	public ModelIterator(Class<T> typeClasse, String query, MailChimpConnection connection, int pagesize, int prefetchPages) {
+		this(typeClasse, query, connection, pagesize, prefetchPages, true);
+	}
+
+	/**
+	 * @param typeClasse    The entity class
+	 * @param query         The collection URL
+	 * @param connection
+	 * @param pagesize      Number of entities requested per page, 1-1000
+	 * @param prefetchPages Maximum number of pages requested ahead of the
+	 *                      caller, or 0 to fetch each page when it is needed
+	 * @param ordered       false to return prefetched pages in the order they
+	 *                      arrive rather than in offset order
+	 */
+	public ModelIterator(Class<T> typeClasse, String query, MailChimpConnection connection, int pagesize, int prefetchPages, boolean ordered) {
+		this(reflectiveFactory(typeClasse), null, query, connection, pagesize, prefetchPages, ordered, 0, null, true);
+	}
+
+	/**
+	 * Iterate without reflection, reading the entities from a known key of each
+	 * page.
+	 * @param factory       Creates an empty entity, for example
+	 *                      <code>Member::new</code>
+	 * @param collectionKey The key of the entity array in each page, for example
+	 *                      <code>members</code>
+	 * @param query         The collection URL
+	 * @param connection
+	 */
+	public ModelIterator(Supplier<T> factory, String collectionKey, String query, MailChimpConnection connection) {
+		this(factory, collectionKey, query, connection, 1000);
+	}
+
+	/**
+	 * @param factory       Creates an empty entity, for example
+	 *                      <code>Member::new</code>
+	 * @param collectionKey The key of the entity array in each page, for example
+	 *                      <code>members</code>
+	 * @param query         The collection URL
+	 * @param connection
+	 * @param pagesize      Number of entities requested per page, 1-1000
+	 */
+	public ModelIterator(Supplier<T> factory, String collectionKey, String query, MailChimpConnection connection, int pagesize) {
+		this(factory, collectionKey, query, connection, pagesize, connection.getPrefetchPages(), connection.isOrderedPages());
+	}
+
+	/**
+	 * @param factory       Creates an empty entity, for example
+	 *                      <code>Member::new</code>
+	 * @param collectionKey The key of the entity array in each page, for example
+	 *                      <code>members</code>
+	 * @param query         The collection URL
+	 * @param connection
+	 * @param pagesize      Number of entities requested per page, 1-1000
+	 * @param prefetchPages Maximum number of pages requested ahead of the
+	 *                      caller, or 0 to fetch each page when it is needed
+	 * @param ordered       false to return prefetched pages in the order they
+	 *                      arrive rather than in offset order
+	 */
+	public ModelIterator(Supplier<T> factory, String collectionKey, String query, MailChimpConnection connection, int pagesize, int prefetchPages, boolean ordered) {
+		this(factory, collectionKey, query, connection, pagesize, prefetchPages, ordered, 0, null, true);
+	}
+
+	/**
+	 * Iterate over a collection, returning only some fields of each entity.
+	 * The fields not returned are left unset.
+	 * @param factory       Creates an empty entity, for example
+	 *                      <code>Member::new</code>
+	 * @param collectionKey The key of the entity array in each page, for example
+	 *                      <code>members</code>
+	 * @param query         The collection URL
+	 * @param connection
+	 * @param pagesize      Number of entities requested per page, 1-1000
+	 * @param projection    The fields to return
+	 */
+	public ModelIterator(Supplier<T> factory, String collectionKey, String query, MailChimpConnection connection, int pagesize, Projection<T> projection) {
+		this(factory, collectionKey, projection != null ? projection.applyTo(query, collectionKey) : query, connection, pagesize);
+	}
+
+	/**
+	 * Create an iterator that pages by key rather than by offset. Pages are
+	 * requested sorted ascending by <code>keyField</code>, each starting from
+	 * the newest key seen so far. Entities sharing that key are told apart by
+	 * their <code>id</code>, so none is returned twice. Keyset iterations are
+	 * fetched one page at a time and do not report a total.
+	 * 
+	 * @param factory       Creates an empty entity, for example
+	 *                      <code>Member::new</code>
+	 * @param collectionKey The key of the entity array in each page, for example
+	 *                      <code>members</code>
+	 * @param query         The collection URL
+	 * @param keyField      The field the collection is sorted by, for example
+	 *                      <code>last_changed</code>
+	 * @param since         The key to start from, or null to start at the
+	 *                      beginning of the collection
+	 * @param connection
+	 * @param pagesize      Number of entities requested per page, 1-1000
+	 * @return The iterator
+	 */
+	public static <T extends JSONParser> ModelIterator<T> keyset(Supplier<T> factory, String collectionKey, String query,
+			String keyField, String since, MailChimpConnection connection, int pagesize) {
+		return new ModelIterator<>(factory, collectionKey, query, connection, pagesize, 0, true, 0,
+				new Keyset(keyField, since, null), true);
+	}
+
+	/**
+	 * Resume an iteration from a saved position.
+	 * @param factory    Creates an empty entity, for example
+	 *                   <code>Member::new</code>
+	 * @param cursor     A cursor from {@link #getCursor()}
+	 * @param connection
+	 */
+	public ModelIterator(Supplier<T> factory, PageCursor cursor, MailChimpConnection connection) {
+		this(factory, cursor.getCollectionKey(), cursor.getQuery(), connection, cursor.getPageSize(),
+				connection.getPrefetchPages(), true, cursor.getOffset(),
+				cursor.getKeyField() != null ? new Keyset(cursor.getKeyField(), cursor.getLastKey(), cursor.getLastKeyIds()) : null, true);
+	}
+
+	/**
+	 * Create an iterator that fetches nothing by itself, used by
+	 * {@link ModelPublisher} to fetch and parse pages on demand through
+	 * {@link #fetchPageAsync(int, int)}.
+	 */
+	static <T extends JSONParser> ModelIterator<T> pageSource(Supplier<T> factory, String collectionKey, String query,
+			MailChimpConnection connection, int pagesize) {
+		return new ModelIterator<>(factory, collectionKey, query, connection, pagesize, 0, true, 0, null, false);
+	}
+
+	private ModelIterator(Supplier<T> factory, String collectionKey, String query, MailChimpConnection connection,
+			int pagesize, int prefetchPages, boolean ordered, int startOffset, Keyset keyset, boolean fetch) {
+		this.keyset = keyset;
+		this.ordered = ordered;
+		this.offset = startOffset;
+		this.currentIndex = startOffset;
+		this.factory = factory;
+		this.collectionKey = collectionKey;
 		this.connection = connection;
+		if (collectionKey != null && connection.isExcludeLinks()) {
+			// leave out the links of every entity, not only those of the page
+			query = Projection.<T>excludeLinks().applyTo(query, collectionKey);
+		}
 		this.query = query;
 		this.pagesize = Math.min(1000, Math.max(pagesize, 1));
-		readPagedEntities();
+		this.prefetchPages = Math.max(prefetchPages, 0);
+		if (fetch && connection.getAdaptivePageSize() != null) {
+			this.adaptive = connection.getAdaptivePageSize();
+			this.pagesize = lastPageSize(query, this.pagesize);
+		}
+		if (fetch) {
+			readPagedEntities();
+			prefetch();
+		}
 	}
 
-	private void readPagedEntities() {
+	/**
+	 * Look up the default constructor once rather than for every entity.
+	 */
+	private static <T> Supplier<T> reflectiveFactory(Class<T> typeClasse) {
+		final Constructor<T> constructor;
 		try {
-			URL url = new URL(query + (query.contains("?") ? "&" : "?") + "count="+pagesize + "&offset="+offset);
-			offset += pagesize;
-			final JSONObject list = new JSONObject(connection.do_Get(url,connection.getApikey()));
+			constructor = typeClasse.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			throw new RuntimeException("Class " + typeClasse.getCanonicalName() + " missing default constructor", e);  
+		}
+		return () -> {
+			try {
+				return constructor.newInstance();
+			} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+				throw new RuntimeException("Class " + typeClasse.getCanonicalName() + " missing default constructor", e);  
+			}
+		};
+	}
 
-			if (list.has("total_items")) {
-				totalItems = list.getInt("total_items");	// The total number of items matching the query regardless of pagination
-			}
-
-			Iterator<String> keys = list.keys();
-			while(keys.hasNext()) {
-				final String key = keys.next();
-				if (key.equals("_links")) { continue; }
-				final Object keyValue = list.get(key);
-				if (keyValue instanceof JSONArray) { // look for main entity array
-					// TODO: TRACE -- found 'key' entity array of type T
-					final JSONArray entArray = (JSONArray)keyValue;
-					for (int i = 0 ; i < entArray.length();i++)
-					{
-						final JSONObject objDetail = entArray.getJSONObject(i);
-						T ent = typeClasse.getDeclaredConstructor().newInstance();
-						ent.parse(connection, objDetail);
-						q.offer(ent);
-					}
-					break;	// found entity array, no need to keep looking
-				}
+	/**
+	 * @return The page size last chosen for the collection's endpoint, or the
+	 *         given size if none was chosen yet
+	 */
+	private int lastPageSize(String query, int pagesize) {
+		try {
+			EndpointMetrics stats = connection.getMetrics().getEndpoint(TransportMetrics.endpointKey("GET", new URL(query)));
+			return stats != null && stats.getLastPageSize() > 0 ? stats.getLastPageSize() : pagesize;
+		} catch (MalformedURLException e) {
+			return pagesize;
+		}
+	}
+
+	private URL nextPageURL(int count) throws MalformedURLException {
+		URL url = pageURL(offset, count);
+		offset += count;
+		connection.getMetrics().recordPage(url, count);
+		return url;
+	}
+
+	/**
+	 * Fetch and parse a page, adapting the page size to the response. The page
+	 * is parsed straight from the response stream; its size is taken from the
+	 * bytes the connection counted for the endpoint while it was read.
+	 */
+	private Page<T> readPage(URL url, int count) throws TransportException, URISyntaxException {
+		if (adaptive == null) {
+			return parsePage(connection.do_GetJSON(url, connection.getApikey()));
+		}
+		final String endpoint = TransportMetrics.endpointKey("GET", url);
+		long[] before = counted(endpoint);
+		long start = System.nanoTime();
+		Page<T> page = parsePage(connection.do_GetJSON(url, connection.getApikey()));
+		long millis = (System.nanoTime() - start) / 1000000;
+		adapt(count, page.size, millis, bytesSince(endpoint, before));
+		return page;
+	}
+
+	/**
+	 * @return The body bytes and the responses the connection has counted for
+	 *         the endpoint
+	 */
+	private long[] counted(String endpoint) {
+		EndpointMetrics stats = connection.getMetrics().getEndpoint(endpoint);
+		return stats != null ? new long[] { stats.getBodyBytes(), stats.getResponseCount() } : new long[2];
+	}
+
+	/**
+	 * @return The average size of the response bodies counted for the endpoint
+	 *         since <code>before</code>. Pages read concurrently are counted
+	 *         too, so the size is averaged over them.
+	 */
+	private long bytesSince(String endpoint, long[] before) {
+		long[] after = counted(endpoint);
+		return (after[0] - before[0]) / Math.max(after[1] - before[1], 1);
+	}
+
+	private void adapt(int count, int items, long millis, long bytes) {
+		AdaptivePageSize policy = adaptive;
+		if (policy != null) {
+			pagesize = policy.next(count, items, millis, bytes);
+		}
+	}
+
+	private URL pageURL(int offset, int count) throws MalformedURLException {
+		return new URL(query + (query.contains("?") ? "&" : "?") + "count="+count + "&offset="+offset);
+	}
+
+	private void readPagedEntities() {
+		if (keyset != null) {
+			readKeysetPage();
+			return;
+		}
+		try {
+			final int count = pagesize;
+			Page<T> page = readPage(nextPageURL(count), count);
+			if (page.totalItems != null) {
+				totalItems = page.totalItems;
 			}
-		} catch (InstantiationException|NoSuchMethodException| InvocationTargetException e) {
-			throw new RuntimeException("Class " + typeClasse.getCanonicalName() + " missing default constructor", e);  
-		} catch (TransportException | JSONException |  IllegalAccessException | 
-				MalformedURLException | URISyntaxException e) {
+			q.addAll(page.entities);
+		} catch (TransportException | MalformedURLException | URISyntaxException e) {
 			// Wrap checked exceptions in a RuntimeException.
 			// Checked exceptions are warped in a RuntimeException to reduce the need for
 			// boilerplate code inside of lambdas.
@@ -82,6 +374,260 @@ public class ModelIterator<T extends JSONParser> implements Iterable<T> {
 		} 
 	}
 
+	/**
+	 * Read pages from the newest key seen until one holds entities not
+	 * returned yet or the collection is exhausted. A full page made up only of
+	 * entities already seen, which happens when more entities share one key
+	 * than fit on a page, is stepped over by offset.
+	 */
+	private void readKeysetPage() {
+		try {
+			Page<T> page;
+			do {
+				final int count = pagesize;
+				URL url = new URL(query + (query.contains("?") ? "&" : "?") + "sort_field=" + keyset.field + "&sort_dir=ASC"
+						+ "&count=" + count + "&offset=" + keyset.tieOffset
+						+ (keyset.lastKey != null ? "&since_" + keyset.field + "=" + URLEncoder.encode(keyset.lastKey, StandardCharsets.UTF_8.name()) : ""));
+				String previousKey = keyset.lastKey;
+				connection.getMetrics().recordPage(url, count);
+				page = readPage(url, count);
+				q.addAll(page.entities);
+				if (page.size < count) {
+					keyset.exhausted = true;
+				} else if (previousKey != null && previousKey.equals(keyset.lastKey)) {
+					keyset.tieOffset += page.size;
+				} else {
+					keyset.tieOffset = 0;
+				}
+			} while (page.entities.isEmpty() && !keyset.exhausted);
+		} catch (TransportException | MalformedURLException | URISyntaxException | UnsupportedEncodingException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private Page<T> fetchPage(int offset, int count) {
+		try {
+			URL url = pageURL(offset, count);
+			connection.getMetrics().recordPage(url, count);
+			return parsePage(connection.do_GetJSON(url, connection.getApikey()));
+		} catch (TransportException | MalformedURLException | URISyntaxException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Fetch a page without blocking. The page is parsed on the connection's
+	 * callback executor.
+	 */
+	CompletableFuture<Page<T>> fetchPageAsync(int offset, int count) {
+		try {
+			URL url = pageURL(offset, count);
+			connection.getMetrics().recordPage(url, count);
+			return connection.do_GetJSONAsync(url, connection.getApikey()).thenApply(this::parsePage);
+		} catch (MalformedURLException | URISyntaxException e) {
+			CompletableFuture<Page<T>> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	/**
+	 * @return The number of entities requested with the next page
+	 */
+	public int getPageSize() {
+		return pagesize;
+	}
+
+	/**
+	 * @param adaptivePageSize How to choose the size of the following pages,
+	 *                         or null to request them all with the current
+	 *                         size
+	 */
+	public void setAdaptivePageSize(AdaptivePageSize adaptivePageSize) {
+		this.adaptive = adaptivePageSize;
+	}
+
+	private Page<T> parsePage(JSONObject list) {
+		Page<T> page = new Page<>();
+		try {
+			if (list.has("total_items")) {
+				page.totalItems = list.getInt("total_items");	// The total number of items matching the query regardless of pagination
+			}
+
+			final JSONArray entArray = collectionKey != null ? list.optJSONArray(collectionKey) : findEntityArray(list);
+			if (entArray != null) {
+				page.size = entArray.length();
+				page.entities = new ArrayList<>(entArray.length());
+				for (int i = 0 ; i < entArray.length();i++)
+				{
+					final JSONObject objDetail = entArray.getJSONObject(i);
+					if (keyset != null && !keyset.advance(objDetail.optString(keyset.field), objDetail.optString("id"))) {
+						continue;	// returned with an earlier page
+					}
+					T ent = factory.get();
+					ent.parse(connection, objDetail);
+					page.entities.add(ent);
+				}
+			}
+		} catch (JSONException e) {
+			throw new RuntimeException(e);  
+		}
+		return page;
+	}
+
+	/**
+	 * Guess the entity array of a page when no collection key was given.
+	 */
+	private static JSONArray findEntityArray(JSONObject list) {
+		Iterator<String> keys = list.keys();
+		while(keys.hasNext()) {
+			final String key = keys.next();
+			if (key.equals("_links")) { continue; }
+			final Object keyValue = list.get(key);
+			if (keyValue instanceof JSONArray) { // look for main entity array
+				return (JSONArray)keyValue;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Request pages in the background until the prefetch window is full or
+	 * every page up to the last known total has been requested. Pages are
+	 * parsed on the connection's callback executor.
+	 */
+	private void prefetch() {
+		while (!closed && prefetched.size() < prefetchPages && totalItems != null && offset < totalItems) {
+			try {
+				final int count = pagesize;
+				final URL url = nextPageURL(count);
+				final String endpoint = TransportMetrics.endpointKey("GET", url);
+				final long[] before = counted(endpoint);
+				final long start = System.nanoTime();
+				prefetched.add(connection.do_GetJSONAsync(url, connection.getApikey())
+						.thenApply(list -> {
+							long millis = (System.nanoTime() - start) / 1000000;
+							Page<T> page = parsePage(list);
+							adapt(count, page.size, millis, bytesSince(endpoint, before));
+							return page;
+						}));
+			} catch (MalformedURLException | URISyntaxException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	/**
+	 * Make the next page current, waiting for it if it was prefetched.
+	 */
+	private void nextPage() {
+		CompletableFuture<Page<T>> pending = ordered ? prefetched.poll() : pollFirstArrived();
+		if (pending == null) {
+			readPagedEntities();
+		} else {
+			Page<T> page;
+			try {
+				page = pending.join();
+			} catch (CompletionException e) {
+				throw new RuntimeException(e.getCause());
+			} catch (CancellationException e) {
+				throw new NoSuchElementException("the iterator has been closed");
+			}
+			if (page.totalItems != null) {
+				totalItems = page.totalItems;
+			}
+			q.addAll(page.entities);
+		}
+		prefetch();
+	}
+
+	/**
+	 * Take the first prefetched page to arrive, waiting for one if none has.
+	 */
+	private CompletableFuture<Page<T>> pollFirstArrived() {
+		if (prefetched.size() > 1) {
+			try {
+				CompletableFuture.anyOf(prefetched.toArray(new CompletableFuture<?>[0])).join();
+			} catch (CompletionException | CancellationException e) {
+				// reported by nextPage for the page that failed
+			}
+			for (Iterator<CompletableFuture<Page<T>>> it = prefetched.iterator(); it.hasNext();) {
+				CompletableFuture<Page<T>> pending = it.next();
+				if (pending.isDone()) {
+					it.remove();
+					return pending;
+				}
+			}
+		}
+		return prefetched.poll();
+	}
+
+	/**
+	 * Cancel any pages still being prefetched. The iteration ends with the
+	 * current page.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		CompletableFuture<Page<T>> pending;
+		while ((pending = prefetched.poll()) != null) {
+			pending.cancel(true);
+		}
+		totalItems = currentIndex + q.size();
+	}
+
+	/**
+	 * @return The position of the next entity to be returned, from which a new
+	 *         iterator can resume
+	 * @throws IllegalStateException if pages are returned unordered, which
+	 *                               leaves no single position to resume from
+	 */
+	public PageCursor getCursor() {
+		if (!ordered) {
+			throw new IllegalStateException("unordered iterations can not be resumed");
+		}
+		if (keyset != null) {
+			return new PageCursor(query, collectionKey, pagesize, 0, null,
+					keyset.field, keyset.returnedKey, new ArrayList<>(keyset.returnedIds));
+		}
+		return new PageCursor(query, collectionKey, pagesize, currentIndex, totalItems);
+	}
+
+	/**
+	 * @return A sequential stream of the remaining entities. Closing the stream
+	 *         closes this iterator.
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false).onClose(this::close);
+	}
+
+	/**
+	 * @return A parallel stream of the remaining entities, fetching the
+	 *         remaining pages concurrently. Closing the stream closes this
+	 *         iterator.
+	 */
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true).onClose(this::close);
+	}
+
+	/**
+	 * Hand the remaining entities, including pages already prefetched, to a
+	 * spliterator that fetches the rest of the collection by offset range. The
+	 * iteration ends here for this iterator.
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		if (totalItems == null) {
+			return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+		}
+		PageSpliterator split = new PageSpliterator(new ArrayDeque<>(q), new ArrayDeque<>(prefetched), offset, totalItems);
+		q.clear();
+		prefetched.clear();
+		offset = totalItems;
+		totalItems = currentIndex;
+		return split;
+	}
+
 	@Override
 	public Iterator<T> iterator() {
 		return new Iterator<T>() {
@@ -98,12 +644,20 @@ public class ModelIterator<T extends JSONParser> implements Iterable<T> {
 			public T next() {
 				currentIndex++;
 				T element = q.poll();
+				if (element != null && keyset != null) {
+					keyset.returned();
+				}
 				if (element == null || q.peek() == null) {
-					if (totalItems == null || currentIndex < totalItems) {
+					if (!closed && (keyset != null ? !keyset.exhausted : totalItems == null || currentIndex < totalItems)) {
 						// query for next page of entities
 						try {
-							readPagedEntities();
-							element = q.poll();
+							nextPage();
+							if (element == null) {
+								element = q.poll();
+								if (element != null && keyset != null) {
+									keyset.returned();
+								}
+							}
 						} catch (Exception ex) {
 							throw new NoSuchElementException(ex.getMessage());
 						}
@@ -118,5 +672,148 @@ public class ModelIterator<T extends JSONParser> implements Iterable<T> {
 			
 		};
 	}
+
+	/**
+	 * Covers the offsets <code>[from, to)</code> of the collection, preceded by
+	 * entities and pages that were already fetched. Splits in page aligned
+	 * halves so each page is fetched exactly once.
+	 */
+	private class PageSpliterator implements Spliterator<T> {
+		private Deque<T> buffer;
+		private Deque<CompletableFuture<Page<T>>> pending;
+		private int from;
+		private final int to;
+
+		PageSpliterator(Deque<T> buffer, Deque<CompletableFuture<Page<T>>> pending, int from, int to) {
+			this.buffer = buffer;
+			this.pending = pending;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			T next;
+			while ((next = buffer.poll()) == null) {
+				if (!pending.isEmpty()) {
+					try {
+						buffer.addAll(pending.poll().join().entities);
+					} catch (CompletionException e) {
+						throw new RuntimeException(e.getCause());
+					}
+				} else if (from < to) {
+					int count = Math.min(pagesize, to - from);
+					buffer.addAll(fetchPage(from, count).entities);
+					from += count;
+				} else {
+					return false;
+				}
+			}
+			action.accept(next);
+			return true;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			if (from >= to) {
+				return null;
+			}
+			if (!buffer.isEmpty() || !pending.isEmpty()) {
+				// what has been fetched already precedes the offset range
+				PageSpliterator prefix = new PageSpliterator(buffer, pending, from, from);
+				buffer = new ArrayDeque<>();
+				pending = new ArrayDeque<>();
+				return prefix;
+			}
+			int pages = (to - from + pagesize - 1) / pagesize;
+			if (pages < 2) {
+				return null;
+			}
+			int mid = from + (pages / 2) * pagesize;
+			PageSpliterator lower = new PageSpliterator(new ArrayDeque<>(), new ArrayDeque<>(), from, mid);
+			from = mid;
+			return lower;
+		}
+
+		/**
+		 * Estimated from <code>total_items</code>, which may change while the
+		 * collection is being read.
+		 */
+		@Override
+		public long estimateSize() {
+			return buffer.size() + (long) pending.size() * pagesize + Math.max(0, to - from);
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.NONNULL;
+		}
+	}
+
+	/**
+	 * Position of a keyset iteration. Keys are compared as strings, which
+	 * orders the API's fixed-width ISO-8601 timestamps correctly.
+	 */
+	private static class Keyset {
+		private final String field;
+		/** Newest key fetched, and the ids fetched with it */
+		private String lastKey;
+		private final Set<String> lastKeyIds = new HashSet<>();
+		/** Newest key returned to the caller, and the ids returned with it */
+		private String returnedKey;
+		private final Set<String> returnedIds = new HashSet<>();
+		/** Keys and ids of the fetched entities not yet returned */
+		private final Queue<String[]> queued = new LinkedList<>();
+		private int tieOffset;
+		private boolean exhausted;
+
+		Keyset(String field, String since, List<String> sinceIds) {
+			this.field = field;
+			this.lastKey = since;
+			this.returnedKey = since;
+			if (sinceIds != null) {
+				lastKeyIds.addAll(sinceIds);
+				returnedIds.addAll(sinceIds);
+			}
+		}
+
+		/**
+		 * Record a fetched entity.
+		 * @return false if the entity was fetched before
+		 */
+		boolean advance(String key, String id) {
+			if (key.equals(lastKey)) {
+				if (!lastKeyIds.add(id)) {
+					return false;
+				}
+			} else if (lastKey == null || key.compareTo(lastKey) > 0) {
+				lastKey = key;
+				lastKeyIds.clear();
+				lastKeyIds.add(id);
+			}
+			queued.add(new String[] { key, id });
+			return true;
+		}
+
+		/**
+		 * Record that the oldest queued entity was returned to the caller.
+		 */
+		void returned() {
+			String[] entry = queued.poll();
+			if (entry != null) {
+				if (!entry[0].equals(returnedKey)) {
+					returnedKey = entry[0];
+					returnedIds.clear();
+				}
+				returnedIds.add(entry[1]);
+			}
+		}
+	}
+
+	static class Page<T> {
+		int size;
+		Integer totalItems;
+		List<T> entities = new ArrayList<>(0);
+	}
 	
 }
@@ -0,0 +1,76 @@
+package com.github.bananaj.utils;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.JSONParser;
+
+/**
+ * Publishes the entities of a paged collection to non-blocking consumers.
+ * Unlike {@link ModelIterator} nothing waits for a page: each page is
+ * fetched asynchronously, and only when the subscriber's outstanding demand
+ * needs it. A slow subscriber holds at most <code>maxPages</code> pages in
+ * memory, counting both buffered pages and pages in flight. Cancelling the
+ * subscription cancels the page requests in flight.
+ * <p>
+ * On Java 11 or later <code>new FlowPublisher&lt;&gt;(publisher)</code> adapts
+ * the publisher to a <code>java.util.concurrent.Flow.Publisher</code>, for
+ * use with Reactive Streams libraries such as Reactor and Akka Streams.
+ *
+ * @param <T> The entity type
+ */
+public class ModelPublisher<T extends JSONParser> {
+
+	private final Supplier<T> factory;
+	private final String collectionKey;
+	private final String query;
+	private final MailChimpConnection connection;
+	private final int pagesize;
+	private final int maxPages;
+
+	/**
+	 * Publish in pages of 1000 entities, holding at most two pages.
+	 * @param factory       Creates an empty entity, for example
+	 *                      <code>Member::new</code>
+	 * @param collectionKey The key of the entity array in each page, for example
+	 *                      <code>members</code>
+	 * @param query         The collection URL
+	 * @param connection
+	 */
+	public ModelPublisher(Supplier<T> factory, String collectionKey, String query, MailChimpConnection connection) {
+		this(factory, collectionKey, query, connection, 1000, 2);
+	}
+
+	/**
+	 * @param factory       Creates an empty entity, for example
+	 *                      <code>Member::new</code>
+	 * @param collectionKey The key of the entity array in each page, for example
+	 *                      <code>members</code>
+	 * @param query         The collection URL
+	 * @param connection
+	 * @param pagesize      Number of entities requested per page, 1-1000
+	 * @param maxPages      Maximum number of pages buffered or in flight for
+	 *                      each subscriber, at least 1
+	 */
+	public ModelPublisher(Supplier<T> factory, String collectionKey, String query, MailChimpConnection connection,
+			int pagesize, int maxPages) {
+		this.factory = factory;
+		this.collectionKey = collectionKey;
+		this.query = query;
+		this.connection = connection;
+		this.pagesize = pagesize;
+		this.maxPages = Math.max(maxPages, 1);
+	}
+
+	/**
+	 * Start publishing the collection from its first entity. Each subscriber
+	 * receives its own walk of the collection.
+	 * @param subscriber
+	 */
+	public void subscribe(PageSubscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber, "subscriber");
+		subscriber.onSubscribe(new PageDemand<>(ModelIterator.pageSource(factory, collectionKey, query, connection, pagesize),
+				subscriber, maxPages));
+	}
+}
@@ -0,0 +1,207 @@
+package com.github.bananaj.utils;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Position of a {@link ModelIterator} within a paged collection. A cursor can
+ * be saved periodically during a long walk and used to construct a new
+ * iterator that resumes from the saved position:
+ *
+ * <pre>
+ * try (ModelIterator&lt;Member&gt; members = list.getMembers(cursor)) {
+ *     for (Member member : members) {
+ *         process(member);
+ *         if (++n % 10000 == 0) {
+ *             members.getCursor().writeTo(checkpoint);
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * A cursor taken from a keyset iteration records the last key returned in
+ * place of an offset. The cursor is immutable. Its string form, produced by {@link #encode()},
+ * should be treated as opaque.
+ */
+public final class PageCursor implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String query;
+	private final String collectionKey;
+	private final int pageSize;
+	private final int offset;
+	private final Integer totalItems;
+	private final String keyField;
+	private final String lastKey;
+	private final List<String> lastKeyIds;
+
+	PageCursor(String query, String collectionKey, int pageSize, int offset, Integer totalItems) {
+		this(query, collectionKey, pageSize, offset, totalItems, null, null, null);
+	}
+
+	PageCursor(String query, String collectionKey, int pageSize, int offset, Integer totalItems,
+			String keyField, String lastKey, List<String> lastKeyIds) {
+		this.query = query;
+		this.collectionKey = collectionKey;
+		this.pageSize = pageSize;
+		this.offset = offset;
+		this.totalItems = totalItems;
+		this.keyField = keyField;
+		this.lastKey = lastKey;
+		this.lastKeyIds = lastKeyIds != null ? Collections.unmodifiableList(lastKeyIds) : Collections.emptyList();
+	}
+
+	/**
+	 * @return The collection URL, including any query parameters
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return The key of the entity array in each page, or null if it is
+	 *         found by inspecting the page
+	 */
+	public String getCollectionKey() {
+		return collectionKey;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @return The offset of the next entity to be returned
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * @return The size of the collection when the cursor was taken, or null if
+	 *         the collection does not report it
+	 */
+	public Integer getTotalItems() {
+		return totalItems;
+	}
+
+	/**
+	 * @return The field a keyset iteration is sorted by, or null if the
+	 *         iteration pages by offset
+	 */
+	public String getKeyField() {
+		return keyField;
+	}
+
+	/**
+	 * @return The key of the last entity returned by a keyset iteration, or
+	 *         null if none was returned
+	 */
+	public String getLastKey() {
+		return lastKey;
+	}
+
+	/**
+	 * @return The ids of the entities returned with the last key
+	 */
+	public List<String> getLastKeyIds() {
+		return lastKeyIds;
+	}
+
+	/**
+	 * @return The cursor as a string that can be stored and passed to
+	 *         {@link #decode(String)}
+	 */
+	public String encode() {
+		JSONObject json = new JSONObject()
+				.put("query", query)
+				.put("count", pageSize)
+				.put("offset", offset);
+		if (collectionKey != null) {
+			json.put("key", collectionKey);
+		}
+		if (totalItems != null) {
+			json.put("total_items", totalItems);
+		}
+		if (keyField != null) {
+			json.put("key_field", keyField);
+			if (lastKey != null) {
+				json.put("last_key", lastKey).put("last_key_ids", new JSONArray(lastKeyIds));
+			}
+		}
+		return json.toString();
+	}
+
+	/**
+	 * @param encoded A cursor produced by {@link #encode()}
+	 * @return The cursor
+	 * @throws IllegalArgumentException if the string is not a cursor
+	 */
+	public static PageCursor decode(String encoded) {
+		try {
+			JSONObject json = new JSONObject(encoded);
+			List<String> ids = null;
+			if (json.has("last_key_ids")) {
+				JSONArray array = json.getJSONArray("last_key_ids");
+				ids = new ArrayList<>(array.length());
+				for (int i = 0; i < array.length(); i++) {
+					ids.add(array.getString(i));
+				}
+			}
+			return new PageCursor(json.getString("query"),
+					json.has("key") ? json.getString("key") : null,
+					json.getInt("count"),
+					json.getInt("offset"),
+					json.has("total_items") ? json.getInt("total_items") : null,
+					json.has("key_field") ? json.getString("key_field") : null,
+					json.has("last_key") ? json.getString("last_key") : null,
+					ids);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + encoded, e);
+		}
+	}
+
+	/**
+	 * Save the cursor to a file. The file is replaced atomically, so a crash
+	 * while saving leaves the previous checkpoint intact.
+	 * @param file
+	 * @throws IOException
+	 */
+	public void writeTo(Path file) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		Files.write(tmp, encode().getBytes(StandardCharsets.UTF_8));
+		try {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @param file A file written by {@link #writeTo(Path)}
+	 * @return The saved cursor
+	 * @throws IOException
+	 */
+	public static PageCursor readFrom(Path file) throws IOException {
+		return decode(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public String toString() {
+		if (keyField != null) {
+			return "PageCursor: " + query + " " + keyField + " " + (lastKey != null ? lastKey : "start");
+		}
+		return "PageCursor: " + query + " offset " + offset + (totalItems != null ? " of " + totalItems : "");
+	}
+}
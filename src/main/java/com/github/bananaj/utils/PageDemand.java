@@ -0,0 +1,160 @@
+package com.github.bananaj.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.bananaj.model.JSONParser;
+
+/**
+ * One subscription to a {@link ModelPublisher}. Pages are requested only
+ * while the outstanding demand exceeds the entities already buffered or
+ * being fetched, and never more than <code>maxPages</code> pages are held or
+ * in flight at once. All signals to the subscriber are made from a single
+ * drain loop, entered by whichever thread requests, cancels or completes a
+ * page fetch.
+ */
+class PageDemand<T extends JSONParser> implements PageSubscription {
+
+	private final ModelIterator<T> source;
+	private final PageSubscriber<? super T> subscriber;
+	private final int pagesize;
+	private final int maxPages;
+	private final AtomicLong requested = new AtomicLong();
+	private final AtomicInteger wip = new AtomicInteger();
+	private final Deque<T> buffer = new ArrayDeque<>();
+	private final Deque<CompletableFuture<ModelIterator.Page<T>>> pages = new ArrayDeque<>();
+	private volatile boolean cancelled;
+	private volatile IllegalArgumentException invalidRequest;
+	private boolean done;
+	private boolean lastPageFetched;
+	private int offset;
+	private Integer totalItems;
+
+	PageDemand(ModelIterator<T> source, PageSubscriber<? super T> subscriber, int maxPages) {
+		this.source = source;
+		this.subscriber = subscriber;
+		this.pagesize = source.getPageSize();
+		this.maxPages = maxPages;
+	}
+
+	@Override
+	public void request(long n) {
+		if (n <= 0) {
+			invalidRequest = new IllegalArgumentException("request must be positive, was " + n);
+		} else {
+			requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+		}
+		drain();
+	}
+
+	@Override
+	public void cancel() {
+		cancelled = true;
+		drain();
+	}
+
+	private void drain() {
+		if (wip.getAndIncrement() != 0) {
+			return;
+		}
+		int missed = 1;
+		do {
+			if (done) {
+				return;
+			}
+			if (cancelled) {
+				terminate();
+				return;
+			}
+			if (invalidRequest != null) {
+				terminate();
+				subscriber.onError(invalidRequest);
+				return;
+			}
+
+			while (!pages.isEmpty() && pages.peek().isDone()) {
+				ModelIterator.Page<T> page;
+				try {
+					page = pages.poll().join();
+				} catch (CompletionException e) {
+					terminate();
+					subscriber.onError(e.getCause() != null ? e.getCause() : e);
+					return;
+				} catch (CancellationException e) {
+					terminate();
+					subscriber.onError(e);
+					return;
+				}
+				if (page.totalItems != null) {
+					totalItems = page.totalItems;
+				}
+				if (page.size < pagesize) {
+					lastPageFetched = true;
+				}
+				buffer.addAll(page.entities);
+			}
+
+			long r = requested.get();
+			long emitted = 0;
+			while (emitted != r && !buffer.isEmpty() && !cancelled) {
+				subscriber.onNext(buffer.poll());
+				emitted++;
+			}
+			if (emitted != 0 && r != Long.MAX_VALUE) {
+				r = requested.addAndGet(-emitted);
+			}
+			if (cancelled) {
+				terminate();
+				return;
+			}
+
+			if (buffer.isEmpty() && pages.isEmpty() && (lastPageFetched || (totalItems != null && offset >= totalItems))) {
+				done = true;
+				subscriber.onComplete();
+				return;
+			}
+
+			while (needsPage(r)) {
+				CompletableFuture<ModelIterator.Page<T>> page = source.fetchPageAsync(offset, pagesize);
+				offset += pagesize;
+				pages.add(page);
+				page.whenComplete((p, e) -> drain());
+			}
+			missed = wip.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	/**
+	 * @param r The outstanding demand
+	 * @return true if another page is wanted and fits within the page limit
+	 */
+	private boolean needsPage(long r) {
+		if (lastPageFetched) {
+			return false;
+		}
+		if (totalItems == null ? !pages.isEmpty() : offset >= totalItems) {
+			return false;	// until the size is known, one page at a time
+		}
+		long coming = buffer.size() + (long) pages.size() * pagesize;
+		int heldPages = (buffer.size() + pagesize - 1) / pagesize + pages.size();
+		return r > coming && heldPages < maxPages;
+	}
+
+	/**
+	 * Release the buffered entities and cancel the pages in flight. No signal
+	 * follows.
+	 */
+	private void terminate() {
+		done = true;
+		buffer.clear();
+		CompletableFuture<ModelIterator.Page<T>> page;
+		while ((page = pages.poll()) != null) {
+			page.cancel(true);
+		}
+	}
+}
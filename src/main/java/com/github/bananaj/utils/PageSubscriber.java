@@ -0,0 +1,35 @@
+package com.github.bananaj.utils;
+
+/**
+ * Receives the entities published by a {@link ModelPublisher}. The methods
+ * follow the Reactive Streams <code>Subscriber</code> contract: after
+ * {@link #onSubscribe(PageSubscription)} the subscriber receives at most as
+ * many {@link #onNext(Object)} calls as it requested, followed by either
+ * {@link #onComplete()} or {@link #onError(Throwable)}. Calls are never made
+ * concurrently.
+ *
+ * @param <T> The entity type
+ */
+public interface PageSubscriber<T> {
+
+	/**
+	 * @param subscription Used to request entities and to cancel
+	 */
+	void onSubscribe(PageSubscription subscription);
+
+	/**
+	 * @param item The next entity
+	 */
+	void onNext(T item);
+
+	/**
+	 * The publication failed, for example because a page could not be fetched.
+	 * @param throwable
+	 */
+	void onError(Throwable throwable);
+
+	/**
+	 * Every entity has been published.
+	 */
+	void onComplete();
+}
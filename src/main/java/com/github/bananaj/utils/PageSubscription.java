@@ -0,0 +1,21 @@
+package com.github.bananaj.utils;
+
+/**
+ * Demand signalled by a {@link PageSubscriber} to a {@link ModelPublisher},
+ * following the Reactive Streams <code>Subscription</code> contract.
+ */
+public interface PageSubscription {
+
+	/**
+	 * Request more entities. Pages are fetched only as needed to meet the
+	 * outstanding demand.
+	 * @param n The number of entities, greater than 0. Long.MAX_VALUE requests
+	 *          all of them.
+	 */
+	void request(long n);
+
+	/**
+	 * Stop publishing and cancel the page requests in flight.
+	 */
+	void cancel();
+}
@@ -0,0 +1,27 @@
+package com.github.bananaj.utils;
+
+import java.io.IOException;
+
+/**
+ * Persists the high-water marks of incremental syncs, such as
+ * {@link com.github.bananaj.model.list.MailChimpList#syncMembers(WatermarkStore, com.github.bananaj.model.list.member.MemberSyncListener)}.
+ * Implementations may keep the marks in a file, a database table, or any
+ * other store that outlives the process.
+ */
+public interface WatermarkStore {
+
+	/**
+	 * @param key Identifies the synced collection, for example
+	 *            <code>lists/abc0be64d2/members</code>
+	 * @return The saved mark, or null if the collection was never synced
+	 * @throws IOException
+	 */
+	String load(String key) throws IOException;
+
+	/**
+	 * @param key       Identifies the synced collection
+	 * @param watermark The mark to save
+	 * @throws IOException
+	 */
+	void save(String key, String watermark) throws IOException;
+}
@@ -0,0 +1,20 @@
+package com.github.bananaj.connection;
+
+/**
+ * Creates the transport for {@link MailChimpConnection.Builder#http2()}.
+ * This is the Java 11 version, which sends HTTP/2 through a
+ * {@link JdkHttpTransport}.
+ */
+final class Http2Transports {
+
+	private Http2Transports() {
+	}
+
+	/**
+	 * @return A transport that negotiates HTTP/2, or null if the running JVM
+	 *         has no HTTP/2 client
+	 */
+	static Transport create() {
+		return new JdkHttpTransport.Builder().http2(true).build();
+	}
+}
@@ -0,0 +1,173 @@
+package com.github.bananaj.connection;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Transport} on the JDK <code>java.net.http.HttpClient</code>. The JDK
+ * client pools and reuses connections on its own and completes asynchronous
+ * requests without a thread per request.
+ *
+ * With {@link Builder#http2(boolean)} the client negotiates HTTP/2 and
+ * multiplexes concurrent requests as streams over a few connections to the
+ * API host. Servers that do not offer HTTP/2 are spoken to over HTTP/1.1.
+ * <p>
+ * The JDK client was added in Java 11, and so was this class. Code that also
+ * runs on Java 8 asks for HTTP/2 with
+ * {@link MailChimpConnection.Builder#http2()} instead, which falls back to
+ * HTTP/1.1 there.
+ */
+public class JdkHttpTransport implements Transport {
+
+	/** Headers the JDK client sets itself and refuses from callers */
+	private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+	static {
+		RESTRICTED_HEADERS.addAll(Set.of("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+	}
+
+	private final HttpClient client;
+	private final boolean http2;
+
+	/**
+	 * Create a transport with the default settings.
+	 */
+	public JdkHttpTransport() {
+		this(new Builder());
+	}
+
+	private JdkHttpTransport(Builder b) {
+		HttpClient.Builder builder = HttpClient.newBuilder()
+				.version(b.http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+				.followRedirects(HttpClient.Redirect.NEVER);
+		if (b.connectTimeoutMillis > 0) {
+			builder.connectTimeout(Duration.ofMillis(b.connectTimeoutMillis));
+		}
+		if (b.executor != null) {
+			builder.executor(b.executor);
+		}
+		this.client = builder.build();
+		this.http2 = b.http2;
+	}
+
+	/**
+	 * @return true if this transport negotiates HTTP/2
+	 */
+	public boolean isHttp2() {
+		return http2;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		try {
+			HttpResponse<InputStream> response = client.send(toHttpRequest(request), BodyHandlers.ofInputStream());
+			return new TransportResponse(response.statusCode(), "", response.headers().map(), response.body());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			InterruptedIOException ex = new InterruptedIOException(request + " interrupted");
+			ex.initCause(e);
+			throw ex;
+		}
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		final HttpRequest httpRequest;
+		try {
+			httpRequest = toHttpRequest(request);
+		} catch (IOException | RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		// the body is buffered so it can be read without blocking
+		return client.sendAsync(httpRequest, BodyHandlers.ofByteArray())
+				.thenApply(response -> new TransportResponse(response.statusCode(), "", response.headers().map(),
+						new ByteArrayInputStream(response.body())));
+	}
+
+	@Override
+	public void close() {
+	}
+
+	private static HttpRequest toHttpRequest(TransportRequest request) throws IOException {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri());
+		for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			if (!RESTRICTED_HEADERS.contains(header.getKey())) {
+				builder.header(header.getKey(), header.getValue());
+			}
+		}
+		RequestBody body = request.getBody();
+		if (body != null) {
+			builder.header("Content-Type", body.getContentType());
+		}
+		return builder.method(request.getMethod(), publisher(body)).build();
+	}
+
+	private static BodyPublisher publisher(RequestBody body) throws IOException {
+		if (body == null) {
+			return BodyPublishers.noBody();
+		}
+		if (body instanceof RequestBody.ByteArrayRequestBody) {
+			return BodyPublishers.ofByteArray(((RequestBody.ByteArrayRequestBody) body).getContent());
+		}
+		BodyPublisher stream = BodyPublishers.ofInputStream(() -> {
+			try {
+				return body.openStream();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return body.getContentLength() >= 0 ? BodyPublishers.fromPublisher(stream, body.getContentLength()) : stream;
+	}
+
+	public static class Builder {
+		private long connectTimeoutMillis;
+		private Executor executor;
+		private boolean http2;
+
+		/**
+		 * @param duration Timeout for establishing a connection
+		 * @param unit     Time unit of duration
+		 */
+		public Builder connectTimeout(long duration, TimeUnit unit) {
+			this.connectTimeoutMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param executor Executor for the client's asynchronous tasks. Defaults
+		 *                 to the client's own thread pool.
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * @param http2 Negotiate HTTP/2, falling back to HTTP/1.1 when the server
+		 *              does not support it. Defaults to false.
+		 */
+		public Builder http2(boolean http2) {
+			this.http2 = http2;
+			return this;
+		}
+
+		public JdkHttpTransport build() {
+			return new JdkHttpTransport(this);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.github.bananaj.utils;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+import com.github.bananaj.model.JSONParser;
+
+/**
+ * A {@link ModelPublisher} as a {@link Flow.Publisher}. Reactive Streams
+ * libraries such as Reactor and Akka Streams accept it directly, or through
+ * <code>org.reactivestreams.FlowAdapters.toPublisher(publisher)</code>:
+ * <pre>
+ * Flux&lt;Member&gt; members = JdkFlowAdapter.flowPublisherToFlux(new FlowPublisher&lt;&gt;(list.membersPublisher(1000, 2)));
+ * </pre>
+ * Requires Java 11 or later.
+ *
+ * @param <T> The entity type
+ */
+public final class FlowPublisher<T extends JSONParser> implements Flow.Publisher<T> {
+
+	private final ModelPublisher<T> publisher;
+
+	/**
+	 * @param publisher The publisher to subscribe to
+	 */
+	public FlowPublisher(ModelPublisher<T> publisher) {
+		this.publisher = Objects.requireNonNull(publisher, "publisher");
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber, "subscriber");
+		publisher.subscribe(new PageSubscriber<T>() {
+			@Override
+			public void onSubscribe(PageSubscription subscription) {
+				subscriber.onSubscribe(new Flow.Subscription() {
+					@Override
+					public void request(long n) {
+						subscription.request(n);
+					}
+
+					@Override
+					public void cancel() {
+						subscription.cancel();
+					}
+				});
+			}
+
+			@Override
+			public void onNext(T item) {
+				subscriber.onNext(item);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				subscriber.onError(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+				subscriber.onComplete();
+			}
+		});
+	}
+}
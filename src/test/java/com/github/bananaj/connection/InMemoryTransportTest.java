@@ -0,0 +1,158 @@
+package com.github.bananaj.connection;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.github.bananaj.exceptions.TransportException;
+
+public class InMemoryTransportTest {
+
+	private static Connection connection(Transport transport) {
+		return new Connection(transport, ForkJoinPool.commonPool(), new RequestGovernor(2), RetryPolicy.NONE, true);
+	}
+
+	@Test
+	public void testRouting() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport()
+				.route("GET", "/3.0/lists/*", 200, "{\"id\":\"list\"}")
+				.route("GET", "/3.0/lists/*/members/**", 200, "{\"id\":\"member\"}")
+				.route("*", "/3.0/campaigns", 200, "{\"id\":\"campaign\"}");
+		try (Connection con = connection(transport)) {
+			assertEquals("list", con.do_GetJSON(new URL("https://us1.api.mailchimp.com/3.0/lists/abc0be64d2"), "apikey x").getString("id"));
+			assertEquals("member", con.do_GetJSON(new URL("https://us1.api.mailchimp.com/3.0/lists/abc0be64d2/members/123/notes"), "apikey x").getString("id"));
+			assertEquals("campaign", new JSONObject(con.do_Post(new URL("https://us1.api.mailchimp.com/3.0/campaigns"), "{}", "apikey x")).getString("id"));
+			assertEquals("campaign", new JSONObject(con.do_DeleteAsync(new URL("https://us1.api.mailchimp.com/3.0/campaigns"), "apikey x").join()).getString("id"));
+			try {
+				con.do_Get(new URL("https://us1.api.mailchimp.com/3.0/templates"), "apikey x");
+				fail("expected TransportException");
+			} catch (TransportException e) {
+				assertTrue(e.getMessage().startsWith("Status: 404"));
+			}
+			assertEquals(5, transport.getRequestCount());
+		}
+	}
+
+	@Test
+	public void testStructuredError() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport()
+				.route("POST", "/3.0/lists/*/members", 400, "{\"type\":\"https://mailchimp.com/developer/marketing/docs/errors/\","
+						+ "\"title\":\"Member Exists\",\"status\":400,\"detail\":\"a@b.com is already a list member.\","
+						+ "\"instance\":\"d4f2\",\"errors\":[{\"field\":\"email_address\",\"message\":\"exists\"}]}")
+				.route("GET", "/3.0/lists", request -> new TransportResponse(503, "Service Unavailable",
+						Collections.singletonMap("Retry-After", Collections.singletonList("2")), new ByteArrayInputStream(new byte[0])));
+		try (Connection con = connection(transport)) {
+			con.setClientErrorStackTraces(false);
+			try {
+				con.do_Post(new URL("https://us1.api.mailchimp.com/3.0/lists/abc0be64d2/members"), "{}", "apikey x");
+				fail("expected TransportException");
+			} catch (TransportException e) {
+				assertEquals(400, e.getStatusCode());
+				assertTrue(e.isClientError());
+				assertFalse(e.isRetryable());
+				assertEquals("Member Exists", e.getTitle());
+				assertEquals("d4f2", e.getInstance());
+				assertEquals(1, e.getFieldErrors().size());
+				assertEquals("email_address", e.getFieldErrors().get(0).getField());
+				assertEquals(0, e.getStackTrace().length);
+				assertTrue(e.getMessage().startsWith("Status: 400 POST: https://us1.api.mailchimp.com/3.0/lists/abc0be64d2/members"));
+			}
+			try {
+				con.do_Get(new URL("https://us1.api.mailchimp.com/3.0/lists"), "apikey x");
+				fail("expected TransportException");
+			} catch (TransportException e) {
+				assertEquals(503, e.getStatusCode());
+				assertTrue(e.isRetryable());
+				assertEquals(2000, e.getRetryAfterMillis());
+				assertTrue(e.getStackTrace().length > 0);
+			}
+		}
+	}
+
+	@Test
+	public void testCompressedResponse() throws Exception {
+		byte[] json = "{\"total_items\":42}".getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+			out.write(json);
+		}
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/lists", request -> {
+			assertEquals("gzip, deflate", request.getHeader("accept-encoding"));
+			return new TransportResponse(200, "OK", Collections.singletonMap("Content-Encoding",
+					Collections.singletonList("gzip")), new ByteArrayInputStream(gzip.toByteArray()));
+		});
+		try (Connection con = connection(transport)) {
+			URL url = new URL("https://us1.api.mailchimp.com/3.0/lists");
+			assertEquals(42, con.do_GetJSON(url, "apikey x").getInt("total_items"));
+			EndpointMetrics stats = con.getMetrics().getEndpoint("GET /3.0/lists");
+			assertEquals(1, stats.getCompressedResponseCount());
+			assertEquals(gzip.size(), stats.getWireBytes());
+			assertEquals(json.length, stats.getBodyBytes());
+		}
+	}
+
+	/**
+	 * A body that breaks off half way, as a connection reset mid-page does.
+	 */
+	private static InputStream broken(byte[] body) {
+		return new FilterInputStream(new ByteArrayInputStream(body)) {
+			int read;
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if (read >= body.length / 2) {
+					throw new IOException("Connection reset");
+				}
+				int n = super.read(b, off, Math.min(len, body.length / 2 - read));
+				read += Math.max(n, 0);
+				return n;
+			}
+		};
+	}
+
+	@Test
+	public void testBrokenBodyRetried() throws Exception {
+		StringBuilder lists = new StringBuilder("{\"lists\":[");
+		for (int i = 0; i < 100; i++) {
+			lists.append(i > 0 ? "," : "").append("{\"id\":\"list").append(i).append("\"}");
+		}
+		byte[] json = lists.append("],\"total_items\":100}").toString().getBytes(StandardCharsets.UTF_8);
+		AtomicInteger requests = new AtomicInteger();
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/lists", request ->
+				new TransportResponse(200, "OK", Collections.emptyMap(),
+						requests.incrementAndGet() % 2 == 1 ? broken(json) : new ByteArrayInputStream(json)));
+		RetryPolicy retry = new RetryPolicy.Builder().maxAttempts(3).backoff(1, 1, TimeUnit.MILLISECONDS).build();
+		try (Connection con = new Connection(transport, ForkJoinPool.commonPool(), new RequestGovernor(2), retry, true)) {
+			URL url = new URL("https://us1.api.mailchimp.com/3.0/lists");
+			// the streamed parse sees the reset as a JSONException
+			assertEquals(100, con.do_GetJSON(url, "apikey x").getJSONArray("lists").length());
+			assertEquals(2, requests.get());
+			assertEquals(100, new JSONObject(con.do_GetAsync(url, "apikey x").join()).getJSONArray("lists").length());
+			assertEquals(4, requests.get());
+		}
+		try (Connection con = connection(transport)) {
+			try {
+				con.do_GetJSON(new URL("https://us1.api.mailchimp.com/3.0/lists"), "apikey x");
+				fail("expected TransportException");
+			} catch (TransportException e) {
+				assertTrue(e.isRetryable());
+				assertEquals("Connection reset", e.getCause().getMessage());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.github.bananaj.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class RequestBodyTest {
+
+	@Test
+	public void testJSONObjectIsWrittenWithoutClosingStream() throws IOException {
+		RequestBody body = RequestBody.ofJSON(new JSONObject().put("name", "caf\u00e9"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				fail("request stream closed by body");
+			}
+		};
+		body.writeTo(out);
+		assertEquals("{\"name\":\"caf\u00e9\"}", new String(out.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(-1, body.getContentLength());
+		assertTrue(body.isRepeatable());
+	}
+
+	@Test
+	public void testOpenStreamPipesWrittenBody() throws IOException {
+		byte[] chunk = new byte[100_000];
+		RequestBody body = RequestBody.ofJSON(out -> {
+			for (int i = 0; i < 10; i++) {
+				out.write(chunk);
+			}
+		});
+		assertEquals(1_000_000, drain(body.openStream()));
+	}
+
+	@Test
+	public void testOpenStreamReportsWriterFailure() throws IOException {
+		RequestBody body = RequestBody.ofJSON(out -> {
+			out.write(new byte[10]);
+			throw new IOException("disk gone");
+		});
+		try {
+			drain(body.openStream());
+			fail("expected IOException");
+		} catch (IOException e) {
+			assertEquals("disk gone", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testInputStreamBodyIsSingleUse() throws IOException {
+		RequestBody body = RequestBody.of(new ByteArrayInputStream(new byte[5]), 5, "application/octet-stream");
+		assertFalse(body.isRepeatable());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		body.writeTo(out);
+		assertEquals(5, out.size());
+	}
+
+	private static long drain(InputStream in) throws IOException {
+		long total = 0;
+		byte[] buffer = new byte[8192];
+		int n;
+		while ((n = in.read(buffer)) != -1) {
+			total += n;
+		}
+		in.close();
+		return total;
+	}
+}
@@ -0,0 +1,57 @@
+package com.github.bananaj.connection;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RequestGovernorTest {
+
+	@Test
+	public void testQueueIsFifo() throws Exception {
+		RequestGovernor governor = new RequestGovernor(1);
+		governor.acquire();
+		CompletableFuture<Void> first = governor.acquireAsync();
+		CompletableFuture<Void> second = governor.acquireAsync();
+		assertEquals(2, governor.getQueueDepth());
+		assertFalse(first.isDone());
+
+		governor.release();
+		assertTrue(first.isDone());
+		assertFalse(second.isDone());
+
+		governor.release();
+		assertTrue(second.isDone());
+		governor.release();
+		assertEquals(0, governor.getInFlight());
+		assertEquals(3, governor.getGrantedCount());
+		assertEquals(2, governor.getQueuedCount());
+	}
+
+	@Test
+	public void testCancelledWaiterIsSkipped() throws Exception {
+		RequestGovernor governor = new RequestGovernor(1);
+		governor.acquire();
+		CompletableFuture<Void> cancelled = governor.acquireAsync();
+		CompletableFuture<Void> next = governor.acquireAsync();
+		cancelled.cancel(false);
+		governor.release();
+		assertTrue(next.isDone());
+		assertEquals(1, governor.getInFlight());
+	}
+
+	@Test
+	public void testPauseHoldsQueue() throws Exception {
+		RequestGovernor governor = new RequestGovernor(2);
+		governor.pause(200, TimeUnit.MILLISECONDS);
+		assertTrue(governor.isPaused());
+		CompletableFuture<Void> permit = governor.acquireAsync();
+		assertFalse(permit.isDone());
+		permit.get(5, TimeUnit.SECONDS);
+		assertFalse(governor.isPaused());
+		assertEquals(1, governor.getThrottledCount());
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.github.bananaj.connection;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RetryPolicyTest {
+
+	@Test
+	public void testIdempotency() {
+		RetryPolicy policy = RetryPolicy.DEFAULT;
+		assertTrue(policy.nextDelayMillis("GET", 503, 1, 0) >= 0);
+		assertTrue(policy.nextDelayMillis("PUT", -1, 1, 0) >= 0);
+		assertTrue(policy.nextDelayMillis("DELETE", 502, 1, 0) >= 0);
+		assertEquals(-1, policy.nextDelayMillis("POST", 503, 1, 0));
+		assertEquals(-1, policy.nextDelayMillis("PATCH", -1, 1, 0));
+
+		RetryPolicy post = new RetryPolicy.Builder().retryNonIdempotent(true).build();
+		assertTrue(post.nextDelayMillis("POST", 503, 1, 0) >= 0);
+	}
+
+	@Test
+	public void testLimits() {
+		RetryPolicy policy = new RetryPolicy.Builder()
+				.maxAttempts(4)
+				.backoff(100, 400, TimeUnit.MILLISECONDS)
+				.deadline(10, TimeUnit.SECONDS)
+				.build();
+		assertEquals(-1, policy.nextDelayMillis("GET", 404, 1, 0));
+		assertEquals(-1, policy.nextDelayMillis("GET", 503, 4, 0));
+		assertEquals(-1, policy.nextDelayMillis("GET", 503, 1, 10_001));
+		for (int i = 0; i < 100; i++) {
+			long first = policy.nextDelayMillis("GET", 503, 1, 0);
+			assertTrue(first >= 0 && first <= 100);
+			long third = policy.nextDelayMillis("GET", 503, 3, 0);
+			assertTrue(third >= 0 && third <= 400);
+		}
+		assertEquals(-1, RetryPolicy.NONE.nextDelayMillis("GET", 503, 1, 0));
+	}
+
+}
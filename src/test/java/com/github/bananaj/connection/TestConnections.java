@@ -0,0 +1,35 @@
+package com.github.bananaj.connection;
+
+/**
+ * Connections for tests, answering requests from an {@link InMemoryTransport}.
+ * Failed requests are not retried, so a test sees each failure at once.
+ */
+public final class TestConnections {
+
+	private TestConnections() {
+	}
+
+	/**
+	 * @param transport The routes the connection sends its requests to
+	 * @return A connection with an API key for the us1 data center
+	 */
+	public static MailChimpConnection connection(InMemoryTransport transport) {
+		return builder(transport).build();
+	}
+
+	/**
+	 * @param transport     The routes the connection sends its requests to
+	 * @param prefetchPages Number of pages the connection's iterators fetch ahead
+	 * @return A connection with an API key for the us1 data center
+	 */
+	public static MailChimpConnection connection(InMemoryTransport transport, int prefetchPages) {
+		return builder(transport).prefetchPages(prefetchPages).build();
+	}
+
+	private static MailChimpConnection.Builder builder(InMemoryTransport transport) {
+		return new MailChimpConnection.Builder()
+				.usingApiKey("key-us1")
+				.transport(transport)
+				.retryPolicy(RetryPolicy.NONE);
+	}
+}
@@ -0,0 +1,24 @@
+package com.github.bananaj.connection;
+
+import static org.junit.Assert.*;
+
+import java.net.URL;
+
+import org.junit.Test;
+
+public class TransportMetricsTest {
+
+	@Test
+	public void testEndpointKey() throws Exception {
+		assertEquals("GET /3.0/lists", TransportMetrics.endpointKey("GET", new URL("https://us1.api.mailchimp.com/3.0/lists?count=500")));
+		assertEquals("GET /3.0/lists/{id}/members/{id}", TransportMetrics.endpointKey("GET",
+				new URL("https://us1.api.mailchimp.com/3.0/lists/abc0be64d2/members/0123456789abcdef0123456789abcdef")));
+		assertEquals("PATCH /3.0/lists/{id}/members/{id}/notes/{id}", TransportMetrics.endpointKey("PATCH",
+				new URL("https://us1.api.mailchimp.com/3.0/lists/abc0be64d2/members/sue%40example.com/notes/42")));
+		assertEquals("POST /3.0/campaigns/{id}/actions/send", TransportMetrics.endpointKey("POST",
+				new URL("https://us1.api.mailchimp.com/3.0/campaigns/025b945a01/actions/send")));
+		assertEquals("GET /3.0/reports/{id}/abuse-reports", TransportMetrics.endpointKey("GET",
+				new URL("https://us1.api.mailchimp.com/3.0/reports/025b945a01/abuse-reports")));
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.github.bananaj.model.batch;
+
+import static com.github.bananaj.connection.TestConnections.connection;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.github.bananaj.connection.InMemoryTransport;
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.TransportRequest;
+import com.github.bananaj.exceptions.BatchSubmitException;
+import com.github.bananaj.exceptions.TransportException;
+import com.github.bananaj.model.list.member.Member;
+import com.github.bananaj.model.list.member.MemberStatus;
+import com.github.bananaj.model.list.member.TagStatus;
+
+public class BatchOperationsTest {
+
+	private static String status(String id, String status, int finished, int total) {
+		return new JSONObject().put("id", id).put("status", status)
+				.put("total_operations", total).put("finished_operations", finished).put("errored_operations", 0)
+				.put("submitted_at", "2020-01-01T00:00:00+00:00").put("completed_at", "")
+				.put("response_body_url", "").toString();
+	}
+
+	private static String body(TransportRequest request) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			request.getBody().writeTo(out);
+			assertEquals(out.size(), request.getBody().getContentLength());
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Test
+	public void testBatchOperations_submit() throws Exception {
+		List<JSONArray> submitted = Collections.synchronizedList(new ArrayList<>());
+		InMemoryTransport transport = new InMemoryTransport().route("POST", "/3.0/batches", request -> {
+			JSONArray operations = new JSONObject(body(request)).getJSONArray("operations");
+			submitted.add(operations);
+			return InMemoryTransport.json(200, status("b" + submitted.size(), "pending", 0, operations.length()));
+		});
+		try (MailChimpConnection con = connection(transport)) {
+			Batch batch = new Batch();
+			for (int i = 0; i < 4; i++) {
+				Member member = new Member.Builder().listId("abc0be64d2").emailAddress("member" + i + "@example.com")
+						.status(MemberStatus.SUBSCRIBED).build();
+				member.addOrUpdate(batch);
+			}
+			Member tagged = new Member.Builder().listId("abc0be64d2").emailAddress("member0@example.com")
+					.status(MemberStatus.SUBSCRIBED).build();
+			tagged.applyTags(Collections.singletonMap("VIP", TagStatus.ACTIVE), batch);
+			assertTrue(tagged.hasTag("VIP"));
+
+			BatchOperations batches = con.getBatchOperations();
+			batches.setMaxBatchSize(2, BatchOperations.DEFAULT_MAX_BYTES);
+			List<BatchStatus> statuses = batches.submit(batch);
+			assertEquals(3, statuses.size());
+			assertEquals("b3", statuses.get(2).getId());
+			assertEquals(BatchStatusType.PENDING, statuses.get(2).getStatus());
+			assertEquals(1, statuses.get(2).getTotalOperations());
+			assertEquals(3, submitted.size());
+
+			JSONObject upsert = submitted.get(0).getJSONObject(0);
+			assertEquals("PUT", upsert.getString("method"));
+			assertEquals("/lists/abc0be64d2/members/" + Member.subscriberHash("member0@example.com"), upsert.getString("path"));
+			JSONObject body = new JSONObject(upsert.getString("body"));
+			assertEquals("member0@example.com", body.getString("email_address"));
+			assertEquals("subscribed", body.getString("status_if_new"));
+
+			JSONObject tags = submitted.get(2).getJSONObject(0);
+			assertEquals("POST", tags.getString("method"));
+			assertTrue(tags.getString("path").endsWith("/tags"));
+
+			// a byte limit smaller than two operations sends each on its own
+			batches.setMaxBatchSize(BatchOperations.DEFAULT_MAX_OPERATIONS, upsert.toString().length() + 20);
+			assertEquals(5, batches.submit(batch).size());
+		}
+	}
+
+	@Test
+	public void testBatchOperations_submitPartly() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		InMemoryTransport transport = new InMemoryTransport().route("POST", "/3.0/batches", request -> {
+			JSONArray operations = new JSONObject(body(request)).getJSONArray("operations");
+			int n = requests.incrementAndGet();
+			if (n == 3) {
+				return InMemoryTransport.json(400, new JSONObject().put("title", "Invalid Resource").toString());
+			}
+			return InMemoryTransport.json(200, status("b" + n, "pending", 0, operations.length()));
+		});
+		try (MailChimpConnection con = connection(transport)) {
+			Batch batch = new Batch();
+			for (int i = 0; i < 5; i++) {
+				Member member = new Member.Builder().listId("abc0be64d2").emailAddress("member" + i + "@example.com")
+						.status(MemberStatus.SUBSCRIBED).build();
+				member.addOrUpdate(batch);
+			}
+			BatchOperations batches = con.getBatchOperations();
+			batches.setMaxBatchSize(2, BatchOperations.DEFAULT_MAX_BYTES);
+			try {
+				batches.submit(batch);
+				fail("the third request was rejected");
+			} catch (BatchSubmitException e) {
+				assertEquals(2, e.getSubmitted().size());
+				assertEquals("b2", e.getSubmitted().get(1).getId());
+				assertEquals(4, e.getSubmittedOperations());
+				assertEquals(400, ((TransportException) e.getCause()).getStatusCode());
+			}
+
+			// nothing was accepted, so the failure is thrown as is
+			requests.set(2);
+			try {
+				batches.submit(batch);
+				fail("the first request was rejected");
+			} catch (BatchSubmitException e) {
+				throw e;
+			} catch (TransportException e) {
+				assertEquals(400, e.getStatusCode());
+			}
+		}
+	}
+
+	@Test
+	public void testBatchOperations_await() throws Exception {
+		AtomicInteger polls = new AtomicInteger();
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/batches/*", request -> {
+			int n = polls.incrementAndGet();
+			return InMemoryTransport.json(200, n < 3 ? status("b1", "started", n * 4, 10) : status("b1", "finished", 10, 10));
+		});
+		try (MailChimpConnection con = connection(transport)) {
+			BatchOperations batches = con.getBatchOperations();
+			batches.setPollInterval(1, 5, TimeUnit.MILLISECONDS);
+			List<Integer> progress = new ArrayList<>();
+			BatchStatus finished = batches.await(new BatchStatus(new JSONObject(status("b1", "pending", 0, 10))), 10, TimeUnit.SECONDS,
+					s -> progress.add(s.getFinishedOperations()));
+			assertTrue(finished.isFinished());
+			assertEquals("[4, 8, 10]", progress.toString());
+		}
+	}
+
+	@Test
+	public void testBatchOperations_nextPollInterval() {
+		BatchOperations batches = new BatchOperations(null);
+		batches.setPollInterval(1, 30, TimeUnit.SECONDS);
+		BatchStatus start = new BatchStatus(new JSONObject(status("b1", "started", 0, 1000)));
+		BatchStatus quarter = new BatchStatus(new JSONObject(status("b1", "started", 250, 1000)));
+		// 250 operations in 10s leaves 30s to go, so poll in 15s
+		assertEquals(15000, batches.nextPollInterval(1000, start, quarter, 10000));
+		// no progress backs off, up to the maximum
+		assertEquals(4000, batches.nextPollInterval(2000, quarter, quarter, 2000));
+		assertEquals(30000, batches.nextPollInterval(20000, quarter, quarter, 20000));
+		BatchStatus finalizing = new BatchStatus(new JSONObject(status("b1", "finalizing", 1000, 1000)));
+		assertEquals(1000, batches.nextPollInterval(8000, quarter, finalizing, 8000));
+	}
+}
@@ -0,0 +1,195 @@
+package com.github.bananaj.model.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.github.bananaj.connection.InMemoryTransport;
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.RetryPolicy;
+import com.github.bananaj.connection.TransportResponse;
+import com.github.bananaj.model.list.member.MemberStatus;
+
+public class BatchResultReaderTest {
+
+	private static void entry(ByteArrayOutputStream tar, String name, char type, byte[] content) {
+		byte[] header = new byte[512];
+		byte[] n = name.getBytes(StandardCharsets.UTF_8);
+		System.arraycopy(n, 0, header, 0, Math.min(n.length, 100));
+		byte[] size = String.format("%011o", content.length).getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(size, 0, header, 124, size.length);
+		header[156] = (byte) type;
+		System.arraycopy("ustar".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 5);
+		tar.write(header, 0, header.length);
+		tar.write(content, 0, content.length);
+		int pad = (512 - content.length % 512) % 512;
+		tar.write(new byte[pad], 0, pad);
+	}
+
+	private static JSONObject result(String operationId, int statusCode, JSONObject response) {
+		return new JSONObject().put("operation_id", operationId).put("status_code", statusCode).put("response", response.toString());
+	}
+
+	/**
+	 * A gzipped archive laid out as Mailchimp returns it, with a long file name
+	 * and a directory entry thrown in.
+	 */
+	private static byte[] archive() throws IOException {
+		JSONArray first = new JSONArray()
+				.put(result("m0", 200, new JSONObject().put("id", "a0").put("email_address", "m0@example.com").put("status", "subscribed")))
+				.put(result("m1", 400, new JSONObject().put("title", "Member Exists").put("status", 400).put("detail", "m1@example.com is already a list member.")));
+		JSONArray second = new JSONArray()
+				.put(result("m2", 200, new JSONObject().put("id", "a2").put("email_address", "m2@example.com").put("status", "pending")));
+		StringBuilder longName = new StringBuilder("b1/");
+		while (longName.length() < 120) {
+			longName.append('x');
+		}
+		longName.append(".json");
+
+		ByteArrayOutputStream tar = new ByteArrayOutputStream();
+		entry(tar, "b1/", '5', new byte[0]);
+		entry(tar, "b1/0a1b.json", '0', first.toString(2).getBytes(StandardCharsets.UTF_8));
+		entry(tar, "././@LongLink", 'L', (longName + "\0").getBytes(StandardCharsets.UTF_8));
+		entry(tar, longName.substring(0, 100), '0', second.toString().getBytes(StandardCharsets.UTF_8));
+		entry(tar, "b1/empty.json", '0', "[]".getBytes(StandardCharsets.UTF_8));
+		tar.write(new byte[1024], 0, 1024);
+
+		ByteArrayOutputStream gz = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+			tar.writeTo(out);
+		}
+		return gz.toByteArray();
+	}
+
+	@Test
+	public void testBatchResultReader_file() throws Exception {
+		Path file = Files.createTempFile("batch", ".tar.gz");
+		try {
+			Files.write(file, archive());
+			List<BatchResult> results = new ArrayList<>();
+			assertEquals(3, new BatchResultReader(null).read(file, results::add));
+
+			assertEquals("m0", results.get(0).getOperationId());
+			assertTrue(results.get(0).isSuccess());
+			assertEquals("m0@example.com", results.get(0).getMember().getEmailAddress());
+			assertEquals(MemberStatus.SUBSCRIBED, results.get(0).getMember().getStatus());
+
+			assertEquals(400, results.get(1).getStatusCode());
+			assertNull(results.get(1).getMember());
+			assertEquals("Member Exists", results.get(1).getErrorTitle());
+			assertEquals("m1@example.com is already a list member.", results.get(1).getErrorDetail());
+
+			assertEquals("m2", results.get(2).getOperationId());
+			assertEquals(MemberStatus.PENDING, results.get(2).getMember().getStatus());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testBatchResultReader_download() throws Exception {
+		final byte[] archive = archive();
+		AtomicInteger downloads = new AtomicInteger();
+		List<String> requests = Collections.synchronizedList(new ArrayList<>());
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/batch-results/b1.tar.gz", request -> {
+			requests.add(request.getUri().toString() + " " + request.getHeader("Authorization"));
+			InputStream body = new ByteArrayInputStream(archive);
+			if (downloads.incrementAndGet() == 1) {
+				// the first download breaks off after the first file
+				body = new FilterInputStream(body) {
+					int read;
+
+					@Override
+					public int read(byte[] b, int off, int len) throws IOException {
+						if (read > archive.length / 2) {
+							throw new IOException("Connection reset");
+						}
+						int n = super.read(b, off, Math.min(len, 16));
+						read += Math.max(n, 0);
+						return n;
+					}
+				};
+			}
+			return new TransportResponse(200, "", Collections.emptyMap(), body);
+		});
+		RetryPolicy retry = new RetryPolicy.Builder().maxAttempts(2).backoff(1, 1, TimeUnit.MILLISECONDS).build();
+		try (MailChimpConnection con = new MailChimpConnection.Builder().usingApiKey("key-us1").transport(transport).retryPolicy(retry).build()) {
+			BatchStatus finished = new BatchStatus(new JSONObject().put("id", "b1").put("status", "finished")
+					.put("total_operations", 3).put("finished_operations", 3).put("errored_operations", 1)
+					.put("response_body_url", "https://mailchimp-api-batch.s3.amazonaws.com/batch-results/b1.tar.gz"));
+			List<String> ids = new ArrayList<>();
+			assertEquals(3, new BatchResultReader(con).read(finished, r -> ids.add(r.getOperationId())));
+			assertEquals(2, downloads.get());
+			assertEquals("[m0, m1, m2]", ids.toString());
+			// the pre-signed URL is fetched as given and without the API key
+			assertEquals("https://mailchimp-api-batch.s3.amazonaws.com/batch-results/b1.tar.gz null", requests.get(0));
+		}
+	}
+
+	@Test
+	public void testBatchResultReader_downloadBrokenInEntry() throws Exception {
+		JSONArray results = new JSONArray();
+		for (int i = 0; i < 200; i++) {
+			results.put(result("m" + i, 200, new JSONObject().put("id", "a" + i).put("email_address", "m" + i + "@example.com")));
+		}
+		ByteArrayOutputStream tar = new ByteArrayOutputStream();
+		entry(tar, "b1/a.json", '0', results.toString().getBytes(StandardCharsets.UTF_8));
+		tar.write(new byte[1024], 0, 1024);
+		final byte[] archive = tar.toByteArray();
+		for (int cut : new int[] { 400, 2000, 6000 }) {
+			AtomicInteger downloads = new AtomicInteger();
+			InMemoryTransport transport = new InMemoryTransport().route("GET", "/batch-results/b1.tar.gz", request -> {
+				InputStream body = new ByteArrayInputStream(archive);
+				if (downloads.incrementAndGet() == 1) {
+					// the first download breaks off at the cut, inside the file after the header
+					body = new FilterInputStream(body) {
+						int read;
+
+						@Override
+						public int read(byte[] b, int off, int len) throws IOException {
+							if (read >= cut) {
+								throw new IOException("Connection reset");
+							}
+							int n = super.read(b, off, Math.min(len, cut - read));
+							read += Math.max(n, 0);
+							return n;
+						}
+					};
+				}
+				return new TransportResponse(200, "", Collections.emptyMap(), body);
+			});
+			RetryPolicy retry = new RetryPolicy.Builder().maxAttempts(2).backoff(1, 1, TimeUnit.MILLISECONDS).build();
+			try (MailChimpConnection con = new MailChimpConnection.Builder().usingApiKey("key-us1").transport(transport).retryPolicy(retry).build()) {
+				BatchStatus finished = new BatchStatus(new JSONObject().put("id", "b1").put("status", "finished")
+						.put("total_operations", 200).put("finished_operations", 200).put("errored_operations", 0)
+						.put("response_body_url", "https://mailchimp-api-batch.s3.amazonaws.com/batch-results/b1.tar.gz"));
+				List<String> ids = new ArrayList<>();
+				assertEquals(200, new BatchResultReader(con).read(finished, r -> ids.add(r.getOperationId())));
+				assertEquals(2, downloads.get());
+				assertEquals(200, ids.size());
+				assertEquals(200, new HashSet<>(ids).size());
+				assertEquals("m199", ids.get(199));
+			}
+		}
+	}
+}
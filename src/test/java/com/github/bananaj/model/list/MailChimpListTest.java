@@ -1,20 +1,46 @@
 package com.github.bananaj.model.list;
 
+import static com.github.bananaj.connection.TestConnections.connection;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import com.github.bananaj.connection.InMemoryTransport;
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.TransportRequest;
+import com.github.bananaj.connection.TransportResponse;
+import com.github.bananaj.exceptions.TransportException;
+import com.github.bananaj.model.Projection;
 import com.github.bananaj.model.list.GrowthHistory;
 import com.github.bananaj.model.list.MailChimpList;
 import com.github.bananaj.model.list.interests.Interest;
 import com.github.bananaj.model.list.interests.InterestCategory;
 import com.github.bananaj.model.list.interests.InterestCategoryType;
+import com.github.bananaj.model.list.member.Member;
+import com.github.bananaj.model.list.member.MemberStatus;
+import com.github.bananaj.model.list.member.MemberSyncListener;
 import com.github.bananaj.model.list.mergefield.MergeField;
 import com.github.bananaj.model.list.mergefield.MergeFieldType;
 import com.github.bananaj.model.list.segment.MatchType;
@@ -22,9 +48,28 @@ import com.github.bananaj.model.list.segment.Segment;
 import com.github.bananaj.model.list.segment.SegmentOptions;
 import com.github.bananaj.model.list.segment.SegmentType;
 import com.github.bananaj.model.report.AbuseReport;
+import com.github.bananaj.utils.DateConverter;
+import com.github.bananaj.utils.FileWatermarkStore;
 
 public class MailChimpListTest {
 
+	/**
+	 * A list that makes its requests through the given connection.
+	 */
+	private static MailChimpList listOn(MailChimpConnection con) {
+		return new MailChimpList() {
+			@Override
+			public String getId() {
+				return "abc0be64d2";
+			}
+
+			@Override
+			public MailChimpConnection getConnection() {
+				return con;
+			}
+		};
+	}
+
 	@Test
 	public void testMailChimpList() {
 		JSONObject jsonObj = new JSONObject("{\"id\":\"abc0be64d2\",\"web_id\":282000,\"name\":\"Test Analytics\",\"contact\":{\"company\":\"ABC Corp\",\"address1\":\"1000 W Bay Rd Ste 500\",\"address2\":\"\",\"city\":\"Chandler\",\"state\":\"AZ\",\"zip\":\"85226-2496\",\"country\":\"US\",\"phone\":\"5553387000\"},\"permission_reminder\":\"You are receiving this email as a partner in Testing initiative.\",\"use_archive_bar\":true,\"campaign_defaults\":{\"from_name\":\"Analytics Robot\",\"from_email\":\"no.spam@gmail.com\",\"subject\":\"\",\"language\":\"en\"},\"notify_on_subscribe\":\"\",\"notify_on_unsubscribe\":\"\",\"date_created\":\"2019-06-06T21:19:33+00:00\",\"list_rating\":0,\"email_type_option\":false,\"subscribe_url_short\":\"http://eepurl.com/gub30A\",\"subscribe_url_long\":\"https://us3.list-manage.com/subscribe?u=c00f3ed44928e2d1d4f00000d&id=aaa1cc11a1\",\"beamer_address\":\"us3-4ca796b90c-7644bc000a@inbound.mailchimp.com\",\"visibility\":\"pub\",\"double_optin\":false,\"has_welcome\":false,\"marketing_permissions\":false,\"modules\":[],\"stats\":{\"member_count\":34,\"unsubscribe_count\":1,\"cleaned_count\":0,\"member_count_since_send\":1,\"unsubscribe_count_since_send\":1,\"cleaned_count_since_send\":0,\"campaign_count\":0,\"campaign_last_sent\":\"\",\"merge_field_count\":4,\"avg_sub_rate\":0,\"avg_unsub_rate\":0,\"target_sub_rate\":0,\"open_rate\":0,\"click_rate\":0,\"last_sub_date\":\"2019-06-13T22:52:25+00:00\",\"last_unsub_date\":\"2019-06-06T22:37:51+00:00\"},\"_links\":[{\"rel\":\"self\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Response.json\"},{\"rel\":\"parent\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists.json\"},{\"rel\":\"update\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1\",\"method\":\"PATCH\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Response.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/PATCH.json\"},{\"rel\":\"batch-sub-unsub-members\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1\",\"method\":\"POST\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/BatchPOST-Response.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/BatchPOST.json\"},{\"rel\":\"delete\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1\",\"method\":\"DELETE\"},{\"rel\":\"abuse-reports\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/abuse-reports\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Abuse/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/Abuse.json\"},{\"rel\":\"activity\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/activity\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Activity/Response.json\"},{\"rel\":\"clients\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/clients\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Clients/Response.json\"},{\"rel\":\"growth-history\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/growth-history\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Growth/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/Growth.json\"},{\"rel\":\"interest-categories\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/interest-categories\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/InterestCategories/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/InterestCategories.json\"},{\"rel\":\"members\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/members\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Members/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/Members.json\"},{\"rel\":\"merge-fields\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/merge-fields\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/MergeFields/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/MergeFields.json\"},{\"rel\":\"segments\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/segments\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Segments/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/Segments.json\"},{\"rel\":\"webhooks\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/webhooks\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Webhooks/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/Webhooks.json\"},{\"rel\":\"signup-forms\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/signup-forms\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/SignupForms/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/SignupForms.json\"},{\"rel\":\"locations\",\"href\":\"https://us3.api.mailchimp.com/3.0/lists/aaa1cc11a1/locations\",\"method\":\"GET\",\"targetSchema\":\"https://us3.api.mailchimp.com/schema/3.0/Definitions/Lists/Locations/CollectionResponse.json\",\"schema\":\"https://us3.api.mailchimp.com/schema/3.0/CollectionLinks/Lists/Locations.json\"}]}");
@@ -167,4 +212,276 @@ public class MailChimpListTest {
 //		JSONObject jsonObj = new JSONObject("");
 //	}
 	
+	private static final String MEMBER = "{\"id\":\"\",\"email_address\":\"\",\"unique_email_id\":\"1234567890\","
+			+ "\"web_id\":123455501,\"email_type\":\"html\",\"status\":\"subscribed\","
+			+ "\"merge_fields\":{\"FNAME\":\"Sue\",\"LNAME\":\"Smith\"},\"stats\":{\"avg_open_rate\":0,\"avg_click_rate\":0},"
+			+ "\"ip_signup\":\"\",\"timestamp_signup\":\"\",\"ip_opt\":\"64.215.182.118\","
+			+ "\"timestamp_opt\":\"\",\"member_rating\":2,\"last_changed\":\"\","
+			+ "\"language\":\"\",\"vip\":false,\"email_client\":\"Gmail\",\"location\":{\"latitude\":33.3163,\"longitude\":-111.831,"
+			+ "\"gmtoff\":0,\"dstoff\":0,\"country_code\":\"US\",\"timezone\":\"480\"},\"source\":\"List Import\",\"tags_count\":0,"
+			+ "\"tags\":[],\"list_id\":\"abc0be64d2\"}";
+
+	private static JSONObject member(String id, String status, String optIn, String lastChanged) {
+		return new JSONObject(MEMBER).put("id", id).put("email_address", id + "@example.com")
+				.put("status", status).put("timestamp_opt", optIn).put("last_changed", lastChanged);
+	}
+
+	/**
+	 * Answer member requests sorted by last_changed, from since_last_changed on.
+	 */
+	private static TransportResponse members(TransportRequest request, List<JSONObject> members) {
+		String query = request.getUri().getQuery();
+		String since = "";
+		int count = 10, offset = 0;
+		for (String p : query.split("&")) {
+			String[] kv = p.split("=", 2);
+			if (kv[0].equals("since_last_changed")) since = kv[1];
+			if (kv[0].equals("count")) count = Integer.parseInt(kv[1]);
+			if (kv[0].equals("offset")) offset = Integer.parseInt(kv[1]);
+		}
+		final String from = since;
+		List<JSONObject> page = members.stream()
+				.filter(m -> m.getString("last_changed").compareTo(from) >= 0)
+				.sorted(Comparator.comparing(m -> m.getString("last_changed")))
+				.skip(offset).limit(count)
+				.collect(Collectors.toList());
+		return InMemoryTransport.json(200, new JSONObject().put("members", new JSONArray(page)).put("total_items", page.size()).toString());
+	}
+
+	@Test
+	public void testMailChimpList_syncMembers() throws Exception {
+		List<JSONObject> server = new ArrayList<>();
+		server.add(member("m0", "subscribed", "2020-01-01T00:00:00+00:00", "2020-01-01T00:00:00+00:00"));
+		server.add(member("m1", "unsubscribed", "2020-01-01T00:00:00+00:00", "2020-01-02T00:00:00+00:00"));
+		server.add(member("m2", "cleaned", "2020-01-01T00:00:00+00:00", "2020-01-02T00:00:00+00:00"));
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/lists/*/members", request -> members(request, server));
+		Path file = Files.createTempFile("watermarks", ".properties");
+		try (MailChimpConnection con = connection(transport)) {
+			MailChimpList list = listOn(con);
+			FileWatermarkStore store = new FileWatermarkStore(file);
+			List<String> events = new ArrayList<>();
+			MemberSyncListener listener = new MemberSyncListener() {
+				@Override
+				public void added(Member member) {
+					events.add("added " + member.getId());
+				}
+
+				@Override
+				public void updated(Member member) {
+					events.add("updated " + member.getId());
+				}
+
+				@Override
+				public void unsubscribed(Member member) {
+					events.add("unsubscribed " + member.getId());
+				}
+
+				@Override
+				public void cleaned(Member member) {
+					events.add("cleaned " + member.getId());
+				}
+			};
+
+			assertEquals(3, list.syncMembers(store, listener));
+			assertEquals("[added m0, unsubscribed m1, cleaned m2]", events.toString());
+
+			events.clear();
+			server.get(0).put("last_changed", "2020-02-01T00:00:00+00:00");
+			server.add(member("m3", "subscribed", "2020-02-01T00:00:00+00:00", "2020-02-01T00:00:00+00:00"));
+			assertEquals(2, list.syncMembers(store, listener));
+			assertEquals("[updated m0, added m3]", events.toString());
+
+			events.clear();
+			assertEquals(0, list.syncMembers(store, listener));
+			assertEquals(0, events.size());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testMailChimpList_syncMembersResumed() throws Exception {
+		List<JSONObject> server = new ArrayList<>();
+		ZonedDateTime start = ZonedDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+		for (int i = 0; i < 1500; i++) {
+			// joined before the sync, changed in any order since
+			server.add(member("m" + i, "subscribed", DateConverter.toISO8601UTC(start), DateConverter.toISO8601UTC(start.plusMinutes(i))));
+		}
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/lists/*/members", request -> members(request, server));
+		Path file = Files.createTempFile("watermarks", ".properties");
+		try (MailChimpConnection con = connection(transport)) {
+			MailChimpList list = listOn(con);
+			FileWatermarkStore store = new FileWatermarkStore(file);
+			List<String> added = new ArrayList<>(), updated = new ArrayList<>();
+			MemberSyncListener listener = new MemberSyncListener() {
+				@Override
+				public void added(Member member) {
+					if (added.size() + updated.size() == 1200) {
+						throw new IllegalStateException("listener failed");
+					}
+					added.add(member.getId());
+				}
+
+				@Override
+				public void updated(Member member) {
+					updated.add(member.getId());
+				}
+			};
+			try {
+				list.syncMembers(store, listener);
+				fail("Expected IllegalStateException");
+			} catch (IllegalStateException e) {
+				assertEquals(1200, added.size());
+			}
+
+			// continued from the checkpoint at 1000 members, still the first sync
+			added.clear();
+			assertEquals(500, list.syncMembers(store, listener));
+			assertEquals(500, added.size());
+			assertEquals("m1000", added.get(0));
+			assertEquals(0, updated.size());
+
+			added.clear();
+			server.get(0).put("last_changed", DateConverter.toISO8601UTC(start.plusDays(2)));
+			String time = DateConverter.toISO8601UTC(start.plusDays(2));
+			server.add(member("m1500", "subscribed", time, time));
+			assertEquals(2, list.syncMembers(store, listener));
+			assertEquals("[m0]", updated.toString());
+			assertEquals("[m1500]", added.toString());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testMailChimpList_projection() throws Exception {
+		List<String> queries = new ArrayList<>();
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/lists/*/members", request -> {
+			queries.add(request.getUri().getQuery());
+			JSONObject member = new JSONObject().put("id", "m0").put("email_address", "m0@example.com");
+			return InMemoryTransport.json(200, new JSONObject().put("members", new JSONArray().put(member)).put("total_items", 1).toString());
+		}).route("GET", "/3.0/lists/*/members/*", request -> {
+			queries.add(request.getUri().getQuery());
+			return InMemoryTransport.json(200, new JSONObject().put("email_address", "m0@example.com").toString());
+		});
+		try (MailChimpConnection con = connection(transport)) {
+			MailChimpList list = listOn(con);
+
+			List<Member> members = new ArrayList<>();
+			list.getMembers(Projection.fields(Member.class, "id", "email_address")).forEach(members::add);
+			assertEquals(1, members.size());
+			assertEquals("m0@example.com", members.get(0).getEmailAddress());
+			assertNull(members.get(0).getStatus());
+			assertTrue(queries.get(0), queries.get(0).contains("fields=total_items,members.id,members.email_address"));
+			assertFalse(queries.get(0), queries.get(0).contains("exclude_fields"));
+
+			list.getMembers(1, 0);
+			assertTrue(queries.get(1), queries.get(1).contains("exclude_fields=_links,members._links"));
+
+			con.setExcludeLinks(false);
+			list.getMembers(1, 0);
+			assertFalse(queries.get(2), queries.get(2).contains("exclude_fields"));
+
+			Member member = list.getMember("m0@example.com", Projection.fields(Member.class, "email_address"));
+			assertEquals("m0@example.com", member.getEmailAddress());
+			assertNull(member.getStatus());
+			assertEquals("fields=email_address", queries.get(3));
+		}
+	}
+
+	@Test
+	public void testMailChimpList_collectionPageExcludesLinks() throws Exception {
+		List<String> queries = new ArrayList<>();
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/lists", request -> {
+			queries.add(request.getUri().getQuery());
+			return InMemoryTransport.json(200, new JSONObject().put("lists", new JSONArray()).put("total_items", 0).toString());
+		}).route("GET", "/3.0/lists/*/segments", request -> {
+			queries.add(request.getUri().getQuery());
+			return InMemoryTransport.json(200, new JSONObject().put("segments", new JSONArray()).put("total_items", 0).toString());
+		});
+		try (MailChimpConnection con = connection(transport)) {
+			assertEquals(0, con.getLists(10, 0).size());
+			assertTrue(queries.get(0), queries.get(0).endsWith("exclude_fields=_links,lists._links"));
+
+			MailChimpList list = new MailChimpList(con, new JSONObject().put("id", "abc0be64d2"));
+			assertEquals(0, list.getSegments(10, 0).size());
+			assertTrue(queries.get(1), queries.get(1).endsWith("exclude_fields=_links,segments._links"));
+
+			con.setExcludeLinks(false);
+			con.getLists(10, 0);
+			assertFalse(queries.get(2), queries.get(2).contains("exclude_fields"));
+		}
+	}
+
+	@Test
+	public void testMailChimpList_batchSubscribe() throws Exception {
+		List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+		InMemoryTransport transport = new InMemoryTransport().route("POST", "/3.0/lists/*", request -> {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try {
+				request.getBody().writeTo(out);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			JSONObject body = new JSONObject(new String(out.toByteArray(), StandardCharsets.UTF_8));
+			JSONArray members = body.getJSONArray("members");
+			sizes.add(members.length());
+			if (members.getJSONObject(0).getString("email_address").startsWith("fail")) {
+				return InMemoryTransport.json(500, "{\"title\":\"Internal Server Error\",\"status\":500}");
+			}
+			JSONArray created = new JSONArray(), updated = new JSONArray(), errors = new JSONArray();
+			for (int i = 0; i < members.length(); i++) {
+				JSONObject member = members.getJSONObject(i);
+				assertEquals("subscribed", member.getString("status"));
+				String email = member.getString("email_address");
+				if (email.startsWith("bad")) {
+					errors.put(new JSONObject().put("email_address", email).put("error", "looks fake or invalid").put("error_code", "ERROR_FAKE_EMAIL"));
+				} else {
+					(email.startsWith("old") && body.getBoolean("update_existing") ? updated : created)
+							.put(new JSONObject().put("id", Member.subscriberHash(email)).put("email_address", email).put("status", "subscribed"));
+				}
+			}
+			return InMemoryTransport.json(200, new JSONObject().put("new_members", created).put("updated_members", updated)
+					.put("errors", errors).put("total_created", created.length()).put("total_updated", updated.length())
+					.put("error_count", errors.length()).toString());
+		});
+		try (MailChimpConnection con = connection(transport)) {
+			MailChimpList list = listOn(con);
+
+			Stream<Member> members = IntStream.range(0, 1203).mapToObj(i ->
+					new Member.Builder().listId("abc0be64d2").status(MemberStatus.SUBSCRIBED)
+						.emailAddress((i % 100 == 0 ? "bad" : i % 10 == 0 ? "old" : "new") + i + "@example.com").build());
+			BatchSubscribeResult result = list.batchSubscribe(members, true, 2);
+			assertEquals("[500, 500, 203]", sizes.toString());
+			assertEquals(13, result.getTotalErrors());
+			assertEquals(13, result.getErrors().size());
+			assertEquals("ERROR_FAKE_EMAIL", result.getErrors().get(0).getErrorCode());
+			assertEquals(108, result.getTotalUpdated());
+			assertEquals(1082, result.getTotalCreated());
+			// members are only kept when asked for
+			assertEquals(0, result.getNewMembers().size());
+
+			Stream<Member> kept = IntStream.range(0, 20).mapToObj(i ->
+					new Member.Builder().listId("abc0be64d2").status(MemberStatus.SUBSCRIBED)
+						.emailAddress((i % 10 == 0 ? "old" : "new") + i + "@example.com").build());
+			result = list.batchSubscribe(kept, true, 2, true);
+			assertEquals(18, result.getNewMembers().size());
+			assertEquals(2, result.getUpdatedMembers().size());
+			assertEquals("new1@example.com", result.getNewMembers().get(0).getEmailAddress());
+
+			sizes.clear();
+			Stream<Member> failing = IntStream.range(0, 1500).mapToObj(i ->
+					new Member.Builder().listId("abc0be64d2").status(MemberStatus.SUBSCRIBED)
+						.emailAddress((i < 500 ? "new" : "fail") + i + "@example.com").build());
+			try {
+				list.batchSubscribe(failing, false, 1);
+				fail("Expected TransportException");
+			} catch (TransportException e) {
+				assertEquals(500, e.getStatusCode());
+			}
+			// no request is sent after the one that failed
+			assertEquals("[500, 500]", sizes.toString());
+		}
+	}
+
 }
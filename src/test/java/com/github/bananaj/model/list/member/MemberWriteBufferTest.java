@@ -0,0 +1,235 @@
+package com.github.bananaj.model.list.member;
+
+import static com.github.bananaj.connection.TestConnections.connection;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.github.bananaj.connection.InMemoryTransport;
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.TransportRequest;
+import com.github.bananaj.exceptions.TransportException;
+import com.github.bananaj.model.batch.BatchOperations;
+import com.github.bananaj.model.batch.BatchStatus;
+
+public class MemberWriteBufferTest {
+
+	private static final String LIST = "abc0be64d2";
+
+	private static String body(TransportRequest request) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			request.getBody().writeTo(out);
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Test
+	public void testMemberWriteBuffer_coalesce() throws Exception {
+		List<String> requests = Collections.synchronizedList(new ArrayList<>());
+		String missing = Member.subscriberHash("gone@example.com");
+		InMemoryTransport transport = new InMemoryTransport()
+				.route("PATCH", "/3.0/lists/*/members/*", request -> {
+					requests.add("PATCH " + request.getUri().getPath() + " " + body(request));
+					return request.getUri().getPath().endsWith(missing)
+							? InMemoryTransport.json(404, "{\"title\":\"Resource Not Found\",\"status\":404}")
+							: InMemoryTransport.json(200, "{}");
+				})
+				.route("POST", "/3.0/lists/*/members/*/tags", request -> {
+					requests.add("POST " + request.getUri().getPath() + " " + body(request));
+					return InMemoryTransport.json(204, "");
+				});
+		List<MemberWrite> failed = Collections.synchronizedList(new ArrayList<>());
+		try (MailChimpConnection con = connection(transport)) {
+			MemberWriteBuffer buffer = new MemberWriteBuffer.Builder()
+					.connection(con)
+					.flushInterval(0, TimeUnit.SECONDS)
+					.listener((write, cause) -> {
+						assertEquals(404, ((TransportException) cause).getStatusCode());
+						failed.add(write);
+					})
+					.build();
+			for (int i = 0; i < 10; i++) {
+				buffer.changeStatus(LIST, "sue@example.com", i % 2 == 0 ? MemberStatus.UNSUBSCRIBED : MemberStatus.SUBSCRIBED);
+				buffer.putMergeField(LIST, "sue@example.com", "FNAME", "Sue" + i);
+				buffer.applyTag(LIST, "sue@example.com", "VIP", i % 2 == 0 ? TagStatus.ACTIVE : TagStatus.INACTIVE);
+			}
+			buffer.putMergeField(LIST, "Sue@Example.com", "LNAME", "Smith");
+			buffer.applyTag(LIST, "bob@example.com", "new", TagStatus.ACTIVE);
+			buffer.changeStatus(LIST, "gone@example.com", MemberStatus.UNSUBSCRIBED);
+			assertEquals(3, buffer.getPendingMembers());
+
+			buffer.flush();
+			assertEquals(0, buffer.getPendingMembers());
+			assertEquals(4, requests.size());
+			String sue = "/3.0/lists/" + LIST + "/members/" + Member.subscriberHash("sue@example.com");
+			JSONObject patch = new JSONObject(requests.stream().filter(r -> r.startsWith("PATCH " + sue + " ")).findFirst().get().substring(sue.length() + 7));
+			assertEquals("subscribed", patch.getString("status"));
+			assertEquals("Sue9", patch.getJSONObject("merge_fields").getString("FNAME"));
+			assertEquals("Smith", patch.getJSONObject("merge_fields").getString("LNAME"));
+			JSONArray tags = new JSONObject(requests.stream().filter(r -> r.startsWith("POST " + sue + "/tags ")).findFirst().get().substring(sue.length() + 11)).getJSONArray("tags");
+			assertEquals(1, tags.length());
+			assertEquals("inactive", tags.getJSONObject(0).getString("status"));
+			assertTrue(requests.contains("POST /3.0/lists/" + LIST + "/members/" + Member.subscriberHash("bob@example.com") + "/tags {\"tags\":[{\"name\":\"new\",\"status\":\"active\"}]}"));
+
+			assertEquals(1, failed.size());
+			assertEquals(missing, failed.get(0).getSubscriberHash());
+			// a failed write can be given back, under newer changes
+			buffer.putMergeField(LIST, "gone@example.com", "FNAME", "Gone");
+			buffer.retry(failed.get(0));
+			requests.clear();
+			buffer.close();
+			assertEquals(1, requests.size());
+			assertTrue(requests.get(0), requests.get(0).contains("\"status\":\"unsubscribed\"") && requests.get(0).contains("Gone"));
+		}
+	}
+
+	@Test
+	public void testMemberWriteBuffer_retryWhileClosing() throws Exception {
+		AtomicInteger patches = new AtomicInteger();
+		InMemoryTransport transport = new InMemoryTransport()
+				.route("PATCH", "/3.0/lists/*/members/*", request -> patches.incrementAndGet() == 1
+						? InMemoryTransport.json(503, "{\"title\":\"Service Unavailable\",\"status\":503}")
+						: InMemoryTransport.json(200, "{}"))
+				.route("POST", "/3.0/batches", 500, "{\"title\":\"Internal Server Error\",\"status\":500}");
+		List<MemberWrite> failed = Collections.synchronizedList(new ArrayList<>());
+		try (MailChimpConnection con = connection(transport)) {
+			MemberWriteBuffer[] holder = new MemberWriteBuffer[1];
+			MemberWriteBuffer buffer = new MemberWriteBuffer.Builder()
+					.connection(con)
+					.flushInterval(0, TimeUnit.SECONDS)
+					.listener((write, cause) -> {
+						failed.add(write);
+						holder[0].retry(write);
+					})
+					.build();
+			holder[0] = buffer;
+			buffer.changeStatus(LIST, "sue@example.com", MemberStatus.UNSUBSCRIBED);
+			buffer.close();
+			// the write failed by the final flush is retried before close returns
+			assertEquals(1, failed.size());
+			assertEquals(2, patches.get());
+			assertEquals(0, buffer.getPendingMembers());
+
+			// a listener that throws does not escape close
+			MemberWriteBuffer batches = new MemberWriteBuffer.Builder()
+					.connection(con)
+					.flushInterval(0, TimeUnit.SECONDS)
+					.batchOperations(true)
+					.listener((write, cause) -> {
+						throw new IllegalStateException("listener failed");
+					})
+					.build();
+			batches.changeStatus(LIST, "bob@example.com", MemberStatus.UNSUBSCRIBED);
+			batches.close();
+			assertEquals(0, batches.getPendingMembers());
+		}
+	}
+
+	@Test
+	public void testMemberWriteBuffer_batch() throws Exception {
+		List<JSONArray> batches = Collections.synchronizedList(new ArrayList<>());
+		InMemoryTransport transport = new InMemoryTransport().route("POST", "/3.0/batches", request -> {
+			JSONArray operations = new JSONObject(body(request)).getJSONArray("operations");
+			batches.add(operations);
+			return InMemoryTransport.json(200, new JSONObject().put("id", "b" + batches.size()).put("status", "pending")
+					.put("total_operations", operations.length()).toString());
+		});
+		List<BatchStatus> submitted = Collections.synchronizedList(new ArrayList<>());
+		try (MailChimpConnection con = connection(transport);
+				MemberWriteBuffer buffer = new MemberWriteBuffer.Builder()
+						.connection(con)
+						.maxMembers(2)
+						.batchOperations(true)
+						.listener(new MemberWriteListener() {
+							@Override
+							public void failed(MemberWrite write, Throwable cause) {
+								throw new AssertionError(write.toString(), cause);
+							}
+
+							@Override
+							public void submitted(List<BatchStatus> statuses) {
+								submitted.addAll(statuses);
+							}
+						})
+						.build()) {
+			buffer.changeStatus(LIST, "a@example.com", MemberStatus.CLEANED);
+			buffer.applyTag(LIST, "a@example.com", "bounced", TagStatus.ACTIVE);
+			assertEquals(0, batches.size());
+			// the second member fills the buffer
+			buffer.changeStatus(LIST, "b@example.com", MemberStatus.UNSUBSCRIBED);
+			assertEquals(1, batches.size());
+			assertEquals(0, buffer.getPendingMembers());
+			assertEquals(1, submitted.size());
+
+			JSONArray operations = batches.get(0);
+			assertEquals(3, operations.length());
+			String a = LIST + "/" + Member.subscriberHash("a@example.com");
+			assertEquals("PATCH", operations.getJSONObject(0).getString("method"));
+			assertEquals(a, operations.getJSONObject(0).getString("operation_id"));
+			assertEquals(a + "/tags", operations.getJSONObject(1).getString("operation_id"));
+			assertEquals("/lists/" + LIST + "/members/" + Member.subscriberHash("a@example.com") + "/tags", operations.getJSONObject(1).getString("path"));
+		}
+	}
+
+	@Test
+	public void testMemberWriteBuffer_batchSubmittedPartly() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		InMemoryTransport transport = new InMemoryTransport().route("POST", "/3.0/batches", request -> {
+			JSONArray operations = new JSONObject(body(request)).getJSONArray("operations");
+			if (requests.incrementAndGet() > 1) {
+				return InMemoryTransport.json(500, "{\"title\":\"Internal Server Error\",\"status\":500}");
+			}
+			return InMemoryTransport.json(200, new JSONObject().put("id", "b1").put("status", "pending")
+					.put("total_operations", operations.length()).toString());
+		});
+		List<String> failed = Collections.synchronizedList(new ArrayList<>());
+		List<BatchStatus> submitted = Collections.synchronizedList(new ArrayList<>());
+		try (MailChimpConnection con = connection(transport);
+				MemberWriteBuffer buffer = new MemberWriteBuffer.Builder()
+						.connection(con)
+						.maxMembers(3)
+						.batchOperations(true)
+						.listener(new MemberWriteListener() {
+							@Override
+							public void failed(MemberWrite write, Throwable cause) {
+								assertEquals(500, ((TransportException) cause).getStatusCode());
+								failed.add(write.getSubscriberHash());
+							}
+
+							@Override
+							public void submitted(List<BatchStatus> statuses) {
+								submitted.addAll(statuses);
+							}
+						})
+						.build()) {
+			con.getBatchOperations().setMaxBatchSize(2, BatchOperations.DEFAULT_MAX_BYTES);
+			// a and the field changes of b go in the first batch request, the tags of b and c in the second
+			buffer.changeStatus(LIST, "a@example.com", MemberStatus.CLEANED);
+			buffer.changeStatus(LIST, "b@example.com", MemberStatus.CLEANED);
+			buffer.applyTag(LIST, "b@example.com", "bounced", TagStatus.ACTIVE);
+			buffer.changeStatus(LIST, "c@example.com", MemberStatus.CLEANED);
+			assertEquals(2, requests.get());
+
+			assertEquals(1, submitted.size());
+			assertEquals("b1", submitted.get(0).getId());
+			assertEquals(2, failed.size());
+			assertEquals(Member.subscriberHash("b@example.com"), failed.get(0));
+			assertEquals(Member.subscriberHash("c@example.com"), failed.get(1));
+		}
+	}
+}
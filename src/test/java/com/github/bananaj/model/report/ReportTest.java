@@ -1,13 +1,21 @@
 package com.github.bananaj.model.report;
 
+import static com.github.bananaj.connection.TestConnections.connection;
 import static org.junit.Assert.*;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import com.github.bananaj.connection.InMemoryTransport;
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.model.Projection;
 import com.github.bananaj.model.report.AbuseReport;
 import com.github.bananaj.model.report.AdviceReport;
 import com.github.bananaj.model.report.DomainPerformance;
@@ -53,6 +61,81 @@ public class ReportTest {
 		report.toString();
 	}
 
+	@Test
+	public void testReport_projected_iterator() throws Exception {
+		List<String> queries = new ArrayList<>();
+		InMemoryTransport transport = new InMemoryTransport()
+				.route("GET", "/3.0/reports", request -> {
+					queries.add(request.getUri().getQuery());
+					JSONObject report = new JSONObject().put("id", "024a680c00").put("emails_sent", 9);
+					return InMemoryTransport.json(200, new JSONObject().put("reports", new JSONArray().put(report)).put("total_items", 1).toString());
+				})
+				.route("GET", "/3.0/reports/*/open-details", request -> {
+					queries.add(request.getUri().getQuery());
+					JSONObject member = new JSONObject().put("email_address", "jeanne.tester@gmail.com").put("opens_count", 1);
+					return InMemoryTransport.json(200, new JSONObject().put("members", new JSONArray().put(member)).put("total_items", 1).toString());
+				});
+		try (MailChimpConnection con = connection(transport)) {
+			List<Report> reports = new ArrayList<>();
+			con.getCampaignReports(null, null, null, Projection.fields(Report.class, "id", "emails_sent")).forEach(reports::add);
+			assertEquals(1, reports.size());
+			assertEquals("024a680c00", reports.get(0).getId());
+			assertEquals(9, reports.get(0).getEmailsSent());
+			assertNull(reports.get(0).getCampaignTitle());
+			assertNull(reports.get(0).getOpens());
+			reports.get(0).toString();
+			assertTrue(queries.get(0), queries.get(0).contains("fields=total_items,reports.id,reports.emails_sent"));
+
+			List<OpenReportMember> members = new ArrayList<>();
+			con.getCampaignOpenReports("f32bbb4333", null, Projection.fields(OpenReportMember.class, "email_address", "opens_count")).forEach(members::add);
+			assertEquals(1, members.size());
+			assertEquals("jeanne.tester@gmail.com", members.get(0).getEmailAddress());
+			assertEquals(1, members.get(0).getOpensCount());
+			assertNull(members.get(0).getOpens());
+			assertTrue(queries.get(1), queries.get(1).contains("fields=total_items,members.email_address,members.opens_count"));
+		}
+	}
+
+	@Test
+	public void testReport_projected_click_iterators() throws Exception {
+		List<String> queries = new ArrayList<>();
+		InMemoryTransport transport = new InMemoryTransport()
+				.route("GET", "/3.0/reports/*/click-details", request -> {
+					queries.add(request.getUri().getQuery());
+					JSONObject link = new JSONObject().put("id", "c1").put("total_clicks", 4);
+					return InMemoryTransport.json(200, new JSONObject().put("urls_clicked", new JSONArray().put(link)).put("total_items", 1).toString());
+				})
+				.route("GET", "/3.0/reports/*/click-details/*/members", request -> {
+					queries.add(request.getUri().getQuery());
+					JSONObject member = new JSONObject().put("email_address", "jeanne.tester@gmail.com").put("clicks", 2);
+					return InMemoryTransport.json(200, new JSONObject().put("members", new JSONArray().put(member)).put("total_items", 1).toString());
+				})
+				.route("GET", "/3.0/reports/*/ecommerce-product-activity", request -> {
+					queries.add(request.getUri().getQuery());
+					JSONObject product = new JSONObject().put("sku", "030001").put("total_revenue", 10.29);
+					return InMemoryTransport.json(200, new JSONObject().put("products", new JSONArray().put(product)).put("total_items", 1).toString());
+				});
+		try (MailChimpConnection con = connection(transport)) {
+			ClickReport link = con.getClickReports("1d90377b31", Projection.fields(ClickReport.class, "id", "total_clicks")).iterator().next();
+			assertEquals("c1", link.getId());
+			assertEquals(Integer.valueOf(4), link.getTotalClicks());
+			assertNull(link.getUrl());
+			assertNull(link.getLastClick());
+			assertTrue(queries.get(0), queries.get(0).contains("fields=total_items,urls_clicked.id,urls_clicked.total_clicks"));
+
+			ClickReportMember member = con.getClickReportMembers("1d90377b31", "c1", Projection.fields(ClickReportMember.class, "email_address", "clicks")).iterator().next();
+			assertEquals("jeanne.tester@gmail.com", member.getEmailAddress());
+			assertEquals(2, member.getClicks());
+			assertNull(member.getUrlId());
+
+			EcommerceProductActivity product = con.getEcommerceProductActivity("1d90377b31", null, Projection.fields(EcommerceProductActivity.class, "sku", "total_revenue")).iterator().next();
+			assertEquals("030001", product.getSku());
+			assertEquals(10.29, product.getTotalRevenue(), 0.001);
+			assertNull(product.getTitle());
+			assertTrue(queries.get(2), queries.get(2).contains("sort_field=title&fields=total_items,products.sku,products.total_revenue"));
+		}
+	}
+
 	@Test
 	public void testReport_abuse_report() {
 		JSONObject jsonObj = new JSONObject("{\"id\":1486,\"campaign_id\": \"42694e9e57\",\"list_id\":\"a70b3a068a\",\"email_id\":\"1986e2ad5e507dd4cd5b91a6058837d4\",\"email_address\":\"mr.test@gmail.com\",\"merge_fields\":{\"FNAME\":\"John\",\"LNAME\":\"Smith\",\"ADDRESS\":\"123 Mocking Bird Ln\",\"PHONE\":\"555-1234\"},\"vip\":true,\"date\":\"2019-04-04T23:39:59+00:00\",\"_links\":[]}");
@@ -98,6 +181,24 @@ public class ReportTest {
 		assertEquals("Your open rate was <strong>32%</strong> higher than your industry average, but <strong>-43.3%</strong> lower than this list's average.", advice.getMessage());
 	}
 
+	@Test
+	public void testReport_advice_iterator() throws Exception {
+		JSONArray advice = new JSONArray();
+		for (int i = 0; i < 3; i++) {
+			advice.put(new JSONObject().put("type", "advice-" + i).put("message", "message " + i));
+		}
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/reports/*/advice", 200,
+				new JSONObject().put("advice", advice).put("total_items", 3).toString());
+		try (MailChimpConnection con = connection(transport)) {
+			List<String> types = con.getCampaignAdviceReports("1d90377b31").stream()
+					.map(AdviceReport::getType)
+					.collect(Collectors.toList());
+			assertEquals(3, types.size());
+			assertEquals("advice-2", types.get(2));
+			assertEquals(1, transport.getRequestCount());
+		}
+	}
+
 	@Test
 	public void testReport_DomainPerformance() {
 		JSONObject jsonObj = new JSONObject("{\"domains\":[{\"domain\":\"gmail.com\",\"emails_sent\":1,\"bounces\":0,\"opens\":0,\"clicks\":0,\"unsubs\":0,\"delivered\":1,\"emails_pct\":0.5,\"bounces_pct\":0,\"opens_pct\":0,\"clicks_pct\":0,\"unsubs_pct\":0},{\"domain\":\"q.com\",\"emails_sent\":1,\"bounces\":0,\"opens\":1,\"clicks\":1,\"unsubs\":0,\"delivered\":1,\"emails_pct\":0.5,\"bounces_pct\":0,\"opens_pct\":1,\"clicks_pct\":1,\"unsubs_pct\":0}],\"total_sent\":2,\"campaign_id\":\"1d90377b31\",\"total_items\":2,\"_links\":[]}");
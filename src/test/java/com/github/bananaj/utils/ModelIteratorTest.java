@@ -0,0 +1,280 @@
+package com.github.bananaj.utils;
+
+import static com.github.bananaj.connection.TestConnections.connection;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.github.bananaj.connection.EndpointMetrics;
+import com.github.bananaj.connection.InMemoryTransport;
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.connection.TransportRequest;
+import com.github.bananaj.connection.TransportResponse;
+import com.github.bananaj.model.JSONParser;
+
+public class ModelIteratorTest {
+
+	static final String ITEMS = "https://us1.api.mailchimp.com/3.0/items";
+
+	public static class Item implements JSONParser {
+		int id;
+
+		@Override
+		public void parse(MailChimpConnection connection, JSONObject entity) {
+			id = entity.getInt("id");
+		}
+	}
+
+	/**
+	 * Answer offset paged requests for a collection of the given size.
+	 */
+	static TransportResponse page(TransportRequest request, int total) {
+		int count = Integer.parseInt(param(request, "count", "10"));
+		int offset = Integer.parseInt(param(request, "offset", "0"));
+		JSONArray items = new JSONArray();
+		for (int i = offset; i < Math.min(total, offset + count); i++) {
+			items.put(new JSONObject().put("id", i));
+		}
+		return InMemoryTransport.json(200, new JSONObject().put("items", items).put("total_items", total).toString());
+	}
+
+	static String param(TransportRequest request, String name, String defaultValue) {
+		String query = request.getUri().getRawQuery();
+		if (query != null) {
+			for (String p : query.split("&")) {
+				if (p.startsWith(name + "=")) {
+					return p.substring(name.length() + 1);
+				}
+			}
+		}
+		return defaultValue;
+	}
+
+	private static List<Integer> ids(Iterable<Item> items) {
+		List<Integer> ids = new ArrayList<>();
+		for (Item item : items) {
+			ids.add(item.id);
+		}
+		return ids;
+	}
+
+	@Test
+	public void testPagesInOrder() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> page(request, 25));
+		for (int prefetch = 0; prefetch <= 3; prefetch++) {
+			try (MailChimpConnection con = connection(transport, prefetch)) {
+				List<Integer> ids = ids(new ModelIterator<>(Item.class, ITEMS, con, 10));
+				assertEquals(25, ids.size());
+				for (int i = 0; i < ids.size(); i++) {
+					assertEquals(Integer.valueOf(i), ids.get(i));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFactoryAndCollectionKey() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> page(request, 25));
+		try (MailChimpConnection con = connection(transport, 0)) {
+			List<Integer> ids = ids(new ModelIterator<>(Item::new, "items", ITEMS, con, 10));
+			assertEquals(25, ids.size());
+			assertEquals(Integer.valueOf(24), ids.get(24));
+		}
+	}
+
+	@Test
+	public void testResumeFromCursor() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> page(request, 25));
+		try (MailChimpConnection con = connection(transport, 1)) {
+			ModelIterator<Item> items = new ModelIterator<>(Item::new, "items", ITEMS, con, 10);
+			Iterator<Item> it = items.iterator();
+			for (int i = 0; i < 13; i++) {
+				it.next();
+			}
+			PageCursor cursor = PageCursor.decode(items.getCursor().encode());
+			assertEquals(13, cursor.getOffset());
+			assertEquals(Integer.valueOf(25), cursor.getTotalItems());
+
+			List<Integer> ids = ids(new ModelIterator<>(Item::new, cursor, con));
+			assertEquals(12, ids.size());
+			assertEquals(Integer.valueOf(13), ids.get(0));
+			assertEquals(Integer.valueOf(24), ids.get(11));
+		}
+	}
+
+	/**
+	 * Answer keyset requests for a collection whose entities share each
+	 * <code>last_changed</code> value in groups of four.
+	 */
+	static TransportResponse keysetPage(TransportRequest request, int total) throws UnsupportedEncodingException {
+		int count = Integer.parseInt(param(request, "count", "10"));
+		int offset = Integer.parseInt(param(request, "offset", "0"));
+		String since = URLDecoder.decode(param(request, "since_last_changed", ""), "UTF-8");
+		JSONArray items = new JSONArray();
+		for (int i = 0; i < total && items.length() < count; i++) {
+			String key = String.format("2020-01-%02dT00:00:00+00:00", 1 + i / 4);
+			if (key.compareTo(since) >= 0 && offset-- <= 0) {
+				items.put(new JSONObject().put("id", i).put("last_changed", key));
+			}
+		}
+		return InMemoryTransport.json(200, new JSONObject().put("items", items).put("total_items", total).toString());
+	}
+
+	@Test
+	public void testKeysetPagesPastTies() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> keysetPage(request, 22));
+		try (MailChimpConnection con = connection(transport, 0)) {
+			ModelIterator<Item> items = ModelIterator.keyset(Item::new, "items", ITEMS, "last_changed", null, con, 3);
+			Iterator<Item> it = items.iterator();
+			List<Integer> ids = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				ids.add(it.next().id);
+			}
+			PageCursor cursor = PageCursor.decode(items.getCursor().encode());
+			assertEquals("2020-01-02T00:00:00+00:00", cursor.getLastKey());
+			assertEquals(2, cursor.getLastKeyIds().size());
+
+			ids.addAll(ids(new ModelIterator<>(Item::new, cursor, con)));
+			assertEquals(22, ids.size());
+			for (int i = 0; i < 22; i++) {
+				assertEquals(Integer.valueOf(i), ids.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testAdaptivePageSize() throws Exception {
+		AdaptivePageSize policy = new AdaptivePageSize(1, TimeUnit.SECONDS, 500);
+		assertEquals(200, AdaptivePageSize.DEFAULT.next(100, 100, 100, 1000));
+		assertEquals(50, policy.next(100, 100, 10, 5000));
+		assertEquals(1000, AdaptivePageSize.DEFAULT.next(800, 800, 10, 1000));
+
+		List<Integer> counts = Collections.synchronizedList(new ArrayList<>());
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> {
+			counts.add(Integer.parseInt(param(request, "count", "0")));
+			return page(request, 300);
+		});
+		try (MailChimpConnection con = new MailChimpConnection.Builder()
+				.usingApiKey("key-us1")
+				.transport(transport)
+				.adaptivePageSize(policy)
+				.build()) {
+			ModelIterator<Item> items = new ModelIterator<>(Item::new, "items", ITEMS, con, 100);
+			assertEquals(50, items.getPageSize());
+			List<Integer> ids = ids(items);
+			assertEquals(300, ids.size());
+			assertEquals(Integer.valueOf(299), ids.get(299));
+
+			EndpointMetrics stats = con.getMetrics().getEndpoint("GET /3.0/items");
+			assertTrue(stats.getPageCount() > 3);
+			assertTrue(stats.getLastPageSize() < 100);
+			// a new iterator starts from the size last chosen for the endpoint
+			int last = stats.getLastPageSize();
+			new ModelIterator<>(Item::new, "items", ITEMS, con, 100);
+			assertEquals(Integer.valueOf(last), counts.get(counts.size() - 1));
+		}
+	}
+
+	@Test
+	public void testAdaptivePageSizePrefetched() throws Exception {
+		List<Integer> counts = Collections.synchronizedList(new ArrayList<>());
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> {
+			counts.add(Integer.parseInt(param(request, "count", "0")));
+			return page(request, 300);
+		});
+		try (MailChimpConnection con = new MailChimpConnection.Builder()
+				.usingApiKey("key-us1")
+				.transport(transport)
+				.prefetchPages(2)
+				.adaptivePageSize(new AdaptivePageSize(1, TimeUnit.SECONDS, 500))
+				.build()) {
+			List<Integer> ids = ids(new ModelIterator<>(Item::new, "items", ITEMS, con, 100));
+			assertEquals(300, ids.size());
+			for (int i = 0; i < ids.size(); i++) {
+				assertEquals(Integer.valueOf(i), ids.get(i));
+			}
+			// prefetched pages are sized from the bytes counted for the endpoint
+			assertEquals(Integer.valueOf(100), counts.get(0));
+			assertTrue(counts.toString(), counts.get(counts.size() - 1) < 100);
+		}
+	}
+
+	@Test
+	public void testUnorderedPagesReturnEveryEntity() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> page(request, 95));
+		try (MailChimpConnection con = connection(transport, 4)) {
+			List<Integer> ids = ids(new ModelIterator<>(Item.class, ITEMS, con, 10, 4, false));
+			Collections.sort(ids);
+			assertEquals(95, ids.size());
+			for (int i = 0; i < ids.size(); i++) {
+				assertEquals(Integer.valueOf(i), ids.get(i));
+			}
+			assertEquals(10, transport.getRequestCount());
+		}
+	}
+
+	@Test
+	public void testParallelStream() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> page(request, 1234));
+		try (MailChimpConnection con = connection(transport, 2)) {
+			List<Integer> ids = new ModelIterator<>(Item.class, ITEMS, con, 10).parallelStream()
+					.map(item -> item.id)
+					.collect(Collectors.toList());
+			assertEquals(1234, ids.size());
+			for (int i = 0; i < ids.size(); i++) {
+				assertEquals(Integer.valueOf(i), ids.get(i));
+			}
+			// every page is fetched exactly once
+			assertEquals(124, transport.getRequestCount());
+		}
+	}
+
+	@Test
+	public void testStreamContinuesIteration() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> page(request, 25));
+		try (MailChimpConnection con = connection(transport, 0)) {
+			ModelIterator<Item> items = new ModelIterator<>(Item.class, ITEMS, con, 10);
+			Iterator<Item> it = items.iterator();
+			it.next();
+			it.next();
+			assertEquals(23, items.stream().count());
+			assertFalse(it.hasNext());
+		}
+	}
+
+	@Test
+	public void testCloseStopsPrefetching() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> page(request, 100));
+		try (MailChimpConnection con = connection(transport, 2)) {
+			ModelIterator<Item> items = new ModelIterator<>(Item.class, ITEMS, con, 10);
+			Iterator<Item> it = items.iterator();
+			for (int i = 0; i < 5; i++) {
+				assertTrue(it.hasNext());
+				it.next();
+			}
+			items.close();
+			int remaining = 0;
+			while (it.hasNext()) {
+				it.next();
+				remaining++;
+			}
+			assertEquals(5, remaining);
+			assertFalse(it.hasNext());
+			assertTrue(transport.getRequestCount() <= 3);
+		}
+	}
+
+}
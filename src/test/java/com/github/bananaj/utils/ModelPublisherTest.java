@@ -0,0 +1,117 @@
+package com.github.bananaj.utils;
+
+import static com.github.bananaj.connection.TestConnections.connection;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import com.github.bananaj.connection.InMemoryTransport;
+import com.github.bananaj.connection.MailChimpConnection;
+import com.github.bananaj.utils.ModelIteratorTest.Item;
+
+public class ModelPublisherTest {
+
+	/**
+	 * Records what it receives and requests nothing by itself.
+	 */
+	static class Recorder implements PageSubscriber<Item> {
+		volatile PageSubscription subscription;
+		final List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+		volatile Throwable error;
+		volatile boolean complete;
+
+		@Override
+		public void onSubscribe(PageSubscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(Item item) {
+			ids.add(item.id);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			complete = true;
+		}
+	}
+
+	/**
+	 * Wait for pages parsed on the connection's callback executor, then give
+	 * any further page requests time to show.
+	 */
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(50);
+	}
+
+	@Test
+	public void testFetchesOnDemand() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> ModelIteratorTest.page(request, 95));
+		try (MailChimpConnection con = connection(transport, 0)) {
+			Recorder recorder = new Recorder();
+			new ModelPublisher<>(Item::new, "items", ModelIteratorTest.ITEMS, con, 10, 2).subscribe(recorder);
+			assertEquals(0, transport.getRequestCount());
+
+			recorder.subscription.request(5);
+			await(() -> recorder.ids.size() == 5);
+			assertEquals(5, recorder.ids.size());
+			assertEquals(1, transport.getRequestCount());
+
+			recorder.subscription.request(Long.MAX_VALUE);
+			await(() -> recorder.complete);
+			assertEquals(95, recorder.ids.size());
+			assertEquals(Integer.valueOf(94), recorder.ids.get(94));
+			assertEquals(10, transport.getRequestCount());
+			assertTrue(recorder.complete);
+		}
+	}
+
+	@Test
+	public void testHoldsAtMostMaxPages() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> ModelIteratorTest.page(request, 1000));
+		try (MailChimpConnection con = connection(transport, 0)) {
+			Recorder recorder = new Recorder();
+			new ModelPublisher<>(Item::new, "items", ModelIteratorTest.ITEMS, con, 10, 2).subscribe(recorder);
+			recorder.subscription.request(25);
+			await(() -> recorder.ids.size() == 25);
+			assertEquals(25, recorder.ids.size());
+			assertEquals(3, transport.getRequestCount());
+
+			recorder.subscription.cancel();
+			recorder.subscription.request(100);
+			Thread.sleep(50);
+			assertEquals(25, recorder.ids.size());
+			assertEquals(3, transport.getRequestCount());
+			assertFalse(recorder.complete);
+		}
+	}
+
+	@Test
+	public void testInvalidRequest() throws Exception {
+		InMemoryTransport transport = new InMemoryTransport().route("GET", "/3.0/items", request -> ModelIteratorTest.page(request, 10));
+		try (MailChimpConnection con = connection(transport, 0)) {
+			Recorder recorder = new Recorder();
+			new ModelPublisher<>(Item::new, "items", ModelIteratorTest.ITEMS, con).subscribe(recorder);
+			recorder.subscription.request(0);
+			await(() -> recorder.error != null);
+			assertTrue(recorder.error instanceof IllegalArgumentException);
+			assertEquals(0, transport.getRequestCount());
+		}
+	}
+
+}